@@ -0,0 +1,81 @@
+package netzplanerstellung;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Misst den Stapelbetrieb ohne Cache, mit leerem Cache (jede Datei ein Fehlschlag) und mit gefülltem
+ * Cache (jede Datei ein Treffer). Zuletzt wird ein Cache, der nur die Hälfte der Ergebnisse aufnehmen
+ * kann, zweimal durchlaufen, um die Verdrängung zu zeigen (bei einem zyklischen Durchlauf aller Dateien
+ * liefert LRU dabei erwartungsgemäß keine Treffer). Die Reports werden mit denen ohne Cache verglichen.
+ *
+ * Aufruf mit optionaler Anzahl an Dateien (Standard: 1.000) und Vorgängen je Datei (Standard: 5.000).
+ */
+public class CacheBenchmark {
+    private static final long MAX_PFADE = 100;
+
+    public static void main(String args []) throws Exception {
+        int anzahlDateien = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int anzahlVorgaenge = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        Path eingabe = Files.createTempDirectory("cache_in");
+        Path referenz = Files.createTempDirectory("cache_ref");
+        Path ausgabe = Files.createTempDirectory("cache_out");
+        Path ordner = Files.createTempDirectory("cache");
+        String [] formen = {"kette", "schichten", "raute", "viele"};
+        for (int i = 0; i < anzahlDateien; i++) {
+            new NetzplanGenerator(formen[i % formen.length], anzahlVorgaenge, 0, 3, i)
+                .schreibe(eingabe.resolve(String.format("plan_%05d.in", i)).toString());
+        }
+
+        // der erste Durchlauf dient dem Aufwärmen des JIT-Compilers
+        new StapelVerarbeitung(eingabe.toFile(), referenz.toFile(), MAX_PFADE, threads).ausfuehren();
+        System.out.println("Ohne Cache:");
+        StapelVerarbeitung ohne = new StapelVerarbeitung(eingabe.toFile(), referenz.toFile(), MAX_PFADE, threads);
+        ohne.ausfuehren();
+        ohne.schreibeZusammenfassung(System.out);
+
+        ErgebnisCache cache = new ErgebnisCache(ordner, Long.MAX_VALUE);
+        System.out.println("Leerer Cache:");
+        durchlauf(eingabe, ausgabe, referenz, cache, threads);
+        System.out.println("Gefüllter Cache:");
+        durchlauf(eingabe, ausgabe, referenz, cache, threads);
+
+        // ein neu geöffneter, zu kleiner Cache verdrängt beim Füllen die ältesten Einträge
+        long haelfte = cache.getGroesse() / 2;
+        ErgebnisCache klein = new ErgebnisCache(ordner, haelfte);
+        System.out.println("Cache mit halber Größe (zweimal durchlaufen):");
+        durchlauf(eingabe, ausgabe, referenz, klein, threads);
+        durchlauf(eingabe, ausgabe, referenz, klein, threads);
+
+        for (Path ordnerZumLoeschen: new Path [] {eingabe, referenz, ausgabe, ordner}) {
+            try (Stream<Path> dateien = Files.walk(ordnerZumLoeschen)) {
+                dateien.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static void durchlauf(Path eingabe, Path ausgabe, Path referenz, ErgebnisCache cache, int threads) throws Exception {
+        StapelVerarbeitung stapel = new StapelVerarbeitung(eingabe.toFile(), ausgabe.toFile(), MAX_PFADE, threads, cache);
+        stapel.ausfuehren();
+        stapel.schreibeFehler(System.err);
+        stapel.schreibeZusammenfassung(System.out);
+        if (stapel.getAnzahlFehler() != 0) {
+            throw new IllegalStateException("Fehlerhafte Dateien im Benchmark!");
+        }
+        try (Stream<Path> reports = Files.list(referenz)) {
+            for (Path report: (Iterable<Path>) reports::iterator) {
+                if (!Arrays.equals(Files.readAllBytes(report), Files.readAllBytes(ausgabe.resolve(report.getFileName())))) {
+                    throw new IllegalStateException("Der Report "+report.getFileName()+" weicht ab!");
+                }
+            }
+        }
+    }
+}
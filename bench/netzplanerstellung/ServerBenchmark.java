@@ -0,0 +1,81 @@
+package netzplanerstellung;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Misst Latenz und Durchsatz des Servers: die Eingabedateien der Testfälle werden wiederholt
+ * von mehreren Clients gleichzeitig gesendet.
+ *
+ * Aufruf mit optionalem Testfall-Ordner (Standard: testcases), Anzahl der Anfragen
+ * (Standard: 20.000) und Anzahl der Clients (Standard: 4).
+ */
+public class ServerBenchmark {
+    public static void main(String args []) throws Exception {
+        Path ordner = Path.of(args.length > 0 ? args[0] : "testcases");
+        int anzahlAnfragen = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int anzahlClients = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        List<byte []> plaene = new ArrayList<>();
+        try (var dateien = Files.list(ordner)) {
+            for (Path datei: (Iterable<Path>) dateien.filter(p -> p.toString().endsWith(".in")).sorted()::iterator) {
+                plaene.add(Files.readAllBytes(datei));
+            }
+        }
+
+        NetzplanServer server = new NetzplanServer(0, Runtime.getRuntime().availableProcessors());
+        server.starten();
+        URI adresse = URI.create("http://127.0.0.1:"+server.getPort()+"/netzplan");
+        HttpClient client = HttpClient.newHttpClient();
+
+        // die erste Runde dient dem Aufwärmen des JIT-Compilers
+        long [] latenzen = new long [anzahlAnfragen];
+        sende(client, adresse, plaene, latenzen, anzahlClients);
+        long start = System.nanoTime();
+        sende(client, adresse, plaene, latenzen, anzahlClients);
+        long dauer = System.nanoTime() - start;
+        server.beenden();
+
+        Arrays.sort(latenzen);
+        System.out.println(anzahlAnfragen+" Anfragen, "+anzahlClients+" Clients, "+plaene.size()+" verschiedene Pläne");
+        System.out.println("Anfragen/s: "+String.format("%.1f", anzahlAnfragen / (dauer / 1e9))+
+                           ", Latenz p50: "+String.format("%.2f", latenzen[anzahlAnfragen / 2] / 1e6)+" ms"+
+                           ", p99: "+String.format("%.2f", latenzen[anzahlAnfragen * 99 / 100] / 1e6)+" ms");
+    }
+
+    private static void sende(HttpClient client, URI adresse, List<byte []> plaene, long [] latenzen,
+                              int anzahlClients) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(anzahlClients);
+        List<Future<?>> auftraege = new ArrayList<>();
+        for (int c = 0; c < anzahlClients; c++) {
+            final int erster = c;
+            auftraege.add(clients.submit(() -> {
+                for (int i = erster; i < latenzen.length; i += anzahlClients) {
+                    HttpRequest anfrage = HttpRequest.newBuilder(adresse)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(plaene.get(i % plaene.size()))).build();
+                    long start = System.nanoTime();
+                    HttpResponse<byte []> antwort = client.send(anfrage, HttpResponse.BodyHandlers.ofByteArray());
+                    latenzen[i] = System.nanoTime() - start;
+                    if (antwort.statusCode() != 200 && antwort.statusCode() != 422) {
+                        throw new IllegalStateException("Unerwartete Antwort "+antwort.statusCode());
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> auftrag: auftraege) {
+            auftrag.get();
+        }
+        clients.shutdown();
+    }
+}
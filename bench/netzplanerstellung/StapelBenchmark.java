@@ -0,0 +1,88 @@
+package netzplanerstellung;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Misst den Durchsatz des Stapelbetriebs auf vielen kleinen Netzplänen bei steigender Anzahl an Threads.
+ * Zum Vergleich: der Aufruf je Datei (run_testcases.ksh) benötigt allein für den Start der JVM
+ * einige zehn Millisekunden pro Datei.
+ *
+ * Aufruf mit optionaler Anzahl an Dateien (Standard: 5.000) und Vorgängen je Datei (Standard: 200).
+ * Da die Pläne sehr viele kritische Pfade enthalten, werden je Report höchstens MAX_PFADE ausgegeben.
+ */
+public class StapelBenchmark {
+    private static final long MAX_PFADE = 100;
+
+    public static void main(String args []) throws Exception {
+        int anzahlDateien = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int anzahlVorgaenge = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        File eingabe = Files.createTempDirectory("stapel_in").toFile();
+        File ausgabe = Files.createTempDirectory("stapel_out").toFile();
+        Random zufall = new Random(42);
+        for (int i = 0; i < anzahlDateien; i++) {
+            schreibePlan(new File(eingabe, String.format("plan_%05d.in", i)), anzahlVorgaenge, zufall);
+        }
+
+        int prozessoren = Runtime.getRuntime().availableProcessors();
+        // der erste Durchlauf dient dem Aufwärmen des JIT-Compilers
+        new StapelVerarbeitung(eingabe, ausgabe, MAX_PFADE, 1).ausfuehren();
+        for (int threads = 1; threads <= Math.max(prozessoren, 1); threads *= 2) {
+            StapelVerarbeitung stapel = new StapelVerarbeitung(eingabe, ausgabe, MAX_PFADE, threads);
+            stapel.ausfuehren();
+            stapel.schreibeFehler(System.err);
+            stapel.schreibeZusammenfassung(System.out);
+            if (stapel.getAnzahlFehler() != 0) {
+                throw new IllegalStateException("Fehlerhafte Dateien im Benchmark!");
+            }
+        }
+
+        for (File datei: eingabe.listFiles()) {
+            datei.delete();
+        }
+        for (File datei: ausgabe.listFiles()) {
+            datei.delete();
+        }
+        eingabe.delete();
+        ausgabe.delete();
+    }
+
+    /**
+     * Ein Startvorgang, danach eine Kette von Vorgängen, die jeweils einen zufälligen früheren Vorgang
+     * als zusätzlichen Vorgänger haben können.
+     */
+    private static void schreibePlan(File datei, int anzahl, Random zufall) throws IOException {
+        StringBuilder [] vorgaenger = new StringBuilder [anzahl + 1];
+        StringBuilder [] nachfolger = new StringBuilder [anzahl + 1];
+        for (int v = 1; v <= anzahl; v++) {
+            vorgaenger[v] = new StringBuilder();
+            nachfolger[v] = new StringBuilder();
+        }
+        for (int v = 2; v <= anzahl; v++) {
+            verbinde(vorgaenger, nachfolger, v - 1, v);
+            int zusaetzlich = 1 + zufall.nextInt(v - 1);
+            if (zusaetzlich < v - 1 && zufall.nextBoolean()) {
+                verbinde(vorgaenger, nachfolger, zusaetzlich, v);
+            }
+        }
+
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(datei))) {
+            bw.write("//+ Synthetischer Netzplan\n");
+            for (int v = 1; v <= anzahl; v++) {
+                bw.write(v+"; Vorgang "+v+"; "+(1 + zufall.nextInt(20))+"; "+
+                         (vorgaenger[v].length() == 0 ? "-" : vorgaenger[v])+"; "+
+                         (nachfolger[v].length() == 0 ? "-" : nachfolger[v])+"\n");
+            }
+        }
+    }
+
+    private static void verbinde(StringBuilder [] vorgaenger, StringBuilder [] nachfolger, int von, int nach) {
+        vorgaenger[nach].append(vorgaenger[nach].length() == 0 ? "" : ",").append(von);
+        nachfolger[von].append(nachfolger[von].length() == 0 ? "" : ",").append(nach);
+    }
+}
@@ -0,0 +1,125 @@
+package netzplanerstellung.datenhaltung;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Vergleicht den Durchsatz (MB/s) des zeilenweisen Einlesens über BufferedReader
+ * mit dem byteweisen Einlesen der speicherabgebildeten Datei.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 2.000.000, ca. 140 MB).
+ * Die Speicherabbildung liest ab mehr als einem Kern parallel; die Skalierung lässt sich über
+ * -Djava.util.concurrent.ForkJoinPool.common.parallelism=N messen.
+ */
+public class LeserBenchmark {
+    private static final int WIEDERHOLUNGEN = 3;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        File datei = File.createTempFile("netzplan", ".in");
+        datei.deleteOnExit();
+        schreibePlan(datei, anzahl, 1000, 3);
+        double megabyte = datei.length() / (1024.0 * 1024.0);
+
+        System.out.println("Datei: "+anzahl+" Vorgänge, "+String.format("%.1f", megabyte)+" MB, "+
+                           "Parallelität: "+ForkJoinPool.getCommonPoolParallelism());
+        System.out.println("Modus; Median [ms]; MB/s");
+
+        miss("BufferedReader", datei, false, megabyte);
+        miss("Speicherabbildung", datei, true, megabyte);
+    }
+
+    private static void miss(String modus, File datei, boolean speicherAbbildung, double megabyte) throws Exception {
+        long [] zeiten = new long [WIEDERHOLUNGEN];
+        for (int i = -1; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            VorgangLeser leser = new VorgangLeser(datei.getPath(), speicherAbbildung);
+            long dauer = System.nanoTime() - start;
+            if (leser.getTabelle().getAnzahl() == 0) {
+                throw new IllegalStateException("Keine Vorgänge gelesen!");
+            }
+            // der erste Durchlauf dient dem Aufwärmen des JIT-Compilers
+            if (i >= 0) {
+                zeiten[i] = dauer;
+            }
+        }
+        Arrays.sort(zeiten);
+        long median = zeiten[WIEDERHOLUNGEN/2];
+        System.out.println(modus+"; "+(median/1_000_000)+"; "+String.format("%.1f", megabyte / (median / 1e9)));
+    }
+
+    /**
+     * Schreibt einen geschichteten Netzplan im Eingabeformat: jeder Vorgang hat grad Nachfolger
+     * in der nächsten Schicht der Breite breite.
+     */
+    static void schreibePlan(File datei, int anzahl, int breite, int grad) throws IOException {
+        Random zufall = new Random(42);
+
+        // bestimme zunächst die Nachfolger, daraus ergeben sich die Vorgänger
+        int [][] nachfolger = new int [anzahl][];
+        int [] anzahlVorgaenger = new int [anzahl];
+        for (int v = 0; v < anzahl; v++) {
+            int schichtEnde = (v / breite + 1) * breite;
+            if (schichtEnde >= anzahl) {
+                nachfolger[v] = new int [0];
+                continue;
+            }
+            int naechsteBreite = Math.min(breite, anzahl - schichtEnde);
+            int [] kinder = new int [grad];
+            int k = 0;
+            kinder[k++] = schichtEnde + v % breite % naechsteBreite;
+            while (k < grad) {
+                int kind = schichtEnde + zufall.nextInt(naechsteBreite);
+                boolean doppelt = false;
+                for (int j = 0; j < k; j++) {
+                    doppelt |= kinder[j] == kind;
+                }
+                if (!doppelt) {
+                    kinder[k++] = kind;
+                }
+            }
+            nachfolger[v] = kinder;
+            for (int kind: kinder) {
+                anzahlVorgaenger[kind]++;
+            }
+        }
+        int [][] vorgaenger = new int [anzahl][];
+        for (int v = 0; v < anzahl; v++) {
+            vorgaenger[v] = new int [anzahlVorgaenger[v]];
+            anzahlVorgaenger[v] = 0;
+        }
+        for (int v = 0; v < anzahl; v++) {
+            for (int kind: nachfolger[v]) {
+                vorgaenger[kind][anzahlVorgaenger[kind]++] = v;
+            }
+        }
+
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(datei), 1 << 16)) {
+            bw.write("//+ Synthetischer Netzplan\n");
+            bw.write("//Vorgangsnummer; Vorgangsbezeichnung; Dauer; Vorgänger; Nachfolger\n");
+            for (int v = 0; v < anzahl; v++) {
+                bw.write((v+1)+"; Vorgang "+(v+1)+"; "+(1 + zufall.nextInt(20))+"; ");
+                schreibeListe(bw, vorgaenger[v]);
+                bw.write("; ");
+                schreibeListe(bw, nachfolger[v]);
+                bw.write("\n");
+            }
+        }
+    }
+
+    private static void schreibeListe(BufferedWriter bw, int [] liste) throws IOException {
+        if (liste.length == 0) {
+            bw.write("-");
+            return;
+        }
+        for (int i = 0; i < liste.length; i++) {
+            bw.write((liste[i]+1)+(i<liste.length-1?",":""));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.Netzplan;
+import netzplanerstellung.logik.Vorgang;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vergleicht das Schreiben des Reports über ReportPuffer und FileChannel mit dem bisherigen Verfahren
+ * (Vorgang.toString() und String-Verkettung je Zeile über einen BufferedWriter). Gemessen werden
+ * Durchsatz (MB/s) und die im Thread allokierten Bytes je Report; beide Ausgaben müssen Byte für Byte
+ * übereinstimmen.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 1.000.000), Form (Standard: schichten) und
+ * maximaler Anzahl kritischer Pfade (Standard: 100.000).
+ */
+public class ReportBenchmark {
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String form = args.length > 1 ? args[1] : "schichten";
+        long maxPfade = args.length > 2 ? Long.parseLong(args[2]) : 100_000;
+
+        File eingabe = File.createTempFile("netzplan", ".in");
+        File bisher = File.createTempFile("report_bisher", ".out");
+        File neu = File.createTempFile("report_neu", ".out");
+        eingabe.deleteOnExit();
+        bisher.deleteOnExit();
+        neu.deleteOnExit();
+        new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(eingabe.getPath());
+        VorgangLeser leser = new VorgangLeser(eingabe.getPath());
+        Netzplan plan = new Netzplan(leser.getTabelle());
+        String ueberschrift = leser.getUeberschrift();
+
+        long [][] bisherErgebnis = miss(() -> {
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(bisher))) {
+                schreibeReportBisher(plan, ueberschrift, bw, maxPfade);
+            }
+        });
+        long [][] neuErgebnis = miss(() -> new ProjektReport(neu.getPath(), maxPfade).erzeugeReport(plan, ueberschrift));
+
+        if (Files.mismatch(bisher.toPath(), neu.toPath()) != -1) {
+            throw new IllegalStateException("Die Reports unterscheiden sich!");
+        }
+
+        double megabyte = neu.length() / (1024.0 * 1024.0);
+        System.out.println(form+", "+anzahl+" Vorgänge, Report "+String.format("%.1f", megabyte)+" MB (Median aus "+WIEDERHOLUNGEN+")");
+        System.out.println("Verfahren; Median [ms]; MB/s; MB allokiert je Report");
+        ausgabe("Writer (bisher)", bisherErgebnis, megabyte);
+        ausgabe("ReportPuffer", neuErgebnis, megabyte);
+    }
+
+    private interface Report {
+        void schreibe() throws IOException;
+    }
+
+    /**
+     * Liefert je Wiederholung Laufzeit und allokierte Bytes, der erste Durchlauf dient dem Aufwärmen.
+     */
+    private static long [][] miss(Report report) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long [] zeiten = new long [WIEDERHOLUNGEN];
+        long [] bytes = new long [WIEDERHOLUNGEN];
+        for (int i = -1; i < WIEDERHOLUNGEN; i++) {
+            long allokiert = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            report.schreibe();
+            if (i >= 0) {
+                zeiten[i] = System.nanoTime() - start;
+                bytes[i] = threads.getCurrentThreadAllocatedBytes() - allokiert;
+            }
+        }
+        Arrays.sort(zeiten);
+        Arrays.sort(bytes);
+        return new long [][] {zeiten, bytes};
+    }
+
+    private static void ausgabe(String verfahren, long [][] ergebnis, double megabyte) {
+        long median = ergebnis[0][WIEDERHOLUNGEN / 2];
+        System.out.println(verfahren+"; "+(median / 1_000_000)+"; "+String.format("%.1f", megabyte / (median / 1e9))+"; "+
+                           String.format("%.1f", ergebnis[1][WIEDERHOLUNGEN / 2] / (1024.0 * 1024.0)));
+    }
+
+    /**
+     * Das bisherige Schreiben des Reports über einen Writer (als Vergleich).
+     */
+    private static void schreibeReportBisher(Netzplan plan, String ueberschrift, Writer bw, long maxKritischePfade) throws IOException {
+        String lineSep = System.getProperty("line.separator");
+        bw.write(ueberschrift+lineSep+lineSep);
+        bw.write("Vorgangsnummer; Vorgangsbezeichnung; D; FAZ; FEZ; SAZ; SEZ; GP; FP"+lineSep);
+        for (Vorgang aktVorgang: plan.getVorgaenge()) {
+            bw.write(aktVorgang.toString()+lineSep);
+        }
+        bw.write(lineSep);
+
+        bw.write("Anfangsvorgang: ");
+        List<Vorgang> anfangsVorgaenge = plan.getStartVorgaenge();
+        for (int i=0; i<anfangsVorgaenge.size(); i++) {
+            bw.write(anfangsVorgaenge.get(i).getNummer()+(i<anfangsVorgaenge.size()-1?",":""));
+        }
+        bw.write(lineSep);
+
+        bw.write("Endvorgang: ");
+        List<Vorgang> endVorgaenge = plan.getEndVorgaenge();
+        for (int i=0; i<endVorgaenge.size(); i++) {
+            bw.write(endVorgaenge.get(i).getNummer()+(i<endVorgaenge.size()-1?",":""));
+        }
+        bw.write(lineSep);
+
+        int dauer = plan.getDauer();
+        bw.write("Gesamtdauer: ");
+        if (dauer == -1) {
+            bw.write("Nicht eindeutig");
+        } else {
+            bw.write(dauer+"");
+        }
+        bw.write(lineSep+lineSep);
+
+        BigInteger anzahlPfade = plan.getAnzahlKritischePfade();
+        bw.write((anzahlPfade.compareTo(BigInteger.ONE)<=0?"Kritischer Pfad":"Kritische Pfade"));
+        if (anzahlPfade.compareTo(BigInteger.valueOf(maxKritischePfade)) > 0) {
+            bw.write(" ("+anzahlPfade+", davon die ersten "+maxKritischePfade+" aufgeführt)");
+        }
+        bw.write(lineSep);
+        plan.besucheKritischePfade((pfad, laenge) -> {
+            for (int i = 0; i < laenge; i++) {
+                bw.write(pfad[i]+(i<laenge-1?"->":""));
+            }
+            bw.write(lineSep);
+        }, maxKritischePfade);
+    }
+}
@@ -0,0 +1,89 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Vergleicht einzelne Änderungen an einem fertigen Netzplan (Dauer ändern, Abhängigkeit hinzufügen
+ * und wieder entfernen) mit dem vollständigen Neuaufbau des Netzplans.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 200.000) in Schichten der Breite 1000,
+ * jeder Vorgang hat drei Nachfolger in der nächsten Schicht (siehe NetzplanGenerator).
+ */
+public class AenderungBenchmark {
+    private static final int BREITE = 1000;
+    private static final int GRAD = 3;
+    private static final int AENDERUNGEN = 2000;
+    private static final int NEUAUFBAUTEN = 5;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random zufall = new Random(42);
+        File datei = File.createTempFile("netzplan", ".in");
+        datei.deleteOnExit();
+        new NetzplanGenerator("schichten", anzahl, BREITE, GRAD, 42).schreibe(datei.getPath());
+        VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+        datei.delete();
+
+        // Neuaufbau auf einer Kopie der Tabelle
+        long [] neuaufbau = new long [NEUAUFBAUTEN];
+        for (int i = -1; i < NEUAUFBAUTEN; i++) {
+            VorgangTabelle kopie = VorgangTabelle.verbinde(List.of(tabelle));
+            long start = System.nanoTime();
+            new Netzplan(kopie);
+            // der erste Durchlauf dient dem Aufwärmen des JIT-Compilers
+            if (i >= 0) {
+                neuaufbau[i] = System.nanoTime() - start;
+            }
+        }
+
+        Netzplan plan = new Netzplan(tabelle);
+        long [] dauer = new long [AENDERUNGEN];
+        long [] hinzufuegen = new long [AENDERUNGEN];
+        long [] entfernen = new long [AENDERUNGEN];
+        for (int i = -AENDERUNGEN; i < AENDERUNGEN; i++) {
+            int nummer = 1 + zufall.nextInt(anzahl);
+            long start = System.nanoTime();
+            plan.setDauer(nummer, 1 + zufall.nextInt(20));
+            long geaendert = System.nanoTime();
+
+            // eine Abhängigkeit in eine spätere Schicht kann keinen Zyklus erzeugen
+            int schicht = zufall.nextInt(anzahl / BREITE - 2);
+            int von = 1 + schicht * BREITE + zufall.nextInt(BREITE);
+            int nach = 1 + (schicht + 2) * BREITE + zufall.nextInt(BREITE);
+            long vorHinzufuegen = System.nanoTime();
+            plan.addAbhaengigkeit(von, nach);
+            long hinzugefuegt = System.nanoTime();
+            plan.removeAbhaengigkeit(von, nach);
+            long entfernt = System.nanoTime();
+
+            // die erste Hälfte der Änderungen dient dem Aufwärmen
+            if (i >= 0) {
+                dauer[i] = geaendert - start;
+                hinzufuegen[i] = hinzugefuegt - vorHinzufuegen;
+                entfernen[i] = entfernt - hinzugefuegt;
+            }
+        }
+
+        Arrays.sort(neuaufbau);
+        System.out.println("Netzplan: "+anzahl+" Vorgänge, Neuaufbau (Median): "+
+                           String.format("%.1f", neuaufbau[NEUAUFBAUTEN/2] / 1e6)+" ms");
+        System.out.println("Änderung; Median [µs]; p99 [µs]; Anteil am Neuaufbau");
+        ausgeben("setDauer", dauer, neuaufbau[NEUAUFBAUTEN/2]);
+        ausgeben("addAbhaengigkeit", hinzufuegen, neuaufbau[NEUAUFBAUTEN/2]);
+        ausgeben("removeAbhaengigkeit", entfernen, neuaufbau[NEUAUFBAUTEN/2]);
+    }
+
+    private static void ausgeben(String art, long [] zeiten, long neuaufbau) {
+        Arrays.sort(zeiten);
+        long median = zeiten[zeiten.length/2];
+        long p99 = zeiten[zeiten.length * 99 / 100];
+        System.out.println(art+"; "+String.format("%.1f", median / 1e3)+"; "+String.format("%.1f", p99 / 1e3)+"; "+
+                           String.format("1/%d", neuaufbau / Math.max(median, 1)));
+    }
+}
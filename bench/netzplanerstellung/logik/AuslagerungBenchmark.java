@@ -0,0 +1,81 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.ProjektReport;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Vergleicht die Verarbeitung eines Netzplans (Einlesen, Berechnung und Report) auf dem Heap mit der
+ * ausgelagerten Verarbeitung über AusgelagerteTabelle und AusgelagerterNetzplan. Gemessen werden die
+ * Laufzeit und der nach der Berechnung belegte Heap; beide Reports müssen Byte für Byte übereinstimmen.
+ * Für Netzpläne, die nicht auf den Heap passen, kann der Vergleich mit "ausgelagert" übersprungen werden,
+ * z.B. ant benchmark -Dbenchmark=netzplanerstellung.logik.AuslagerungBenchmark -Dbenchmark-args="10000000 ausgelagert" -Dbenchmark-heap=64m
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 1.000.000) und optional "ausgelagert".
+ *
+ * Beide Verfahren durchlaufen dieselben Phasen (siehe Speicher), die zweite Berechnung in derselben JVM
+ * trifft daher auf Code, der für HeapFeld übersetzt wurde, und ist deutlich langsamer. Die Laufzeit der
+ * ausgelagerten Berechnung ist deshalb mit "ausgelagert" in einer eigenen JVM zu messen.
+ */
+public class AuslagerungBenchmark {
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean nurAusgelagert = args.length > 1 && args[1].equals("ausgelagert");
+
+        File eingabe = File.createTempFile("netzplan", ".in");
+        File heap = File.createTempFile("report_heap", ".out");
+        File ausgelagert = File.createTempFile("report_ausgelagert", ".out");
+        eingabe.deleteOnExit();
+        heap.deleteOnExit();
+        ausgelagert.deleteOnExit();
+        Path ordner = Files.createTempDirectory("auslagerung");
+        ordner.toFile().deleteOnExit();
+        new NetzplanGenerator("schichten", anzahl, 0, 3, 42).schreibe(eingabe.getPath());
+
+        System.out.println("schichten, "+anzahl+" Vorgänge, maximaler Heap "+
+                           (Runtime.getRuntime().maxMemory() / (1024 * 1024))+" MB");
+        System.out.println("Verfahren; Einlesen [ms]; Berechnung [ms]; Report [ms]; Heap belegt [MB]");
+        if (!nurAusgelagert) {
+            long start = System.nanoTime();
+            VorgangLeser leser = new VorgangLeser(eingabe.getPath());
+            long eingelesen = System.nanoTime();
+            Netzplan plan = new Netzplan(leser.getTabelle());
+            long berechnet = System.nanoTime();
+            long belegt = belegterHeap();
+            new ProjektReport(heap.getPath(), 100).erzeugeReport(plan, leser.getUeberschrift());
+            ausgabe("Heap", start, eingelesen, berechnet, System.nanoTime(), belegt);
+            leser = null;
+            plan = null;
+        }
+
+        long start = System.nanoTime();
+        VorgangLeser leser = new VorgangLeser(eingabe.getPath(), ordner);
+        long eingelesen = System.nanoTime();
+        try (AusgelagerteTabelle tabelle = leser.getAusgelagerteTabelle();
+             AusgelagerterNetzplan plan = new AusgelagerterNetzplan(tabelle)) {
+            long berechnet = System.nanoTime();
+            long belegt = belegterHeap();
+            new ProjektReport(ausgelagert.getPath(), 100).erzeugeReport(plan, leser.getUeberschrift());
+            ausgabe("Ausgelagert", start, eingelesen, berechnet, System.nanoTime(), belegt);
+        }
+
+        if (!nurAusgelagert && Files.mismatch(heap.toPath(), ausgelagert.toPath()) != -1) {
+            throw new IllegalStateException("Die Reports unterscheiden sich!");
+        }
+    }
+
+    private static long belegterHeap() {
+        Runtime laufzeit = Runtime.getRuntime();
+        System.gc();
+        return laufzeit.totalMemory() - laufzeit.freeMemory();
+    }
+
+    private static void ausgabe(String verfahren, long start, long eingelesen, long berechnet, long ende, long belegt) {
+        System.out.println(verfahren+"; "+(eingelesen - start) / 1_000_000+"; "+(berechnet - eingelesen) / 1_000_000+"; "+
+                           (ende - berechnet) / 1_000_000+"; "+String.format("%.1f", belegt / (1024.0 * 1024.0)));
+    }
+}
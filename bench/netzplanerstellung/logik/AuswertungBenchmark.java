@@ -0,0 +1,79 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Misst die Erstellung eines Netzplans je Auswertungsstufe (nur Prüfung, Vorwärtsrechnung, vollständig)
+ * sowie den ersten und einen wiederholten Aufruf von getAnzahlKritischePfade und getKritischePfade, die
+ * bis zur nächsten Änderung zwischengespeichert werden (die Pfade selbst auf einem Plan mit 10.000 Vorgängen).
+ * Ausgegeben wird jeweils der Median.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 1.000.000).
+ */
+public class AuswertungBenchmark {
+    private static final int WIEDERHOLUNGEN = 9;
+    private static final int PFAD_VORGAENGE = 10_000;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println(anzahl+" Vorgänge (Median aus "+WIEDERHOLUNGEN+")");
+        System.out.println("Form; Prüfung [ms]; Vorwärts [ms]; Vollständig [ms]; Pfade zählen [ms]; erneut [ms]; "+
+                           "Pfade ("+PFAD_VORGAENGE+" Vorgänge) [ms]; erneut [ms]");
+        for (String form: new String [] {"kette", "schichten", "faecher"}) {
+            File datei = File.createTempFile("netzplan", ".in");
+            datei.deleteOnExit();
+            new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(datei.getPath());
+            VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+
+            StringBuilder zeile = new StringBuilder(form);
+            for (Netzplan.Auswertung auswertung: Netzplan.Auswertung.values()) {
+                long [] zeiten = new long [WIEDERHOLUNGEN];
+                for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+                    long start = System.nanoTime();
+                    new Netzplan(tabelle, auswertung);
+                    zeiten[i] = System.nanoTime() - start;
+                }
+                zeile.append("; ").append(median(zeiten));
+            }
+
+            // der erste Aufruf berechnet, der zweite liefert das zwischengespeicherte Ergebnis
+            long [] erster = new long [WIEDERHOLUNGEN];
+            long [] erneut = new long [WIEDERHOLUNGEN];
+            long [] pfadeErster = new long [WIEDERHOLUNGEN];
+            long [] pfadeErneut = new long [WIEDERHOLUNGEN];
+            // die Pfade selbst werden auf einem kleineren Plan aufgezählt, ihre Anzahl kann sehr groß werden
+            new NetzplanGenerator(form, PFAD_VORGAENGE, 0, 3, 42).schreibe(datei.getPath());
+            VorgangTabelle pfadTabelle = new VorgangLeser(datei.getPath()).getTabelle();
+            for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+                Netzplan plan = new Netzplan(tabelle);
+                long start = System.nanoTime();
+                plan.getAnzahlKritischePfade();
+                erster[i] = System.nanoTime() - start;
+                start = System.nanoTime();
+                plan.getAnzahlKritischePfade();
+                erneut[i] = System.nanoTime() - start;
+
+                Netzplan pfadPlan = new Netzplan(pfadTabelle);
+                start = System.nanoTime();
+                pfadPlan.getKritischePfade();
+                pfadeErster[i] = System.nanoTime() - start;
+                start = System.nanoTime();
+                pfadPlan.getKritischePfade();
+                pfadeErneut[i] = System.nanoTime() - start;
+            }
+            zeile.append("; ").append(median(erster)).append("; ").append(median(erneut));
+            zeile.append("; ").append(median(pfadeErster)).append("; ").append(median(pfadeErneut));
+            System.out.println(zeile);
+        }
+    }
+
+    private static String median(long [] zeiten) {
+        Arrays.sort(zeiten);
+        return String.format("%.3f", zeiten[zeiten.length / 2] / 1e6);
+    }
+}
@@ -0,0 +1,124 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Misst die Konsistenzprüfung der Vorgänger- und Nachfolgerangaben auf Netzplänen mit Meilensteinen
+ * hohen Eingangsgrads: Auf einen Startvorgang folgen breite parallele Vorgänge, die alle in jeden
+ * der Meilensteine münden, danach folgt ein Endvorgang.
+ *
+ * Verglichen wird die frühere Prüfung (Suche in der Liste der Gegenrichtung, O(Grad) je Kante)
+ * mit dem Aufbau des gesamten Netzplans. Zusätzlich wird das Einlesen der Datei gemessen,
+ * bei dem die Listen auf doppelte Einträge geprüft werden.
+ */
+public class KonsistenzBenchmark {
+    private static final int WIEDERHOLUNGEN = 3;
+    private static final int MEILENSTEINE = 4;
+    // größte Breite, für die die frühere Prüfung noch gemessen wird
+    private static final int REFERENZ_BIS = 20000;
+
+    public static void main(String args []) throws Exception {
+        System.out.println("Breite; Kanten; frühere Prüfung [ms]; Netzplan gesamt [ms]; Einlesen [ms]");
+
+        for (int breite: new int [] {1000, 5000, 20000, 100000, 500000}) {
+            miss(breite);
+        }
+    }
+
+    private static void miss(int breite) throws Exception {
+        File datei = File.createTempFile("meilensteine", ".in");
+        datei.deleteOnExit();
+        schreibePlan(datei, breite);
+
+        long [] zeitenAlt = new long [WIEDERHOLUNGEN];
+        long [] zeitenNetzplan = new long [WIEDERHOLUNGEN];
+        long [] zeitenLesen = new long [WIEDERHOLUNGEN];
+        for (int i = -1; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+            long gelesen = System.nanoTime();
+            Netzplan plan = new Netzplan(tabelle);
+            long erstellt = System.nanoTime();
+            if (breite <= REFERENZ_BIS) {
+                pruefeWieFrueher(tabelle);
+            }
+            long geprueft = System.nanoTime();
+
+            if (plan.getDauer() != 1 + 2 + 3 + 4) {
+                throw new IllegalStateException("Unerwartete Projektdauer "+plan.getDauer());
+            }
+
+            // der erste Durchlauf dient dem Aufwärmen des JIT-Compilers
+            if (i >= 0) {
+                zeitenLesen[i] = gelesen - start;
+                zeitenNetzplan[i] = erstellt - gelesen;
+                zeitenAlt[i] = geprueft - erstellt;
+            }
+        }
+        datei.delete();
+
+        Arrays.sort(zeitenAlt);
+        Arrays.sort(zeitenNetzplan);
+        Arrays.sort(zeitenLesen);
+        long anzahlKanten = (long) breite * (1 + MEILENSTEINE) + MEILENSTEINE;
+        System.out.println(breite+"; "+anzahlKanten+"; "+
+                           (breite <= REFERENZ_BIS ? String.format("%.1f", zeitenAlt[WIEDERHOLUNGEN/2] / 1e6) : "-")+"; "+
+                           String.format("%.1f", zeitenNetzplan[WIEDERHOLUNGEN/2] / 1e6)+"; "+
+                           String.format("%.1f", zeitenLesen[WIEDERHOLUNGEN/2] / 1e6));
+    }
+
+    /**
+     * Die frühere Prüfung: jede Kante wird in der Liste der Gegenrichtung gesucht.
+     */
+    private static void pruefeWieFrueher(VorgangTabelle tabelle) {
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            int nummer = tabelle.getNummer(zeile);
+            for (int i = tabelle.getNachfolgerAnfang(zeile); i < tabelle.getNachfolgerEnde(zeile); i++) {
+                if (!tabelle.hatVorgaenger(tabelle.getZeile(tabelle.getNachfolger(i)), nummer)) {
+                    throw new IllegalStateException("Inkonsistente Beziehung!");
+                }
+            }
+            for (int i = tabelle.getVorgaengerAnfang(zeile); i < tabelle.getVorgaengerEnde(zeile); i++) {
+                if (!tabelle.hatNachfolger(tabelle.getZeile(tabelle.getVorgaenger(i)), nummer)) {
+                    throw new IllegalStateException("Inkonsistente Beziehung!");
+                }
+            }
+        }
+    }
+
+    /**
+     * Vorgang 1 ist der Start (Dauer 1), die Vorgänge 2..breite+1 laufen parallel (Dauer 2),
+     * danach folgen die Meilensteine (Dauer 3) und der Endvorgang (Dauer 4).
+     */
+    private static void schreibePlan(File datei, int breite) throws IOException {
+        int ersterMeilenstein = breite + 2;
+        int ende = ersterMeilenstein + MEILENSTEINE;
+
+        StringBuilder parallele = new StringBuilder();
+        for (int v = 2; v < ersterMeilenstein; v++) {
+            parallele.append(v).append(v < ersterMeilenstein - 1 ? "," : "");
+        }
+        StringBuilder meilensteine = new StringBuilder();
+        for (int m = ersterMeilenstein; m < ende; m++) {
+            meilensteine.append(m).append(m < ende - 1 ? "," : "");
+        }
+
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(datei), 1 << 16)) {
+            bw.write("//+ Meilensteine mit Eingangsgrad "+breite+"\n");
+            bw.write("1; Start; 1; -; "+parallele+"\n");
+            for (int v = 2; v < ersterMeilenstein; v++) {
+                bw.write(v+"; Arbeitspaket "+v+"; 2; 1; "+meilensteine+"\n");
+            }
+            for (int m = ersterMeilenstein; m < ende; m++) {
+                bw.write(m+"; Meilenstein "+m+"; 3; "+parallele+"; "+ende+"\n");
+            }
+            bw.write(ende+"; Ende; 4; "+meilensteine+"; -\n");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Misst den Aufwand der Messung der Phasen (siehe Messung): Aufbau des Netzplans und Besuch der kritischen
+ * Pfade werden abwechselnd ohne Messung und mit einem (leeren) Protokoll wiederholt. Der Aufwand bei
+ * laufender JFR-Aufzeichnung lässt sich durch Aufruf mit -XX:StartFlightRecording bestimmen, dann
+ * messen beide Spalten mit Aufzeichnung.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 200.000).
+ */
+public class MessungBenchmark {
+    private static final int WIEDERHOLUNGEN = 15;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Messung.Protokoll leer = (phase, dauer, vorgaenge, kanten, ergebnisse, schritte, maximum) -> { };
+
+        System.out.println(anzahl+" Vorgänge (Median aus "+WIEDERHOLUNGEN+")");
+        System.out.println("Form; ohne Messung [ms]; mit Messung [ms]; Aufwand [%]");
+        for (String form: new String [] {"schichten", "kette", "faecher"}) {
+            File datei = File.createTempFile("netzplan", ".in");
+            datei.deleteOnExit();
+            new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(datei.getPath());
+            VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+
+            // Aufwärmen des JIT-Compilers in beiden Varianten
+            for (int i = 0; i < 3; i++) {
+                Messung.setProtokoll(null);
+                durchlauf(tabelle);
+                Messung.setProtokoll(leer);
+                durchlauf(tabelle);
+            }
+
+            long [] ohne = new long [WIEDERHOLUNGEN];
+            long [] mit = new long [WIEDERHOLUNGEN];
+            for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+                Messung.setProtokoll(null);
+                ohne[i] = durchlauf(tabelle);
+                Messung.setProtokoll(leer);
+                mit[i] = durchlauf(tabelle);
+            }
+            Messung.setProtokoll(null);
+            Arrays.sort(ohne);
+            Arrays.sort(mit);
+            long medianOhne = ohne[WIEDERHOLUNGEN / 2];
+            long medianMit = mit[WIEDERHOLUNGEN / 2];
+            System.out.println(form+"; "+String.format("%.2f", medianOhne / 1e6)+"; "+String.format("%.2f", medianMit / 1e6)+
+                               "; "+String.format("%.1f", 100.0 * (medianMit - medianOhne) / medianOhne));
+        }
+    }
+
+    private static long durchlauf(VorgangTabelle tabelle) throws NetzplanException {
+        long start = System.nanoTime();
+        Netzplan plan = new Netzplan(tabelle);
+        plan.besucheKritischePfade((pfad, laenge) -> { }, 1000);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,207 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.ProjektReport;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Misst die einzelnen Phasen der Netzplanerstellung getrennt, jeweils für mehrere Formen und Größen
+ * von Netzplänen: Einlesen, Aufbau der Adjazenzen (mit Konsistenzprüfung), Zusammenhangsprüfung,
+ * Zyklenprüfung, topologische Ordnung, Vorwärts- und Rückwärtsrechnung, kritische Pfade und Report.
+ * Die Prüfungen werden über ihren Kern gemessen (erreichbareKnoten, findeZyklischeKomponenten),
+ * der Rest erzeugt nur die Fehlermeldungen.
+ *
+ * Je Messung wird zunächst aufgewärmt, danach wird wiederholt, bis MESSZEIT verstrichen ist
+ * (mindestens MIN_WIEDERHOLUNGEN Mal). Ausgegeben werden Median und Minimum der Laufzeit sowie die
+ * im messenden Thread allokierten Bytes je Durchlauf. Die Ergebnisse werden als CSV gespeichert,
+ * zwei solche Dateien lassen sich vergleichen, um Regressionen zwischen Versionen zu erkennen.
+ *
+ * Aufruf: [Größen, z.B. 10000,100000] [Ergebnisdatei]
+ *     bzw. vergleich alt.csv neu.csv
+ */
+public class PhasenBenchmark {
+    private static final long AUFWAERMZEIT = 500_000_000L;
+    private static final long MESSZEIT = 1_000_000_000L;
+    private static final int MIN_WIEDERHOLUNGEN = 5;
+    private static final int MAX_WIEDERHOLUNGEN = 200;
+    // höchstens so viele kritische Pfade werden aufgezählt bzw. ausgegeben
+    private static final long MAX_PFADE = 10_000;
+    // ab dieser Verlangsamung wird ein Ergebnis im Vergleich markiert
+    private static final double TOLERANZ = 1.10;
+
+    private static final String [] FORMEN = {"kette", "schichten", "meilensteine"};
+
+    // verhindert, dass der JIT-Compiler unbenutzte Ergebnisse wegoptimiert
+    private static long senke;
+
+    private interface Phase {
+        Object ausfuehren() throws Exception;
+    }
+
+    public static void main(String args []) throws Exception {
+        if (args.length > 0 && args[0].equals("vergleich")) {
+            vergleiche(new File(args[1]), new File(args[2]));
+            return;
+        }
+
+        int [] groessen = {10_000, 100_000, 1_000_000};
+        if (args.length > 0) {
+            groessen = Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray();
+        }
+        File ergebnisDatei = new File(args.length > 1 ? args[1] :
+            "bench/ergebnisse/phasen_"+new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date())+".csv");
+        ergebnisDatei.getAbsoluteFile().getParentFile().mkdirs();
+
+        try (PrintWriter ergebnisse = new PrintWriter(new FileWriter(ergebnisDatei))) {
+            ergebnisse.println("# Java "+System.getProperty("java.version")+", "+
+                               Runtime.getRuntime().availableProcessors()+" Prozessoren");
+            ergebnisse.println("Phase;Form;Vorgänge;Median [ms];Minimum [ms];Bytes je Durchlauf;Wiederholungen");
+            System.out.println("Phase; Form; Vorgänge; Median [ms]; Minimum [ms]; MB je Durchlauf");
+            for (String form: FORMEN) {
+                for (int anzahl: groessen) {
+                    missPhasen(form, anzahl, ergebnisse);
+                }
+            }
+        }
+        System.out.println("Ergebnisse gespeichert in "+ergebnisDatei);
+    }
+
+    private static void missPhasen(String form, int anzahl, PrintWriter ergebnisse) throws Exception {
+        File eingabe = File.createTempFile("phasen", ".in");
+        File ausgabe = File.createTempFile("phasen", ".out");
+        eingabe.deleteOnExit();
+        ausgabe.deleteOnExit();
+        erzeugeGenerator(form, anzahl).schreibe(eingabe.getPath());
+        VorgangTabelle tabelle = new VorgangLeser(eingabe.getPath()).getTabelle();
+
+        // die Zwischenergebnisse der Phasen dienen den folgenden Phasen als Eingabe
+        Graph graph = Netzplan.erzeugeAdjazenzen(tabelle);
+        int [] ordnung = Netzplan.bestimmeTopologischeOrdnung(graph);
+        Netzplan plan = new Netzplan(tabelle);
+
+        Map<String, Phase> phasen = new LinkedHashMap<>();
+        phasen.put("VorgangLeser", () -> new VorgangLeser(eingabe.getPath()).getTabelle());
+        phasen.put("erzeugeAdjazenzen", () -> Netzplan.erzeugeAdjazenzen(tabelle));
+        phasen.put("istZusammenhaengend", () -> Netzplan.erreichbareKnoten(graph, 0));
+        phasen.put("istZyklenfrei", () -> Netzplan.findeZyklischeKomponenten(graph));
+        phasen.put("topologischeOrdnung", () -> Netzplan.bestimmeTopologischeOrdnung(graph));
+        phasen.put("vorwaertsRechnung", () -> {
+            Netzplan.vorwaertsRechnung(graph, ordnung, tabelle.getDauerSpalte(), tabelle.getFAZSpalte(), tabelle.getFEZSpalte());
+            return tabelle.getFEZSpalte();
+        });
+        phasen.put("rueckwaertsRechnung", () -> {
+            Netzplan.rueckwaertsRechnung(graph, ordnung, tabelle.getDauerSpalte(), tabelle.getFEZSpalte(),
+                                         tabelle.getSAZSpalte(), tabelle.getSEZSpalte());
+            return tabelle.getSAZSpalte();
+        });
+        phasen.put("kritischePfade", () -> {
+            long [] laenge = new long [1];
+            plan.besucheKritischePfade((pfad, n) -> laenge[0] += n, MAX_PFADE);
+            return laenge[0];
+        });
+        phasen.put("ProjektReport", () -> {
+            new ProjektReport(ausgabe.getPath(), MAX_PFADE).erzeugeReport(plan, "Phasen");
+            return ausgabe.length();
+        });
+
+        for (Map.Entry<String, Phase> phase: phasen.entrySet()) {
+            long [] messung = miss(phase.getValue());
+            System.out.println(phase.getKey()+"; "+form+"; "+anzahl+"; "+String.format("%.3f", messung[0] / 1e6)+"; "+
+                               String.format("%.3f", messung[1] / 1e6)+"; "+String.format("%.2f", messung[2] / 1e6));
+            ergebnisse.println(phase.getKey()+";"+form+";"+anzahl+";"+String.format("%.3f", messung[0] / 1e6)+";"+
+                               String.format("%.3f", messung[1] / 1e6)+";"+messung[2]+";"+messung[3]);
+            ergebnisse.flush();
+        }
+        eingabe.delete();
+        ausgabe.delete();
+    }
+
+    /**
+     * Liefert Median und Minimum der Laufzeit [ns], die allokierten Bytes je Durchlauf und die Anzahl der Durchläufe.
+     */
+    private static long [] miss(Phase phase) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long ende = System.nanoTime() + AUFWAERMZEIT;
+        for (int i = 0; i < MIN_WIEDERHOLUNGEN || System.nanoTime() < ende; i++) {
+            senke += phase.ausfuehren().hashCode();
+        }
+
+        long [] zeiten = new long [MAX_WIEDERHOLUNGEN];
+        int anzahl = 0;
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        ende = System.nanoTime() + MESSZEIT;
+        while (anzahl < MAX_WIEDERHOLUNGEN && (anzahl < MIN_WIEDERHOLUNGEN || System.nanoTime() < ende)) {
+            long start = System.nanoTime();
+            senke += phase.ausfuehren().hashCode();
+            zeiten[anzahl++] = System.nanoTime() - start;
+        }
+        bytes = (threads.getCurrentThreadAllocatedBytes() - bytes) / anzahl;
+
+        Arrays.sort(zeiten, 0, anzahl);
+        return new long [] {zeiten[anzahl / 2], zeiten[0], bytes, anzahl};
+    }
+
+    /**
+     * Vergleicht zwei Ergebnisdateien und markiert Phasen, die um mehr als die Toleranz langsamer wurden.
+     */
+    private static void vergleiche(File alt, File neu) throws IOException {
+        Map<String, String []> alteWerte = leseErgebnisse(alt);
+        System.out.println("Phase; Form; Vorgänge; alt [ms]; neu [ms]; Faktor; Bytes alt; Bytes neu");
+        int anzahlLangsamer = 0;
+        for (Map.Entry<String, String []> eintrag: leseErgebnisse(neu).entrySet()) {
+            String [] vorher = alteWerte.get(eintrag.getKey());
+            if (vorher == null) {
+                continue;
+            }
+            String [] nachher = eintrag.getValue();
+            double faktor = Double.parseDouble(nachher[3]) / Double.parseDouble(vorher[3]);
+            boolean langsamer = faktor > TOLERANZ;
+            if (langsamer) {
+                anzahlLangsamer++;
+            }
+            System.out.println(eintrag.getKey().replace(";", "; ")+"; "+vorher[3]+"; "+nachher[3]+"; "+
+                               String.format("%.2f", faktor)+"; "+vorher[5]+"; "+nachher[5]+(langsamer ? "; LANGSAMER" : ""));
+        }
+        System.out.println(anzahlLangsamer+" Messungen um mehr als "+Math.round((TOLERANZ - 1) * 100)+"% langsamer.");
+    }
+
+    private static Map<String, String []> leseErgebnisse(File datei) throws IOException {
+        Map<String, String []> resultat = new LinkedHashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(datei))) {
+            br.readLine();
+            br.readLine();
+            for (String zeile = br.readLine(); zeile != null; zeile = br.readLine()) {
+                String [] werte = zeile.split(";");
+                resultat.put(werte[0]+";"+werte[1]+";"+werte[2], werte);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Die Formen entsprechen denen des NetzplanGenerators: kette, schichten (Breite 1000, je drei Nachfolger
+     * in der nächsten Schicht) und meilensteine (faecher mit einem Start, parallelen Vorgängen, einem
+     * Meilenstein und einem Ende).
+     */
+    private static NetzplanGenerator erzeugeGenerator(String form, int anzahl) {
+        switch (form) {
+            case "schichten": return new NetzplanGenerator(form, anzahl, 1000, 3, 42);
+            case "meilensteine": return new NetzplanGenerator("faecher", anzahl, Math.max(anzahl - 3, 1), 3, 42);
+            default: return new NetzplanGenerator(form, anzahl, 0, 3, 42);
+        }
+    }
+}
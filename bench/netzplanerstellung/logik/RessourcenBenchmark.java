@@ -0,0 +1,82 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Misst die ressourcengerechte Terminplanung für mehrere Formen mit vielen Ressourcen. Jeder Vorgang
+ * benötigt bis zu drei zufällig gewählte Ressourcen, die Kapazitäten sind so gewählt, dass sie den Plan
+ * spürbar verlängern. Ausgegeben werden je Prioritätsregel die Laufzeit (Median) und die Gesamtdauer
+ * mit Ressourcen im Vergleich zur Dauer ohne Ressourcen.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 100.000) und Ressourcen (Standard: 36).
+ */
+public class RessourcenBenchmark {
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int anzahlRessourcen = args.length > 1 ? Integer.parseInt(args[1]) : 36;
+
+        System.out.println(anzahl+" Vorgänge, "+anzahlRessourcen+" Ressourcen (Median aus "+WIEDERHOLUNGEN+")");
+        System.out.println("Form; Regel; Laufzeit [ms]; Dauer ohne Ressourcen; Dauer mit Ressourcen; verschoben");
+        for (String form: new String [] {"schichten", "faecher", "viele", "kette"}) {
+            File datei = File.createTempFile("netzplan", ".in");
+            datei.deleteOnExit();
+            new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(datei.getPath());
+            Netzplan plan = new Netzplan(new VorgangLeser(datei.getPath()).getTabelle());
+            Ressourcen ressourcen = erzeugeRessourcen(plan.getTabelle(), anzahlRessourcen);
+
+            for (RessourcenPlanung.Prioritaetsregel regel: RessourcenPlanung.Prioritaetsregel.values()) {
+                // der erste Durchlauf dient dem Aufwärmen
+                RessourcenPlanung planung = new RessourcenPlanung(plan, ressourcen, regel);
+                long [] zeiten = new long [WIEDERHOLUNGEN];
+                for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+                    planung = new RessourcenPlanung(plan, ressourcen, regel);
+                    zeiten[i] = planung.getLaufzeit();
+                }
+                Arrays.sort(zeiten);
+                System.out.println(form+"; "+regel+"; "+(zeiten[WIEDERHOLUNGEN / 2] / 1_000_000)+"; "+
+                                   planung.getProjektdauerOhneRessourcen()+"; "+planung.getProjektdauer()+"; "+
+                                   planung.getAnzahlVerschoben());
+            }
+        }
+    }
+
+    /**
+     * Jeder Vorgang benötigt 0 bis 3 Ressourcen mit je 1 bis 3 Einheiten. Die Kapazität einer Ressource
+     * liegt bei etwa einem Viertel des mittleren Bedarfs, wenn alle Vorgänge ohne Ressourcen eingeplant
+     * würden, mindestens aber beim größtmöglichen Bedarf eines Vorgangs (9).
+     */
+    private static Ressourcen erzeugeRessourcen(VorgangTabelle tabelle, int anzahlRessourcen) {
+        Random zufall = new Random(42);
+        Ressourcen ressourcen = new Ressourcen();
+        int [] zeile = new int [3 * tabelle.getAnzahl()];
+        int [] ressource = new int [zeile.length];
+        int [] menge = new int [zeile.length];
+        long [] arbeit = new long [anzahlRessourcen];
+        int anzahlBedarfe = 0;
+        int dauer = 0;
+        for (int aktZeile = 0; aktZeile < tabelle.getAnzahl(); aktZeile++) {
+            dauer = Math.max(dauer, tabelle.getFEZ(aktZeile));
+            for (int i = zufall.nextInt(4); i > 0; i--) {
+                zeile[anzahlBedarfe] = aktZeile;
+                ressource[anzahlBedarfe] = zufall.nextInt(anzahlRessourcen);
+                menge[anzahlBedarfe] = 1 + zufall.nextInt(3);
+                arbeit[ressource[anzahlBedarfe]] += (long) menge[anzahlBedarfe] * tabelle.getDauer(aktZeile);
+                anzahlBedarfe++;
+            }
+        }
+        for (int r = 0; r < anzahlRessourcen; r++) {
+            ressourcen.neueRessource("R"+r, (int) Math.max(9, arbeit[r] / Math.max(1, dauer) / 4));
+        }
+        for (int i = 0; i < anzahlBedarfe; i++) {
+            ressourcen.addBedarf(zeile[i], ressource[i], menge[i]);
+        }
+        return ressourcen;
+    }
+}
@@ -0,0 +1,95 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Vergleicht das erneute Öffnen eines großen, bereits berechneten Netzplans: Einlesen der Textdatei
+ * samt Prüfung und Berechnung gegenüber dem Laden eines Schnappschusses (mit und ohne Prüfsummen).
+ * Zusätzlich wird die Dauer des Schreibens gemessen und stichprobenartig geprüft, ob beide Netzpläne
+ * übereinstimmen.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 1.000.000) und Form (Standard: schichten).
+ * Für 10.000.000 Vorgänge ist -Dbenchmark-heap=12g nötig.
+ */
+public class SchnappschussBenchmark {
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String form = args.length > 1 ? args[1] : "schichten";
+
+        File text = File.createTempFile("netzplan", ".in");
+        File schnappschuss = File.createTempFile("netzplan", ".nps");
+        text.deleteOnExit();
+        schnappschuss.deleteOnExit();
+        new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(text.getPath());
+
+        Netzplan original = null;
+        long [] einlesen = new long [WIEDERHOLUNGEN];
+        for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+            original = null;
+            long start = System.nanoTime();
+            original = new Netzplan(new VorgangLeser(text.getPath()).getTabelle());
+            einlesen[i] = System.nanoTime() - start;
+        }
+
+        long [] schreiben = new long [WIEDERHOLUNGEN];
+        for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            NetzplanSchnappschuss.schreibe(original, "Benchmark", schnappschuss.toPath());
+            schreiben[i] = System.nanoTime() - start;
+        }
+
+        long [] laden = new long [WIEDERHOLUNGEN];
+        long [] ladenOhnePruefung = new long [WIEDERHOLUNGEN];
+        Netzplan geladen = null;
+        for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+            geladen = null;
+            long start = System.nanoTime();
+            geladen = NetzplanSchnappschuss.lade(schnappschuss.toPath()).getNetzplan();
+            laden[i] = System.nanoTime() - start;
+
+            geladen = null;
+            start = System.nanoTime();
+            geladen = NetzplanSchnappschuss.lade(schnappschuss.toPath(), false).getNetzplan();
+            ladenOhnePruefung[i] = System.nanoTime() - start;
+        }
+        vergleiche(original, geladen);
+
+        System.out.println(form+", "+anzahl+" Vorgänge, Textdatei "+(text.length() >> 20)+" MB, Schnappschuss "+
+                           (Files.size(schnappschuss.toPath()) >> 20)+" MB (Median aus "+WIEDERHOLUNGEN+")");
+        System.out.println("Einlesen und Berechnen: "+median(einlesen)+" ms");
+        System.out.println("Schnappschuss schreiben: "+median(schreiben)+" ms");
+        System.out.println("Schnappschuss laden: "+median(laden)+" ms");
+        System.out.println("Schnappschuss laden ohne Prüfsummen: "+median(ladenOhnePruefung)+" ms");
+    }
+
+    /**
+     * Vergleicht Kennzahlen und jeden 997. Vorgang vollständig (inkl. Bezeichnung).
+     */
+    private static void vergleiche(Netzplan original, Netzplan geladen) {
+        VorgangTabelle a = original.getTabelle();
+        VorgangTabelle b = geladen.getTabelle();
+        if (a.getAnzahl() != b.getAnzahl() || original.getDauer() != geladen.getDauer() ||
+            !original.getAnzahlKritischePfade().equals(geladen.getAnzahlKritischePfade())) {
+            throw new IllegalStateException("Der geladene Netzplan weicht ab!");
+        }
+        for (int zeile = 0; zeile < a.getAnzahl(); zeile += 997) {
+            if (!a.getVorgang(zeile).toString().equals(b.getVorgang(zeile).toString())) {
+                throw new IllegalStateException("Vorgang "+a.getNummer(zeile)+" weicht ab!");
+            }
+        }
+    }
+
+    private static long median(long [] zeiten) {
+        long [] sortiert = zeiten.clone();
+        Arrays.sort(sortiert);
+        return sortiert[sortiert.length / 2] / 1_000_000;
+    }
+}
@@ -0,0 +1,104 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Misst den Durchsatz der Monte-Carlo-Simulation (Läufe je Sekunde und Thread) für mehrere Formen und
+ * Größen. Jeder Vorgang erhält eine zufällige Dreipunktschätzung um seine Dauer. Als Vergleich dient das
+ * bisher einzige Mittel, eine Dauer zu variieren: je Lauf alle Dauern über Netzplan.setDauer ändern.
+ * Zusätzlich wird geprüft, dass das Ergebnis nicht von der Anzahl der Threads abhängt.
+ *
+ * Aufruf mit optionalen Größen (Standard: 100,1000,10000) und Anzahl der Vorgangsläufe (Standard: 10^8,
+ * je Größe wird durch die Anzahl der Vorgänge geteilt, mindestens 1.000 Läufe).
+ */
+public class SimulationBenchmark {
+    public static void main(String args []) throws Exception {
+        String [] groessen = (args.length > 0 ? args[0] : "100,1000,10000").split(",");
+        long vorgangsLaeufe = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Form; Vorgänge; Läufe; Verteilung; Läufe/s je Thread; Vorgänge/s je Thread; "+
+                           "Bisher (setDauer) Läufe/s");
+        for (String form: new String [] {"schichten", "kette", "faecher"}) {
+            for (String groesse: groessen) {
+                int anzahl = Integer.parseInt(groesse.trim());
+                Netzplan plan = erzeuge(form, anzahl);
+                long laeufe = Math.max(1000, vorgangsLaeufe / anzahl);
+
+                for (PertSimulation.Verteilung verteilung: PertSimulation.Verteilung.values()) {
+                    PertSimulation simulation = new PertSimulation(plan, verteilung);
+                    // Aufwärmen, danach die eigentliche Messung
+                    simulation.simuliere(Math.max(1000, laeufe / 10), 1, new double [0], threads);
+                    PertSimulation.Ergebnis ergebnis = simulation.simuliere(laeufe, 42, new double [] {plan.getDauer()}, threads);
+
+                    // das Ergebnis hängt nur vom Startwert ab
+                    PertSimulation.Ergebnis einzeln = simulation.simuliere(Math.min(laeufe, 50_000), 42, new double [0], 1);
+                    PertSimulation.Ergebnis parallel = simulation.simuliere(Math.min(laeufe, 50_000), 42, new double [0],
+                                                                            Math.max(2, threads));
+                    if (einzeln.getMittelwert() != parallel.getMittelwert() ||
+                        einzeln.getPerzentil(0.9) != parallel.getPerzentil(0.9) ||
+                        einzeln.getKritikalitaet(0) != parallel.getKritikalitaet(0)) {
+                        throw new IllegalStateException("Das Ergebnis hängt von der Anzahl der Threads ab!");
+                    }
+
+                    double jeThread = ergebnis.getLaeufeJeSekundeUndThread();
+                    System.out.println(form+"; "+anzahl+"; "+laeufe+"; "+verteilung+"; "+
+                                       String.format(Locale.ROOT, "%.0f", jeThread)+"; "+
+                                       String.format(Locale.ROOT, "%.3g", jeThread * anzahl)+"; "+
+                                       String.format(Locale.ROOT, "%.1f", bisher(plan, laeufe)));
+                }
+            }
+        }
+    }
+
+    private static Netzplan erzeuge(String form, int anzahl) throws Exception {
+        File datei = File.createTempFile("netzplan", ".in");
+        datei.deleteOnExit();
+        new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(datei.getPath());
+        VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+        Random zufall = new Random(42);
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            int dauer = tabelle.getDauer(zeile);
+            if (dauer > 0) {
+                tabelle.setDreipunktSchaetzung(zeile, Math.max(1, dauer - zufall.nextInt(dauer + 1)), dauer,
+                                               dauer + zufall.nextInt(2 * dauer + 1));
+            }
+        }
+        return new Netzplan(tabelle);
+    }
+
+    /**
+     * Läufe je Sekunde, wenn für jeden Lauf alle Dauern über setDauer geändert werden (höchstens eine Sekunde gemessen).
+     */
+    private static double bisher(Netzplan plan, long laeufe) throws NetzplanException {
+        VorgangTabelle tabelle = plan.getTabelle();
+        int n = tabelle.getAnzahl();
+        int [] nummern = new int [n];
+        int [] dauern = new int [n];
+        for (int zeile = 0; zeile < n; zeile++) {
+            nummern[zeile] = tabelle.getNummer(zeile);
+            dauern[zeile] = tabelle.getDauer(zeile);
+        }
+        Random zufall = new Random(42);
+        long start = System.nanoTime();
+        long lauf = 0;
+        while (lauf < laeufe && System.nanoTime() - start < 1_000_000_000L) {
+            for (int zeile = 0; zeile < n; zeile++) {
+                plan.setDauer(nummern[zeile], tabelle.getOptimistisch(zeile) +
+                              zufall.nextInt(tabelle.getPessimistisch(zeile) - tabelle.getOptimistisch(zeile) + 1));
+            }
+            plan.getDauer();
+            lauf++;
+        }
+        double jeSekunde = lauf / ((System.nanoTime() - start) / 1e9);
+        for (int zeile = 0; zeile < n; zeile++) {
+            plan.setDauer(nummern[zeile], dauern[zeile]);
+        }
+        return jeSekunde;
+    }
+}
@@ -0,0 +1,81 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Misst die stufenweise Vorwärts- und Rückwärtsrechnung (StufenRechnung) im Vergleich zur sequentiellen
+ * Rechnung in topologischer Reihenfolge, für geschichtete Netzpläne verschiedener Breite und mehrere Anzahlen
+ * an Threads. Die Einteilung in Stufen wird getrennt ausgewiesen, alle Verfahren müssen dieselben Zeitwerte
+ * liefern. Ohne Angabe werden Stufen schmaler als StufenRechnung.MIN_BREITE sequentiell gerechnet.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 1.000.000) und höchster Anzahl an Threads
+ * (Standard: Anzahl der Prozessoren, mindestens 4).
+ */
+public class StufenBenchmark {
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        System.out.println("schichten, "+anzahl+" Vorgänge, "+Runtime.getRuntime().availableProcessors()+" Prozessoren");
+        System.out.println("Breite; Stufen; breiteste Stufe; Einteilung [ms]; Threads; sequentiell [ms]; stufenweise [ms]; Speedup");
+        for (int breite: new int [] {10, 1_000, 10_000, 100_000}) {
+            File datei = File.createTempFile("netzplan", ".in");
+            datei.deleteOnExit();
+            new NetzplanGenerator("schichten", anzahl, breite, 3, 42).schreibe(datei.getPath());
+            VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+            Netzplan plan = new Netzplan(tabelle, Netzplan.Auswertung.PRUEFUNG);
+            Graph graph = plan.getAdjazenzen();
+            int [] ordnung = plan.getTopologischeOrdnung();
+            int [] dauer = tabelle.getDauerSpalte();
+            int n = ordnung.length;
+
+            int [][] referenz = new int [4][n];
+            long sequentiell = miss(() -> {
+                Netzplan.vorwaertsRechnung(graph, ordnung, dauer, referenz[0], referenz[1]);
+                Netzplan.rueckwaertsRechnung(graph, ordnung, dauer, referenz[1], referenz[2], referenz[3]);
+            });
+
+            StufenRechnung [] stufen = new StufenRechnung [1];
+            long einteilung = miss(() -> stufen[0] = new StufenRechnung(graph, ordnung));
+
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                StufenRechnung.setAnzahlThreads(threads);
+                int [][] werte = new int [4][n];
+                long stufenweise = miss(() -> {
+                    stufen[0].vorwaertsRechnung(dauer, werte[0], werte[1]);
+                    stufen[0].rueckwaertsRechnung(dauer, werte[1], werte[2], werte[3]);
+                });
+                if (!Arrays.deepEquals(referenz, werte)) {
+                    throw new IllegalStateException("Die stufenweise Rechnung liefert andere Zeitwerte!");
+                }
+                System.out.println(breite+"; "+stufen[0].getAnzahlStufen()+"; "+stufen[0].getBreitesteStufe()+"; "+
+                                   String.format("%.1f", einteilung / 1e6)+"; "+threads+"; "+
+                                   String.format("%.1f", sequentiell / 1e6)+"; "+String.format("%.1f", stufenweise / 1e6)+"; "+
+                                   String.format("%.2f", (double) sequentiell / stufenweise));
+            }
+            StufenRechnung.setAnzahlThreads(1);
+        }
+    }
+
+    /**
+     * Liefert den Median der Laufzeit, die ersten Durchläufe dienen dem Aufwärmen des JIT-Compilers.
+     */
+    private static long miss(Runnable rechnung) {
+        long [] zeiten = new long [WIEDERHOLUNGEN];
+        for (int i = -2; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            rechnung.run();
+            if (i >= 0) {
+                zeiten[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(zeiten);
+        return zeiten[WIEDERHOLUNGEN / 2];
+    }
+}
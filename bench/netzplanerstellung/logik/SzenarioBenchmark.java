@@ -0,0 +1,74 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Misst den Durchsatz der Szenarioberechnung (Szenarien je Sekunde) für mehrere Formen und Anzahlen an
+ * Threads im Vergleich zum Neuaufbau eines Netzplans je Szenario (neue Tabelle mit geänderten Dauern).
+ * Jedes Szenario ändert die Dauer von 1% der Vorgänge.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 100.000), Szenarien (Standard: 200) und
+ * höchster Anzahl an Threads (Standard: Anzahl der Prozessoren).
+ */
+public class SzenarioBenchmark {
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int anzahlSzenarien = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println(anzahl+" Vorgänge, "+anzahlSzenarien+" Szenarien");
+        System.out.println("Form; Verfahren; Threads; Szenarien/s");
+        for (String form: new String [] {"schichten", "kette", "faecher"}) {
+            File datei = File.createTempFile("netzplan", ".in");
+            datei.deleteOnExit();
+            new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(datei.getPath());
+            VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+            Netzplan plan = new Netzplan(tabelle);
+
+            SzenarioRechnung rechnung = new SzenarioRechnung(plan);
+            int [][] dauern = erzeugeSzenarien(rechnung.getDauern(), anzahlSzenarien);
+
+            // Neuaufbau: Tabelle mit den Dauern des Szenarios, vollständige Prüfung und Berechnung
+            int neuaufbauten = Math.max(1, anzahlSzenarien / 10);
+            for (int i = 0; i < 3; i++) {
+                neuaufbau(tabelle, dauern[i % dauern.length]);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < neuaufbauten; i++) {
+                neuaufbau(tabelle, dauern[i % dauern.length]);
+            }
+            System.out.println(form+"; Neuaufbau; 1; "+String.format("%.1f", neuaufbauten * 1e9 / (System.nanoTime() - start)));
+
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                // der erste Durchlauf dient dem Aufwärmen
+                rechnung.rechne(dauern, threads, null);
+                SzenarioRechnung.Ergebnis ergebnis = rechnung.rechne(dauern, threads, null);
+                System.out.println(form+"; Szenarien; "+threads+"; "+String.format("%.1f", ergebnis.getSzenarienJeSekunde()));
+            }
+        }
+    }
+
+    private static void neuaufbau(VorgangTabelle tabelle, int [] dauer) throws NetzplanException {
+        VorgangTabelle kopie = VorgangTabelle.aus(tabelle.getVorgaenge());
+        for (int zeile = 0; zeile < dauer.length; zeile++) {
+            kopie.setDauer(zeile, dauer[zeile]);
+        }
+        new Netzplan(kopie);
+    }
+
+    private static int [][] erzeugeSzenarien(int [] basis, int anzahlSzenarien) {
+        Random zufall = new Random(42);
+        int [][] dauern = new int [anzahlSzenarien][];
+        for (int s = 0; s < anzahlSzenarien; s++) {
+            dauern[s] = basis.clone();
+            for (int i = Math.max(1, basis.length / 100); i > 0; i--) {
+                dauern[s][zufall.nextInt(basis.length)] = 1 + zufall.nextInt(20);
+            }
+        }
+        return dauern;
+    }
+}
@@ -0,0 +1,43 @@
+package netzplanerstellung.logik;
+
+import netzplanerstellung.datenhaltung.NetzplanGenerator;
+import netzplanerstellung.datenhaltung.VorgangLeser;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Misst die Zeit-Kosten-Optimierung für mehrere Formen. Jeder Vorgang erhält eine zufällige Crashdauer
+ * und zufällige Crashkosten, verkürzt wird auf 90% und 75% der Gesamtdauer sowie so weit wie möglich
+ * (vollständige Zeit-Kosten-Kurve). Ausgegeben werden Laufzeit, Anzahl der Schnitte und die Kosten.
+ *
+ * Aufruf mit optionaler Anzahl an Vorgängen (Standard: 20.000).
+ */
+public class ZeitKostenBenchmark {
+    public static void main(String args []) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        System.out.println(anzahl+" Vorgänge");
+        System.out.println("Form; Ziel; Laufzeit [ms]; Schnitte; Gesamtdauer; Kosten");
+        for (String form: new String [] {"schichten", "faecher", "viele", "kette"}) {
+            File datei = File.createTempFile("netzplan", ".in");
+            datei.deleteOnExit();
+            new NetzplanGenerator(form, anzahl, 0, 3, 42).schreibe(datei.getPath());
+            VorgangTabelle tabelle = new VorgangLeser(datei.getPath()).getTabelle();
+            Random zufall = new Random(42);
+            for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+                tabelle.setCrashAngabe(zeile, 1 + zufall.nextInt(tabelle.getDauer(zeile)), 1 + zufall.nextInt(100));
+            }
+            Netzplan plan = new Netzplan(tabelle);
+
+            // der erste Durchlauf dient dem Aufwärmen
+            int normal = new ZeitKostenOptimierung(plan, 0).getNormaldauer();
+            for (int ziel: new int [] {normal * 9 / 10, normal * 3 / 4, 0}) {
+                ZeitKostenOptimierung optimierung = new ZeitKostenOptimierung(plan, ziel);
+                System.out.println(form+"; "+(ziel == 0 ? "minimal" : ziel)+"; "+String.format("%.1f", optimierung.getLaufzeit() / 1e6)+
+                                   "; "+optimierung.getAnzahlSchnitte()+"; "+normal+" -> "+optimierung.getProjektdauer()+
+                                   "; "+optimierung.getKosten());
+            }
+        }
+    }
+}
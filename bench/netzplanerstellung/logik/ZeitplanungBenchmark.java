@@ -0,0 +1,184 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Vergleicht die Vorwärts- und Rückwärtsrechnung in topologischer Reihenfolge mit dem
+ * früheren markierungskorrigierenden Verfahren (Knoten werden bei jeder Verbesserung erneut eingereiht)
+ * auf dichten, zyklenfreien Netzplänen.
+ */
+public class ZeitplanungBenchmark {
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) {
+        System.out.println("Form; Knoten; Kanten; markierungskorrigierend [ms]; Einreihungen; topologisch [ms]; Speedup");
+
+        miss("Schichten(50x50)", erzeugeDicht(50, 50, 50, 42));
+        miss("Schichten(200x100)", erzeugeDicht(200, 100, 20, 42));
+        miss("Schichten(100x1000)", erzeugeDicht(100, 1000, 8, 42));
+        miss("Rauten(5000)", erzeugeRautenkette(5000));
+    }
+
+    private static void miss(String form, Graph graph) {
+        int n = graph.getAnzahlKnoten();
+        int [] dauer = new int [n];
+        Random zufall = new Random(7);
+        for (int v = 0; v < n; v++) {
+            dauer[v] = 1 + zufall.nextInt(20);
+        }
+        int [] ordnung = Netzplan.bestimmeTopologischeOrdnung(graph);
+
+        int [] faz = new int [n];
+        int [] fez = new int [n];
+        int [] saz = new int [n];
+        int [] sez = new int [n];
+        int [] fazAlt = new int [n];
+        int [] fezAlt = new int [n];
+        int [] sazAlt = new int [n];
+        int [] sezAlt = new int [n];
+
+        long einreihungen = 0;
+        long [] zeitenAlt = new long [WIEDERHOLUNGEN];
+        long [] zeitenNeu = new long [WIEDERHOLUNGEN];
+        for (int i = -2; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            einreihungen = markierungskorrigierend(graph, dauer, fazAlt, fezAlt, sazAlt, sezAlt);
+            long mitte = System.nanoTime();
+            Netzplan.vorwaertsRechnung(graph, ordnung, dauer, faz, fez);
+            Netzplan.rueckwaertsRechnung(graph, ordnung, dauer, fez, saz, sez);
+            long ende = System.nanoTime();
+
+            // die ersten Durchläufe dienen dem Aufwärmen des JIT-Compilers
+            if (i >= 0) {
+                zeitenAlt[i] = mitte - start;
+                zeitenNeu[i] = ende - mitte;
+            }
+        }
+
+        if (!Arrays.equals(faz, fazAlt) || !Arrays.equals(fez, fezAlt) ||
+            !Arrays.equals(saz, sazAlt) || !Arrays.equals(sez, sezAlt)) {
+            throw new IllegalStateException("Die Verfahren liefern unterschiedliche Ergebnisse!");
+        }
+
+        Arrays.sort(zeitenAlt);
+        Arrays.sort(zeitenNeu);
+        long alt = zeitenAlt[WIEDERHOLUNGEN/2];
+        long neu = zeitenNeu[WIEDERHOLUNGEN/2];
+        System.out.println(form+"; "+n+"; "+graph.getAnzahlKanten()+"; "+String.format("%.2f", alt / 1e6)+"; "+
+                           einreihungen+"; "+String.format("%.2f", neu / 1e6)+"; "+String.format("%.1f", (double) alt / neu));
+    }
+
+    /**
+     * Das frühere Verfahren auf primitiven Feldern, liefert die Anzahl der Einreihungen in die Queue.
+     */
+    private static long markierungskorrigierend(Graph graph, int [] dauer, int [] faz, int [] fez, int [] saz, int [] sez) {
+        int n = graph.getAnzahlKnoten();
+        Arrays.fill(faz, 0);
+        Arrays.fill(sez, 0);
+        long einreihungen = 0;
+
+        // Ringpuffer als Queue, ein Knoten kann mehrfach enthalten sein
+        int [] queue = new int [16];
+        int anfang = 0;
+        int anzahl = 0;
+
+        for (int v = 0; v < n; v++) {
+            if (graph.getVorgaengerAnfang(v) == graph.getVorgaengerEnde(v)) {
+                queue = reihe(queue, anfang, anzahl++, v);
+            }
+        }
+        while (anzahl > 0) {
+            int v = queue[anfang];
+            anfang = (anfang + 1) % queue.length;
+            anzahl--;
+            fez[v] = faz[v] + dauer[v];
+            for (int i = graph.getNachfolgerAnfang(v); i < graph.getNachfolgerEnde(v); i++) {
+                int w = graph.getNachfolger(i);
+                if (faz[w] < fez[v]) {
+                    faz[w] = fez[v];
+                    if (anzahl == queue.length) {
+                        queue = vergroessere(queue, anfang);
+                        anfang = 0;
+                    }
+                    queue[(anfang + anzahl++) % queue.length] = w;
+                    einreihungen++;
+                }
+            }
+        }
+
+        anfang = 0;
+        for (int v = 0; v < n; v++) {
+            if (graph.getNachfolgerAnfang(v) == graph.getNachfolgerEnde(v)) {
+                sez[v] = fez[v];
+                queue = reihe(queue, anfang, anzahl++, v);
+            }
+        }
+        while (anzahl > 0) {
+            int v = queue[anfang];
+            anfang = (anfang + 1) % queue.length;
+            anzahl--;
+            saz[v] = sez[v] - dauer[v];
+            for (int i = graph.getVorgaengerAnfang(v); i < graph.getVorgaengerEnde(v); i++) {
+                int w = graph.getVorgaenger(i);
+                if (sez[w] == 0 || sez[w] > saz[v]) {
+                    sez[w] = saz[v];
+                    if (anzahl == queue.length) {
+                        queue = vergroessere(queue, anfang);
+                        anfang = 0;
+                    }
+                    queue[(anfang + anzahl++) % queue.length] = w;
+                    einreihungen++;
+                }
+            }
+        }
+        return einreihungen;
+    }
+
+    private static int [] reihe(int [] queue, int anfang, int anzahl, int v) {
+        if (anzahl == queue.length) {
+            queue = vergroessere(queue, anfang);
+        }
+        queue[(anfang + anzahl) % queue.length] = v;
+        return queue;
+    }
+
+    private static int [] vergroessere(int [] queue, int anfang) {
+        int [] neu = new int [queue.length * 2];
+        for (int i = 0; i < queue.length; i++) {
+            neu[i] = queue[(anfang + i) % queue.length];
+        }
+        return neu;
+    }
+
+    /**
+     * Erzeugt schichten Schichten mit je breite Knoten, jeder Knoten hat grad Kanten in die nächste Schicht.
+     */
+    static Graph erzeugeDicht(int schichten, int breite, int grad, long seed) {
+        return ZyklenBenchmark.erzeugeSchichten(schichten * breite, breite, grad, seed);
+    }
+
+    /**
+     * Erzeugt eine Kette aus Rauten: a -> (b, c) -> d, wobei d die Spitze der nächsten Raute ist.
+     */
+    static Graph erzeugeRautenkette(int rauten) {
+        int knoten = 3 * rauten + 1;
+        int [] nachfolgerStart = new int [knoten + 1];
+        int [] nachfolger = new int [4 * rauten];
+        int position = 0;
+        for (int v = 0; v < knoten; v++) {
+            nachfolgerStart[v] = position;
+            if (v == knoten - 1) {
+                continue;
+            }
+            if (v % 3 == 0) {
+                nachfolger[position++] = v + 1;
+                nachfolger[position++] = v + 2;
+            } else {
+                nachfolger[position++] = v - v % 3 + 3;
+            }
+        }
+        nachfolgerStart[knoten] = position;
+        return new Graph(knoten, nachfolgerStart, nachfolger);
+    }
+}
@@ -0,0 +1,67 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Misst die Laufzeit der Zusammenhangsprüfung auf breiten Netzplänen mit 1M Vorgängen.
+ */
+public class ZusammenhangBenchmark {
+    private static final int KNOTEN = 1_000_000;
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) {
+        System.out.println("Form; Knoten; Kanten; Median [ms]; ns/(V+E)");
+
+        miss("Fächer", erzeugeFaecher(KNOTEN));
+        miss("Schichten(100000x4)", ZyklenBenchmark.erzeugeSchichten(KNOTEN, 100_000, 4, 42));
+        miss("Schichten(1000x4)", ZyklenBenchmark.erzeugeSchichten(KNOTEN, 1000, 4, 42));
+    }
+
+    private static void miss(String form, Graph graph) {
+        // Aufwärmen des JIT-Compilers
+        for (int i = 0; i < 3; i++) {
+            pruefe(graph);
+        }
+
+        long [] zeiten = new long [WIEDERHOLUNGEN];
+        for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            pruefe(graph);
+            zeiten[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(zeiten);
+        long median = zeiten[WIEDERHOLUNGEN/2];
+
+        System.out.println(form+"; "+graph.getAnzahlKnoten()+"; "+graph.getAnzahlKanten()+"; "+(median/1_000_000)+"; "+
+                           String.format("%.1f", (double) median / (graph.getAnzahlKnoten() + graph.getAnzahlKanten())));
+    }
+
+    private static void pruefe(Graph graph) {
+        BitSet besucht = Netzplan.erreichbareKnoten(graph, 0);
+        if (besucht.cardinality() != graph.getAnzahlKnoten()) {
+            throw new IllegalStateException("Der erzeugte Netzplan ist nicht zusammenhängend!");
+        }
+    }
+
+    /**
+     * Erzeugt einen Netzplan aus einem Startvorgang, knoten-2 parallelen Vorgängen und einem Endvorgang.
+     */
+    static Graph erzeugeFaecher(int knoten) {
+        int [] nachfolgerStart = new int [knoten + 1];
+        int [] nachfolger = new int [2 * (knoten - 2)];
+        int position = 0;
+        for (int v = 0; v < knoten; v++) {
+            nachfolgerStart[v] = position;
+            if (v == 0) {
+                for (int w = 1; w < knoten - 1; w++) {
+                    nachfolger[position++] = w;
+                }
+            } else if (v < knoten - 1) {
+                nachfolger[position++] = knoten - 1;
+            }
+        }
+        nachfolgerStart[knoten] = position;
+        return new Graph(knoten, nachfolgerStart, nachfolger);
+    }
+}
@@ -0,0 +1,76 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Misst die Laufzeit der Zyklensuche (Algorithmus von Tarjan) auf geschichteten,
+ * zyklenfreien Netzplänen wachsender Größe.
+ * Bei linearer Laufzeit bleibt die Zeit pro Knoten und Kante (ns/(V+E)) annähernd konstant.
+ */
+public class ZyklenBenchmark {
+    private static final int BREITE = 1000;
+    private static final int GRAD = 4;
+    private static final int WIEDERHOLUNGEN = 5;
+
+    public static void main(String args []) {
+        System.out.println("Knoten; Kanten; Median [ms]; ns/(V+E)");
+
+        for (int knoten = 125_000; knoten <= 2_000_000; knoten *= 2) {
+            Graph graph = erzeugeSchichten(knoten, BREITE, GRAD, 42);
+            long kanten = graph.getAnzahlKanten();
+
+            // Aufwärmen des JIT-Compilers
+            for (int i = 0; i < 3; i++) {
+                pruefe(graph);
+            }
+
+            long [] zeiten = new long [WIEDERHOLUNGEN];
+            for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+                long start = System.nanoTime();
+                pruefe(graph);
+                zeiten[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(zeiten);
+            long median = zeiten[WIEDERHOLUNGEN/2];
+
+            System.out.println(knoten+"; "+kanten+"; "+(median/1_000_000)+"; "+
+                               String.format("%.1f", (double) median / (knoten + kanten)));
+        }
+    }
+
+    private static void pruefe(Graph graph) {
+        int [] komponente = Netzplan.findeZyklischeKomponenten(graph);
+        for (int aktKomponente: komponente) {
+            if (aktKomponente != -1) {
+                throw new IllegalStateException("Der erzeugte Netzplan enthält einen Zyklus!");
+            }
+        }
+    }
+
+    /**
+     * Erzeugt einen geschichteten Netzplan: jeder Knoten hat grad Kanten in die nächste Schicht,
+     * die erste davon zum Knoten an gleicher Position (damit jeder Knoten einen Vorgänger hat),
+     * die übrigen zu zufällig gewählten Knoten.
+     */
+    static Graph erzeugeSchichten(int knoten, int breite, int grad, long seed) {
+        Random zufall = new Random(seed);
+        int [] nachfolgerStart = new int [knoten + 1];
+        int [] nachfolger = new int [knoten * grad];
+        int position = 0;
+        for (int v = 0; v < knoten; v++) {
+            nachfolgerStart[v] = position;
+            int schichtEnde = (v / breite + 1) * breite;
+            if (schichtEnde >= knoten) {
+                continue;
+            }
+            int naechsteBreite = Math.min(breite, knoten - schichtEnde);
+            nachfolger[position++] = schichtEnde + (v % breite) % naechsteBreite;
+            for (int i = 1; i < grad; i++) {
+                nachfolger[position++] = schichtEnde + zufall.nextInt(naechsteBreite);
+            }
+        }
+        nachfolgerStart[knoten] = position;
+        return new Graph(knoten, nachfolgerStart, Arrays.copyOf(nachfolger, position));
+    }
+}
@@ -0,0 +1,402 @@
+package netzplanerstellung;
+
+import netzplanerstellung.datenhaltung.*;
+import netzplanerstellung.logik.*;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cache der Ergebnisse bereits verarbeiteter Eingabedateien in einem Ordner. Der Schlüssel ist der
+ * SHA-256-Hash des Inhalts (mit vereinheitlichten Zeilenenden) zusammen mit allem, was die Ausgabe
+ * sonst noch beeinflusst: maximale Anzahl kritischer Pfade, Zeichensatz, Zeilentrenner und das Programm selbst.
+ * Gespeichert wird der fertige Report bzw. die Meldung einer DateiFormatException oder NetzplanException.
+ *
+ * Das Programm geht als SHA-256-Hash seiner Klassen (der Jar-Datei bzw. aller Dateien im Klassenordner)
+ * in den Schlüssel ein, nach jeder Änderung am Code werden die alten Einträge also nicht mehr getroffen
+ * und mit der Zeit verdrängt. Zusätzlich enthält der Schlüssel FORMAT, das bei Änderungen am Aufbau der
+ * Einträge erhöht wird. Ist der Ort der Klassen nicht lesbar, gilt der Cache nur für diesen Programmlauf.
+ *
+ * Ist die Gesamtgröße überschritten, werden die am längsten nicht verwendeten Einträge gelöscht (LRU).
+ * Die Reihenfolge der Verwendung wird über das Änderungsdatum der Dateien auch zwischen Programmläufen
+ * fortgeführt. Einträge werden über eine temporäre Datei geschrieben und atomar umbenannt, sodass
+ * mehrere Threads (Stapelbetrieb) und auch mehrere Prozesse denselben Ordner verwenden können.
+ *
+ * Damit die Gesamtgröße auch die Einträge anderer Prozesse berücksichtigt, wird der Ordner jeweils neu
+ * eingelesen, nachdem dieser Prozess ein Sechzehntel der maximalen Größe geschrieben hat. Zwischen zwei
+ * Einlesevorgängen kann die Grenze daher um bis zu ein Sechzehntel je weiterem Prozess überschritten werden.
+ */
+public class ErgebnisCache {
+    private static final String ENDUNG = ".erg";
+    private static final String STATISTIK = "statistik.txt";
+    // Art des Eintrags (erstes Byte der Datei)
+    private static final byte REPORT = 'R';
+    private static final byte DATEIFORMAT_FEHLER = 'D';
+    private static final byte NETZPLAN_FEHLER = 'N';
+    // bei Änderungen am Aufbau der Einträge oder des Schlüssels zu erhöhen
+    private static final int FORMAT = 2;
+
+    private Path ordner;
+    private long maxGroesse;
+    // Hash der Klassen des laufenden Programms
+    private String programm;
+
+    // die Einträge in der Reihenfolge ihrer letzten Verwendung (der älteste zuerst) mit ihrer Größe in Bytes
+    private LinkedHashMap<String, Long> eintraege = new LinkedHashMap<>(16, 0.75f, true);
+    private long groesse;
+    // seit dem letzten Einlesen des Ordners von diesem Prozess geschriebene Bytes
+    private long seitEinlesen;
+
+    private AtomicLong treffer = new AtomicLong();
+    private AtomicLong fehlschlaege = new AtomicLong();
+    private AtomicLong verdraengt = new AtomicLong();
+
+    public ErgebnisCache(Path ordner, long maxGroesse) throws IOException {
+        this.ordner = ordner;
+        this.maxGroesse = maxGroesse;
+        Files.createDirectories(ordner);
+        this.programm = kennungDesProgramms();
+        this.einlesen();
+        this.verdraenge();
+    }
+
+    /**
+     * Übernimmt die im Ordner vorhandenen Einträge (auch die anderer Prozesse), sortiert nach ihrer letzten
+     * Verwendung.
+     */
+    private synchronized void einlesen() throws IOException {
+        List<Path> vorhanden = new ArrayList<>();
+        try (DirectoryStream<Path> dateien = Files.newDirectoryStream(this.ordner, "*"+ENDUNG)) {
+            for (Path datei: dateien) {
+                vorhanden.add(datei);
+            }
+        }
+        Map<Path, FileTime> zeitpunkt = new LinkedHashMap<>();
+        for (Path datei: vorhanden) {
+            try {
+                zeitpunkt.put(datei, Files.getLastModifiedTime(datei));
+            } catch (NoSuchFileException e) {
+                // gleichzeitig von einem anderen Prozess verdrängt
+            }
+        }
+        List<Path> sortiert = new ArrayList<>(zeitpunkt.keySet());
+        sortiert.sort((a, b) -> zeitpunkt.get(a).compareTo(zeitpunkt.get(b)));
+        this.eintraege.clear();
+        this.groesse = 0;
+        for (Path datei: sortiert) {
+            String name = datei.getFileName().toString();
+            long laenge;
+            try {
+                laenge = Files.size(datei);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            this.eintraege.put(name.substring(0, name.length() - ENDUNG.length()), laenge);
+            this.groesse += laenge;
+        }
+        this.seitEinlesen = 0;
+    }
+
+    /**
+     * Der Hash der Jar-Datei bzw. aller Dateien des Klassenordners, aus dem das Programm geladen wurde
+     * (sortiert nach ihrem relativen Pfad). Ist dieser nicht lesbar, wird eine zufällige Kennung geliefert.
+     */
+    private static String kennungDesProgramms() {
+        MessageDigest hash = neuerHash();
+        try {
+            Path quelle = Path.of(ErgebnisCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            List<Path> dateien = new ArrayList<>();
+            try (Stream<Path> alle = Files.walk(quelle)) {
+                alle.filter(Files::isRegularFile).sorted().forEach(dateien::add);
+            }
+            for (Path datei: dateien) {
+                hash.update(quelle.relativize(datei).toString().getBytes(StandardCharsets.UTF_8));
+                hash.update(Files.readAllBytes(datei));
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // z.B. ohne CodeSource oder bei nicht lesbaren Klassen: keine Treffer aus früheren Programmläufen
+            return UUID.randomUUID().toString();
+        }
+        return hex(hash.digest());
+    }
+
+    private static MessageDigest neuerHash() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 muss von jeder Java-Plattform unterstützt werden
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte [] werte) {
+        StringBuilder resultat = new StringBuilder(2 * werte.length);
+        for (byte b: werte) {
+            resultat.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return resultat.toString();
+    }
+
+    /**
+     * Berechnet den Schlüssel einer Eingabedatei. Zeilenenden (\r\n, \r, \n) werden vereinheitlicht,
+     * da sie beim Einlesen gleich behandelt werden.
+     */
+    public String schluessel(Path eingabe, long maxKritischePfade) throws IOException {
+        MessageDigest hash = neuerHash();
+        hash.update((FORMAT+"\n"+this.programm+"\n"+Charset.defaultCharset().name()+"\n"+
+                     System.getProperty("line.separator")+"\n"+maxKritischePfade+"\n").getBytes(StandardCharsets.UTF_8));
+
+        try (FileChannel kanal = FileChannel.open(eingabe, StandardOpenOption.READ)) {
+            ByteBuffer puffer = ByteBuffer.allocate(1 << 16);
+            byte [] daten = puffer.array();
+            boolean nachWagenruecklauf = false;
+            while (kanal.read(puffer) != -1) {
+                int laenge = puffer.position();
+                int anfang = 0;
+                for (int i = 0; i < laenge; i++) {
+                    if (daten[i] == '\r') {
+                        // \r wird zu \n, ein direkt folgendes \n entfällt
+                        hash.update(daten, anfang, i - anfang);
+                        hash.update((byte) '\n');
+                        anfang = i + 1;
+                        nachWagenruecklauf = true;
+                    } else {
+                        if (daten[i] == '\n' && nachWagenruecklauf) {
+                            hash.update(daten, anfang, i - anfang);
+                            anfang = i + 1;
+                        }
+                        nachWagenruecklauf = false;
+                    }
+                }
+                hash.update(daten, anfang, laenge - anfang);
+                puffer.clear();
+            }
+        }
+
+        return hex(hash.digest());
+    }
+
+    /**
+     * Schreibt bei einem Treffer den gespeicherten Report in die Ausgabedatei bzw. wirft die gespeicherte
+     * Exception erneut. Liefert false, falls zum Schlüssel kein Eintrag vorhanden ist.
+     */
+    public boolean liefereErgebnis(String schluessel, Path ausgabe) throws DateiFormatException, NetzplanException, IOException {
+        synchronized (this) {
+            if (this.eintraege.get(schluessel) == null) {
+                this.fehlschlaege.incrementAndGet();
+                return false;
+            }
+        }
+
+        Path datei = this.ordner.resolve(schluessel+ENDUNG);
+        byte art;
+        byte [] meldung = null;
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            ByteBuffer kopf = ByteBuffer.allocate(1);
+            kanal.read(kopf, 0);
+            art = kopf.get(0);
+            if (art == REPORT) {
+                try (FileChannel aus = FileChannel.open(ausgabe, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (long position = 1; position < kanal.size(); ) {
+                        position += kanal.transferTo(position, kanal.size() - position, aus);
+                    }
+                } catch (IOException e) {
+                    // dieselbe Meldung wie beim Schreiben des Reports
+                    throw new IOException("Die angegebene Ausgabedatei "+ausgabe+" kann nicht beschrieben oder erzeugt werden!");
+                }
+            } else {
+                ByteBuffer inhalt = ByteBuffer.allocate((int) kanal.size() - 1);
+                while (inhalt.hasRemaining() && kanal.read(inhalt, 1 + inhalt.position()) != -1) {
+                    // lese weiter, bis die Meldung vollständig ist
+                }
+                meldung = inhalt.array();
+            }
+        } catch (NoSuchFileException e) {
+            // inzwischen von einem anderen Prozess verdrängt
+            synchronized (this) {
+                Long laenge = this.eintraege.remove(schluessel);
+                if (laenge != null) {
+                    this.groesse -= laenge;
+                }
+            }
+            this.fehlschlaege.incrementAndGet();
+            return false;
+        }
+
+        this.treffer.incrementAndGet();
+        try {
+            Files.setLastModifiedTime(datei, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // die Reihenfolge für spätere Programmläufe ist dann ungenau, das Ergebnis bleibt gültig
+        }
+
+        if (art == DATEIFORMAT_FEHLER) {
+            throw new DateiFormatException(new String(meldung, StandardCharsets.UTF_8));
+        }
+        if (art == NETZPLAN_FEHLER) {
+            throw new NetzplanException(new String(meldung, StandardCharsets.UTF_8));
+        }
+        return true;
+    }
+
+    /**
+     * Speichert den fertigen Report aus der Ausgabedatei.
+     */
+    public void speichereReport(String schluessel, Path report) throws IOException {
+        Path temporaer = Files.createTempFile(this.ordner, schluessel, ".tmp");
+        try (FileChannel aus = FileChannel.open(temporaer, StandardOpenOption.WRITE);
+             FileChannel ein = FileChannel.open(report, StandardOpenOption.READ)) {
+            aus.write(ByteBuffer.wrap(new byte [] {REPORT}));
+            for (long position = 0; position < ein.size(); ) {
+                position += ein.transferTo(position, ein.size() - position, aus);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaer);
+            throw e;
+        }
+        this.uebernehme(schluessel, temporaer);
+    }
+
+    /**
+     * Speichert die Meldung einer DateiFormatException oder NetzplanException.
+     */
+    public void speichereFehler(String schluessel, Exception fehler) throws IOException {
+        byte [] meldung = fehler.getMessage().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer inhalt = ByteBuffer.allocate(1 + meldung.length);
+        inhalt.put(fehler instanceof DateiFormatException ? DATEIFORMAT_FEHLER : NETZPLAN_FEHLER).put(meldung).flip();
+
+        Path temporaer = Files.createTempFile(this.ordner, schluessel, ".tmp");
+        try (FileChannel aus = FileChannel.open(temporaer, StandardOpenOption.WRITE)) {
+            while (inhalt.hasRemaining()) {
+                aus.write(inhalt);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaer);
+            throw e;
+        }
+        this.uebernehme(schluessel, temporaer);
+    }
+
+    /**
+     * Benennt die vollständig geschriebene Datei in den Eintrag um, danach wird ggf. verdrängt.
+     */
+    private void uebernehme(String schluessel, Path temporaer) throws IOException {
+        long laenge = Files.size(temporaer);
+        Files.move(temporaer, this.ordner.resolve(schluessel+ENDUNG),
+                   StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        synchronized (this) {
+            Long alteLaenge = this.eintraege.put(schluessel, laenge);
+            this.groesse += laenge - (alteLaenge == null ? 0 : alteLaenge);
+            this.seitEinlesen += laenge;
+            if (this.seitEinlesen > this.maxGroesse / 16) {
+                this.einlesen();
+            }
+            this.verdraenge();
+        }
+    }
+
+    /**
+     * Löscht die am längsten nicht verwendeten Einträge, bis die Gesamtgröße eingehalten wird.
+     */
+    private synchronized void verdraenge() throws IOException {
+        Iterator<Map.Entry<String, Long>> aeltester = this.eintraege.entrySet().iterator();
+        while (this.groesse > this.maxGroesse && aeltester.hasNext()) {
+            Map.Entry<String, Long> eintrag = aeltester.next();
+            Files.deleteIfExists(this.ordner.resolve(eintrag.getKey()+ENDUNG));
+            this.groesse -= eintrag.getValue();
+            aeltester.remove();
+            this.verdraengt.incrementAndGet();
+        }
+    }
+
+    public long getTreffer() {
+        return this.treffer.get();
+    }
+
+    public long getFehlschlaege() {
+        return this.fehlschlaege.get();
+    }
+
+    public long getVerdraengt() {
+        return this.verdraengt.get();
+    }
+
+    public synchronized int getAnzahlEintraege() {
+        return this.eintraege.size();
+    }
+
+    public synchronized long getGroesse() {
+        return this.groesse;
+    }
+
+    /**
+     * Addiert die Zähler dieses Programmlaufs zu den im Ordner gespeicherten (statistik.txt). Die Datei
+     * wird dabei gesperrt, da bei wiederholten Einzelaufrufen mehrere Prozesse gleichzeitig schreiben können.
+     * Liefert die Summen als Text.
+     */
+    public String speichereStatistik() throws IOException {
+        try (FileChannel kanal = FileChannel.open(this.ordner.resolve(STATISTIK), StandardOpenOption.CREATE,
+                                                  StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // die Sperre wird mit dem Kanal freigegeben
+            kanal.lock();
+            ByteBuffer inhalt = ByteBuffer.allocate((int) kanal.size());
+            while (inhalt.hasRemaining() && kanal.read(inhalt, inhalt.position()) != -1) {
+                // lese weiter, bis die Datei vollständig ist
+            }
+            long [] summen = {this.getTreffer(), this.getFehlschlaege(), this.getVerdraengt()};
+            String [] namen = {"treffer", "fehlschlaege", "verdraengt"};
+            for (String zeile: new String(inhalt.array(), StandardCharsets.UTF_8).split("\n")) {
+                for (int i = 0; i < namen.length; i++) {
+                    if (zeile.startsWith(namen[i]+"=")) {
+                        try {
+                            summen[i] += Long.parseLong(zeile.substring(namen[i].length() + 1).trim());
+                        } catch (NumberFormatException e) {
+                            // beschädigte Statistik, es wird neu gezählt
+                        }
+                    }
+                }
+            }
+
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < namen.length; i++) {
+                text.append(namen[i]).append('=').append(summen[i]).append('\n');
+            }
+            kanal.truncate(0);
+            kanal.write(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8)), 0);
+            return text.toString();
+        }
+    }
+
+    /**
+     * Die Zähler dieses Programmlaufs, z.B. für die Zusammenfassung des Stapelbetriebs.
+     */
+    public String toString() {
+        long anfragen = this.getTreffer() + this.getFehlschlaege();
+        return "Cache: "+this.getTreffer()+" Treffer, "+this.getFehlschlaege()+" Fehlschläge"+
+               (anfragen > 0 ? " ("+String.format("%.1f", 100.0 * this.getTreffer() / anfragen)+" % Treffer)" : "")+
+               ", "+this.getVerdraengt()+" verdrängt, "+this.getAnzahlEintraege()+" Einträge ("+
+               String.format("%.1f", this.getGroesse() / (1024.0 * 1024.0))+" MB)";
+    }
+}
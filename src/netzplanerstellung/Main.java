@@ -3,33 +3,98 @@ package netzplanerstellung;
 import netzplanerstellung.datenhaltung.*;
 import netzplanerstellung.logik.*;
 
-import java.util.List;
-
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 
 public class Main {
     public static void main (String args []) {
 
-        if (args.length != 2) {
-            System.err.println("Ungültige Anzahl an Argumenten! Erwarte Ein- und Ausgabedatei.");
-            System.exit(-1);
+        // mit -Dnetzplanerstellung.messung=<Datei> (bzw. - für die Konsole) werden die Phasen gemessen
+        starteMessung();
+
+        // mit -Dnetzplanerstellung.stufen=N werden Vorwärts- und Rückwärtsrechnung breiter Netzpläne auf N Threads verteilt
+        starteStufenRechnung();
+
+        // Servermodus: --server [port]
+        if (args.length >= 1 && args[0].equals("--server")) {
+            starteServer(args);
+            return;
         }
 
-        try {
-            // lese die Vorgänge und die Überschrift ein
-            VorgangLeser leser = new VorgangLeser(args[0]);
+        // Simulationsmodus: --simulation <Eingabe> <Ausgabe> <Läufe> [Termine]
+        if (args.length >= 1 && args[0].equals("--simulation")) {
+            simuliere(args);
+            return;
+        }
+
+        // Ressourcenmodus: --ressourcen <Eingabe> <Ressourcendatei> <Ausgabe>
+        if (args.length >= 1 && args[0].equals("--ressourcen")) {
+            planeRessourcen(args);
+            return;
+        }
+
+        // Szenariomodus: --szenarien <Eingabe> <Szenariodatei> <Ausgabe>
+        if (args.length >= 1 && args[0].equals("--szenarien")) {
+            rechneSzenarien(args);
+            return;
+        }
 
-            List<Vorgang> vorgaenge = leser.getVorgaenge();
-            String ueberschrift = leser.getUeberschrift();
+        // Prüfmodus: --pruefen <Eingabe> [weitere Eingaben]
+        if (args.length >= 1 && args[0].equals("--pruefen")) {
+            pruefe(args);
+            return;
+        }
+
+        // Crashmodus: --crashen <Eingabe> <Ausgabe> [Zieldauer]
+        if (args.length >= 1 && args[0].equals("--crashen")) {
+            crashe(args);
+            return;
+        }
+
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte Ein- und Ausgabedatei (bzw. -ordner)"+
+                               " sowie optional die maximale Anzahl auszugebender kritischer Pfade.");
+            System.exit(-1);
+        }
 
-            // erzeuge den Netzplan
-            Netzplan netzplan = new Netzplan(vorgaenge);
+        // optional kann die Anzahl der ausgegebenen kritischen Pfade begrenzt werden
+        long maxKritischePfade = Long.MAX_VALUE;
+        if (args.length == 3) {
+            try {
+                maxKritischePfade = Long.parseLong(args[2]);
+            } catch (NumberFormatException e) {
+                maxKritischePfade = -1;
+            }
+            if (maxKritischePfade < 0) {
+                System.err.println("Ungültige maximale Anzahl kritischer Pfade "+args[2]);
+                System.exit(-1);
+            }
+        }
 
-            // erzeuge den Projekt Report
-            ProjektReport report = new ProjektReport(args[1]);
-            report.erzeugeReport(netzplan, ueberschrift);
+        // mit -Dnetzplanerstellung.cache=<Ordner> werden bereits bekannte Ergebnisse nicht neu berechnet
+        ErgebnisCache cache = oeffneCache();
 
+        // ist die Eingabe ein Ordner, werden alle .in-Dateien darin verarbeitet
+        if (new File(args[0]).isDirectory()) {
+            verarbeiteOrdner(args[0], args[1], maxKritischePfade, cache);
+            return;
+        }
+
+        try {
+            // mit -Dnetzplanerstellung.schnappschuss=<Datei> wird der berechnete Netzplan zusätzlich gespeichert
+            String schnappschuss = System.getProperty("netzplanerstellung.schnappschuss");
+            if (cache != null && schnappschuss == null) {
+                try {
+                    verarbeiteMitCache(args[0], args[1], maxKritischePfade, cache);
+                } finally {
+                    speichereStatistik(cache);
+                }
+            } else {
+                verarbeite(args[0], args[1], maxKritischePfade, schnappschuss);
+            }
         } catch (DateiFormatException e) {
             // ein Fehler beim Einlesen ist aufgetreten!
             // gebe die Informationen aus und beende das Programm mit einem Fehlercode
@@ -50,4 +115,481 @@ public class Main {
             System.exit(-1);
         }
     }
+
+    /**
+     * Liest eine Eingabedatei, erstellt den Netzplan und schreibt den Report in die Ausgabedatei.
+     */
+    static void verarbeite(String eingabe, String ausgabe, long maxKritischePfade)
+        throws DateiFormatException, NetzplanException, IOException {
+        verarbeite(eingabe, ausgabe, maxKritischePfade, null);
+    }
+
+    /**
+     * Wie oben, ist die Eingabedatei ein Schnappschuss, wird der Netzplan ohne erneute Berechnung geladen.
+     * Ist schnappschuss nicht null, wird ein eingelesener Netzplan zusätzlich dort als Schnappschuss gespeichert.
+     */
+    static void verarbeite(String eingabe, String ausgabe, long maxKritischePfade, String schnappschuss)
+        throws DateiFormatException, NetzplanException, IOException {
+        // mit -Dnetzplanerstellung.auslagerung=<Ordner> liegen Vorgänge und Hilfsstrukturen in Dateien statt auf dem Heap
+        String auslagerung = System.getProperty("netzplanerstellung.auslagerung");
+        if (auslagerung != null && schnappschuss == null && !NetzplanSchnappschuss.istSchnappschuss(Path.of(eingabe))) {
+            verarbeiteAusgelagert(eingabe, ausgabe, maxKritischePfade, Path.of(auslagerung));
+            return;
+        }
+
+        // lese die Vorgänge und die Überschrift ein und erzeuge den Netzplan
+        GeladenerNetzplan geladen = ladeNetzplan(eingabe, Netzplan.Auswertung.VOLLSTAENDIG);
+        if (schnappschuss != null && !NetzplanSchnappschuss.istSchnappschuss(Path.of(eingabe))) {
+            NetzplanSchnappschuss.schreibe(geladen.netzplan, geladen.ueberschrift, Path.of(schnappschuss));
+        }
+
+        // erzeuge den Projekt Report
+        ProjektReport report = new ProjektReport(ausgabe, maxKritischePfade);
+        report.erzeugeReport(geladen.netzplan, geladen.ueberschrift);
+    }
+
+    /**
+     * Ein eingelesener bzw. aus einem Schnappschuss geladener Netzplan mit seiner Überschrift.
+     */
+    private static class GeladenerNetzplan {
+        private final Netzplan netzplan;
+        private final String ueberschrift;
+
+        private GeladenerNetzplan(Netzplan netzplan, String ueberschrift) {
+            this.netzplan = netzplan;
+            this.ueberschrift = ueberschrift;
+        }
+    }
+
+    /**
+     * Lädt den Netzplan aus einem Schnappschuss (ohne erneute Berechnung) oder liest die Eingabedatei ein
+     * und erstellt den Netzplan bis zur angegebenen Auswertung.
+     */
+    private static GeladenerNetzplan ladeNetzplan(String datei, Netzplan.Auswertung auswertung)
+        throws DateiFormatException, NetzplanException, IOException {
+        if (NetzplanSchnappschuss.istSchnappschuss(Path.of(datei))) {
+            NetzplanSchnappschuss geladen = NetzplanSchnappschuss.lade(Path.of(datei));
+            return new GeladenerNetzplan(geladen.getNetzplan(), geladen.getUeberschrift());
+        }
+        VorgangLeser leser = new VorgangLeser(datei);
+        return new GeladenerNetzplan(new Netzplan(leser.getTabelle(), auswertung), leser.getUeberschrift());
+    }
+
+    /**
+     * Wie oben, Vorgänge, Netzplan und Report werden jedoch über speicherabgebildete Dateien im Ordner
+     * auslagerung verarbeitet (siehe AusgelagerteTabelle), sodass auch Netzpläne größer als der Heap möglich sind.
+     */
+    static void verarbeiteAusgelagert(String eingabe, String ausgabe, long maxKritischePfade, Path auslagerung)
+        throws DateiFormatException, NetzplanException, IOException {
+        try {
+            VorgangLeser leser = new VorgangLeser(eingabe, auslagerung);
+            try (AusgelagerteTabelle vorgaenge = leser.getAusgelagerteTabelle();
+                 AusgelagerterNetzplan netzplan = new AusgelagerterNetzplan(vorgaenge)) {
+                new ProjektReport(ausgabe, maxKritischePfade).erzeugeReport(netzplan, leser.getUeberschrift());
+            }
+        } catch (UncheckedIOException e) {
+            // Fehler beim Anlegen oder Vergrößern der ausgelagerten Dateien
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wie oben, bereits bekannte Ergebnisse (Report oder Fehlermeldung) werden jedoch ohne Einlesen und
+     * Berechnung aus dem Cache geliefert, neue Ergebnisse werden dort gespeichert.
+     */
+    static void verarbeiteMitCache(String eingabe, String ausgabe, long maxKritischePfade, ErgebnisCache cache)
+        throws DateiFormatException, NetzplanException, IOException {
+        String schluessel = null;
+        if (!NetzplanSchnappschuss.istSchnappschuss(Path.of(eingabe))) {
+            try {
+                schluessel = cache.schluessel(Path.of(eingabe), maxKritischePfade);
+            } catch (IOException e) {
+                // die Eingabedatei ist nicht lesbar, der Fehler wird beim Einlesen gemeldet
+            }
+        }
+        if (schluessel == null) {
+            verarbeite(eingabe, ausgabe, maxKritischePfade);
+            return;
+        }
+        if (cache.liefereErgebnis(schluessel, Path.of(ausgabe))) {
+            return;
+        }
+
+        try {
+            verarbeite(eingabe, ausgabe, maxKritischePfade);
+        } catch (DateiFormatException | NetzplanException e) {
+            try {
+                cache.speichereFehler(schluessel, e);
+            } catch (IOException fehler) {
+                System.err.println("Warnung: Das Ergebnis kann nicht im Cache gespeichert werden: "+fehler.getMessage());
+            }
+            throw e;
+        }
+        try {
+            cache.speichereReport(schluessel, Path.of(ausgabe));
+        } catch (IOException fehler) {
+            // der Report selbst wurde geschrieben, ohne Cache ist nur der nächste Aufruf langsamer
+            System.err.println("Warnung: Das Ergebnis kann nicht im Cache gespeichert werden: "+fehler.getMessage());
+        }
+    }
+
+    /**
+     * Öffnet den mit -Dnetzplanerstellung.cache=<Ordner> angegebenen Cache (oder liefert null).
+     * Die maximale Größe wird mit -Dnetzplanerstellung.cache.mb=N festgelegt (Standard: 1024 MB).
+     */
+    private static ErgebnisCache oeffneCache() {
+        String ordner = System.getProperty("netzplanerstellung.cache");
+        if (ordner == null) {
+            return null;
+        }
+        long maxMegabyte = Long.getLong("netzplanerstellung.cache.mb", 1024);
+        if (maxMegabyte < 0) {
+            System.err.println("Ungültige Größe des Caches "+maxMegabyte);
+            System.exit(-1);
+        }
+        try {
+            return new ErgebnisCache(Path.of(ordner), maxMegabyte * 1024 * 1024);
+        } catch (IOException e) {
+            System.err.println("Der Cache "+ordner+" kann nicht verwendet werden: "+e.getMessage());
+            System.exit(-1);
+            return null;
+        }
+    }
+
+    /**
+     * Die Zusammenfassung der Messung wird beim Beenden geschrieben, auch wenn das Programm
+     * mit einem Fehler endet (die abgebrochene Phase fehlt dann). Aufbewahrt werden höchstens die letzten
+     * MessProtokoll.STANDARD_MAX_EINTRAEGE Phasen, damit der Servermodus nicht unbegrenzt Speicher belegt.
+     */
+    private static void starteMessung() {
+        String datei = System.getProperty("netzplanerstellung.messung");
+        if (datei == null) {
+            return;
+        }
+        MessProtokoll protokoll = new MessProtokoll();
+        Messung.setProtokoll(protokoll);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                protokoll.schreibe(datei);
+                if (protokoll.getVerworfen() > 0) {
+                    System.err.println("Hinweis: Die Messung enthält nur die letzten "+MessProtokoll.STANDARD_MAX_EINTRAEGE+
+                                       " Phasen, "+protokoll.getVerworfen()+" ältere wurden verworfen.");
+                }
+            } catch (IOException e) {
+                System.err.println("Warnung: "+e.getMessage());
+            }
+        }));
+    }
+
+    private static void starteStufenRechnung() {
+        Integer anzahlThreads = Integer.getInteger("netzplanerstellung.stufen");
+        if (anzahlThreads == null) {
+            return;
+        }
+        if (anzahlThreads < 1) {
+            System.err.println("Ungültige Anzahl an Threads "+anzahlThreads);
+            System.exit(-1);
+        }
+        StufenRechnung.setAnzahlThreads(anzahlThreads);
+    }
+
+    /**
+     * Die mit -Dnetzplanerstellung.threads=N festgelegte Anzahl der Threads (Standard: Anzahl der Prozessoren).
+     */
+    private static int leseAnzahlThreads() {
+        int anzahlThreads = Integer.getInteger("netzplanerstellung.threads", Runtime.getRuntime().availableProcessors());
+        if (anzahlThreads < 1) {
+            System.err.println("Ungültige Anzahl an Threads "+anzahlThreads);
+            System.exit(-1);
+        }
+        return anzahlThreads;
+    }
+
+    private static void speichereStatistik(ErgebnisCache cache) {
+        try {
+            cache.speichereStatistik();
+        } catch (IOException e) {
+            System.err.println("Warnung: Die Statistik des Caches kann nicht gespeichert werden: "+e.getMessage());
+        }
+    }
+
+    /**
+     * Stapelbetrieb: Fehler einzelner Dateien werden gesammelt und am Ende auf der Fehlerausgabe gemeldet,
+     * enthält mindestens eine Datei Fehler, endet das Programm nach der Zusammenfassung mit einem Fehlercode.
+     * Die Anzahl der Threads kann mit -Dnetzplanerstellung.threads=N festgelegt werden
+     * (Standard: Anzahl der Prozessoren).
+     */
+    private static void verarbeiteOrdner(String eingabeOrdner, String ausgabeOrdner, long maxKritischePfade,
+                                         ErgebnisCache cache) {
+        int anzahlThreads = leseAnzahlThreads();
+
+        StapelVerarbeitung stapel = new StapelVerarbeitung(new File(eingabeOrdner), new File(ausgabeOrdner),
+                                                           maxKritischePfade, anzahlThreads, cache);
+        try {
+            stapel.ausfuehren();
+        } catch (IOException e) {
+            // Ein- oder Ausgabeordner können nicht verwendet werden
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Die Verarbeitung wurde unterbrochen!");
+            System.exit(-1);
+        }
+        stapel.schreibeFehler(System.err);
+        stapel.schreibeZusammenfassung(System.out);
+        if (cache != null) {
+            speichereStatistik(cache);
+        }
+        if (stapel.getAnzahlFehler() > 0) {
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Monte-Carlo-Simulation der Gesamtdauer anhand der Dreipunktschätzungen der Eingabedatei (bzw. des
+     * Schnappschusses). Die Termine werden durch Kommas getrennt angegeben. Der Startwert wird mit
+     * -Dnetzplanerstellung.seed=N (Standard: 42), die Verteilung mit -Dnetzplanerstellung.verteilung=beta|dreieck
+     * und die Anzahl der Threads wie im Stapelbetrieb festgelegt. Der Durchsatz wird auf der Konsole ausgegeben.
+     */
+    private static void simuliere(String args []) {
+        if (args.length != 4 && args.length != 5) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte --simulation, Ein- und Ausgabedatei, die Anzahl"+
+                               " der Läufe sowie optional durch Kommas getrennte Termine.");
+            System.exit(-1);
+        }
+        long anzahlLaeufe;
+        try {
+            anzahlLaeufe = Long.parseLong(args[3]);
+        } catch (NumberFormatException e) {
+            anzahlLaeufe = -1;
+        }
+        if (anzahlLaeufe < 1) {
+            System.err.println("Ungültige Anzahl an Läufen "+args[3]);
+            System.exit(-1);
+        }
+        double [] termine = new double [0];
+        if (args.length == 5) {
+            String [] termineRoh = args[4].split(",");
+            termine = new double [termineRoh.length];
+            for (int i = 0; i < termineRoh.length; i++) {
+                try {
+                    termine[i] = Double.parseDouble(termineRoh[i].trim());
+                } catch (NumberFormatException e) {
+                    System.err.println("Ungültiger Termin "+termineRoh[i]);
+                    System.exit(-1);
+                }
+            }
+        }
+        long startwert = Long.getLong("netzplanerstellung.seed", 42);
+        String verteilungName = System.getProperty("netzplanerstellung.verteilung", "beta");
+        PertSimulation.Verteilung verteilung = null;
+        if (verteilungName.equals("beta")) {
+            verteilung = PertSimulation.Verteilung.BETA_PERT;
+        } else if (verteilungName.equals("dreieck")) {
+            verteilung = PertSimulation.Verteilung.DREIECK;
+        } else {
+            System.err.println("Unbekannte Verteilung "+verteilungName+", erwarte beta oder dreieck");
+            System.exit(-1);
+        }
+        int anzahlThreads = leseAnzahlThreads();
+
+        try {
+            GeladenerNetzplan geladen = ladeNetzplan(args[1], Netzplan.Auswertung.PRUEFUNG);
+            Netzplan netzplan = geladen.netzplan;
+            String ueberschrift = geladen.ueberschrift;
+
+            PertSimulation.Ergebnis ergebnis = new PertSimulation(netzplan, verteilung)
+                .simuliere(anzahlLaeufe, startwert, termine, anzahlThreads);
+            new SimulationsReport(args[2]).erzeugeReport(netzplan, ueberschrift, ergebnis, startwert);
+            System.out.println(ergebnis);
+        } catch (DateiFormatException | NetzplanException | IOException e) {
+            // Fehler beim Einlesen, bei der Erstellung des Netzplans oder bei der Ausgabe
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Ressourcengerechte Terminplanung mit den Kapazitäten und Bedarfen aus der Ressourcendatei (siehe
+     * RessourcenLeser). Die Prioritätsregel wird mit -Dnetzplanerstellung.regel=saz|sez|gp festgelegt
+     * (Standard: saz). Die Gesamtdauer mit und ohne Ressourcen wird zusätzlich auf der Konsole ausgegeben.
+     */
+    private static void planeRessourcen(String args []) {
+        if (args.length != 4) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte --ressourcen, die Eingabedatei, die"+
+                               " Ressourcendatei und die Ausgabedatei.");
+            System.exit(-1);
+        }
+        String regelName = System.getProperty("netzplanerstellung.regel", "saz");
+        RessourcenPlanung.Prioritaetsregel regel = null;
+        if (regelName.equals("saz")) {
+            regel = RessourcenPlanung.Prioritaetsregel.SPAETESTER_ANFANG;
+        } else if (regelName.equals("sez")) {
+            regel = RessourcenPlanung.Prioritaetsregel.SPAETESTES_ENDE;
+        } else if (regelName.equals("gp")) {
+            regel = RessourcenPlanung.Prioritaetsregel.GESAMTPUFFER;
+        } else {
+            System.err.println("Unbekannte Prioritätsregel "+regelName+", erwarte saz, sez oder gp");
+            System.exit(-1);
+        }
+
+        try {
+            GeladenerNetzplan geladen = ladeNetzplan(args[1], Netzplan.Auswertung.VOLLSTAENDIG);
+            Netzplan netzplan = geladen.netzplan;
+            String ueberschrift = geladen.ueberschrift;
+
+            Ressourcen ressourcen = new RessourcenLeser(args[2], netzplan.getTabelle()).getRessourcen();
+            RessourcenPlanung planung = new RessourcenPlanung(netzplan, ressourcen, regel);
+            new RessourcenReport(args[3]).erzeugeReport(planung, ueberschrift);
+            System.out.println(planung);
+        } catch (DateiFormatException | NetzplanException | IOException e) {
+            // Fehler beim Einlesen, bei der Erstellung des Netzplans oder bei der Ausgabe
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Berechnet die Szenarien der Szenariodatei (siehe SzenarioLeser) auf der Topologie des Netzplans und
+     * schreibt die Zusammenfassung in die Ausgabedatei. Die Anzahl der Threads wird wie im Stapelbetrieb
+     * festgelegt, der Durchsatz wird auf der Konsole ausgegeben.
+     */
+    private static void rechneSzenarien(String args []) {
+        if (args.length != 4) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte --szenarien, die Eingabedatei, die"+
+                               " Szenariodatei und die Ausgabedatei.");
+            System.exit(-1);
+        }
+        int anzahlThreads = leseAnzahlThreads();
+
+        try {
+            GeladenerNetzplan geladen = ladeNetzplan(args[1], Netzplan.Auswertung.VOLLSTAENDIG);
+            Netzplan netzplan = geladen.netzplan;
+            String ueberschrift = geladen.ueberschrift;
+
+            SzenarioLeser szenarien = new SzenarioLeser(args[2], netzplan.getTabelle());
+            SzenarioRechnung.Ergebnis ergebnis = new SzenarioRechnung(netzplan)
+                .rechne(szenarien.getDauern(), anzahlThreads, null);
+            new SzenarioReport(args[3]).erzeugeReport(netzplan, ueberschrift, szenarien.getNamen(), ergebnis);
+            System.out.println(ergebnis);
+        } catch (DateiFormatException | NetzplanException | IOException e) {
+            // Fehler beim Einlesen, bei der Erstellung des Netzplans oder bei der Ausgabe
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Prüft die Eingabedateien nur auf Fehler (Format, Konsistenz, Zusammenhang, Zyklen), ohne Zeitrechnung
+     * und Report. Je Datei wird das Ergebnis auf der Konsole ausgegeben, enthält mindestens eine Datei Fehler,
+     * endet das Programm mit einem Fehlercode.
+     */
+    private static void pruefe(String args []) {
+        if (args.length < 2) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte --pruefen und mindestens eine Eingabedatei.");
+            System.exit(-1);
+        }
+        boolean fehlerfrei = true;
+        for (int i = 1; i < args.length; i++) {
+            try {
+                VorgangLeser leser = new VorgangLeser(args[i]);
+                Netzplan netzplan = new Netzplan(leser.getTabelle(), Netzplan.Auswertung.PRUEFUNG);
+                System.out.println(args[i]+": gültig ("+netzplan.getTabelle(Netzplan.Auswertung.PRUEFUNG).getAnzahl()+
+                                   " Vorgänge)");
+            } catch (DateiFormatException | NetzplanException | IOException e) {
+                System.out.println(args[i]+": "+e.getMessage());
+                fehlerfrei = false;
+            }
+        }
+        if (!fehlerfrei) {
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Verkürzt den Netzplan mit den Crashangaben der Eingabedatei möglichst kostengünstig auf die Zieldauer
+     * (ohne Zieldauer so weit wie möglich) und schreibt die Zeit-Kosten-Kurve in die Ausgabedatei.
+     */
+    private static void crashe(String args []) {
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte --crashen, Ein- und Ausgabedatei sowie"+
+                               " optional die Zieldauer.");
+            System.exit(-1);
+        }
+        int zielDauer = 0;
+        if (args.length == 4) {
+            try {
+                zielDauer = Integer.parseInt(args[3]);
+            } catch (NumberFormatException e) {
+                zielDauer = -1;
+            }
+            if (zielDauer < 1) {
+                System.err.println("Ungültige Zieldauer "+args[3]);
+                System.exit(-1);
+            }
+        }
+
+        try {
+            GeladenerNetzplan geladen = ladeNetzplan(args[1], Netzplan.Auswertung.PRUEFUNG);
+            Netzplan netzplan = geladen.netzplan;
+            String ueberschrift = geladen.ueberschrift;
+
+            ZeitKostenOptimierung optimierung = new ZeitKostenOptimierung(netzplan, zielDauer);
+            new ZeitKostenReport(args[2]).erzeugeReport(optimierung, ueberschrift);
+            System.out.println(optimierung);
+        } catch (DateiFormatException | NetzplanException | IOException e) {
+            // Fehler beim Einlesen, bei der Erstellung des Netzplans oder bei der Ausgabe
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Startet den Server (Standardport 8080) und beendet ihn beim Herunterfahren der JVM.
+     * Die Anzahl der Threads wird wie im Stapelbetrieb über -Dnetzplanerstellung.threads=N festgelegt,
+     * die maximale Größe einer Anfrage mit -Dnetzplanerstellung.server.mb=N (Standard: 64 MB).
+     */
+    private static void starteServer(String args []) {
+        int port = 8080;
+        if (args.length > 2) {
+            System.err.println("Ungültige Anzahl an Argumenten! Erwarte --server und optional den Port.");
+            System.exit(-1);
+        }
+        if (args.length == 2) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                port = -1;
+            }
+            if (port < 0 || port > 65535) {
+                System.err.println("Ungültiger Port "+args[1]);
+                System.exit(-1);
+            }
+        }
+        int anzahlThreads = leseAnzahlThreads();
+
+        long maxMegabyte = Long.getLong("netzplanerstellung.server.mb", NetzplanServer.STANDARD_MAX_RUMPF / (1024 * 1024));
+        if (maxMegabyte < 1) {
+            System.err.println("Ungültige maximale Größe einer Anfrage "+maxMegabyte);
+            System.exit(-1);
+        }
+
+        try {
+            NetzplanServer server = new NetzplanServer(port, anzahlThreads, maxMegabyte * 1024 * 1024);
+            server.starten();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.beenden();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            System.out.println("Server läuft auf http://127.0.0.1:"+server.getPort()+"/netzplan");
+        } catch (IOException e) {
+            // der Port ist z.B. bereits belegt
+            System.err.println("Der Server konnte nicht gestartet werden: "+e.getMessage());
+            System.exit(-1);
+        }
+    }
 }
@@ -0,0 +1,343 @@
+package netzplanerstellung;
+
+import netzplanerstellung.datenhaltung.*;
+import netzplanerstellung.logik.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lokaler HTTP-Server, der Netzpläne dauerhaft im selben Prozess berechnet. So fallen Start der JVM und
+ * Aufwärmen des JIT-Compilers nur einmal an und nicht bei jedem Aufruf.
+ *
+ * POST /netzplan[?maxPfade=N]: der Rumpf enthält die Vorgänge im Eingabeformat (UTF-8, sofern im
+ * Content-Type kein anderer Zeichensatz angegeben ist), die Antwort ist der Report (200, text/plain).
+ * Fehler im Netzplan oder im Format werden als JSON gemeldet (422), z.B.
+ * {"fehler": "NetzplanException", "meldung": "..."}.
+ *
+ * POST /pruefung: wie oben, der Netzplan wird jedoch nur geprüft, die Antwort ist bei Erfolg
+ * {"gueltig": true, "vorgaenge": N} (200), Fehler werden wie oben gemeldet.
+ *
+ * GET /status: Anzahl der bisherigen Anfragen und Fehler sowie die Laufzeit als JSON.
+ *
+ * Andere Pfade werden mit 404 beantwortet, Rümpfe über der maximalen Größe mit 413.
+ * Der Server ist nur über die Loopback-Adresse erreichbar, die Anfragen werden parallel bearbeitet.
+ */
+public class NetzplanServer {
+    private HttpServer server;
+    private ExecutorService pool;
+    private long startZeit;
+    private AtomicLong anzahlAnfragen = new AtomicLong();
+    private AtomicLong anzahlFehler = new AtomicLong();
+    private long maxRumpf;
+
+    public static final long STANDARD_MAX_RUMPF = 64L * 1024 * 1024;
+
+    public NetzplanServer(int port, int anzahlThreads) throws IOException {
+        this(port, anzahlThreads, STANDARD_MAX_RUMPF);
+    }
+
+    /**
+     * Wie oben, Anfragen mit mehr als maxRumpf Bytes im Rumpf werden abgelehnt.
+     */
+    public NetzplanServer(int port, int anzahlThreads, long maxRumpf) throws IOException {
+        this.maxRumpf = maxRumpf;
+        // ohne TCP_NODELAY wartet jede Antwort auf die verzögerte Bestätigung des Clients (ca. 40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/netzplan", this::bearbeiteNetzplan);
+        this.server.createContext("/pruefung", this::bearbeitePruefung);
+        this.server.createContext("/status", this::bearbeiteStatus);
+        this.pool = Executors.newFixedThreadPool(anzahlThreads);
+        this.server.setExecutor(this.pool);
+    }
+
+    public void starten() {
+        this.startZeit = System.nanoTime();
+        this.server.start();
+    }
+
+    /**
+     * Beendet den Server, laufende Anfragen erhalten bis zu eine Sekunde Zeit.
+     */
+    public void beenden() throws InterruptedException {
+        this.server.stop(1);
+        this.pool.shutdown();
+        this.pool.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    private void bearbeiteNetzplan(HttpExchange anfrage) throws IOException {
+        this.anzahlAnfragen.incrementAndGet();
+        try (anfrage) {
+            if (!this.pfadGueltig(anfrage)) {
+                return;
+            }
+            if (!anfrage.getRequestMethod().equals("POST")) {
+                this.sendeFehler(anfrage, 405, "Methode", "Erwarte POST mit den Vorgängen im Rumpf!");
+                return;
+            }
+            if (!this.groesseGueltig(anfrage)) {
+                return;
+            }
+
+            // optional kann die Anzahl der ausgegebenen kritischen Pfade begrenzt werden
+            long maxKritischePfade = Long.MAX_VALUE;
+            String maxPfade = parameter(anfrage.getRequestURI().getRawQuery(), "maxPfade");
+            if (maxPfade != null) {
+                try {
+                    maxKritischePfade = Long.parseLong(maxPfade);
+                } catch (NumberFormatException e) {
+                    maxKritischePfade = -1;
+                }
+                if (maxKritischePfade < 0) {
+                    this.sendeFehler(anfrage, 400, "Parameter", "Ungültige maximale Anzahl kritischer Pfade "+maxPfade);
+                    return;
+                }
+            }
+
+            Netzplan netzplan;
+            String ueberschrift;
+            try {
+                VorgangLeser leser = new VorgangLeser(this.oeffneRumpf(anfrage));
+                ueberschrift = leser.getUeberschrift();
+                netzplan = new Netzplan(leser.getTabelle());
+            } catch (DateiFormatException | NetzplanException e) {
+                this.sendeFehler(anfrage, 422, e.getClass().getSimpleName(), e.getMessage());
+                return;
+            } catch (ZuGrosserRumpfException e) {
+                this.sendeFehler(anfrage, 413, "Rumpf", e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                this.sendeFehler(anfrage, 500, e.getClass().getSimpleName(), String.valueOf(e.getMessage()));
+                return;
+            }
+
+            // der Report wird direkt in die Antwort geschrieben (ohne Längenangabe, d.h. chunked)
+            anfrage.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            anfrage.sendResponseHeaders(200, 0);
+            ProjektReport.schreibeReport(netzplan, ueberschrift, Channels.newChannel(anfrage.getResponseBody()),
+                                         StandardCharsets.UTF_8, maxKritischePfade);
+        }
+    }
+
+    private void bearbeitePruefung(HttpExchange anfrage) throws IOException {
+        this.anzahlAnfragen.incrementAndGet();
+        try (anfrage) {
+            if (!this.pfadGueltig(anfrage)) {
+                return;
+            }
+            if (!anfrage.getRequestMethod().equals("POST")) {
+                this.sendeFehler(anfrage, 405, "Methode", "Erwarte POST mit den Vorgängen im Rumpf!");
+                return;
+            }
+            if (!this.groesseGueltig(anfrage)) {
+                return;
+            }
+
+            Netzplan netzplan;
+            try {
+                VorgangLeser leser = new VorgangLeser(this.oeffneRumpf(anfrage));
+                netzplan = new Netzplan(leser.getTabelle(), Netzplan.Auswertung.PRUEFUNG);
+            } catch (DateiFormatException | NetzplanException e) {
+                this.sendeFehler(anfrage, 422, e.getClass().getSimpleName(), e.getMessage());
+                return;
+            } catch (ZuGrosserRumpfException e) {
+                this.sendeFehler(anfrage, 413, "Rumpf", e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                this.sendeFehler(anfrage, 500, e.getClass().getSimpleName(), String.valueOf(e.getMessage()));
+                return;
+            }
+            this.sende(anfrage, 200, "{\"gueltig\": true, \"vorgaenge\": "+
+                                     netzplan.getTabelle(Netzplan.Auswertung.PRUEFUNG).getAnzahl()+"}");
+        }
+    }
+
+    private void bearbeiteStatus(HttpExchange anfrage) throws IOException {
+        try (anfrage) {
+            if (!this.pfadGueltig(anfrage)) {
+                return;
+            }
+            long laufzeit = (System.nanoTime() - this.startZeit) / 1_000_000_000L;
+            this.sende(anfrage, 200, "{\"anfragen\": "+this.anzahlAnfragen.get()+", \"fehler\": "+this.anzahlFehler.get()+
+                                     ", \"laufzeitSekunden\": "+laufzeit+"}");
+        }
+    }
+
+    /**
+     * Die Kontexte werden nach dem Präfix zugeordnet, daher wird hier der vollständige Pfad verglichen.
+     */
+    private boolean pfadGueltig(HttpExchange anfrage) throws IOException {
+        String pfad = anfrage.getRequestURI().getPath();
+        if (pfad.equals(anfrage.getHttpContext().getPath())) {
+            return true;
+        }
+        this.sendeFehler(anfrage, 404, "Pfad", "Unbekannter Pfad "+pfad);
+        return false;
+    }
+
+    /**
+     * Lehnt Anfragen ab, deren angegebene Länge bereits über der maximalen Größe liegt.
+     */
+    private boolean groesseGueltig(HttpExchange anfrage) throws IOException {
+        String laenge = anfrage.getRequestHeaders().getFirst("Content-Length");
+        if (laenge != null) {
+            try {
+                if (Long.parseLong(laenge.trim()) > this.maxRumpf) {
+                    this.sendeFehler(anfrage, 413, "Rumpf", zuGross(this.maxRumpf));
+                    return false;
+                }
+            } catch (NumberFormatException e) {
+                this.sendeFehler(anfrage, 400, "Rumpf", "Ungültige Länge "+laenge);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ohne Längenangabe (chunked) wird beim Lesen abgebrochen, sobald die maximale Größe überschritten ist.
+     */
+    private BufferedReader oeffneRumpf(HttpExchange anfrage) {
+        return new BufferedReader(new InputStreamReader(new BegrenzterRumpf(anfrage.getRequestBody(), this.maxRumpf),
+                                                        zeichensatz(anfrage)));
+    }
+
+    private static String zuGross(long maxRumpf) {
+        return "Der Rumpf ist größer als die maximal erlaubten "+maxRumpf+" Bytes!";
+    }
+
+    private static class ZuGrosserRumpfException extends IOException {
+        ZuGrosserRumpfException(long maxRumpf) {
+            super(zuGross(maxRumpf));
+        }
+    }
+
+    private static class BegrenzterRumpf extends FilterInputStream {
+        private long verbleibend;
+        private long maxRumpf;
+
+        BegrenzterRumpf(InputStream rumpf, long maxRumpf) {
+            super(rumpf);
+            this.verbleibend = maxRumpf;
+            this.maxRumpf = maxRumpf;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int zeichen = super.read();
+            if (zeichen >= 0) {
+                this.verbrauche(1);
+            }
+            return zeichen;
+        }
+
+        @Override
+        public int read(byte [] puffer, int anfang, int laenge) throws IOException {
+            int gelesen = super.read(puffer, anfang, laenge);
+            if (gelesen > 0) {
+                this.verbrauche(gelesen);
+            }
+            return gelesen;
+        }
+
+        private void verbrauche(int anzahl) throws ZuGrosserRumpfException {
+            this.verbleibend -= anzahl;
+            if (this.verbleibend < 0) {
+                throw new ZuGrosserRumpfException(this.maxRumpf);
+            }
+        }
+    }
+
+    private void sendeFehler(HttpExchange anfrage, int code, String art, String meldung) throws IOException {
+        this.anzahlFehler.incrementAndGet();
+        this.sende(anfrage, code, "{\"fehler\": \""+json(art)+"\", \"meldung\": \""+json(meldung)+"\"}");
+    }
+
+    private void sende(HttpExchange anfrage, int code, String json) throws IOException {
+        byte [] inhalt = json.getBytes(StandardCharsets.UTF_8);
+        anfrage.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        anfrage.sendResponseHeaders(code, inhalt.length);
+        try (OutputStream aus = anfrage.getResponseBody()) {
+            aus.write(inhalt);
+        }
+    }
+
+    /**
+     * Der Zeichensatz aus dem Content-Type der Anfrage, ansonsten UTF-8.
+     */
+    private static Charset zeichensatz(HttpExchange anfrage) {
+        String typ = anfrage.getRequestHeaders().getFirst("Content-Type");
+        if (typ != null) {
+            for (String teil: typ.split(";")) {
+                teil = teil.trim();
+                if (teil.toLowerCase().startsWith("charset=")) {
+                    try {
+                        return Charset.forName(teil.substring("charset=".length()).replace("\"", ""));
+                    } catch (IllegalArgumentException e) {
+                        // unbekannter Zeichensatz, verwende den Standard
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String paar: query.split("&")) {
+            if (paar.startsWith(name+"=")) {
+                return paar.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maskiert einen Text für die Verwendung in einem JSON-String.
+     */
+    private static String json(String text) {
+        StringBuilder resultat = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char zeichen = text.charAt(i);
+            switch (zeichen) {
+                case '"':  resultat.append("\\\""); break;
+                case '\\': resultat.append("\\\\"); break;
+                case '\n': resultat.append("\\n"); break;
+                case '\r': resultat.append("\\r"); break;
+                case '\t': resultat.append("\\t"); break;
+                default:
+                    if (zeichen < 0x20) {
+                        resultat.append(String.format("\\u%04x", (int) zeichen));
+                    } else {
+                        resultat.append(zeichen);
+                    }
+            }
+        }
+        return resultat.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package netzplanerstellung;
+
+import netzplanerstellung.datenhaltung.*;
+import netzplanerstellung.logik.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Verarbeitet alle .in-Dateien eines Ordners innerhalb einer JVM und schreibt die Reports als .out-Dateien
+ * in den Ausgabeordner. Die Dateien werden parallel auf einer festen Anzahl von Threads bearbeitet.
+ *
+ * Fehler in einzelnen Dateien beenden die Verarbeitung nicht, sie werden gesammelt und nach der
+ * Verarbeitung getrennt von der Zusammenfassung (Durchsatz und Latenz je Datei) ausgegeben.
+ * Mit einem Ergebniscache werden unveränderte Dateien nicht erneut berechnet.
+ */
+public class StapelVerarbeitung {
+    private File eingabeOrdner;
+    private File ausgabeOrdner;
+    private long maxKritischePfade;
+    private int anzahlThreads;
+    private ErgebnisCache cache;
+
+    // je Datei (sortiert nach Namen): die Bearbeitungsdauer und ggf. die Fehlermeldung
+    private File [] dateien;
+    private long [] latenzen;
+    private String [] fehler;
+    private long gesamtDauer;
+
+    public StapelVerarbeitung(File eingabeOrdner, File ausgabeOrdner, long maxKritischePfade, int anzahlThreads) {
+        this(eingabeOrdner, ausgabeOrdner, maxKritischePfade, anzahlThreads, null);
+    }
+
+    /**
+     * Wie oben, mit einem gemeinsamen Cache für alle Threads (oder null).
+     */
+    public StapelVerarbeitung(File eingabeOrdner, File ausgabeOrdner, long maxKritischePfade, int anzahlThreads,
+                              ErgebnisCache cache) {
+        this.cache = cache;
+        this.eingabeOrdner = eingabeOrdner;
+        this.ausgabeOrdner = ausgabeOrdner;
+        this.maxKritischePfade = maxKritischePfade;
+        this.anzahlThreads = anzahlThreads;
+    }
+
+    /**
+     * Bearbeitet alle Dateien und wartet, bis alle abgeschlossen sind.
+     */
+    public void ausfuehren() throws IOException, InterruptedException {
+        if (!this.ausgabeOrdner.isDirectory()) {
+            throw new IOException("Der Ausgabeordner "+this.ausgabeOrdner+" existiert nicht!");
+        }
+        this.dateien = this.eingabeOrdner.listFiles((ordner, name) -> name.endsWith(".in"));
+        if (this.dateien == null) {
+            throw new IOException("Der Eingabeordner "+this.eingabeOrdner+" kann nicht gelesen werden!");
+        }
+        Arrays.sort(this.dateien);
+        this.latenzen = new long [this.dateien.length];
+        this.fehler = new String [this.dateien.length];
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(this.anzahlThreads);
+        try {
+            List<Future<?>> auftraege = new ArrayList<>();
+            for (int i = 0; i < this.dateien.length; i++) {
+                final int index = i;
+                auftraege.add(pool.submit(() -> this.bearbeite(index)));
+            }
+            for (Future<?> auftrag: auftraege) {
+                try {
+                    auftrag.get();
+                } catch (ExecutionException e) {
+                    // bearbeite fängt alle Ausnahmen selbst ab, Fehler der JVM werden weitergereicht
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        this.gesamtDauer = System.nanoTime() - start;
+    }
+
+    private void bearbeite(int index) {
+        File eingabe = this.dateien[index];
+        String name = eingabe.getName();
+        File ausgabe = new File(this.ausgabeOrdner, name.substring(0, name.length() - ".in".length())+".out");
+
+        long start = System.nanoTime();
+        try {
+            if (this.cache != null) {
+                Main.verarbeiteMitCache(eingabe.getPath(), ausgabe.getPath(), this.maxKritischePfade, this.cache);
+            } else {
+                Main.verarbeite(eingabe.getPath(), ausgabe.getPath(), this.maxKritischePfade);
+            }
+        } catch (DateiFormatException | NetzplanException | IOException e) {
+            this.fehler[index] = e.getMessage();
+        } catch (RuntimeException e) {
+            // ein Programmfehler bei einer Datei soll die übrigen nicht verhindern
+            this.fehler[index] = e.toString();
+        }
+        this.latenzen[index] = System.nanoTime() - start;
+    }
+
+    public int getAnzahlDateien() {
+        return this.dateien.length;
+    }
+
+    public int getAnzahlFehler() {
+        int anzahl = 0;
+        for (String aktFehler: this.fehler) {
+            if (aktFehler != null) {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
+
+    /**
+     * Gibt die fehlerhaften Dateien mit ihren Fehlermeldungen aus.
+     */
+    public void schreibeFehler(PrintStream aus) {
+        for (int i = 0; i < this.dateien.length; i++) {
+            if (this.fehler[i] != null) {
+                aus.println("Fehler bei Abarbeitung von "+this.dateien[i].getName()+":");
+                aus.println(this.fehler[i]);
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl erfolgreicher und fehlerhafter Dateien sowie Durchsatz und Latenz aus.
+     */
+    public void schreibeZusammenfassung(PrintStream aus) {
+        long [] sortiert = this.latenzen.clone();
+        Arrays.sort(sortiert);
+        aus.println(this.dateien.length+" Dateien verarbeitet ("+this.anzahlThreads+" Threads), "+
+                    (this.dateien.length - this.getAnzahlFehler())+" erfolgreich, "+this.getAnzahlFehler()+" fehlerhaft.");
+        aus.println("Gesamtdauer: "+String.format("%.1f", this.gesamtDauer / 1e6)+" ms, "+
+                    String.format("%.1f", this.dateien.length / (this.gesamtDauer / 1e9))+" Dateien/s");
+        if (sortiert.length > 0) {
+            aus.println("Latenz je Datei: p50 "+String.format("%.2f", perzentil(sortiert, 50) / 1e6)+" ms, "+
+                        "p99 "+String.format("%.2f", perzentil(sortiert, 99) / 1e6)+" ms");
+        }
+        if (this.cache != null) {
+            aus.println(this.cache);
+        }
+    }
+
+    /**
+     * Perzentil nach dem Nearest-Rank-Verfahren, die Werte müssen aufsteigend sortiert sein.
+     */
+    private static long perzentil(long [] sortiert, int prozent) {
+        int rang = (int) Math.ceil(prozent / 100.0 * sortiert.length);
+        return sortiert[Math.max(rang, 1) - 1];
+    }
+}
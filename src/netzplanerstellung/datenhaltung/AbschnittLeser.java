@@ -0,0 +1,162 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.VorgangTabelle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Liest einen Abschnitt der Eingabedatei, der an einer Zeilengrenze beginnt und endet, in eine eigene Tabelle.
+ * Mehrere Abschnitte werden parallel im Fork-Join-Pool gelesen und anschließend vom VorgangLeser zusammengeführt.
+ *
+ * Alles, was vom Rest der Datei abhängt, wird hier nur vermerkt und erst beim Zusammenführen geprüft:
+ * Überschriften (nur eine pro Datei), Vorgangsnummern aus anderen Abschnitten und die Zeilennummern,
+ * die hier relativ zum Anfang des Abschnitts gezählt werden (beginnend bei 0).
+ */
+class AbschnittLeser extends RecursiveAction {
+    private FileChannel kanal;
+    private long position;
+    private int groesse;
+    private Charset zeichensatz;
+
+    private VorgangTabelle tabelle = new VorgangTabelle();
+    // die Zeile des Abschnitts, in der der Vorgang der jeweiligen Tabellenzeile steht
+    private int [] vorgangZeile = new int [16];
+    private int anzahlZeilen;
+
+    // Überschriften in der Reihenfolge ihres Auftretens
+    private List<Integer> ueberschriftZeilen = new ArrayList<>();
+    private List<String> ueberschriften = new ArrayList<>();
+
+    // die erste fehlerhafte Zeile, danach wird der Abschnitt nicht weiter gelesen
+    private int fehlerZeile = -1;
+    private String fehlerText;
+
+    AbschnittLeser(FileChannel kanal, long position, int groesse, Charset zeichensatz) {
+        this.kanal = kanal;
+        this.position = position;
+        this.groesse = groesse;
+        this.zeichensatz = zeichensatz;
+    }
+
+    @Override
+    protected void compute() {
+        MappedByteBuffer daten;
+        try {
+            daten = this.kanal.map(FileChannel.MapMode.READ_ONLY, this.position, this.groesse);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ZeilenParser parser = new ZeilenParser(this.zeichensatz);
+
+        int zeile = 0;
+        int anfang = 0;
+        while (anfang < this.groesse) {
+            // suche das Zeilenende (wie BufferedReader.readLine: \n, \r oder \r\n)
+            int ende = anfang;
+            while (ende < this.groesse && daten.get(ende) != '\n' && daten.get(ende) != '\r') {
+                ende++;
+            }
+
+            if (ende - anfang >= 2 && daten.get(anfang) == '/' && daten.get(anfang+1) == '/') {
+                // Überschrift oder Kommentar, Kommentare werden übersprungen
+                if (ende - anfang >= 3 && daten.get(anfang+2) == '+') {
+                    this.ueberschriftZeilen.add(zeile);
+                    this.ueberschriften.add(parser.dekodiere(daten, anfang, ende));
+                }
+            } else {
+                if (!parser.leseDatenzeile(daten, anfang, ende, this.tabelle)) {
+                    // die Zeile ist fehlerhaft oder ungewöhnlich, verarbeite sie auf dem bisherigen Weg
+                    // zunächst in einer eigenen Tabelle, damit bei einem Fehler keine unvollständige Zeile zurückbleibt
+                    String text = parser.dekodiere(daten, anfang, ende);
+                    VorgangTabelle einzeln = new VorgangTabelle(1);
+                    try {
+                        VorgangLeser.leseDatenzeile(text, zeile, einzeln);
+                    } catch (DateiFormatException e) {
+                        einzeln = null;
+                    }
+                    if (einzeln == null || this.tabelle.getZeile(einzeln.getNummer(0)) != -1) {
+                        // die Fehlermeldung wird beim Zusammenführen mit der richtigen Zeilennummer erzeugt
+                        this.fehlerZeile = zeile;
+                        this.fehlerText = text;
+                        return;
+                    }
+                    int neueZeile = this.tabelle.neuerVorgang(einzeln.getNummer(0), einzeln.getBezeichnung(0), einzeln.getDauer(0));
+                    if (einzeln.hatDreipunktSchaetzung(0)) {
+                        this.tabelle.setDreipunktSchaetzung(neueZeile, einzeln.getOptimistisch(0), einzeln.getWahrscheinlich(0),
+                                                            einzeln.getPessimistisch(0));
+                    }
+                    if (einzeln.hatCrashAngabe(0)) {
+                        this.tabelle.setCrashAngabe(neueZeile, einzeln.getCrashDauer(0), einzeln.getCrashKosten(0));
+                    }
+                    for (int i = einzeln.getVorgaengerAnfang(0); i < einzeln.getVorgaengerEnde(0); i++) {
+                        this.tabelle.addVorgaenger(einzeln.getVorgaenger(i));
+                    }
+                    for (int i = einzeln.getNachfolgerAnfang(0); i < einzeln.getNachfolgerEnde(0); i++) {
+                        this.tabelle.addNachfolger(einzeln.getNachfolger(i));
+                    }
+                }
+                int tabellenZeile = this.tabelle.getAnzahl() - 1;
+                if (tabellenZeile == this.vorgangZeile.length) {
+                    this.vorgangZeile = Arrays.copyOf(this.vorgangZeile, 2 * this.vorgangZeile.length);
+                }
+                this.vorgangZeile[tabellenZeile] = zeile;
+            }
+            zeile++;
+
+            // überspringe den Zeilenumbruch
+            if (ende + 1 < this.groesse && daten.get(ende) == '\r' && daten.get(ende+1) == '\n') {
+                ende++;
+            }
+            anfang = ende + 1;
+        }
+        this.anzahlZeilen = zeile;
+    }
+
+    VorgangTabelle getTabelle() {
+        return this.tabelle;
+    }
+
+    /**
+     * Die Zeile des Abschnitts, in der der Vorgang der angegebenen Tabellenzeile steht.
+     */
+    int getVorgangZeile(int tabellenZeile) {
+        return this.vorgangZeile[tabellenZeile];
+    }
+
+    /**
+     * Die Anzahl der Zeilen des Abschnitts (nur gültig, wenn kein Fehler aufgetreten ist).
+     */
+    int getAnzahlZeilen() {
+        return this.anzahlZeilen;
+    }
+
+    List<Integer> getUeberschriftZeilen() {
+        return this.ueberschriftZeilen;
+    }
+
+    List<String> getUeberschriften() {
+        return this.ueberschriften;
+    }
+
+    boolean hatFehler() {
+        return this.fehlerZeile != -1;
+    }
+
+    int getFehlerZeile() {
+        return this.fehlerZeile;
+    }
+
+    String getFehlerText() {
+        return this.fehlerText;
+    }
+}
@@ -0,0 +1,100 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.Messung;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Sammelt die gemessenen Phasen (siehe Messung) und schreibt sie als maschinenlesbare Zusammenfassung,
+ * je Phase eine Zeile in der Reihenfolge ihres Abschlusses:
+ *
+ *   Phase;Dauer [ns];Vorgänge;Kanten;Ergebnisse;Schritte;Maximum
+ *   ADJAZENZEN;1843211;100000;299731;0;299731;14
+ *
+ * Es werden höchstens maxEintraege Phasen in einem Ringpuffer aufbewahrt, bei länger laufenden Prozessen
+ * (z.B. im Servermodus) enthält die Zusammenfassung daher nur die zuletzt abgeschlossenen Phasen.
+ */
+public class MessProtokoll implements Messung.Protokoll {
+    public static final int STANDARD_MAX_EINTRAEGE = 100_000;
+    private static final int SPALTEN = 7;
+
+    // je Eintrag SPALTEN Werte hintereinander, naechster ist die Position des ältesten Eintrags
+    private final long [] eintraege;
+    private int naechster;
+    private long anzahl;
+
+    public MessProtokoll() {
+        this(STANDARD_MAX_EINTRAEGE);
+    }
+
+    public MessProtokoll(int maxEintraege) {
+        this.eintraege = new long [maxEintraege * SPALTEN];
+    }
+
+    @Override
+    public synchronized void erfasse(Messung.Phase phase, long dauer, long vorgaenge, long kanten, long ergebnisse,
+                                     long schritte, long maximum) {
+        if (this.eintraege.length == 0) {
+            this.anzahl++;
+            return;
+        }
+        int position = this.naechster * SPALTEN;
+        this.eintraege[position] = phase.ordinal();
+        this.eintraege[position + 1] = dauer;
+        this.eintraege[position + 2] = vorgaenge;
+        this.eintraege[position + 3] = kanten;
+        this.eintraege[position + 4] = ergebnisse;
+        this.eintraege[position + 5] = schritte;
+        this.eintraege[position + 6] = maximum;
+        this.naechster = (this.naechster + 1) % (this.eintraege.length / SPALTEN);
+        this.anzahl++;
+    }
+
+    /**
+     * Anzahl der Phasen, die wegen der begrenzten Größe nicht mehr in der Zusammenfassung enthalten sind.
+     */
+    public synchronized long getVerworfen() {
+        return Math.max(this.anzahl - this.eintraege.length / SPALTEN, 0);
+    }
+
+    /**
+     * Schreibt die Zusammenfassung in die angegebene Datei, bei "-" auf die Konsole.
+     */
+    public void schreibe(String datei) throws IOException {
+        if (datei.equals("-")) {
+            PrintWriter aus = new PrintWriter(System.out);
+            this.schreibe(aus);
+            aus.flush();
+            return;
+        }
+        try (Writer aus = new FileWriter(datei)) {
+            this.schreibe(aus);
+        } catch (IOException e) {
+            // leite die Exception mit deutscher Fehlermeldung weiter
+            throw new IOException("Die angegebene Datei "+datei+" für die Messung kann nicht beschrieben oder erzeugt werden!");
+        }
+    }
+
+    private synchronized void schreibe(Writer aus) throws IOException {
+        String lineSep = System.getProperty("line.separator");
+        Messung.Phase [] phasen = Messung.Phase.values();
+        aus.write("Phase;Dauer [ns];Vorgänge;Kanten;Ergebnisse;Schritte;Maximum");
+        aus.write(lineSep);
+        int kapazitaet = this.eintraege.length / SPALTEN;
+        int vorhanden = (int) Math.min(this.anzahl, kapazitaet);
+        // der älteste Eintrag liegt bei vollem Puffer an der nächsten Schreibposition, sonst am Anfang
+        int anfang = this.anzahl > kapazitaet ? this.naechster : 0;
+        for (int i = 0; i < vorhanden; i++) {
+            int position = (anfang + i) % kapazitaet * SPALTEN;
+            aus.write(phasen[(int) this.eintraege[position]].name());
+            for (int spalte = 1; spalte < SPALTEN; spalte++) {
+                aus.write(";");
+                aus.write(Long.toString(this.eintraege[position + spalte]));
+            }
+            aus.write(lineSep);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package netzplanerstellung.datenhaltung;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Erzeugt synthetische Netzpläne im Eingabeformat für Last- und Skalierungstests.
+ *
+ * Die Vorgänge werden der Reihe nach geschrieben, ihre Vorgänger und Nachfolger ergeben sich aus der Form
+ * (bei geschichteten Plänen aus den Kanten der benachbarten Schichten). Der Speicherbedarf hängt daher
+ * nicht von der Anzahl der Vorgänge ab, auch Pläne mit 10^7 Vorgängen lassen sich erzeugen.
+ * Bei gleichem Seed entsteht dieselbe Datei.
+ *
+ * Formen:
+ *   kette      jeder Vorgang folgt auf den vorherigen
+ *   faecher    Meilensteine, zwischen denen jeweils breite parallele Vorgänge liegen
+ *              (Standard: ein Start, alle übrigen parallel, ein Ende)
+ *   schichten  zufälliger geschichteter Plan, Schichten der Breite breite, je grad Nachfolger in der nächsten Schicht
+ *   raute      Gitter mit breite Spalten, jeder Vorgang hat den rechten und den unteren Nachbarn als Nachfolger;
+ *              alle Dauern sind gleich, daher ist jeder Weg kritisch (Anzahl wächst exponentiell)
+ *   viele      breite Start- und breite Endvorgänge, verbunden über eine Kette
+ */
+public class NetzplanGenerator {
+    private String form;
+    private int anzahl;
+    private int breite;
+    private int grad;
+    private long seed;
+
+    private Writer ausgabe;
+    // true, solange in der aktuellen Liste noch kein Element geschrieben wurde
+    private boolean listeLeer;
+
+    /**
+     * Breite 0 wählt den Standard der Form.
+     */
+    public NetzplanGenerator(String form, int anzahl, int breite, int grad, long seed) {
+        if (anzahl < 2) {
+            throw new IllegalArgumentException("Ein Netzplan benötigt mindestens 2 Vorgänge!");
+        }
+        if (breite < 0 || grad < 1) {
+            throw new IllegalArgumentException("Ungültige Breite "+breite+" oder ungültiger Grad "+grad);
+        }
+        this.form = form;
+        this.anzahl = anzahl;
+        this.breite = breite;
+        this.grad = grad;
+        this.seed = seed;
+    }
+
+    public static void main(String args []) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Verwendung: NetzplanGenerator <kette|faecher|schichten|raute|viele> <Anzahl> <Ausgabedatei>"+
+                               " [breite=N] [grad=N] [seed=N]");
+            System.exit(-1);
+        }
+        int breite = 0;
+        int grad = 3;
+        long seed = 42;
+        try {
+            for (int i = 3; i < args.length; i++) {
+                String [] option = args[i].split("=", 2);
+                if (option.length != 2) {
+                    throw new IllegalArgumentException("Ungültige Option "+args[i]);
+                }
+                switch (option[0]) {
+                    case "breite": breite = Integer.parseInt(option[1]); break;
+                    case "grad": grad = Integer.parseInt(option[1]); break;
+                    case "seed": seed = Long.parseLong(option[1]); break;
+                    default: throw new IllegalArgumentException("Unbekannte Option "+option[0]);
+                }
+            }
+            NetzplanGenerator generator = new NetzplanGenerator(args[0], Integer.parseInt(args[1]), breite, grad, seed);
+            generator.schreibe(args[2]);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    public void schreibe(String datei) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(datei), 1 << 20)) {
+            this.schreibe(bw);
+        }
+    }
+
+    public void schreibe(Writer ausgabe) throws IOException {
+        this.ausgabe = ausgabe;
+        ausgabe.write("//+ Synthetischer Netzplan ("+this.form+", "+this.anzahl+" Vorgänge, Seed "+this.seed+")\n");
+        ausgabe.write("//Vorgangsnummer; Vorgangsbezeichnung; Dauer; Vorgänger; Nachfolger\n");
+        switch (this.form) {
+            case "kette": this.schreibeKette(); break;
+            case "faecher": this.schreibeFaecher(); break;
+            case "schichten": this.schreibeSchichten(); break;
+            case "raute": this.schreibeRaute(); break;
+            case "viele": this.schreibeViele(); break;
+            default: throw new IllegalArgumentException("Unbekannte Form "+this.form);
+        }
+        ausgabe.flush();
+    }
+
+    private void schreibeKette() throws IOException {
+        Random zufall = new Random(this.seed);
+        for (int v = 0; v < this.anzahl; v++) {
+            this.beginneVorgang(v, 1 + zufall.nextInt(20));
+            if (v > 0) {
+                this.element(v - 1);
+            }
+            this.naechsteListe();
+            if (v < this.anzahl - 1) {
+                this.element(v + 1);
+            }
+            this.beendeVorgang();
+        }
+    }
+
+    /**
+     * Meilenstein s liegt an Position s*(breite+1), danach folgen seine breite parallelen Nachfolger.
+     */
+    private void schreibeFaecher() throws IOException {
+        Random zufall = new Random(this.seed);
+        int b = this.breite > 0 ? this.breite : Math.max(this.anzahl - 2, 1);
+        int abschnitt = b + 1;
+        for (int v = 0; v < this.anzahl; v++) {
+            int meilenstein = v / abschnitt * abschnitt;
+            int naechster = meilenstein + abschnitt;
+            this.beginneVorgang(v, 1 + zufall.nextInt(20));
+            if (v == meilenstein) {
+                // Vorgänger sind die parallelen Vorgänge des vorherigen Abschnitts
+                for (int w = Math.max(meilenstein - b, 0); w < meilenstein; w++) {
+                    this.element(w);
+                }
+                this.naechsteListe();
+                for (int w = v + 1; w < Math.min(naechster, this.anzahl); w++) {
+                    this.element(w);
+                }
+            } else {
+                this.element(meilenstein);
+                this.naechsteListe();
+                if (naechster < this.anzahl) {
+                    this.element(naechster);
+                }
+            }
+            this.beendeVorgang();
+        }
+    }
+
+    /**
+     * Es werden immer nur die Kanten zwischen zwei benachbarten Schichtpaaren gehalten. Die Kanten eines
+     * Schichtpaars hängen nur vom Seed und der Nummer der Schicht ab. Jeder Vorgang hat den Vorgang an
+     * gleicher Stelle und (ab grad 2) dessen rechten Nachbarn als Nachfolger, so hängt der Plan zusammen.
+     */
+    private void schreibeSchichten() throws IOException {
+        Random zufall = new Random(this.seed);
+        // es werden mindestens zwei Schichten benötigt, sonst gäbe es keine Abhängigkeiten
+        int b = Math.min(this.breite > 0 ? this.breite : 1000, Math.max(this.anzahl / 2, 1));
+        if (this.grad < 2 && b > 1) {
+            throw new IllegalArgumentException("Geschichtete Pläne benötigen mindestens grad=2, sonst zerfallen sie!");
+        }
+        int anzahlSchichten = (this.anzahl + b - 1) / b;
+
+        int [][] vorgaenger = new int [0][];
+        for (int schicht = 0; schicht < anzahlSchichten; schicht++) {
+            int erster = schicht * b;
+            int groesse = Math.min(b, this.anzahl - erster);
+            int [][] nachfolger = this.schichtKanten(schicht, groesse, Math.min(b, Math.max(this.anzahl - erster - groesse, 0)));
+
+            for (int i = 0; i < groesse; i++) {
+                this.beginneVorgang(erster + i, 1 + zufall.nextInt(20));
+                if (schicht > 0) {
+                    for (int w: vorgaenger[i]) {
+                        this.element(erster - b + w);
+                    }
+                }
+                this.naechsteListe();
+                for (int w: nachfolger[i]) {
+                    this.element(erster + groesse + w);
+                }
+                this.beendeVorgang();
+            }
+            vorgaenger = umkehren(nachfolger, Math.min(b, Math.max(this.anzahl - erster - groesse, 0)));
+        }
+    }
+
+    /**
+     * Die Nachfolger (Position in der nächsten Schicht) jedes Vorgangs der Schicht.
+     */
+    private int [][] schichtKanten(int schicht, int groesse, int naechsteGroesse) {
+        int [][] nachfolger = new int [groesse][];
+        Random zufall = new Random(this.seed * 1_000_003L + schicht);
+        for (int i = 0; i < groesse; i++) {
+            int [] kinder = new int [Math.min(this.grad, naechsteGroesse)];
+            int k = 0;
+            if (k < kinder.length) {
+                kinder[k++] = i % naechsteGroesse;
+            }
+            if (k < kinder.length) {
+                kinder[k++] = (i + 1) % naechsteGroesse;
+            }
+            while (k < kinder.length) {
+                int kind = zufall.nextInt(naechsteGroesse);
+                boolean doppelt = false;
+                for (int j = 0; j < k; j++) {
+                    doppelt |= kinder[j] == kind;
+                }
+                if (!doppelt) {
+                    kinder[k++] = kind;
+                }
+            }
+            nachfolger[i] = kinder;
+        }
+        return nachfolger;
+    }
+
+    private static int [][] umkehren(int [][] nachfolger, int naechsteGroesse) {
+        int [] anzahlVorgaenger = new int [naechsteGroesse];
+        for (int [] kinder: nachfolger) {
+            for (int kind: kinder) {
+                anzahlVorgaenger[kind]++;
+            }
+        }
+        int [][] vorgaenger = new int [naechsteGroesse][];
+        for (int w = 0; w < naechsteGroesse; w++) {
+            vorgaenger[w] = new int [anzahlVorgaenger[w]];
+            anzahlVorgaenger[w] = 0;
+        }
+        for (int v = 0; v < nachfolger.length; v++) {
+            for (int kind: nachfolger[v]) {
+                vorgaenger[kind][anzahlVorgaenger[kind]++] = v;
+            }
+        }
+        return vorgaenger;
+    }
+
+    private void schreibeRaute() throws IOException {
+        int spalten = this.breite > 0 ? this.breite : (int) Math.max(Math.sqrt(this.anzahl), 1);
+        for (int v = 0; v < this.anzahl; v++) {
+            int spalte = v % spalten;
+            this.beginneVorgang(v, 1);
+            if (spalte > 0) {
+                this.element(v - 1);
+            }
+            if (v >= spalten) {
+                this.element(v - spalten);
+            }
+            this.naechsteListe();
+            if (spalte < spalten - 1 && v + 1 < this.anzahl) {
+                this.element(v + 1);
+            }
+            if (v + spalten < this.anzahl) {
+                this.element(v + spalten);
+            }
+            this.beendeVorgang();
+        }
+    }
+
+    /**
+     * Startvorgang i und Endvorgang i sind mit Vorgang i mod m der Kette (Länge m) verbunden.
+     */
+    private void schreibeViele() throws IOException {
+        Random zufall = new Random(this.seed);
+        int k = Math.min(this.breite > 0 ? this.breite : this.anzahl / 4, (this.anzahl - 1) / 2);
+        int m = this.anzahl - 2 * k;
+        for (int v = 0; v < this.anzahl; v++) {
+            this.beginneVorgang(v, 1 + zufall.nextInt(20));
+            if (v < k) {
+                // Startvorgang
+                this.naechsteListe();
+                this.element(k + v % m);
+            } else if (v < k + m) {
+                // Vorgang der Kette
+                int j = v - k;
+                if (j > 0) {
+                    this.element(v - 1);
+                }
+                for (int start = j; start < k; start += m) {
+                    this.element(start);
+                }
+                this.naechsteListe();
+                if (j < m - 1) {
+                    this.element(v + 1);
+                }
+                for (int ende = j; ende < k; ende += m) {
+                    this.element(k + m + ende);
+                }
+            } else {
+                // Endvorgang
+                this.element(k + (v - k - m) % m);
+                this.naechsteListe();
+            }
+            this.beendeVorgang();
+        }
+    }
+
+    /*
+     * Schreiben einer Zeile: beginneVorgang, Vorgänger mit element, naechsteListe, Nachfolger mit element, beendeVorgang.
+     * Die Vorgänge werden intern ab 0 gezählt, die Vorgangsnummern beginnen bei 1.
+     */
+
+    private void beginneVorgang(int v, int dauer) throws IOException {
+        this.ausgabe.write(Integer.toString(v + 1));
+        this.ausgabe.write("; Vorgang ");
+        this.ausgabe.write(Integer.toString(v + 1));
+        this.ausgabe.write("; ");
+        this.ausgabe.write(Integer.toString(dauer));
+        this.ausgabe.write("; ");
+        this.listeLeer = true;
+    }
+
+    private void element(int v) throws IOException {
+        if (!this.listeLeer) {
+            this.ausgabe.write(',');
+        }
+        this.ausgabe.write(Integer.toString(v + 1));
+        this.listeLeer = false;
+    }
+
+    private void naechsteListe() throws IOException {
+        this.ausgabe.write(this.listeLeer ? "-; " : "; ");
+        this.listeLeer = true;
+    }
+
+    private void beendeVorgang() throws IOException {
+        this.ausgabe.write(this.listeLeer ? "-\n" : "\n");
+    }
+}
@@ -3,79 +3,164 @@ package netzplanerstellung.datenhaltung;
 import netzplanerstellung.logik.*;
 
 import java.io.IOException;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.util.List;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Klasse zur Erzeugung der Ausgabedatei.
  */
 public class ProjektReport {
     private String datei;
+    // höchstens so viele kritische Pfade werden ausgegeben
+    private long maxKritischePfade;
 
     public ProjektReport(String datei) {
+        this(datei, Long.MAX_VALUE);
+    }
+
+    public ProjektReport(String datei, long maxKritischePfade) {
         this.datei = datei;
+        this.maxKritischePfade = maxKritischePfade;
     }
 
-    public void erzeugeReport(Netzplan plan, String ueberschrift) throws IOException{
+    public void erzeugeReport(BerechneterNetzplan plan, String ueberschrift) throws IOException{
         // versuche, die Datei zum schreiben zu öffnen
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(this.datei))) {
+        try (FileChannel kanal = FileChannel.open(Path.of(this.datei), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            schreibeReport(plan, ueberschrift, kanal, Charset.defaultCharset(), this.maxKritischePfade);
+        } catch (IOException | InvalidPathException e) {
+            // leite die Exception mit deutscher Fehlermeldung weiter
+            throw new IOException("Die angegebene Ausgabedatei "+this.datei+" kann nicht beschrieben oder erzeugt werden!");
+        }
+    }
 
-            // Mit welchem Zeichen werden auf diesem System Zeilen getrennt?
-            String lineSep = System.getProperty("line.separator");
+    /**
+     * Schreibt den Report in einen beliebigen Kanal (z.B. die Antwort des Servers oder
+     * Channels.newChannel(System.out)). Die Zeilen werden ohne Zwischenstrings direkt in einen
+     * wiederverwendeten Puffer formatiert (siehe ReportPuffer). Vorgänge, Anfangs- und Endvorgänge werden
+     * streamend aus der Tabelle geschrieben, sodass dies auch für einen AusgelagertenNetzplan funktioniert.
+     */
+    public static void schreibeReport(BerechneterNetzplan plan, String ueberschrift, WritableByteChannel kanal,
+                                      Charset zeichensatz, long maxKritischePfade) throws IOException {
+        Messung messung = Messung.beginne(Messung.Phase.REPORT);
 
-            // schreibe zunächst die Überschrift
-            bw.write(ueberschrift+lineSep+lineSep);
+        // Mit welchem Zeichen werden auf diesem System Zeilen getrennt?
+        String lineSep = System.getProperty("line.separator");
+        ReportPuffer aus = new ReportPuffer(kanal, zeichensatz);
 
-            // schreibe nun die Spaltenüberschriften
-            bw.write("Vorgangsnummer; Vorgangsbezeichnung; D; FAZ; FEZ; SAZ; SEZ; GP; FP"+lineSep);
+        // schreibe zunächst die Überschrift und die Spaltenüberschriften
+        schreibeKopf(aus, ueberschrift, lineSep);
 
-            // schreibe die einzelnen Vorgänge
-            for (Vorgang aktVorgang: plan.getVorgaenge()) {
-                bw.write(aktVorgang.toString()+lineSep);
-            }
-            bw.write(lineSep);
+        // schreibe die einzelnen Vorgänge (im selben Format wie Vorgang.toString())
+        Tabelle tabelle = plan.getTabelle();
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            schreibeVorgang(aus, tabelle.getNummer(zeile), tabelle.getBezeichnung(zeile), tabelle.getDauer(zeile),
+                            tabelle.getFAZ(zeile), tabelle.getFEZ(zeile), tabelle.getSAZ(zeile), tabelle.getSEZ(zeile),
+                            tabelle.getGP(zeile), tabelle.getFP(zeile), lineSep);
+        }
+        aus.schreibe(lineSep);
 
-            // schreibe nun die Anfangsvorgänge
-            bw.write("Anfangsvorgang: ");
-            List<Vorgang> anfangsVorgaenge = plan.getStartVorgaenge();
-            for (int i=0; i<anfangsVorgaenge.size(); i++) {
-                bw.write(anfangsVorgaenge.get(i).getNummer()+(i<anfangsVorgaenge.size()-1?",":""));
+        // schreibe nun die Anfangsvorgänge
+        aus.schreibe("Anfangsvorgang: ");
+        boolean erster = true;
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            if (plan.istStartVorgang(zeile)) {
+                aus.schreibe(erster ? "" : ",");
+                aus.schreibe(tabelle.getNummer(zeile));
+                erster = false;
             }
-            bw.write(lineSep);
+        }
+        aus.schreibe(lineSep);
 
-            // schreibe nun die Endvorgänge
-            bw.write("Endvorgang: ");
-            List<Vorgang> endVorgaenge = plan.getEndVorgaenge();
-            for (int i=0; i<endVorgaenge.size(); i++) {
-                bw.write(endVorgaenge.get(i).getNummer()+(i<endVorgaenge.size()-1?",":""));
-            }
-            bw.write(lineSep);
-
-            // schreibe die Gesamtdauer
-            int dauer = plan.getDauer();
-            bw.write("Gesamtdauer: ");
-            if (dauer == -1) {
-                bw.write("Nicht eindeutig");
-            } else {
-                bw.write(dauer+"");
-            }
-            bw.write(lineSep+lineSep);
-
-            // schreibe die kritischen Pfade
-            List<List<Integer>> pfade = plan.getKritischePfade();
-            bw.write((pfade.size()<=1?"Kritischer Pfad":"Kritische Pfade"));
-            bw.write(lineSep);
-            for (List<Integer> aktPfad: pfade) {
-                for (int i = 0; i < aktPfad.size(); i++) {
-                    bw.write(aktPfad.get(i)+(i<aktPfad.size()-1?"->":""));
-                }
-                bw.write(lineSep);
+        // schreibe nun die Endvorgänge
+        aus.schreibe("Endvorgang: ");
+        erster = true;
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            if (plan.istEndVorgang(zeile)) {
+                aus.schreibe(erster ? "" : ",");
+                aus.schreibe(tabelle.getNummer(zeile));
+                erster = false;
             }
+        }
+        aus.schreibe(lineSep);
 
-        } catch (IOException e) {
-            // leite die Exception mit deutscher Fehlermeldung weiter
-            throw new IOException("Die angegebene Ausgabedatei "+this.datei+" kann nicht beschrieben oder erzeugt werden!");
+        // schreibe die Gesamtdauer
+        schreibeGesamtdauer(aus, plan.getDauer(), lineSep);
+
+        // schreibe die kritischen Pfade
+        // diese werden zunächst nur gezählt und dann einzeln geschrieben, da ihre Anzahl sehr groß sein kann
+        BigInteger anzahlPfade = plan.getAnzahlKritischePfade();
+        schreibePfadUeberschrift(aus, anzahlPfade, maxKritischePfade, lineSep);
+        plan.besucheKritischePfade((pfad, laenge) -> schreibePfad(aus, pfad, laenge, lineSep), maxKritischePfade);
+        aus.abschliessen();
+        messung.beende(tabelle.getAnzahl(), 0, anzahlPfade.min(BigInteger.valueOf(maxKritischePfade)).longValue(), 0, 0);
+    }
+
+    private static void schreibeKopf(ReportPuffer aus, String ueberschrift, String lineSep) throws IOException {
+        aus.schreibe(ueberschrift);
+        aus.schreibe(lineSep);
+        aus.schreibe(lineSep);
+        aus.schreibe("Vorgangsnummer; Vorgangsbezeichnung; D; FAZ; FEZ; SAZ; SEZ; GP; FP");
+        aus.schreibe(lineSep);
+    }
+
+    /**
+     * Schreibt einen Vorgang im selben Format wie Vorgang.toString().
+     */
+    private static void schreibeVorgang(ReportPuffer aus, int nummer, String bezeichnung, int dauer, int faz, int fez,
+                                        int saz, int sez, int gp, int fp, String lineSep) throws IOException {
+        aus.schreibe(nummer);
+        aus.schreibe("; ");
+        aus.schreibe(bezeichnung);
+        aus.schreibe("; ");
+        aus.schreibe(dauer);
+        aus.schreibe("; ");
+        aus.schreibe(faz);
+        aus.schreibe("; ");
+        aus.schreibe(fez);
+        aus.schreibe("; ");
+        aus.schreibe(saz);
+        aus.schreibe("; ");
+        aus.schreibe(sez);
+        aus.schreibe("; ");
+        aus.schreibe(gp);
+        aus.schreibe("; ");
+        aus.schreibe(fp);
+        aus.schreibe(lineSep);
+    }
+
+    private static void schreibeGesamtdauer(ReportPuffer aus, int dauer, String lineSep) throws IOException {
+        aus.schreibe("Gesamtdauer: ");
+        if (dauer == -1) {
+            aus.schreibe("Nicht eindeutig");
+        } else {
+            aus.schreibe(dauer);
+        }
+        aus.schreibe(lineSep);
+        aus.schreibe(lineSep);
+    }
+
+    private static void schreibePfadUeberschrift(ReportPuffer aus, BigInteger anzahlPfade, long maxKritischePfade,
+                                                 String lineSep) throws IOException {
+        aus.schreibe((anzahlPfade.compareTo(BigInteger.ONE)<=0?"Kritischer Pfad":"Kritische Pfade"));
+        if (anzahlPfade.compareTo(BigInteger.valueOf(maxKritischePfade)) > 0) {
+            aus.schreibe(" ("+anzahlPfade+", davon die ersten "+maxKritischePfade+" aufgeführt)");
+        }
+        aus.schreibe(lineSep);
+    }
+
+    private static void schreibePfad(ReportPuffer aus, int [] pfad, int laenge, String lineSep) throws IOException {
+        for (int i = 0; i < laenge; i++) {
+            aus.schreibe(pfad[i]);
+            if (i<laenge-1) {
+                aus.schreibe("->");
+            }
         }
+        aus.schreibe(lineSep);
     }
 }
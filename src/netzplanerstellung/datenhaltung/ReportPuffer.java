@@ -0,0 +1,153 @@
+package netzplanerstellung.datenhaltung;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Schreibt Texte und Zahlen über einen wiederverwendeten Puffer in einen Kanal, ohne je Zeile
+ * Strings zu erzeugen. Zahlen werden direkt als Ziffern in den Puffer geschrieben, Texte aus
+ * ASCII-Zeichen zeichenweise übernommen.
+ *
+ * Das Ergebnis entspricht Byte für Byte dem eines Writers mit demselben Zeichensatz: Zeichen, die
+ * nicht ASCII sind, sowie alle Zeichensätze, die ASCII nicht unverändert abbilden, laufen über einen
+ * einzigen CharsetEncoder, der wie beim Writer nicht darstellbare Zeichen ersetzt.
+ */
+class ReportPuffer {
+    private static final int GROESSE = 1 << 16;
+
+    private WritableByteChannel kanal;
+    private CharsetEncoder kodierer;
+    // ASCII-Zeichen (und damit Ziffern) werden direkt als Bytes geschrieben
+    private boolean asciiDirekt;
+
+    // ein einzelnes High-Surrogate am Ende eines Textes wird wie beim Writer mit dem nächsten Text kodiert
+    private String uebrig;
+
+    private byte [] puffer = new byte [GROESSE];
+    private ByteBuffer huelle = ByteBuffer.wrap(this.puffer);
+    private int position;
+
+    ReportPuffer(WritableByteChannel kanal, Charset zeichensatz) {
+        this.kanal = kanal;
+        this.kodierer = zeichensatz.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiDirekt = zeichensatz.equals(StandardCharsets.UTF_8) || zeichensatz.equals(StandardCharsets.US_ASCII) ||
+                           zeichensatz.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    void schreibe(String text) throws IOException {
+        if (this.asciiDirekt && this.uebrig == null) {
+            int laenge = text.length();
+            int i = 0;
+            while (i < laenge) {
+                if (this.position == GROESSE) {
+                    this.leere();
+                }
+                // kopiere so viele ASCII-Zeichen wie in den Puffer passen
+                int ende = Math.min(laenge, i + GROESSE - this.position);
+                char zeichen;
+                while (i < ende && (zeichen = text.charAt(i)) < 0x80) {
+                    this.puffer[this.position++] = (byte) zeichen;
+                    i++;
+                }
+                if (i < ende) {
+                    // der Rest des Textes enthält andere Zeichen
+                    this.kodiere(text, i);
+                    return;
+                }
+            }
+        } else {
+            this.kodiere(text, 0);
+        }
+    }
+
+    void schreibe(int zahl) throws IOException {
+        if (!this.asciiDirekt || this.uebrig != null) {
+            this.kodiere(Integer.toString(zahl), 0);
+            return;
+        }
+        if (GROESSE - this.position < 11) {
+            this.leere();
+        }
+        if (zahl < 0) {
+            if (zahl == Integer.MIN_VALUE) {
+                // der Betrag ist als int nicht darstellbar
+                this.schreibe(Integer.toString(zahl));
+                return;
+            }
+            this.puffer[this.position++] = '-';
+            zahl = -zahl;
+        }
+        int stellen = 1;
+        for (int grenze = 10; stellen < 10 && grenze <= zahl; grenze *= 10) {
+            stellen++;
+        }
+        // die Ziffern werden von hinten eingetragen
+        for (int i = this.position + stellen - 1; i >= this.position; i--) {
+            this.puffer[i] = (byte) ('0' + zahl % 10);
+            zahl /= 10;
+        }
+        this.position += stellen;
+    }
+
+    private void kodiere(String text, int anfang) throws IOException {
+        CharBuffer zeichen = this.uebrig == null ? CharBuffer.wrap(text, anfang, text.length())
+                                                 : CharBuffer.wrap(this.uebrig + text.substring(anfang));
+        this.uebrig = null;
+        this.kodiere(zeichen, false);
+        if (zeichen.hasRemaining()) {
+            this.uebrig = zeichen.toString();
+        }
+    }
+
+    private void kodiere(CharBuffer zeichen, boolean ende) throws IOException {
+        while (true) {
+            this.huelle.limit(GROESSE).position(this.position);
+            CoderResult ergebnis = this.kodierer.encode(zeichen, this.huelle, ende);
+            this.position = this.huelle.position();
+            if (ergebnis.isOverflow()) {
+                this.leere();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Schreibt den Inhalt des Puffers in den Kanal.
+     */
+    void leere() throws IOException {
+        this.huelle.limit(this.position).position(0);
+        while (this.huelle.hasRemaining()) {
+            this.kanal.write(this.huelle);
+        }
+        this.position = 0;
+    }
+
+    /**
+     * Schließt die Kodierung ab (z.B. abschließende Bytes zustandsbehafteter Zeichensätze) und leert den Puffer.
+     */
+    void abschliessen() throws IOException {
+        this.kodiere(CharBuffer.wrap(this.uebrig == null ? "" : this.uebrig), true);
+        this.uebrig = null;
+        while (true) {
+            this.huelle.limit(GROESSE).position(this.position);
+            CoderResult ergebnis = this.kodierer.flush(this.huelle);
+            this.position = this.huelle.position();
+            if (ergebnis.isOverflow()) {
+                this.leere();
+            } else {
+                break;
+            }
+        }
+        this.leere();
+    }
+}
@@ -0,0 +1,124 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.*;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * Klasse zum Einlesen der Ressourcen eines Netzplans. Die Datei enthält (wie die Eingabedatei mit
+ * Semikolon getrennt) zunächst je Zeile eine Ressource mit ihrer Kapazität, danach je Zeile die Bedarfe
+ * eines Vorgangs als durch Kommas getrennte Paare Ressource=Menge. Vorgänge ohne Zeile benötigen keine
+ * Ressourcen. Zeilen, die mit // beginnen, sind Kommentare.
+ *
+ * Beispiel:
+ *   //Ressource; Kapazität
+ *   Kran; 1
+ *   Team; 4
+ *   //Vorgangsnummer; Bedarf
+ *   2; Kran=1, Team=2
+ *   3; Team=3
+ */
+public class RessourcenLeser {
+    private Ressourcen ressourcen = new Ressourcen();
+
+    /**
+     * Liest die Ressourcen für die Vorgänge der angegebenen Tabelle.
+     */
+    public RessourcenLeser(String datei, VorgangTabelle tabelle) throws FileNotFoundException, IOException, DateiFormatException {
+        // versuche, die Datei zum lesen zu öffnen
+        try (BufferedReader br = new BufferedReader(new FileReader(datei))) {
+            this.leseZeilen(br, tabelle);
+        } catch (FileNotFoundException e) {
+            // reiche die Fehlermeldung mit deutschem Text weiter
+            throw new FileNotFoundException("Die angegebene Ressourcendatei "+datei+" existiert nicht,"+
+                                            " ist ein Verzeichnis oder ist nicht lesbar!");
+        }
+    }
+
+    public Ressourcen getRessourcen() {
+        return this.ressourcen;
+    }
+
+    private void leseZeilen(BufferedReader br, VorgangTabelle tabelle) throws IOException, DateiFormatException {
+        // Vorgänge, deren Bedarf bereits gelesen wurde
+        BitSet gelesen = new BitSet(tabelle.getAnzahl());
+        int zeilenNr = 1;
+        for (String aktZeile = br.readLine(); aktZeile != null; aktZeile = br.readLine(), zeilenNr++) {
+            if (aktZeile.startsWith("//") || aktZeile.trim().isEmpty()) {
+                // Kommentar oder Überschrift
+                continue;
+            }
+            String daten [] = aktZeile.trim().split(";");
+            if (daten.length != 2) {
+                throw new DateiFormatException(zeilenNr, "Erwarte 2 Elemente pro Zeile, "+daten.length+" erhalten.");
+            }
+            if (daten[1].contains("=")) {
+                this.leseBedarf(daten, zeilenNr, tabelle, gelesen);
+            } else {
+                this.leseRessource(daten, zeilenNr);
+            }
+        }
+    }
+
+    private void leseRessource(String daten [], int zeilenNr) throws DateiFormatException {
+        String name = daten[0].trim();
+        if (name.isEmpty() || name.contains(",") || name.contains("=")) {
+            throw new DateiFormatException(zeilenNr, "Ungültiger Ressourcenname "+daten[0]);
+        }
+        if (this.ressourcen.getRessource(name) != -1) {
+            throw new DateiFormatException(zeilenNr, "Ressource "+name+" mehrfach vorhanden!");
+        }
+        int kapazitaet;
+        try {
+            kapazitaet = Integer.parseInt(daten[1].trim());
+        } catch (NumberFormatException e) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Kapazität "+daten[1]);
+        }
+        if (kapazitaet < 0) {
+            throw new DateiFormatException(zeilenNr, "Negative Kapazitäten sind nicht erlaubt!");
+        }
+        this.ressourcen.neueRessource(name, kapazitaet);
+    }
+
+    private void leseBedarf(String daten [], int zeilenNr, VorgangTabelle tabelle, BitSet gelesen) throws DateiFormatException {
+        int nummer;
+        try {
+            nummer = Integer.parseInt(daten[0].trim());
+        } catch (NumberFormatException e) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Vorgangsnummer "+daten[0]);
+        }
+        int zeile = tabelle.getZeile(nummer);
+        if (zeile == -1) {
+            throw new DateiFormatException(zeilenNr, "Der Vorgang "+nummer+" existiert nicht!");
+        }
+        if (gelesen.get(zeile)) {
+            throw new DateiFormatException(zeilenNr, "Bedarf für Vorgang "+nummer+" mehrfach vorhanden!");
+        }
+        gelesen.set(zeile);
+
+        for (String paar: daten[1].split(",")) {
+            String teile [] = paar.split("=");
+            if (teile.length != 2) {
+                throw new DateiFormatException(zeilenNr, "Ungültiger Bedarf "+paar.trim()+", erwarte Ressource=Menge");
+            }
+            int ressource = this.ressourcen.getRessource(teile[0].trim());
+            if (ressource == -1) {
+                throw new DateiFormatException(zeilenNr, "Unbekannte Ressource "+teile[0].trim());
+            }
+            int menge;
+            try {
+                menge = Integer.parseInt(teile[1].trim());
+            } catch (NumberFormatException e) {
+                throw new DateiFormatException(zeilenNr, "Ungültiger Bedarf "+paar.trim()+", erwarte Ressource=Menge");
+            }
+            if (menge < 0) {
+                throw new DateiFormatException(zeilenNr, "Negative Bedarfe sind nicht erlaubt!");
+            }
+            this.ressourcen.addBedarf(zeile, ressource, menge);
+        }
+    }
+}
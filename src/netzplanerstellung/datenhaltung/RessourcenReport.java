@@ -0,0 +1,107 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Klasse zur Erzeugung der Ausgabedatei einer ressourcengerechten Terminplanung: Gesamtdauer mit und
+ * ohne Ressourcen, Spitze und Auslastung jeder Ressource sowie Anfang und Ende jedes Vorgangs.
+ */
+public class RessourcenReport {
+    private String datei;
+
+    public RessourcenReport(String datei) {
+        this.datei = datei;
+    }
+
+    public void erzeugeReport(RessourcenPlanung planung, String ueberschrift) throws IOException {
+        // versuche, die Datei zum schreiben zu öffnen
+        try (FileChannel kanal = FileChannel.open(Path.of(this.datei), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            String lineSep = System.getProperty("line.separator");
+            ReportPuffer aus = new ReportPuffer(kanal, Charset.defaultCharset());
+            Netzplan plan = planung.getNetzplan();
+            Ressourcen ressourcen = planung.getRessourcen();
+
+            aus.schreibe(ueberschrift);
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Ressourcengerechte Terminplanung (Prioritätsregel: ");
+            switch (planung.getRegel()) {
+                case SPAETESTES_ENDE:
+                    aus.schreibe("SEZ");
+                    break;
+                case GESAMTPUFFER:
+                    aus.schreibe("GP");
+                    break;
+                default:
+                    aus.schreibe("SAZ");
+            }
+            aus.schreibe(")");
+            aus.schreibe(lineSep);
+            aus.schreibe("Gesamtdauer ohne Ressourcen: ");
+            int dauer = plan.getDauer();
+            if (dauer == -1) {
+                aus.schreibe("Nicht eindeutig (spätestes Ende ");
+                aus.schreibe(planung.getProjektdauerOhneRessourcen());
+                aus.schreibe(")");
+            } else {
+                aus.schreibe(dauer);
+            }
+            aus.schreibe(lineSep);
+            aus.schreibe("Gesamtdauer mit Ressourcen: ");
+            aus.schreibe(planung.getProjektdauer());
+            aus.schreibe(lineSep);
+            aus.schreibe("Verschobene Vorgänge: ");
+            aus.schreibe(planung.getAnzahlVerschoben());
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Ressource; Kapazität; Spitze; Auslastung");
+            aus.schreibe(lineSep);
+            for (int ressource = 0; ressource < ressourcen.getAnzahl(); ressource++) {
+                aus.schreibe(ressourcen.getName(ressource));
+                aus.schreibe("; ");
+                aus.schreibe(ressourcen.getKapazitaet(ressource));
+                aus.schreibe("; ");
+                aus.schreibe(planung.getSpitze(ressource));
+                aus.schreibe("; ");
+                aus.schreibe(String.format(Locale.ROOT, "%.4f", planung.getAuslastung(ressource)));
+                aus.schreibe(lineSep);
+            }
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Vorgangsnummer; Vorgangsbezeichnung; D; FAZ; Anfang; Ende; Verschiebung");
+            aus.schreibe(lineSep);
+            VorgangTabelle tabelle = plan.getTabelle();
+            for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+                aus.schreibe(tabelle.getNummer(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getBezeichnung(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getDauer(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getFAZ(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(planung.getAnfang(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(planung.getEnde(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(planung.getAnfang(zeile) - tabelle.getFAZ(zeile));
+                aus.schreibe(lineSep);
+            }
+            aus.abschliessen();
+        } catch (IOException | InvalidPathException e) {
+            // leite die Exception mit deutscher Fehlermeldung weiter
+            throw new IOException("Die angegebene Ausgabedatei "+this.datei+" kann nicht beschrieben oder erzeugt werden!");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Klasse zur Erzeugung der Ausgabedatei einer Monte-Carlo-Simulation: Verteilung der Gesamtdauer
+ * (Mittelwert, Streuung, Perzentile), Wahrscheinlichkeiten für die angegebenen Termine und der
+ * Kritikalitätsindex jedes Vorgangs. Kommazahlen werden unabhängig vom System mit Punkt geschrieben.
+ */
+public class SimulationsReport {
+    // diese Perzentile der Gesamtdauer werden ausgegeben
+    private static final int [] PERZENTILE = {5, 10, 25, 50, 75, 80, 90, 95, 99};
+
+    private String datei;
+
+    public SimulationsReport(String datei) {
+        this.datei = datei;
+    }
+
+    public void erzeugeReport(Netzplan plan, String ueberschrift, PertSimulation.Ergebnis ergebnis, long startwert)
+        throws IOException {
+        // versuche, die Datei zum schreiben zu öffnen
+        try (FileChannel kanal = FileChannel.open(Path.of(this.datei), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            String lineSep = System.getProperty("line.separator");
+            ReportPuffer aus = new ReportPuffer(kanal, Charset.defaultCharset());
+
+            aus.schreibe(ueberschrift);
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Monte-Carlo-Simulation ("+(ergebnis.getVerteilung() == PertSimulation.Verteilung.DREIECK ?
+                                                    "Dreiecksverteilung" : "Beta-PERT")+")");
+            aus.schreibe(lineSep);
+            aus.schreibe("Läufe: ");
+            aus.schreibe(Long.toString(ergebnis.getAnzahlLaeufe()));
+            aus.schreibe(lineSep);
+            aus.schreibe("Startwert: ");
+            aus.schreibe(Long.toString(startwert));
+            aus.schreibe(lineSep);
+            aus.schreibe("Gesamtdauer ohne Streuung: ");
+            int dauer = plan.getDauer();
+            if (dauer == -1) {
+                aus.schreibe("Nicht eindeutig");
+            } else {
+                aus.schreibe(dauer);
+            }
+            aus.schreibe(lineSep);
+            aus.schreibe("Mittelwert: "+zahl(ergebnis.getMittelwert())+"; Standardabweichung: "+
+                         zahl(ergebnis.getStandardabweichung()));
+            aus.schreibe(lineSep);
+            aus.schreibe("Minimum: "+zahl(ergebnis.getMinimum())+"; Maximum: "+zahl(ergebnis.getMaximum()));
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Perzentil; Gesamtdauer");
+            aus.schreibe(lineSep);
+            for (int perzentil: PERZENTILE) {
+                aus.schreibe("P"+perzentil+"; "+zahl(ergebnis.getPerzentil(perzentil / 100.0)));
+                aus.schreibe(lineSep);
+            }
+
+            double [] termine = ergebnis.getTermine();
+            if (termine.length > 0) {
+                aus.schreibe(lineSep);
+                aus.schreibe("Termin; Wahrscheinlichkeit der Fertigstellung");
+                aus.schreibe(lineSep);
+                for (int t = 0; t < termine.length; t++) {
+                    aus.schreibe(zahl(termine[t])+"; "+String.format(Locale.ROOT, "%.4f", ergebnis.getWahrscheinlichkeit(t)));
+                    aus.schreibe(lineSep);
+                }
+            }
+            aus.schreibe(lineSep);
+
+            // die Vorgänge in der Reihenfolge der Tabelle, ohne Schätzung gilt für O, M und P die Dauer
+            aus.schreibe("Vorgangsnummer; Vorgangsbezeichnung; D; O; M; P; Kritikalitätsindex");
+            aus.schreibe(lineSep);
+            VorgangTabelle tabelle = plan.getTabelle(Netzplan.Auswertung.PRUEFUNG);
+            for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+                aus.schreibe(tabelle.getNummer(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getBezeichnung(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getDauer(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getOptimistisch(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getWahrscheinlich(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getPessimistisch(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(String.format(Locale.ROOT, "%.4f", ergebnis.getKritikalitaet(zeile)));
+                aus.schreibe(lineSep);
+            }
+            aus.abschliessen();
+        } catch (IOException | InvalidPathException e) {
+            // leite die Exception mit deutscher Fehlermeldung weiter
+            throw new IOException("Die angegebene Ausgabedatei "+this.datei+" kann nicht beschrieben oder erzeugt werden!");
+        }
+    }
+
+    private static String zahl(double wert) {
+        return String.format(Locale.ROOT, "%.2f", wert);
+    }
+}
@@ -0,0 +1,128 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.*;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Klasse zum Einlesen von Szenarien für eine SzenarioRechnung. Jede Zeile enthält (mit Semikolon getrennt)
+ * den Namen eines Szenarios und die gegenüber dem Netzplan geänderten Dauern als durch Kommas getrennte
+ * Paare Vorgangsnummer=Dauer. Beginnt die Dauer mit + oder -, wird sie zur Dauer im Netzplan addiert.
+ * Zeilen, die mit // beginnen, sind Kommentare.
+ *
+ * Beispiel:
+ *   //Szenario; Änderungen
+ *   Lieferung verspätet; 3=+5
+ *   Zweites Team; 4=2, 7=3
+ */
+public class SzenarioLeser {
+    private List<String> namen = new ArrayList<>();
+    private List<int []> dauern = new ArrayList<>();
+
+    /**
+     * Liest die Szenarien für die Vorgänge der angegebenen Tabelle.
+     */
+    public SzenarioLeser(String datei, VorgangTabelle tabelle) throws FileNotFoundException, IOException, DateiFormatException {
+        // versuche, die Datei zum lesen zu öffnen
+        try (BufferedReader br = new BufferedReader(new FileReader(datei))) {
+            this.leseZeilen(br, tabelle);
+        } catch (FileNotFoundException e) {
+            // reiche die Fehlermeldung mit deutschem Text weiter
+            throw new FileNotFoundException("Die angegebene Szenariodatei "+datei+" existiert nicht,"+
+                                            " ist ein Verzeichnis oder ist nicht lesbar!");
+        }
+    }
+
+    public List<String> getNamen() {
+        return this.namen;
+    }
+
+    /**
+     * Die Dauern je Szenario nach Zeile der Tabelle (siehe SzenarioRechnung.rechne).
+     */
+    public int [][] getDauern() {
+        return this.dauern.toArray(new int [0][]);
+    }
+
+    private void leseZeilen(BufferedReader br, VorgangTabelle tabelle) throws IOException, DateiFormatException {
+        int [] basis = new int [tabelle.getAnzahl()];
+        for (int zeile = 0; zeile < basis.length; zeile++) {
+            basis[zeile] = tabelle.getDauer(zeile);
+        }
+        Set<String> bekannt = new HashSet<>();
+        int zeilenNr = 1;
+        for (String aktZeile = br.readLine(); aktZeile != null; aktZeile = br.readLine(), zeilenNr++) {
+            if (aktZeile.startsWith("//") || aktZeile.trim().isEmpty()) {
+                // Kommentar oder Überschrift
+                continue;
+            }
+            String daten [] = aktZeile.trim().split(";");
+            if (daten.length != 2) {
+                throw new DateiFormatException(zeilenNr, "Erwarte 2 Elemente pro Zeile, "+daten.length+" erhalten.");
+            }
+            String name = daten[0].trim();
+            if (name.isEmpty()) {
+                throw new DateiFormatException(zeilenNr, "Ungültiger Szenarioname "+daten[0]);
+            }
+            if (!bekannt.add(name)) {
+                throw new DateiFormatException(zeilenNr, "Szenario "+name+" mehrfach vorhanden!");
+            }
+            this.namen.add(name);
+            this.dauern.add(this.leseAenderungen(daten[1], zeilenNr, tabelle, basis));
+        }
+    }
+
+    private int [] leseAenderungen(String aenderungen, int zeilenNr, VorgangTabelle tabelle, int [] basis)
+        throws DateiFormatException {
+        int [] dauer = basis.clone();
+        // Vorgänge, deren Dauer in diesem Szenario bereits geändert wurde
+        BitSet geaendert = new BitSet(basis.length);
+        for (String paar: aenderungen.split(",")) {
+            String teile [] = paar.split("=");
+            if (teile.length != 2) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Änderung "+paar.trim()+", erwarte Vorgangsnummer=Dauer");
+            }
+            int zeile;
+            try {
+                zeile = tabelle.getZeile(Integer.parseInt(teile[0].trim()));
+            } catch (NumberFormatException e) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Vorgangsnummer "+teile[0].trim());
+            }
+            if (zeile == -1) {
+                throw new DateiFormatException(zeilenNr, "Der Vorgang "+teile[0].trim()+" existiert nicht!");
+            }
+            if (geaendert.get(zeile)) {
+                throw new DateiFormatException(zeilenNr, "Dauer von Vorgang "+teile[0].trim()+" mehrfach angegeben!");
+            }
+            geaendert.set(zeile);
+
+            String wert = teile[1].trim();
+            long neueDauer;
+            try {
+                neueDauer = Integer.parseInt(wert);
+            } catch (NumberFormatException e) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Änderung "+paar.trim()+", erwarte Vorgangsnummer=Dauer");
+            }
+            if (wert.startsWith("+") || wert.startsWith("-")) {
+                neueDauer += basis[zeile];
+            }
+            if (neueDauer <= 0) {
+                throw new DateiFormatException(zeilenNr, "Vorgang "+teile[0].trim()+" hätte die Dauer "+neueDauer+
+                                                         ", Dauern <= 0 sind nicht erlaubt!");
+            }
+            if (neueDauer > Integer.MAX_VALUE) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Änderung "+paar.trim()+", die Dauer ist zu groß");
+            }
+            dauer[zeile] = (int) neueDauer;
+        }
+        return dauer;
+    }
+}
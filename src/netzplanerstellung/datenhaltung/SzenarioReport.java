@@ -0,0 +1,91 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Klasse zur Erzeugung der Ausgabedatei einer Szenarioberechnung: je Szenario eine Zeile mit der Anzahl
+ * geänderter Dauern, der Gesamtdauer und ihrer Abweichung vom Netzplan sowie der Anzahl kritischer und
+ * verschobener Vorgänge. Die erste Zeile enthält den unveränderten Netzplan zum Vergleich.
+ */
+public class SzenarioReport {
+    private String datei;
+
+    public SzenarioReport(String datei) {
+        this.datei = datei;
+    }
+
+    public void erzeugeReport(Netzplan plan, String ueberschrift, List<String> namen, SzenarioRechnung.Ergebnis ergebnis)
+        throws IOException {
+        // versuche, die Datei zum schreiben zu öffnen
+        try (FileChannel kanal = FileChannel.open(Path.of(this.datei), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            String lineSep = System.getProperty("line.separator");
+            ReportPuffer aus = new ReportPuffer(kanal, Charset.defaultCharset());
+            VorgangTabelle tabelle = plan.getTabelle();
+
+            aus.schreibe(ueberschrift);
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Szenarien: ");
+            aus.schreibe(ergebnis.getAnzahlSzenarien());
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            // die Abweichung bezieht sich auf das späteste Ende, da die Gesamtdauer nicht eindeutig sein kann
+            int basisEnde = 0;
+            int basisKritisch = 0;
+            for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+                basisEnde = Math.max(basisEnde, tabelle.getFEZ(zeile));
+                if (tabelle.istKritisch(zeile)) {
+                    basisKritisch++;
+                }
+            }
+
+            aus.schreibe("Szenario; geänderte Dauern; Gesamtdauer; Abweichung; kritische Vorgänge; verschobene Vorgänge");
+            aus.schreibe(lineSep);
+            schreibeZeile(aus, "Netzplan", 0, plan.getDauer(), basisEnde, 0, basisKritisch, 0);
+            aus.schreibe(lineSep);
+            for (int szenario = 0; szenario < ergebnis.getAnzahlSzenarien(); szenario++) {
+                schreibeZeile(aus, namen.get(szenario), ergebnis.getAnzahlGeaendert(szenario), ergebnis.getDauer(szenario),
+                              ergebnis.getProjektende(szenario), ergebnis.getProjektende(szenario) - basisEnde,
+                              ergebnis.getAnzahlKritisch(szenario), ergebnis.getAnzahlVerschoben(szenario));
+                aus.schreibe(lineSep);
+            }
+            aus.abschliessen();
+        } catch (IOException | InvalidPathException e) {
+            // leite die Exception mit deutscher Fehlermeldung weiter
+            throw new IOException("Die angegebene Ausgabedatei "+this.datei+" kann nicht beschrieben oder erzeugt werden!");
+        }
+    }
+
+    private static void schreibeZeile(ReportPuffer aus, String name, int geaendert, int dauer, int projektende,
+                                      int abweichung, int kritisch, int verschoben) throws IOException {
+        aus.schreibe(name);
+        aus.schreibe("; ");
+        aus.schreibe(geaendert);
+        aus.schreibe("; ");
+        if (dauer == -1) {
+            aus.schreibe("Nicht eindeutig (spätestes Ende ");
+            aus.schreibe(projektende);
+            aus.schreibe(")");
+        } else {
+            aus.schreibe(dauer);
+        }
+        aus.schreibe("; ");
+        aus.schreibe(abweichung > 0 ? "+" : "");
+        aus.schreibe(abweichung);
+        aus.schreibe("; ");
+        aus.schreibe(kritisch);
+        aus.schreibe("; ");
+        aus.schreibe(verschoben);
+    }
+}
@@ -1,32 +1,125 @@
 package netzplanerstellung.datenhaltung;
 
+import netzplanerstellung.logik.AusgelagerteTabelle;
+import netzplanerstellung.logik.DateiFeld;
+import netzplanerstellung.logik.Messung;
+import netzplanerstellung.logik.NummernIndex;
 import netzplanerstellung.logik.Vorgang;
+import netzplanerstellung.logik.VorgangTabelle;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.RandomAccessFile;
+
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Klasse zum Einlesen von Vorgängen aus einer Datei.
+ *
+ * Standardmäßig wird die Datei in den Speicher abgebildet und byteweise gelesen (siehe ZeilenParser).
+ * Große Dateien werden dabei in Abschnitten parallel gelesen (siehe AbschnittLeser).
+ * Alternativ kann zeilenweise über einen BufferedReader gelesen werden. Für Netzpläne, die nicht auf den
+ * Heap passen, können die Vorgänge in eine AusgelagerteTabelle gelesen werden. Alle Wege liefern
+ * dieselben Vorgänge und dieselben Fehlermeldungen.
  */
 public class VorgangLeser {
-    private List<Vorgang> vorgaenge;
+    // größter Ausschnitt der Datei, der auf einmal in den Speicher abgebildet wird
+    private static final int FENSTER = 1 << 30;
+
+    // ab dieser Dateigröße wird parallel gelesen, die Abschnitte sind mindestens so groß
+    private static final long PARALLEL_AB = 8 << 20;
+    private static final long MINDEST_ABSCHNITT = 2 << 20;
+
+    private VorgangTabelle vorgaenge;
+    private AusgelagerteTabelle ausgelagert;
     private String ueberschrift;
 
     public VorgangLeser(String datei) throws FileNotFoundException, IOException, DateiFormatException {
-        this.leseVorgaenge(datei);
+        this(datei, true);
+    }
+
+    public VorgangLeser(String datei, boolean speicherAbbildung) throws FileNotFoundException, IOException, DateiFormatException {
+        Messung messung = Messung.beginne(Messung.Phase.EINLESEN);
+        if (speicherAbbildung) {
+            this.leseVorgaengeAbgebildet(datei);
+        } else {
+            this.leseVorgaenge(datei);
+        }
+        this.beende(messung);
+    }
+
+    /**
+     * Liest die Vorgänge in eine AusgelagerteTabelle, deren Dateien im Ordner auslagerung angelegt werden.
+     * Die Datei wird in einem Durchgang abgebildet und gelesen, Reihenfolge und Fehlermeldungen entsprechen
+     * den anderen Wegen. Die Tabelle gehört dem Aufrufer, er muss sie schließen.
+     */
+    public VorgangLeser(String datei, Path auslagerung) throws FileNotFoundException, IOException, DateiFormatException {
+        Messung messung = Messung.beginne(Messung.Phase.EINLESEN);
+        AusgelagerteTabelle resultat = new AusgelagerteTabelle(auslagerung);
+        try {
+            this.leseVorgaengeAusgelagert(datei, resultat);
+        } catch (IOException | DateiFormatException | RuntimeException e) {
+            resultat.close();
+            throw e;
+        }
+        if (messung.istAktiv()) {
+            messung.beende(resultat.getAnzahl(), resultat.getVorgaengerGrenze(), 0, 0, 0);
+        }
+    }
+
+    /**
+     * Liest die Vorgänge aus einem bereits geöffneten Text (z.B. aus einer Anfrage an den Server).
+     */
+    public VorgangLeser(BufferedReader eingabe) throws IOException, DateiFormatException {
+        Messung messung = Messung.beginne(Messung.Phase.EINLESEN);
+        this.leseZeilen(eingabe);
+        this.beende(messung);
+    }
+
+    /**
+     * Als Kanten werden die gelesenen Nachfolgerangaben gezählt (die Adjazenzen sind noch nicht aufgebaut).
+     */
+    private void beende(Messung messung) {
+        if (!messung.istAktiv()) {
+            return;
+        }
+        long nachfolger = 0;
+        for (int zeile = 0; zeile < this.vorgaenge.getAnzahl(); zeile++) {
+            nachfolger += this.vorgaenge.getNachfolgerEnde(zeile) - this.vorgaenge.getNachfolgerAnfang(zeile);
+        }
+        messung.beende(this.vorgaenge.getAnzahl(), nachfolger, 0, 0, 0);
     }
 
     public List<Vorgang> getVorgaenge() {
+        return this.vorgaenge.getVorgaenge();
+    }
+
+    public VorgangTabelle getTabelle() {
         return this.vorgaenge;
     }
 
+    /**
+     * Die Tabelle, sofern mit einem Ordner für die Auslagerung gelesen wurde (sonst null).
+     */
+    public AusgelagerteTabelle getAusgelagerteTabelle() {
+        return this.ausgelagert;
+    }
+
     public String getUeberschrift() {
         return this.ueberschrift;
     }
@@ -34,170 +127,680 @@ public class VorgangLeser {
     private void leseVorgaenge(String datei) throws FileNotFoundException, IOException, DateiFormatException{
         // versuche, die Datei zum lesen zu öffnen
         try (BufferedReader br = new BufferedReader(new FileReader(datei))) {
-            // die aktuelle Zeile
-            String aktZeile = br.readLine();
+            this.leseZeilen(br);
+        } catch (FileNotFoundException e) {
+            // die Datei existiert nicht, ist ein Verzeichnis oder ist nicht lesbar
+            // reiche die Fehlermeldung mit deutschem Text weiter
+            throw new FileNotFoundException("Die angegebene Eingabedatei "+datei+" existiert nicht,"+
+                                            " ist ein Verzeichnis oder ist nicht lesbar!");
+        } catch (IOException e) {
+            // Fehler beim Schliessen des BufferedReader
+            // Sollte in der Praxis nicht vorkommen, da die br.close()-Methode
+            // automatisch aufgerufen wird
+            throw new IOException("Ein schwerwiegender Fehler beim Lesen der Eingabedatei ist aufgetreten. Bitte kontaktieren Sie sofort den Entwickler!");
+        }
+    }
+
+    private void leseZeilen(BufferedReader br) throws IOException, DateiFormatException {
+        // die aktuelle Zeile
+        String aktZeile = br.readLine();
+
+        // die Nummer der aktuellen Zeile
+        // wird für die Fehlerbehandlung verwendet
+        int zeilenNr = 1;
+
+        // die Resultate werden spaltenweise in einer Tabelle gespeichert,
+        // deren Index prüft, ob eine Vorgangsnummer doppelt vorkommt (dies wäre ein Fehlerfall)
+        VorgangTabelle resultat = new VorgangTabelle();
+
+        // solange eine weitere Zeile existiert
+        while (aktZeile != null) {
+            // verarbeite die Zeile
+            this.leseZeile(aktZeile, zeilenNr, resultat);
+
+            // lese die nächste Zeile
+            aktZeile = br.readLine();
+            zeilenNr++;
+        }
 
-            // die Nummer der aktuellen Zeile
-            // wird für die Fehlerbehandlung verwendet
-            int zeilenNr = 1;
+        this.abschliessen(resultat);
+    }
+
+    private void leseVorgaengeAbgebildet(String datei) throws FileNotFoundException, IOException, DateiFormatException{
+        // versuche, die Datei zum lesen zu öffnen (wirft wie FileReader eine FileNotFoundException)
+        try (RandomAccessFile raf = new RandomAccessFile(datei, "r");
+             FileChannel kanal = raf.getChannel()) {
+
+            long groesse = kanal.size();
+
+            // große Dateien werden in Abschnitten parallel gelesen
+            if (groesse >= PARALLEL_AB && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                VorgangTabelle resultat = this.leseParallel(kanal, groesse);
+                if (resultat != null) {
+                    this.abschliessen(resultat);
+                    return;
+                }
+            }
+
+            ZeilenParser parser = new ZeilenParser(Charset.defaultCharset());
+            VorgangTabelle resultat = new VorgangTabelle();
+            this.leseFenster(kanal, groesse, parser, (fenster, anfang, ende, zeilenNr) -> {
+                if (!parser.leseDatenzeile(fenster, anfang, ende, resultat)) {
+                    // die Zeile ist fehlerhaft oder ungewöhnlich, verarbeite sie auf dem bisherigen Weg
+                    this.leseZeile(parser.dekodiere(fenster, anfang, ende), zeilenNr, resultat);
+                }
+            });
+
+            this.abschliessen(resultat);
+
+        } catch (FileNotFoundException e) {
+            // die Datei existiert nicht, ist ein Verzeichnis oder ist nicht lesbar
+            // reiche die Fehlermeldung mit deutschem Text weiter
+            throw new FileNotFoundException("Die angegebene Eingabedatei "+datei+" existiert nicht,"+
+                                            " ist ein Verzeichnis oder ist nicht lesbar!");
+        } catch (IOException e) {
+            // Fehler beim Abbilden oder Schliessen der Datei
+            throw new IOException("Ein schwerwiegender Fehler beim Lesen der Eingabedatei ist aufgetreten. Bitte kontaktieren Sie sofort den Entwickler!");
+        }
+    }
 
-            // die Resultate werden zunächst in einer Map Vorgangsnummer -> Vorgang gespeichert,
-            // damit leicht geprüft werden kann, ob eine Vorgangsnummer doppelt vorkommt (dies wäre ein Fehlerfall)
-            Map<Integer, Vorgang> resultat = new HashMap<>();
+    private void leseVorgaengeAusgelagert(String datei, AusgelagerteTabelle resultat)
+        throws FileNotFoundException, IOException, DateiFormatException {
+        // versuche, die Datei zum lesen zu öffnen (wirft wie FileReader eine FileNotFoundException)
+        try (RandomAccessFile raf = new RandomAccessFile(datei, "r");
+             FileChannel kanal = raf.getChannel()) {
+            ZeilenParser parser = new ZeilenParser(Charset.defaultCharset());
+            this.leseFenster(kanal, kanal.size(), parser, (fenster, anfang, ende, zeilenNr) -> {
+                if (!parser.leseDatenzeile(fenster, anfang, ende, resultat)) {
+                    leseDatenzeile(parser.dekodiere(fenster, anfang, ende), zeilenNr, resultat);
+                }
+            });
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("Die angegebene Eingabedatei "+datei+" existiert nicht,"+
+                                            " ist ein Verzeichnis oder ist nicht lesbar!");
+        } catch (IOException e) {
+            throw new IOException("Ein schwerwiegender Fehler beim Lesen der Eingabedatei ist aufgetreten. Bitte kontaktieren Sie sofort den Entwickler!");
+        }
 
-            // solange eine weitere Zeile existiert
-            while (aktZeile != null) {
+        if (this.ueberschrift == null) {
+            throw new DateiFormatException("Fehler beim Einlesen: Keine Überschrift gefunden!");
+        }
+        try (DateiFeld reihenfolge = hashMapReihenfolge(resultat)) {
+            resultat.umordnen(reihenfolge);
+        }
+        this.ausgelagert = resultat;
+    }
 
-                // teste, ob es sich um eine Überschrift handelt
-                if (aktZeile.startsWith("//+")) {
+    /**
+     * Verarbeitet eine Datenzeile, die der ZeilenParser nicht übernommen hat, mit leseDatenzeile über eine
+     * Tabelle mit nur diesem Vorgang. Doppelte Vorgangsnummern werden vorher an derselben Stelle wie dort geprüft
+     * (nach Spaltenanzahl und Vorgangsnummer, vor allen weiteren Angaben), damit die Fehlermeldung gleich bleibt.
+     */
+    private static void leseDatenzeile(String aktZeile, int zeilenNr, AusgelagerteTabelle resultat) throws DateiFormatException {
+        String daten [] = aktZeile.trim().split(";");
+        if (daten.length >= 5 && daten.length <= 7) {
+            try {
+                int tmpNummer = Integer.parseInt(daten[0].trim());
+                if (resultat.getZeile(tmpNummer) != -1) {
+                    throw new DateiFormatException(zeilenNr, "Vorgangsnummer "+tmpNummer+" mehrfach vorhanden!");
+                }
+            } catch (NumberFormatException e) {
+                // wird von leseDatenzeile gemeldet
+            }
+        }
 
-                    // die Überschrift wurde noch nicht gesetzt
-                    if (this.ueberschrift == null) {
+        VorgangTabelle vorgang = new VorgangTabelle(1);
+        leseDatenzeile(aktZeile, zeilenNr, vorgang);
+        resultat.neuerVorgang(vorgang.getNummer(0), vorgang.getBezeichnung(0), vorgang.getDauer(0));
+        for (int i = vorgang.getVorgaengerAnfang(0); i < vorgang.getVorgaengerEnde(0); i++) {
+            resultat.addVorgaenger(vorgang.getVorgaenger(i));
+        }
+        for (int i = vorgang.getNachfolgerAnfang(0); i < vorgang.getNachfolgerEnde(0); i++) {
+            resultat.addNachfolger(vorgang.getNachfolger(i));
+        }
+    }
 
-                        // extrahiere die Überschrift und trenne nicht sichtbare Zeichen ab
-                        String tmpUeberschrift = aktZeile.substring(3).trim();
+    /**
+     * Verarbeitet eine Datenzeile fenster[anfang..ende) mit der Zeilennummer zeilenNr.
+     */
+    private interface DatenzeilenLeser {
+        void lese(ByteBuffer fenster, int anfang, int ende, int zeilenNr) throws DateiFormatException;
+    }
 
-                        if (tmpUeberschrift.equals("")) {
+    /**
+     * Bildet die Datei abschnittsweise in den Speicher ab und übergibt jede Datenzeile dem Leser,
+     * Überschriften werden hier verarbeitet und Kommentare übersprungen.
+     */
+    private void leseFenster(FileChannel kanal, long groesse, ZeilenParser parser, DatenzeilenLeser leser)
+        throws IOException, DateiFormatException {
+        // die Nummer der aktuellen Zeile
+        // wird für die Fehlerbehandlung verwendet
+        int zeilenNr = 1;
+
+        // die Datei wird abschnittsweise abgebildet, ein Abschnitt endet immer an einer Zeilengrenze
+        long fensterStart = 0;
+        while (fensterStart < groesse) {
+            int fensterGroesse = (int) Math.min(FENSTER, groesse - fensterStart);
+            boolean letztesFenster = fensterStart + fensterGroesse == groesse;
+            MappedByteBuffer fenster = kanal.map(FileChannel.MapMode.READ_ONLY, fensterStart, fensterGroesse);
+
+            int anfang = 0;
+            while (anfang < fensterGroesse) {
+                // suche das Zeilenende (wie BufferedReader.readLine: \n, \r oder \r\n)
+                int ende = anfang;
+                while (ende < fensterGroesse && fenster.get(ende) != '\n' && fenster.get(ende) != '\r') {
+                    ende++;
+                }
 
-                            // Fehler! Leere Überschriften sind ungültig!
-                            throw new DateiFormatException(zeilenNr, "Leere Überschriften sind ungültig!");
-                        } else {
-                            this.ueberschrift = tmpUeberschrift;
-                        }
-                    } else {
+                // die Zeile (oder ihr Zeilenumbruch) reicht in den nächsten Abschnitt
+                if (!letztesFenster && (ende == fensterGroesse ||
+                                        (fenster.get(ende) == '\r' && ende + 1 == fensterGroesse))) {
+                    break;
+                }
 
-                        // es existiert bereits eine Überschrift - die Datei ist ungültig!
-                        throw new DateiFormatException(zeilenNr, "Nur eine Überschrift pro Datei erlaubt!");
+                if (ende - anfang >= 2 && fenster.get(anfang) == '/' && fenster.get(anfang+1) == '/') {
+                    // Überschrift oder Kommentar, Kommentare werden übersprungen
+                    if (ende - anfang >= 3 && fenster.get(anfang+2) == '+') {
+                        this.leseUeberschrift(parser.dekodiere(fenster, anfang, ende), zeilenNr);
                     }
-                } else if (aktZeile.startsWith("//")) {
-                    // es handelt sich um eine Kommentarzeile
-                    // hier ist keine Aktion erforderlich
                 } else {
-                    // es handelt sich um eine Datenzeile
-                    
-                    // trenne die Zeile anhand des Semikolons auf
-                    String daten [] = aktZeile.trim().split(";");
-                    
-                    // teste, ob die Anzahl der Spalten korrekt ist
-                    if (daten.length != 5) {
-                        throw new DateiFormatException(zeilenNr, "Erwarte 5 Elemente pro Zeile, "+daten.length+" erhalten.");
-                    }
+                    leser.lese(fenster, anfang, ende, zeilenNr);
+                }
+                zeilenNr++;
 
-                    // versuche, die Vorgangsnummer auszulesen
-                    int tmpNummer;
-                    try {
-                        tmpNummer = Integer.parseInt(daten[0].trim());
-                    } catch (NumberFormatException e) {
-                        throw new DateiFormatException(zeilenNr, "Ungültige Vorgangsnummer "+daten[0]);
-                    }
+                // überspringe den Zeilenumbruch
+                if (ende < fensterGroesse && fenster.get(ende) == '\r' &&
+                    ende + 1 < fensterGroesse && fenster.get(ende+1) == '\n') {
+                    ende++;
+                }
+                anfang = ende + 1;
+            }
 
-                    // teste, ob die Vorgangsnummer eindeutig ist
-                    if (resultat.containsKey(tmpNummer)) {
-                        throw new DateiFormatException(zeilenNr, "Vorgangsnummer "+tmpNummer+" mehrfach vorhanden!");
-                    }
+            if (anfang == 0) {
+                throw new DateiFormatException(zeilenNr, "Die Zeile ist zu lang!");
+            }
+            fensterStart += Math.min(anfang, fensterGroesse);
+        }
+    }
 
-                    // versuche, die Vorgangsbezeichnung auszulesen
-                    String tmpBezeichnung = daten[1].trim();
-                    if (tmpBezeichnung.equals("")) {
-                        throw new DateiFormatException(zeilenNr, "Keine leere Vorgangsbezeichnung erlaubt!");
-                    }
+    /**
+     * Teilt die Datei an Zeilengrenzen in Abschnitte, liest diese parallel und führt sie zusammen.
+     * Liefert null, wenn ein Abschnitt wegen einer überlangen Zeile nicht abgebildet werden kann.
+     */
+    private VorgangTabelle leseParallel(FileChannel kanal, long groesse) throws IOException, DateiFormatException {
+        int parallelitaet = ForkJoinPool.getCommonPoolParallelism();
+        long anzahl = Math.max(Math.min(4L * parallelitaet, groesse / MINDEST_ABSCHNITT), groesse / (FENSTER / 2) + 1);
+
+        List<AbschnittLeser> abschnitte = new ArrayList<>();
+        long abschnittStart = 0;
+        for (long i = 1; i <= anzahl; i++) {
+            long abschnittEnde = groesse;
+            if (i < anzahl) {
+                abschnittEnde = naechsteZeile(kanal, Math.max(i * groesse / anzahl, abschnittStart), groesse);
+            }
+            if (abschnittEnde - abschnittStart > FENSTER) {
+                return null;
+            }
+            if (abschnittEnde > abschnittStart) {
+                abschnitte.add(new AbschnittLeser(kanal, abschnittStart, (int) (abschnittEnde - abschnittStart),
+                                                  Charset.defaultCharset()));
+            }
+            abschnittStart = abschnittEnde;
+        }
 
-                    // versuche, die Dauer des Vorgangs auszulesen
-                    int tmpDauer;
-                    try {
-                        tmpDauer = Integer.parseInt(daten[2].trim());
-                    } catch (NumberFormatException e) {
-                        throw new DateiFormatException(zeilenNr, "Ungültige Vorgangsdauer "+daten[2]);
-                    }
-                    // negative Dauern und Dauern=0 sind nicht erlaubt
-                    if (tmpDauer <= 0) {
-                        throw new DateiFormatException(zeilenNr, "Dauern <= 0 sind nicht erlaubt!");
-                    }
+        try {
+            ForkJoinTask.invokeAll(abschnitte);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return this.zusammenfuehren(abschnitte);
+    }
 
-                    // erzeuge den bis hierhin ausgelesenen Vorgang
-                    Vorgang tmpVorgang = new Vorgang(tmpNummer, tmpBezeichnung, tmpDauer);
-
-                    // lese nun die Vorgänger aus
-                    if (!daten[3].trim().equals("-")) {
-                        // es sind Vorgänger vorhanden
-                        String vorgaengerRoh [] = daten[3].trim().split(",");
-
-                        if (vorgaengerRoh.length == 0) {
-                            throw new DateiFormatException(zeilenNr, "Ungültige Angabe der Vorgänger "+daten[3]);
-                        }
-
-                        // füge die Vorgänger nun sukzessive hinzu
-                        for (String aktVorgaenger: vorgaengerRoh) {
-                            int tmpVorgaenger;
-                            try {
-                                tmpVorgaenger = Integer.parseInt(aktVorgaenger.trim());
-                            } catch (NumberFormatException e) {
-                                throw new DateiFormatException(zeilenNr, "Ungültiger Vorgänger "+aktVorgaenger);
-                            }
-                            // ist der Vorgänger noch nicht vorhanden?
-                            if (!tmpVorgang.getVorgaenger().contains(tmpVorgaenger)) {
-                                tmpVorgang.addVorgaenger(tmpVorgaenger);
-                            } else {
-                                // Fehler: Doppelter Vorgänger
-                                throw new DateiFormatException(zeilenNr, "Doppelter Vorgänger "+tmpVorgaenger);
-                            }
-                        }
+    /**
+     * Liefert die Position hinter dem ersten Zeilenumbruch ab position (\r\n zählt als ein Umbruch)
+     * oder das Dateiende.
+     */
+    private static long naechsteZeile(FileChannel kanal, long position, long groesse) throws IOException {
+        ByteBuffer puffer = ByteBuffer.allocate(8192);
+        while (position < groesse) {
+            puffer.clear();
+            int gelesen = kanal.read(puffer, position);
+            if (gelesen <= 0) {
+                break;
+            }
+            int weiter = gelesen;
+            for (int i = 0; i < gelesen; i++) {
+                byte zeichen = puffer.get(i);
+                if (zeichen == '\n') {
+                    return position + i + 1;
+                }
+                if (zeichen == '\r') {
+                    if (i + 1 < gelesen) {
+                        return position + i + (puffer.get(i+1) == '\n' ? 2 : 1);
                     }
+                    // das \r steht am Ende des Puffers, lese ab ihm erneut (sofern danach noch etwas folgt)
+                    weiter = Math.max(i, 1);
+                }
+            }
+            position += weiter;
+        }
+        return groesse;
+    }
+
+    /**
+     * Führt die parallel gelesenen Abschnitte zusammen. Dabei werden in Dateireihenfolge die Überschriften
+     * verarbeitet und doppelte Vorgangsnummern zwischen den Abschnitten gesucht, sodass derselbe Fehler
+     * mit derselben Zeilennummer gemeldet wird wie beim Lesen in einem Durchgang.
+     */
+    private VorgangTabelle zusammenfuehren(List<AbschnittLeser> abschnitte) throws DateiFormatException {
+        // Abschnitte nach dem ersten fehlerhaften werden nicht mehr benötigt
+        int letzter = 0;
+        while (letzter < abschnitte.size() - 1 && !abschnitte.get(letzter).hatFehler()) {
+            letzter++;
+        }
+        List<VorgangTabelle> teile = new ArrayList<>();
+        for (int i = 0; i <= letzter; i++) {
+            teile.add(abschnitte.get(i).getTabelle());
+        }
+        VorgangTabelle resultat = VorgangTabelle.verbinde(teile);
+
+        // die Nummer der ersten Zeile des aktuellen Abschnitts
+        int zeilenVersatz = 1;
+        int tabellenZeile = 0;
+        for (int i = 0; i <= letzter; i++) {
+            AbschnittLeser abschnitt = abschnitte.get(i);
+            List<Integer> ueberschriftZeilen = abschnitt.getUeberschriftZeilen();
+            int naechsteUeberschrift = 0;
+            int anzahlVorgaenge = abschnitt.getTabelle().getAnzahl();
+
+            for (int v = 0; v <= anzahlVorgaenge; v++) {
+                int zeile = v < anzahlVorgaenge ? abschnitt.getVorgangZeile(v) : Integer.MAX_VALUE;
+
+                // Überschriften, die vor dieser Zeile stehen
+                while (naechsteUeberschrift < ueberschriftZeilen.size() &&
+                       ueberschriftZeilen.get(naechsteUeberschrift) < zeile) {
+                    this.leseZeile(abschnitt.getUeberschriften().get(naechsteUeberschrift),
+                                   zeilenVersatz + ueberschriftZeilen.get(naechsteUeberschrift), resultat);
+                    naechsteUeberschrift++;
+                }
 
-                    // lese nun die Nachfolger aus
-                    if (!daten[4].trim().equals("-")) {
-                        // es sind Nachfolger vorhanden
-                        String nachfolgerRoh [] = daten[4].trim().split(",");
-
-                        if (nachfolgerRoh.length == 0) {
-                            throw new DateiFormatException(zeilenNr, "Ungültige Angabe der Nachfolger "+daten[4]);
-                        }
-
-                        // füge die Nachfolger nun sukzessive hinzu
-                        for (String aktNachfolger: nachfolgerRoh) {
-                            int tmpNachfolger;
-                            try {
-                                tmpNachfolger = Integer.parseInt(aktNachfolger.trim());
-                            } catch (NumberFormatException e) {
-                                throw new DateiFormatException(zeilenNr, "Ungültiger Nachfolger "+aktNachfolger);
-                            }
-                            // ist der Nachfolger noch nicht vorhanden?
-                            if (!tmpVorgang.getNachfolger().contains(tmpNachfolger)) {
-                                tmpVorgang.addNachfolger(tmpNachfolger);
-                            } else {
-                                // Fehler: Doppelter Nachfolger
-                                throw new DateiFormatException(zeilenNr, "Doppelter Nachfolger "+tmpNachfolger);
-                            }
-                        }
+                // der Index verweist auf das erste Vorkommen einer Nummer
+                if (v < anzahlVorgaenge) {
+                    int nummer = resultat.getNummer(tabellenZeile);
+                    if (resultat.getZeile(nummer) != tabellenZeile) {
+                        throw new DateiFormatException(zeilenVersatz + zeile, "Vorgangsnummer "+nummer+" mehrfach vorhanden!");
                     }
+                    tabellenZeile++;
+                }
+            }
+
+            if (abschnitt.hatFehler()) {
+                // lese die fehlerhafte Zeile erneut, nun mit allen Vorgängen davor, dies erzeugt die Fehlermeldung
+                this.leseZeile(abschnitt.getFehlerText(), zeilenVersatz + abschnitt.getFehlerZeile(), resultat);
+                throw new IllegalStateException("Zeile "+(zeilenVersatz + abschnitt.getFehlerZeile())+
+                                                " wurde beim erneuten Lesen nicht als fehlerhaft erkannt!");
+            }
+            zeilenVersatz += abschnitt.getAnzahlZeilen();
+        }
+        return resultat;
+    }
+
+    /**
+     * Verarbeitet eine einzelne Zeile der Eingabedatei (Überschrift, Kommentar oder Vorgang).
+     */
+    private void leseZeile(String aktZeile, int zeilenNr, VorgangTabelle resultat) throws DateiFormatException {
+        // teste, ob es sich um eine Überschrift handelt
+        if (aktZeile.startsWith("//+")) {
+            this.leseUeberschrift(aktZeile, zeilenNr);
+        } else if (aktZeile.startsWith("//")) {
+            // es handelt sich um eine Kommentarzeile
+            // hier ist keine Aktion erforderlich
+        } else {
+            // es handelt sich um eine Datenzeile
+            leseDatenzeile(aktZeile, zeilenNr, resultat);
+        }
+    }
+
+    /**
+     * Verarbeitet eine Überschrift (eine Zeile, die mit //+ beginnt).
+     */
+    private void leseUeberschrift(String aktZeile, int zeilenNr) throws DateiFormatException {
+        // die Überschrift wurde noch nicht gesetzt
+        if (this.ueberschrift == null) {
+
+            // extrahiere die Überschrift und trenne nicht sichtbare Zeichen ab
+            String tmpUeberschrift = aktZeile.substring(3).trim();
+
+            if (tmpUeberschrift.equals("")) {
+
+                // Fehler! Leere Überschriften sind ungültig!
+                throw new DateiFormatException(zeilenNr, "Leere Überschriften sind ungültig!");
+            } else {
+                this.ueberschrift = tmpUeberschrift;
+            }
+        } else {
+
+            // es existiert bereits eine Überschrift - die Datei ist ungültig!
+            throw new DateiFormatException(zeilenNr, "Nur eine Überschrift pro Datei erlaubt!");
+        }
+    }
+
+    /**
+     * Verarbeitet eine Datenzeile der Eingabedatei. Greift auf keinen Zustand des Lesers zu und kann daher
+     * auch für parallel eingelesene Abschnitte verwendet werden.
+     */
+    static void leseDatenzeile(String aktZeile, int zeilenNr, VorgangTabelle resultat) throws DateiFormatException {
+        // trenne die Zeile anhand des Semikolons auf
+        String daten [] = aktZeile.trim().split(";");
+                
+        // teste, ob die Anzahl der Spalten korrekt ist (die Dreipunktschätzung o/m/p und die Crashangabe
+        // Crashdauer/Kosten sind optional und folgen in beliebiger Reihenfolge als sechste und siebte Spalte)
+        if (daten.length < 5 || daten.length > 7) {
+            throw new DateiFormatException(zeilenNr, "Erwarte 5 bis 7 Elemente pro Zeile, "+daten.length+" erhalten.");
+        }
+
+        // versuche, die Vorgangsnummer auszulesen
+        int tmpNummer;
+        try {
+            tmpNummer = Integer.parseInt(daten[0].trim());
+        } catch (NumberFormatException e) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Vorgangsnummer "+daten[0]);
+        }
+
+        // teste, ob die Vorgangsnummer eindeutig ist
+        if (resultat.getZeile(tmpNummer) != -1) {
+            throw new DateiFormatException(zeilenNr, "Vorgangsnummer "+tmpNummer+" mehrfach vorhanden!");
+        }
+
+        // versuche, die Vorgangsbezeichnung auszulesen
+        String tmpBezeichnung = daten[1].trim();
+        if (tmpBezeichnung.equals("")) {
+            throw new DateiFormatException(zeilenNr, "Keine leere Vorgangsbezeichnung erlaubt!");
+        }
+
+        // versuche, die Dauer des Vorgangs auszulesen
+        int tmpDauer;
+        try {
+            tmpDauer = Integer.parseInt(daten[2].trim());
+        } catch (NumberFormatException e) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Vorgangsdauer "+daten[2]);
+        }
+        // negative Dauern und Dauern=0 sind nicht erlaubt
+        if (tmpDauer <= 0) {
+            throw new DateiFormatException(zeilenNr, "Dauern <= 0 sind nicht erlaubt!");
+        }
 
-                    // füge nun den neuen Vorgang dem Resultat hinzu
-                    resultat.put(tmpNummer, tmpVorgang);
+        // lese die optionalen Spalten, sie werden anhand der Anzahl ihrer Werte unterschieden
+        int [] tmpSchaetzung = null;
+        int [] tmpCrash = null;
+        for (int spalte = 5; spalte < daten.length; spalte++) {
+            if (daten[spalte].split("/").length == 2) {
+                if (tmpCrash != null) {
+                    throw new DateiFormatException(zeilenNr, "Nur eine Crashangabe pro Vorgang erlaubt!");
+                }
+                tmpCrash = leseCrashAngabe(daten[spalte].trim(), tmpDauer, zeilenNr);
+            } else {
+                if (tmpSchaetzung != null) {
+                    throw new DateiFormatException(zeilenNr, "Nur eine Dreipunktschätzung pro Vorgang erlaubt!");
                 }
+                tmpSchaetzung = leseDreipunktSchaetzung(daten[spalte].trim(), zeilenNr);
+            }
+        }
 
-                // lese die nächste Zeile
-                aktZeile = br.readLine();
-                zeilenNr++;
+        // erzeuge den bis hierhin ausgelesenen Vorgang
+        int zeile = resultat.neuerVorgang(tmpNummer, tmpBezeichnung, tmpDauer);
+        if (tmpSchaetzung != null) {
+            resultat.setDreipunktSchaetzung(zeile, tmpSchaetzung[0], tmpSchaetzung[1], tmpSchaetzung[2]);
+        }
+        if (tmpCrash != null) {
+            resultat.setCrashAngabe(zeile, tmpCrash[0], tmpCrash[1]);
+        }
+
+        // lese nun die Vorgänger aus
+        if (!daten[3].trim().equals("-")) {
+            // es sind Vorgänger vorhanden
+            String vorgaengerRoh [] = daten[3].trim().split(",");
+
+            if (vorgaengerRoh.length == 0) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Angabe der Vorgänger "+daten[3]);
             }
-            
-            // prüfe, ob eine Überschrift gefunden wurde
-            if (this.ueberschrift == null) {
-                throw new DateiFormatException("Fehler beim Einlesen: Keine Überschrift gefunden!");
+
+            // füge die Vorgänger nun sukzessive hinzu
+            // die bereits gelesenen werden in einem Index gehalten, damit die Prüfung auf doppelte
+            // Einträge auch bei tausenden Vorgängern linear bleibt
+            NummernIndex gelesen = new NummernIndex(vorgaengerRoh.length);
+            for (String aktVorgaenger: vorgaengerRoh) {
+                int tmpVorgaenger;
+                try {
+                    tmpVorgaenger = Integer.parseInt(aktVorgaenger.trim());
+                } catch (NumberFormatException e) {
+                    throw new DateiFormatException(zeilenNr, "Ungültiger Vorgänger "+aktVorgaenger);
+                }
+                // ist der Vorgänger noch nicht vorhanden?
+                if (gelesen.put(tmpVorgaenger, 0)) {
+                    resultat.addVorgaenger(tmpVorgaenger);
+                } else {
+                    // Fehler: Doppelter Vorgänger
+                    throw new DateiFormatException(zeilenNr, "Doppelter Vorgänger "+tmpVorgaenger);
+                }
             }
+        }
 
-            // speichere das Resultat in der entsprechenden Variable
-            this.vorgaenge = new ArrayList<>(resultat.values());
+        // lese nun die Nachfolger aus
+        if (!daten[4].trim().equals("-")) {
+            // es sind Nachfolger vorhanden
+            String nachfolgerRoh [] = daten[4].trim().split(",");
 
-        } catch (FileNotFoundException e) {
-            // die Datei existiert nicht, ist ein Verzeichnis oder ist nicht lesbar
-            // reiche die Fehlermeldung mit deutschem Text weiter
-            throw new FileNotFoundException("Die angegebene Eingabedatei "+datei+" existiert nicht,"+
-                                            " ist ein Verzeichnis oder ist nicht lesbar!");
-        } catch (IOException e) {
-            // Fehler beim Schliessen des BufferedReader
-            // Sollte in der Praxis nicht vorkommen, da die br.close()-Methode
-            // automatisch aufgerufen wird
-            throw new IOException("Ein schwerwiegender Fehler beim Lesen der Eingabedatei ist aufgetreten. Bitte kontaktieren Sie sofort den Entwickler!");
+            if (nachfolgerRoh.length == 0) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Angabe der Nachfolger "+daten[4]);
+            }
+
+            // füge die Nachfolger nun sukzessive hinzu
+            NummernIndex gelesen = new NummernIndex(nachfolgerRoh.length);
+            for (String aktNachfolger: nachfolgerRoh) {
+                int tmpNachfolger;
+                try {
+                    tmpNachfolger = Integer.parseInt(aktNachfolger.trim());
+                } catch (NumberFormatException e) {
+                    throw new DateiFormatException(zeilenNr, "Ungültiger Nachfolger "+aktNachfolger);
+                }
+                // ist der Nachfolger noch nicht vorhanden?
+                if (gelesen.put(tmpNachfolger, 0)) {
+                    resultat.addNachfolger(tmpNachfolger);
+                } else {
+                    // Fehler: Doppelter Nachfolger
+                    throw new DateiFormatException(zeilenNr, "Doppelter Nachfolger "+tmpNachfolger);
+                }
+            }
+        }
+    }
+
+    /**
+     * Liest eine Dreipunktschätzung optimistisch/wahrscheinlich/pessimistisch für die Simulation.
+     */
+    private static int [] leseDreipunktSchaetzung(String text, int zeilenNr) throws DateiFormatException {
+        String schaetzungRoh [] = text.split("/");
+        if (schaetzungRoh.length != 3) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Dreipunktschätzung "+text+
+                                                    ", erwarte optimistisch/wahrscheinlich/pessimistisch");
+        }
+        int [] schaetzung = new int [3];
+        for (int i = 0; i < 3; i++) {
+            try {
+                schaetzung[i] = Integer.parseInt(schaetzungRoh[i].trim());
+            } catch (NumberFormatException e) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Dreipunktschätzung "+text+
+                                                        ", erwarte optimistisch/wahrscheinlich/pessimistisch");
+            }
+        }
+        if (schaetzung[0] <= 0 || schaetzung[0] > schaetzung[1] || schaetzung[1] > schaetzung[2]) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Dreipunktschätzung "+text+
+                                                    ", es muss 0 < optimistisch <= wahrscheinlich <= pessimistisch gelten!");
+        }
+        return schaetzung;
+    }
+
+    /**
+     * Liest eine Crashangabe Crashdauer/Kosten je Zeiteinheit Verkürzung für die Zeit-Kosten-Optimierung.
+     */
+    private static int [] leseCrashAngabe(String text, int dauer, int zeilenNr) throws DateiFormatException {
+        String crashRoh [] = text.split("/");
+        int [] crash = new int [2];
+        for (int i = 0; i < 2; i++) {
+            try {
+                crash[i] = Integer.parseInt(crashRoh[i].trim());
+            } catch (NumberFormatException e) {
+                throw new DateiFormatException(zeilenNr, "Ungültige Crashangabe "+text+", erwarte Crashdauer/Kosten");
+            }
+        }
+        if (crash[0] <= 0 || crash[0] > dauer || crash[1] < 0) {
+            throw new DateiFormatException(zeilenNr, "Ungültige Crashangabe "+text+
+                                                    ", es muss 0 < Crashdauer <= Dauer und Kosten >= 0 gelten!");
+        }
+        return crash;
+    }
+
+    /**
+     * Prüft, ob eine Überschrift gefunden wurde, und speichert das Resultat.
+     */
+    private void abschliessen(VorgangTabelle resultat) throws DateiFormatException {
+        // prüfe, ob eine Überschrift gefunden wurde
+        if (this.ueberschrift == null) {
+            throw new DateiFormatException("Fehler beim Einlesen: Keine Überschrift gefunden!");
+        }
+
+        // bringe die Vorgänge in die bisherige Ausgabereihenfolge und speichere das Resultat
+        resultat.umordnen(hashMapReihenfolge(resultat));
+        this.vorgaenge = resultat;
+    }
+
+    /**
+     * Die Vorgänge wurden früher in einer HashMap Vorgangsnummer -> Vorgang gesammelt und in deren
+     * Iterationsreihenfolge ausgegeben. Diese Reihenfolge wird hier ohne Map nachgebildet:
+     * Die Vorgänge werden stabil nach ihrem Bucket in der endgültigen Tabellengröße sortiert.
+     *
+     * Nur wenn ein Bucket zwischenzeitlich so voll wird, dass die HashMap ihn in einen Baum umwandelt
+     * (oder vorzeitig vergrößert), weicht die Reihenfolge hiervon ab. In diesem seltenen Fall wird sie
+     * mit einer echten HashMap bestimmt.
+     */
+    private static int [] hashMapReihenfolge(VorgangTabelle tabelle) {
+        int n = tabelle.getAnzahl();
+
+        // Standardwerte der HashMap: Anfangsgröße 16, Ladefaktor 0.75, Baum ab dem 9. Eintrag eines Buckets
+        int kapazitaet = 16;
+        while (n > kapazitaet / 4 * 3) {
+            kapazitaet *= 2;
+        }
+
+        // prüfe für jede Tabellengröße, ob die in dieser Zeit eingefügten Vorgänge einen Bucket überfüllen
+        boolean ueberfuellt = false;
+        for (int aktKapazitaet = 16; !ueberfuellt && aktKapazitaet <= kapazitaet; aktKapazitaet *= 2) {
+            int [] belegung = new int [aktKapazitaet];
+            int eingefuegt = Math.min(n, aktKapazitaet / 4 * 3 + 1);
+            for (int zeile = 0; zeile < eingefuegt; zeile++) {
+                if (++belegung[bucket(tabelle.getNummer(zeile), aktKapazitaet)] > 8) {
+                    ueberfuellt = true;
+                    break;
+                }
+            }
+        }
+
+        int [] reihenfolge = new int [n];
+        if (ueberfuellt) {
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int zeile = 0; zeile < n; zeile++) {
+                map.put(tabelle.getNummer(zeile), zeile);
+            }
+            int position = 0;
+            for (int zeile: map.values()) {
+                reihenfolge[position++] = zeile;
+            }
+            return reihenfolge;
+        }
+
+        // stabiles Sortieren durch Zählen
+        int [] bucketStart = new int [kapazitaet + 1];
+        for (int zeile = 0; zeile < n; zeile++) {
+            bucketStart[bucket(tabelle.getNummer(zeile), kapazitaet) + 1]++;
+        }
+        for (int b = 0; b < kapazitaet; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        for (int zeile = 0; zeile < n; zeile++) {
+            reihenfolge[bucketStart[bucket(tabelle.getNummer(zeile), kapazitaet)]++] = zeile;
+        }
+        return reihenfolge;
+    }
+
+    /**
+     * Wie oben für eine ausgelagerte Tabelle, die Zählfelder liegen ebenfalls in Dateien. Im seltenen Fall
+     * eines überfüllten Buckets wird die Reihenfolge wie oben mit einer echten HashMap auf dem Heap bestimmt.
+     */
+    private static DateiFeld hashMapReihenfolge(AusgelagerteTabelle tabelle) {
+        int n = tabelle.getAnzahl();
+        Path ordner = tabelle.getOrdner();
+
+        long kapazitaet = 16;
+        while (n > kapazitaet / 4 * 3) {
+            kapazitaet *= 2;
+        }
+
+        boolean ueberfuellt = false;
+        for (long aktKapazitaet = 16; !ueberfuellt && aktKapazitaet <= kapazitaet; aktKapazitaet *= 2) {
+            try (DateiFeld belegung = new DateiFeld(ordner)) {
+                belegung.sicherstellen(4 * aktKapazitaet);
+                long eingefuegt = Math.min(n, aktKapazitaet / 4 * 3 + 1);
+                for (int zeile = 0; zeile < eingefuegt; zeile++) {
+                    long b = bucket(tabelle.getNummer(zeile), aktKapazitaet);
+                    int aktBelegung = belegung.getInt(b) + 1;
+                    belegung.setInt(b, aktBelegung);
+                    if (aktBelegung > 8) {
+                        ueberfuellt = true;
+                        break;
+                    }
+                }
+            }
         }
+
+        DateiFeld reihenfolge = new DateiFeld(ordner);
+        reihenfolge.sicherstellen(4L * n);
+        if (ueberfuellt) {
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int zeile = 0; zeile < n; zeile++) {
+                map.put(tabelle.getNummer(zeile), zeile);
+            }
+            int position = 0;
+            for (int zeile: map.values()) {
+                reihenfolge.setInt(position++, zeile);
+            }
+            return reihenfolge;
+        }
+
+        // stabiles Sortieren durch Zählen
+        try (DateiFeld bucketStart = new DateiFeld(ordner)) {
+            bucketStart.sicherstellen(4 * (kapazitaet + 1));
+            for (int zeile = 0; zeile < n; zeile++) {
+                long b = bucket(tabelle.getNummer(zeile), kapazitaet) + 1;
+                bucketStart.setInt(b, bucketStart.getInt(b) + 1);
+            }
+            for (long b = 0; b < kapazitaet; b++) {
+                bucketStart.setInt(b + 1, bucketStart.getInt(b + 1) + bucketStart.getInt(b));
+            }
+            for (int zeile = 0; zeile < n; zeile++) {
+                long b = bucket(tabelle.getNummer(zeile), kapazitaet);
+                int position = bucketStart.getInt(b);
+                reihenfolge.setInt(position, zeile);
+                bucketStart.setInt(b, position + 1);
+            }
+        }
+        return reihenfolge;
+    }
+
+    private static long bucket(int nummer, long kapazitaet) {
+        return (nummer ^ (nummer >>> 16)) & (kapazitaet - 1);
+    }
+
+    private static int bucket(int nummer, int kapazitaet) {
+        return (nummer ^ (nummer >>> 16)) & (kapazitaet - 1);
     }
 }
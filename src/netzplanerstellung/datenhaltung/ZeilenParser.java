@@ -0,0 +1,277 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.AusgelagerteTabelle;
+import netzplanerstellung.logik.VorgangTabelle;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Liest Datenzeilen direkt aus den Bytes einer (speicherabgebildeten) Datei, ohne für die einzelnen
+ * Felder Strings zu erzeugen. Nur die Vorgangsbezeichnung wird als String angelegt.
+ *
+ * Es werden nur Zeilen verarbeitet, die eindeutig gültig sind. In allen anderen Fällen
+ * (Fehler, ungewöhnliche Schreibweisen von Zahlen, leere Listenelemente, ...) liefert der Parser false,
+ * ohne die Tabelle zu verändern. Die Zeile wird dann vom VorgangLeser auf dem bisherigen Weg
+ * verarbeitet, wodurch Ergebnis und Fehlermeldungen exakt gleich bleiben.
+ */
+class ZeilenParser {
+    private Charset zeichensatz;
+
+    // Zwischenspeicher, werden für jede Zeile wiederverwendet
+    private int [] trenner = new int [4];
+    private byte [] bezeichnung = new byte [64];
+    private int [] vorgaenger = new int [16];
+    private int anzahlVorgaenger;
+    private int [] nachfolger = new int [16];
+    private int anzahlNachfolger;
+    private int [] sortiert = new int [64];
+
+    // das Ergebnis von leseZahl
+    private int zahl;
+
+    // die Felder der zuletzt zerlegten Zeile
+    private int nummer;
+    private int bezeichnungAnfang;
+    private int bezeichnungEnde;
+    private int dauer;
+
+    ZeilenParser(Charset zeichensatz) {
+        this.zeichensatz = zeichensatz;
+    }
+
+    /**
+     * Versucht, die Datenzeile daten[anfang..ende) zu lesen und der Tabelle hinzuzufügen.
+     */
+    boolean leseDatenzeile(ByteBuffer daten, int anfang, int ende, VorgangTabelle resultat) {
+        // die Vorgangsnummer muss eindeutig sein
+        if (!this.zerlege(daten, anfang, ende) || resultat.getZeile(this.nummer) != -1) {
+            return false;
+        }
+
+        // die Zeile ist gültig, übernehme sie in die Tabelle
+        resultat.neuerVorgang(this.nummer, this.dekodiere(daten, this.bezeichnungAnfang, this.bezeichnungEnde), this.dauer);
+        for (int i = 0; i < this.anzahlVorgaenger; i++) {
+            resultat.addVorgaenger(this.vorgaenger[i]);
+        }
+        for (int i = 0; i < this.anzahlNachfolger; i++) {
+            resultat.addNachfolger(this.nachfolger[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Wie oben für eine ausgelagerte Tabelle.
+     */
+    boolean leseDatenzeile(ByteBuffer daten, int anfang, int ende, AusgelagerteTabelle resultat) {
+        if (!this.zerlege(daten, anfang, ende) || resultat.getZeile(this.nummer) != -1) {
+            return false;
+        }
+        resultat.neuerVorgang(this.nummer, this.dekodiere(daten, this.bezeichnungAnfang, this.bezeichnungEnde), this.dauer);
+        for (int i = 0; i < this.anzahlVorgaenger; i++) {
+            resultat.addVorgaenger(this.vorgaenger[i]);
+        }
+        for (int i = 0; i < this.anzahlNachfolger; i++) {
+            resultat.addNachfolger(this.nachfolger[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Zerlegt die Datenzeile daten[anfang..ende) in die Felder nummer, bezeichnungAnfang/-Ende, dauer,
+     * vorgaenger und nachfolger. Liefert false, wenn die Zeile nicht eindeutig gültig ist.
+     */
+    private boolean zerlege(ByteBuffer daten, int anfang, int ende) {
+        // trenne nicht sichtbare Zeichen ab (wie String.trim())
+        while (anfang < ende && istLeer(daten.get(anfang))) {
+            anfang++;
+        }
+        while (ende > anfang && istLeer(daten.get(ende-1))) {
+            ende--;
+        }
+
+        // bestimme die Positionen der Semikolons, es müssen genau vier sein
+        int [] trenner = this.trenner;
+        int anzahlTrenner = 0;
+        for (int i = anfang; i < ende; i++) {
+            if (daten.get(i) == ';') {
+                if (anzahlTrenner == 4) {
+                    return false;
+                }
+                trenner[anzahlTrenner++] = i;
+            }
+        }
+        if (anzahlTrenner != 4) {
+            return false;
+        }
+
+        // Vorgangsnummer
+        if (!this.leseZahl(daten, anfang, trenner[0])) {
+            return false;
+        }
+        this.nummer = this.zahl;
+
+        // Vorgangsbezeichnung, sie darf nicht leer sein
+        int bezeichnungAnfang = trenner[0] + 1;
+        int bezeichnungEnde = trenner[1];
+        while (bezeichnungAnfang < bezeichnungEnde && istLeer(daten.get(bezeichnungAnfang))) {
+            bezeichnungAnfang++;
+        }
+        while (bezeichnungEnde > bezeichnungAnfang && istLeer(daten.get(bezeichnungEnde-1))) {
+            bezeichnungEnde--;
+        }
+        if (bezeichnungAnfang == bezeichnungEnde) {
+            return false;
+        }
+        this.bezeichnungAnfang = bezeichnungAnfang;
+        this.bezeichnungEnde = bezeichnungEnde;
+
+        // Dauer, sie muss positiv sein
+        if (!this.leseZahl(daten, trenner[1] + 1, trenner[2]) || this.zahl <= 0) {
+            return false;
+        }
+        this.dauer = this.zahl;
+
+        // Vorgänger und Nachfolger
+        this.anzahlVorgaenger = this.leseListe(daten, trenner[2] + 1, trenner[3], true);
+        if (this.anzahlVorgaenger == -1) {
+            return false;
+        }
+        this.anzahlNachfolger = this.leseListe(daten, trenner[3] + 1, ende, false);
+        return this.anzahlNachfolger != -1;
+    }
+
+    /**
+     * Liest eine durch Kommas getrennte Liste von Vorgangsnummern oder "-" für die leere Liste.
+     * Liefert die Anzahl der Einträge oder -1, falls die Liste nicht eindeutig gültig ist.
+     */
+    private int leseListe(ByteBuffer daten, int anfang, int ende, boolean istVorgaenger) {
+        while (anfang < ende && istLeer(daten.get(anfang))) {
+            anfang++;
+        }
+        while (ende > anfang && istLeer(daten.get(ende-1))) {
+            ende--;
+        }
+        if (ende - anfang == 1 && daten.get(anfang) == '-') {
+            return 0;
+        }
+
+        int anzahl = 0;
+        int elementAnfang = anfang;
+        for (int i = anfang; i <= ende; i++) {
+            if (i < ende && daten.get(i) != ',') {
+                continue;
+            }
+            if (!this.leseZahl(daten, elementAnfang, i)) {
+                return -1;
+            }
+            int [] liste = istVorgaenger ? this.vorgaenger : this.nachfolger;
+            if (anzahl == liste.length) {
+                liste = Arrays.copyOf(liste, 2 * liste.length);
+                if (istVorgaenger) {
+                    this.vorgaenger = liste;
+                } else {
+                    this.nachfolger = liste;
+                }
+            }
+            liste[anzahl++] = this.zahl;
+            elementAnfang = i + 1;
+        }
+
+        // doppelte Einträge werden vom VorgangLeser mit einer Fehlermeldung behandelt
+        if (this.hatDoppelte(istVorgaenger ? this.vorgaenger : this.nachfolger, anzahl)) {
+            return -1;
+        }
+        return anzahl;
+    }
+
+    /**
+     * Kurze Listen werden paarweise verglichen, lange (z.B. die Vorgänger eines Meilensteins)
+     * werden sortiert, damit die Prüfung nicht quadratisch in der Länge der Liste wird.
+     */
+    private boolean hatDoppelte(int [] liste, int anzahl) {
+        if (anzahl <= 16) {
+            for (int i = 1; i < anzahl; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (liste[i] == liste[j]) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        if (this.sortiert.length < anzahl) {
+            this.sortiert = new int [Math.max(anzahl, 2 * this.sortiert.length)];
+        }
+        System.arraycopy(liste, 0, this.sortiert, 0, anzahl);
+        Arrays.sort(this.sortiert, 0, anzahl);
+        for (int i = 1; i < anzahl; i++) {
+            if (this.sortiert[i] == this.sortiert[i-1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Liest eine ganze Zahl aus daten[anfang..ende) (umgebende Leerzeichen sind erlaubt) nach this.zahl.
+     * Liefert false, wenn dort keine gültige Zahl im Wertebereich von int steht.
+     */
+    private boolean leseZahl(ByteBuffer daten, int anfang, int ende) {
+        while (anfang < ende && istLeer(daten.get(anfang))) {
+            anfang++;
+        }
+        while (ende > anfang && istLeer(daten.get(ende-1))) {
+            ende--;
+        }
+
+        boolean negativ = false;
+        if (anfang < ende && (daten.get(anfang) == '-' || daten.get(anfang) == '+')) {
+            negativ = daten.get(anfang) == '-';
+            anfang++;
+        }
+        // mehr als 10 Ziffern passen nicht in int
+        if (anfang == ende || ende - anfang > 10) {
+            return false;
+        }
+
+        long wert = 0;
+        for (int i = anfang; i < ende; i++) {
+            int ziffer = daten.get(i) - '0';
+            if (ziffer < 0 || ziffer > 9) {
+                return false;
+            }
+            wert = 10 * wert + ziffer;
+        }
+        if (negativ) {
+            wert = -wert;
+        }
+        if (wert < Integer.MIN_VALUE || wert > Integer.MAX_VALUE) {
+            return false;
+        }
+        this.zahl = (int) wert;
+        return true;
+    }
+
+    /**
+     * Erzeugt einen String aus daten[anfang..ende).
+     */
+    String dekodiere(ByteBuffer daten, int anfang, int ende) {
+        if (this.bezeichnung.length < ende - anfang) {
+            this.bezeichnung = new byte [Math.max(ende - anfang, 2 * this.bezeichnung.length)];
+        }
+        for (int i = anfang; i < ende; i++) {
+            this.bezeichnung[i - anfang] = daten.get(i);
+        }
+        return new String(this.bezeichnung, 0, ende - anfang, this.zeichensatz);
+    }
+
+    /**
+     * Entspricht den Zeichen, die String.trim() entfernt (alle Zeichen bis einschließlich Leerzeichen).
+     */
+    private static boolean istLeer(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -0,0 +1,93 @@
+package netzplanerstellung.datenhaltung;
+
+import netzplanerstellung.logik.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Klasse zur Erzeugung der Ausgabedatei einer Zeit-Kosten-Optimierung: Gesamtdauer vor und nach der
+ * Verkürzung mit den Kosten, die Knickpunkte der Zeit-Kosten-Kurve sowie die neue Dauer jedes Vorgangs.
+ */
+public class ZeitKostenReport {
+    private String datei;
+
+    public ZeitKostenReport(String datei) {
+        this.datei = datei;
+    }
+
+    public void erzeugeReport(ZeitKostenOptimierung optimierung, String ueberschrift) throws IOException {
+        // versuche, die Datei zum schreiben zu öffnen
+        try (FileChannel kanal = FileChannel.open(Path.of(this.datei), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            String lineSep = System.getProperty("line.separator");
+            ReportPuffer aus = new ReportPuffer(kanal, Charset.defaultCharset());
+            VorgangTabelle tabelle = optimierung.getNetzplan().getTabelle(Netzplan.Auswertung.PRUEFUNG);
+
+            aus.schreibe(ueberschrift);
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Zeit-Kosten-Optimierung (Zieldauer: ");
+            if (optimierung.getZielDauer() == 0) {
+                aus.schreibe("kürzestmöglich");
+            } else {
+                aus.schreibe(optimierung.getZielDauer());
+            }
+            aus.schreibe(")");
+            aus.schreibe(lineSep);
+            aus.schreibe("Gesamtdauer ohne Verkürzung: ");
+            aus.schreibe(optimierung.getNormaldauer());
+            aus.schreibe(lineSep);
+            aus.schreibe("Gesamtdauer mit Verkürzung: ");
+            aus.schreibe(optimierung.getProjektdauer());
+            if (optimierung.getZielDauer() > 0 && !optimierung.istZielErreicht()) {
+                aus.schreibe(" (Zieldauer nicht erreichbar)");
+            }
+            aus.schreibe(lineSep);
+            aus.schreibe("Kosten: ");
+            aus.schreibe(Long.toString(optimierung.getKosten()));
+            aus.schreibe(lineSep);
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Gesamtdauer; Kosten");
+            aus.schreibe(lineSep);
+            for (int punkt = 0; punkt < optimierung.getAnzahlPunkte(); punkt++) {
+                aus.schreibe(optimierung.getPunktDauer(punkt));
+                aus.schreibe("; ");
+                aus.schreibe(Long.toString(optimierung.getPunktKosten(punkt)));
+                aus.schreibe(lineSep);
+            }
+            aus.schreibe(lineSep);
+
+            aus.schreibe("Vorgangsnummer; Vorgangsbezeichnung; D; Crashdauer; Neue Dauer; Verkürzung; Kosten");
+            aus.schreibe(lineSep);
+            for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+                aus.schreibe(tabelle.getNummer(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getBezeichnung(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(tabelle.getDauer(zeile));
+                aus.schreibe("; ");
+                if (tabelle.hatCrashAngabe(zeile)) {
+                    aus.schreibe(tabelle.getCrashDauer(zeile));
+                }
+                aus.schreibe("; ");
+                aus.schreibe(optimierung.getDauer(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(optimierung.getVerkuerzung(zeile));
+                aus.schreibe("; ");
+                aus.schreibe(Long.toString((long) optimierung.getVerkuerzung(zeile) * tabelle.getCrashKosten(zeile)));
+                aus.schreibe(lineSep);
+            }
+            aus.abschliessen();
+        } catch (IOException | InvalidPathException e) {
+            // leite die Exception mit deutscher Fehlermeldung weiter
+            throw new IOException("Die angegebene Ausgabedatei "+this.datei+" kann nicht beschrieben oder erzeugt werden!");
+        }
+    }
+}
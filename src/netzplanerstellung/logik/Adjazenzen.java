@@ -0,0 +1,24 @@
+package netzplanerstellung.logik;
+
+/**
+ * Lesender Zugriff auf die Abhängigkeiten eines Netzplans in CSR-Darstellung (siehe Graph), unabhängig davon,
+ * ob sie auf dem Heap (Graph) oder in Dateien (DateiGraph) liegen. Die Nachfolger des Knotens v stehen an den
+ * Positionen getNachfolgerAnfang(v) bis getNachfolgerEnde(v)-1, die Vorgänger analog.
+ */
+interface Adjazenzen {
+    int getAnzahlKnoten();
+
+    int getAnzahlKanten();
+
+    int getNachfolgerAnfang(int knoten);
+
+    int getNachfolgerEnde(int knoten);
+
+    int getNachfolger(int position);
+
+    int getVorgaengerAnfang(int knoten);
+
+    int getVorgaengerEnde(int knoten);
+
+    int getVorgaenger(int position);
+}
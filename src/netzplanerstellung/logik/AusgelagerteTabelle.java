@@ -0,0 +1,334 @@
+package netzplanerstellung.logik;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Spaltenweise Speicherung der Vorgänge wie in VorgangTabelle, jedoch in speicherabgebildeten Dateien
+ * (siehe DateiFeld) statt in Feldern auf dem Heap. Sie ist für Netzpläne gedacht, die nicht mehr auf
+ * den Heap passen, und wird vom AusgelagertenNetzplan streamend ausgewertet.
+ *
+ * Die Bezeichnungen liegen als UTF-8 hintereinander in einer Datei, die Vorgänger und Nachfolger
+ * (in externer Darstellung) ebenfalls. Jede Zeile verweist mit Anfang und Ende auf ihren Bereich, sodass
+ * beim Umordnen nur diese Verweise neu geschrieben werden. Die Positionen sind wie in der VorgangTabelle
+ * int-Werte, es können daher höchstens Integer.MAX_VALUE Vorgänger bzw. Nachfolger angegeben werden.
+ * Wie beim Einlesen in eine VorgangTabelle werden die Vorgänger und Nachfolger an die zuletzt angelegte
+ * Zeile angefügt. Dreipunktschätzungen und Crashangaben werden nicht gespeichert, sie werden nur für
+ * Simulation und Zeit-Kosten-Optimierung benötigt.
+ *
+ * Die Dateien werden im angegebenen Ordner angelegt und mit close gelöscht.
+ */
+public class AusgelagerteTabelle implements Tabelle, Closeable {
+    private Path ordner;
+    private int anzahl;
+
+    private DateiFeld nummer;
+    private DateiFeld dauer;
+    private DateiFeld bezeichnungAnfang;
+    private DateiFeld bezeichnungEnde;
+    private DateiFeld bezeichnungDaten;
+    private long bezeichnungGroesse;
+
+    private DateiFeld vorgaengerAnfang;
+    private DateiFeld vorgaengerEnde;
+    private DateiFeld vorgaenger;
+    private long vorgaengerGroesse;
+    private DateiFeld nachfolgerAnfang;
+    private DateiFeld nachfolgerEnde;
+    private DateiFeld nachfolger;
+    private long nachfolgerGroesse;
+
+    // die Ergebnisse der Netzplanberechnung, sie werden erst vom AusgelagertenNetzplan angelegt
+    private DateiFeld faz;
+    private DateiFeld fez;
+    private DateiFeld saz;
+    private DateiFeld sez;
+    private DateiFeld gp;
+    private DateiFeld fp;
+
+    private DateiIndex index;
+
+    // Puffer für die Bezeichnung der Zeile, die zuletzt gelesen wurde
+    private byte [] puffer = new byte [64];
+
+    public AusgelagerteTabelle(Path ordner) {
+        this.ordner = ordner;
+        this.nummer = new DateiFeld(ordner);
+        this.dauer = new DateiFeld(ordner);
+        this.bezeichnungAnfang = new DateiFeld(ordner);
+        this.bezeichnungEnde = new DateiFeld(ordner);
+        this.bezeichnungDaten = new DateiFeld(ordner);
+        this.vorgaengerAnfang = new DateiFeld(ordner);
+        this.vorgaengerEnde = new DateiFeld(ordner);
+        this.vorgaenger = new DateiFeld(ordner);
+        this.nachfolgerAnfang = new DateiFeld(ordner);
+        this.nachfolgerEnde = new DateiFeld(ordner);
+        this.nachfolger = new DateiFeld(ordner);
+        this.index = new DateiIndex(ordner, 16);
+    }
+
+    /**
+     * Fügt einen neuen Vorgang als letzte Zeile an und liefert dessen interne Nummer.
+     * Ist die Vorgangsnummer bereits vergeben, verweist der Index weiterhin auf den ersten Vorgang.
+     */
+    public int neuerVorgang(int nummer, String bezeichnung, int dauer) {
+        int zeile = this.anzahl++;
+        this.nummer.sicherstellen(4L * this.anzahl);
+        this.dauer.sicherstellen(4L * this.anzahl);
+        this.bezeichnungAnfang.sicherstellen(8L * this.anzahl);
+        this.bezeichnungEnde.sicherstellen(8L * this.anzahl);
+        this.vorgaengerAnfang.sicherstellen(8L * this.anzahl);
+        this.vorgaengerEnde.sicherstellen(8L * this.anzahl);
+        this.nachfolgerAnfang.sicherstellen(8L * this.anzahl);
+        this.nachfolgerEnde.sicherstellen(8L * this.anzahl);
+
+        this.nummer.setInt(zeile, nummer);
+        this.dauer.setInt(zeile, dauer);
+
+        byte [] bytes = bezeichnung.getBytes(StandardCharsets.UTF_8);
+        this.bezeichnungDaten.sicherstellen(this.bezeichnungGroesse + bytes.length);
+        this.bezeichnungDaten.setBytes(this.bezeichnungGroesse, bytes, bytes.length);
+        this.bezeichnungAnfang.setLong(zeile, this.bezeichnungGroesse);
+        this.bezeichnungGroesse += bytes.length;
+        this.bezeichnungEnde.setLong(zeile, this.bezeichnungGroesse);
+
+        this.vorgaengerAnfang.setLong(zeile, this.vorgaengerGroesse);
+        this.vorgaengerEnde.setLong(zeile, this.vorgaengerGroesse);
+        this.nachfolgerAnfang.setLong(zeile, this.nachfolgerGroesse);
+        this.nachfolgerEnde.setLong(zeile, this.nachfolgerGroesse);
+
+        this.index.put(nummer, zeile);
+        return zeile;
+    }
+
+    /**
+     * Fügt der zuletzt angelegten Zeile einen Vorgänger (externe Nummer) hinzu.
+     */
+    public void addVorgaenger(int nummer) {
+        pruefeGroesse(this.vorgaengerGroesse);
+        this.vorgaenger.sicherstellen(4 * (this.vorgaengerGroesse + 1));
+        this.vorgaenger.setInt(this.vorgaengerGroesse++, nummer);
+        this.vorgaengerEnde.setLong(this.anzahl - 1, this.vorgaengerGroesse);
+    }
+
+    /**
+     * Fügt der zuletzt angelegten Zeile einen Nachfolger (externe Nummer) hinzu.
+     */
+    public void addNachfolger(int nummer) {
+        pruefeGroesse(this.nachfolgerGroesse);
+        this.nachfolger.sicherstellen(4 * (this.nachfolgerGroesse + 1));
+        this.nachfolger.setInt(this.nachfolgerGroesse++, nummer);
+        this.nachfolgerEnde.setLong(this.anzahl - 1, this.nachfolgerGroesse);
+    }
+
+    private static void pruefeGroesse(long groesse) {
+        if (groesse == Integer.MAX_VALUE) {
+            throw new UncheckedIOException(new IOException("Es können höchstens "+Integer.MAX_VALUE+
+                                                           " Vorgänger bzw. Nachfolger ausgelagert werden!"));
+        }
+    }
+
+    /**
+     * Ordnet die Zeilen um, die neue Zeile z enthält die bisherige Zeile reihenfolge.getInt(z).
+     * Umgeschrieben werden nur Nummer, Dauer und die Verweise auf Bezeichnung und Listen.
+     */
+    public void umordnen(DateiFeld reihenfolge) {
+        DateiFeld neueNummer = new DateiFeld(this.ordner);
+        DateiFeld neueDauer = new DateiFeld(this.ordner);
+        DateiFeld [] alteVerweise = {this.bezeichnungAnfang, this.bezeichnungEnde, this.vorgaengerAnfang,
+                                     this.vorgaengerEnde, this.nachfolgerAnfang, this.nachfolgerEnde};
+        DateiFeld [] neueVerweise = new DateiFeld [alteVerweise.length];
+        neueNummer.sicherstellen(4L * this.anzahl);
+        neueDauer.sicherstellen(4L * this.anzahl);
+        for (int i = 0; i < neueVerweise.length; i++) {
+            neueVerweise[i] = new DateiFeld(this.ordner);
+            neueVerweise[i].sicherstellen(8L * this.anzahl);
+        }
+        this.index.close();
+        this.index = new DateiIndex(this.ordner, this.anzahl);
+
+        for (int zeile = 0; zeile < this.anzahl; zeile++) {
+            int alt = reihenfolge.getInt(zeile);
+            neueNummer.setInt(zeile, this.nummer.getInt(alt));
+            neueDauer.setInt(zeile, this.dauer.getInt(alt));
+            for (int i = 0; i < neueVerweise.length; i++) {
+                neueVerweise[i].setLong(zeile, alteVerweise[i].getLong(alt));
+            }
+            this.index.put(neueNummer.getInt(zeile), zeile);
+        }
+
+        this.nummer.close();
+        this.dauer.close();
+        for (DateiFeld feld: alteVerweise) {
+            feld.close();
+        }
+        this.nummer = neueNummer;
+        this.dauer = neueDauer;
+        this.bezeichnungAnfang = neueVerweise[0];
+        this.bezeichnungEnde = neueVerweise[1];
+        this.vorgaengerAnfang = neueVerweise[2];
+        this.vorgaengerEnde = neueVerweise[3];
+        this.nachfolgerAnfang = neueVerweise[4];
+        this.nachfolgerEnde = neueVerweise[5];
+    }
+
+    /**
+     * Legt die Spalten für die Ergebnisse der Netzplanberechnung an (sofern noch nicht geschehen).
+     */
+    void legeErgebnisseAn() {
+        if (this.faz != null) {
+            return;
+        }
+        this.faz = new DateiFeld(this.ordner);
+        this.fez = new DateiFeld(this.ordner);
+        this.saz = new DateiFeld(this.ordner);
+        this.sez = new DateiFeld(this.ordner);
+        this.gp = new DateiFeld(this.ordner);
+        this.fp = new DateiFeld(this.ordner);
+        for (DateiFeld feld: new DateiFeld [] {this.faz, this.fez, this.saz, this.sez, this.gp, this.fp}) {
+            feld.sicherstellen(4L * this.anzahl);
+        }
+    }
+
+    /**
+     * Liefert die interne Nummer zur externen Nummer oder -1, falls diese nicht vorhanden ist.
+     */
+    public int getZeile(int nummer) {
+        return this.index.get(nummer);
+    }
+
+    public int getAnzahl() {
+        return this.anzahl;
+    }
+
+    public Path getOrdner() {
+        return this.ordner;
+    }
+
+    public int getNummer(int zeile) {
+        return this.nummer.getInt(zeile);
+    }
+
+    public int getDauer(int zeile) {
+        return this.dauer.getInt(zeile);
+    }
+
+    public String getBezeichnung(int zeile) {
+        long anfang = this.bezeichnungAnfang.getLong(zeile);
+        int laenge = (int) (this.bezeichnungEnde.getLong(zeile) - anfang);
+        if (this.puffer.length < laenge) {
+            this.puffer = new byte [Math.max(laenge, 2 * this.puffer.length)];
+        }
+        this.bezeichnungDaten.getBytes(anfang, this.puffer, laenge);
+        return new String(this.puffer, 0, laenge, StandardCharsets.UTF_8);
+    }
+
+    // Vorgänger und Nachfolger einer Zeile stehen an den Positionen Anfang bis Ende-1
+
+    public int getVorgaengerAnfang(int zeile) {
+        return (int) this.vorgaengerAnfang.getLong(zeile);
+    }
+
+    public int getVorgaengerEnde(int zeile) {
+        return (int) this.vorgaengerEnde.getLong(zeile);
+    }
+
+    /**
+     * Die Anzahl der belegten Positionen der Vorgängerliste (Obergrenze aller Positionen).
+     */
+    public int getVorgaengerGrenze() {
+        return (int) this.vorgaengerGroesse;
+    }
+
+    public int getVorgaenger(int position) {
+        return this.vorgaenger.getInt(position);
+    }
+
+    public int getNachfolgerAnfang(int zeile) {
+        return (int) this.nachfolgerAnfang.getLong(zeile);
+    }
+
+    public int getNachfolgerEnde(int zeile) {
+        return (int) this.nachfolgerEnde.getLong(zeile);
+    }
+
+    public int getNachfolger(int position) {
+        return this.nachfolger.getInt(position);
+    }
+
+    public int getFAZ(int zeile) {
+        return this.faz.getInt(zeile);
+    }
+
+    public int getFEZ(int zeile) {
+        return this.fez.getInt(zeile);
+    }
+
+    public int getSAZ(int zeile) {
+        return this.saz.getInt(zeile);
+    }
+
+    public int getSEZ(int zeile) {
+        return this.sez.getInt(zeile);
+    }
+
+    public int getGP(int zeile) {
+        return this.gp.getInt(zeile);
+    }
+
+    public int getFP(int zeile) {
+        return this.fp.getInt(zeile);
+    }
+
+    public boolean istKritisch(int zeile) {
+        return this.gp.getInt(zeile) == 0 && this.fp.getInt(zeile) == 0;
+    }
+
+    /*
+     * Direkter Zugriff auf die Spalten für die Berechnungen im AusgelagertenNetzplan.
+     */
+
+    DateiFeld getDauerSpalte() {
+        return this.dauer;
+    }
+
+    DateiFeld getFAZSpalte() {
+        return this.faz;
+    }
+
+    DateiFeld getFEZSpalte() {
+        return this.fez;
+    }
+
+    DateiFeld getSAZSpalte() {
+        return this.saz;
+    }
+
+    DateiFeld getSEZSpalte() {
+        return this.sez;
+    }
+
+    DateiFeld getGPSpalte() {
+        return this.gp;
+    }
+
+    DateiFeld getFPSpalte() {
+        return this.fp;
+    }
+
+    @Override
+    public void close() {
+        for (DateiFeld feld: new DateiFeld [] {this.nummer, this.dauer, this.bezeichnungAnfang, this.bezeichnungEnde,
+                                               this.bezeichnungDaten, this.vorgaengerAnfang, this.vorgaengerEnde,
+                                               this.vorgaenger, this.nachfolgerAnfang, this.nachfolgerEnde,
+                                               this.nachfolger, this.faz, this.fez, this.saz, this.sez, this.gp, this.fp}) {
+            if (feld != null) {
+                feld.close();
+            }
+        }
+        this.index.close();
+    }
+}
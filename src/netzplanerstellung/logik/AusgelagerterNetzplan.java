@@ -0,0 +1,175 @@
+package netzplanerstellung.logik;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+
+/**
+ * Netzplan über einer AusgelagertenTabelle. Prüfungen, topologische Ordnung, Vorwärts- und Rückwärtsrechnung
+ * und die kritischen Pfade sind dieselben Phasen wie im Netzplan (gleiche Ergebnisse, gleiche Fehlermeldungen),
+ * alle Hilfsstrukturen je Vorgang oder Kante legt der Speicher dieses Netzplans jedoch wie die Tabelle in
+ * speicherabgebildeten Dateien an. Der Heap wird nur für Bitmengen (ein Bit je Vorgang) und den jeweils
+ * aktuellen kritischen Pfad benötigt. So lassen sich Netzpläne mit hunderten Millionen Vorgängen mit einem
+ * kleinen Heap berechnen, der Page Cache übernimmt die Rolle des Heaps.
+ *
+ * Der Netzplan wird vollständig im Konstruktor ausgewertet und kann nicht geändert werden. close löscht
+ * die Dateien des Netzplans, die Tabelle bleibt erhalten.
+ */
+public class AusgelagerterNetzplan implements BerechneterNetzplan, Closeable {
+    private AusgelagerteTabelle tabelle;
+    // die Abhängigkeiten in interner Darstellung wie in Graph
+    private DateiGraph adjazenzen;
+    private DateiFeld topologischeOrdnung;
+    // die Startknoten aufsteigend an den Positionen 0 bis anzahlStart-1
+    private DateiFeld startKnoten;
+    private int anzahlStart;
+
+    // zwischengespeicherte Ergebnisse, null bis zur ersten Anfrage
+    private Feld anzahlPfade;
+    private BigInteger anzahlKritischePfade;
+
+    public AusgelagerterNetzplan(AusgelagerteTabelle tabelle) throws NetzplanException {
+        this.tabelle = tabelle;
+        try {
+            this.berechne();
+        } catch (NetzplanException | RuntimeException e) {
+            this.close();
+            throw e;
+        }
+    }
+
+    private void berechne() throws NetzplanException {
+        Dateien speicher = new Dateien();
+        this.topologischeOrdnung = speicher.neuesIntFeld(this.tabelle.getAnzahl());
+        Netzplan.pruefe(this.tabelle, this.topologischeOrdnung, speicher);
+
+        int n = this.adjazenzen.getAnzahlKnoten();
+        int m = this.adjazenzen.getAnzahlKanten();
+        this.startKnoten = speicher.neuesIntFeld(n);
+        for (int knoten = 0; knoten < n; knoten++) {
+            if (this.istStartVorgang(knoten)) {
+                this.startKnoten.setInt(this.anzahlStart++, knoten);
+            }
+        }
+        AusgelagerteTabelle tabelle = this.tabelle;
+        tabelle.legeErgebnisseAn();
+
+        Messung messung = Messung.beginne(Messung.Phase.VORWAERTS);
+        Netzplan.vorwaertsRechnung(this.adjazenzen, this.topologischeOrdnung, tabelle.getDauerSpalte(),
+                                   tabelle.getFAZSpalte(), tabelle.getFEZSpalte());
+        messung.beende(n, m, 0, m, messung.istAktiv() ? Netzplan.getProjektende(this.adjazenzen, tabelle) : 0);
+
+        messung = Messung.beginne(Messung.Phase.RUECKWAERTS);
+        Netzplan.rueckwaertsRechnung(this.adjazenzen, this.topologischeOrdnung, tabelle.getDauerSpalte(),
+                                     tabelle.getFEZSpalte(), tabelle.getSAZSpalte(), tabelle.getSEZSpalte());
+        messung.beende(n, m, 0, m, 0);
+
+        messung = Messung.beginne(Messung.Phase.ZEITRESERVEN);
+        Netzplan.zeitreserven(this.adjazenzen, tabelle.getFAZSpalte(), tabelle.getFEZSpalte(), tabelle.getSAZSpalte(),
+                              tabelle.getGPSpalte(), tabelle.getFPSpalte());
+        messung.beende(n, m, messung.istAktiv() ? Netzplan.anzahlKritisch(tabelle) : 0, 0, 0);
+    }
+
+    public boolean istStartVorgang(int zeile) {
+        return this.adjazenzen.getVorgaengerAnfang(zeile) == this.adjazenzen.getVorgaengerEnde(zeile);
+    }
+
+    public boolean istEndVorgang(int zeile) {
+        return this.adjazenzen.getNachfolgerAnfang(zeile) == this.adjazenzen.getNachfolgerEnde(zeile);
+    }
+
+    /**
+     * Wie Netzplan.getDauer: der FEZ der Endvorgänge oder -1, wenn dieser nicht einheitlich ist.
+     */
+    public int getDauer() {
+        int tmpDauer = -1;
+        for (int knoten = 0; knoten < this.adjazenzen.getAnzahlKnoten(); knoten++) {
+            if (this.istEndVorgang(knoten)) {
+                if (tmpDauer == -1) {
+                    tmpDauer = this.tabelle.getFEZ(knoten);
+                } else if (this.tabelle.getFEZ(knoten) != tmpDauer) {
+                    return -1;
+                }
+            }
+        }
+        return tmpDauer;
+    }
+
+    public BigInteger getAnzahlKritischePfade() {
+        if (this.anzahlKritischePfade == null) {
+            this.anzahlKritischePfade = Netzplan.summiereKritischePfade(this.adjazenzen, this.topologischeOrdnung,
+                                                                        this.startKnoten, this.anzahlStart,
+                                                                        this.zaehleKritischePfade());
+        }
+        return this.anzahlKritischePfade;
+    }
+
+    private Feld zaehleKritischePfade() {
+        if (this.anzahlPfade == null) {
+            this.anzahlPfade = Netzplan.zaehleKritischePfade(this.adjazenzen, this.topologischeOrdnung, this.tabelle,
+                                                             new Dateien());
+        }
+        return this.anzahlPfade;
+    }
+
+    /**
+     * Wie Netzplan.besucheKritischePfade (gleiche Reihenfolge der Pfade), der aktuelle Pfad in interner
+     * Darstellung liegt in einer Datei.
+     */
+    public <E extends Exception> void besucheKritischePfade(KritischerPfadBesucher<E> besucher, long maxAnzahl) throws E {
+        Netzplan.besucheKritischePfade(this.adjazenzen, this.tabelle, this.startKnoten, this.anzahlStart,
+                                       this.zaehleKritischePfade(), new Dateien(), besucher, maxAnzahl);
+    }
+
+    public AusgelagerteTabelle getTabelle() {
+        return this.tabelle;
+    }
+
+    public int getAnzahlKanten() {
+        return this.adjazenzen.getAnzahlKanten();
+    }
+
+    @Override
+    public void close() {
+        if (this.adjazenzen != null) {
+            this.adjazenzen.close();
+        }
+        for (Feld feld: new Feld [] {this.topologischeOrdnung, this.startKnoten, this.anzahlPfade}) {
+            if (feld != null) {
+                feld.close();
+            }
+        }
+    }
+
+    /**
+     * Legt die Felder in Dateien im Ordner der Tabelle an. Der Graph wird sofort im Netzplan vermerkt,
+     * damit close ihn auch dann löscht, wenn eine spätere Prüfung fehlschlägt.
+     */
+    private class Dateien extends Speicher<DateiGraph> {
+        @Override
+        DateiFeld neuesIntFeld(int laenge) {
+            return neuesFeld(4L * laenge);
+        }
+
+        @Override
+        DateiFeld neuesLongFeld(int laenge) {
+            return neuesFeld(8L * laenge);
+        }
+
+        private DateiFeld neuesFeld(long anzahlBytes) {
+            DateiFeld feld = new DateiFeld(tabelle.getOrdner());
+            try {
+                feld.sicherstellen(anzahlBytes);
+            } catch (RuntimeException e) {
+                feld.close();
+                throw e;
+            }
+            return feld;
+        }
+
+        @Override
+        DateiGraph neuerGraph(int anzahlKnoten, Feld nachfolgerStart, Feld nachfolger) {
+            adjazenzen = new DateiGraph(tabelle.getOrdner(), anzahlKnoten, (DateiFeld) nachfolgerStart, (DateiFeld) nachfolger);
+            return adjazenzen;
+        }
+    }
+}
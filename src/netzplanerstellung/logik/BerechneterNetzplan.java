@@ -0,0 +1,28 @@
+package netzplanerstellung.logik;
+
+import java.math.BigInteger;
+
+/**
+ * Ein vollständig berechneter Netzplan, wie ihn der ProjektReport ausgibt: Netzplan (Heap) oder
+ * AusgelagerterNetzplan (Dateien). Die Zeitwerte stehen in der Tabelle, die Zeilen entsprechen den
+ * internen Nummern der Vorgänge.
+ */
+public interface BerechneterNetzplan {
+    Tabelle getTabelle();
+
+    boolean istStartVorgang(int zeile);
+
+    boolean istEndVorgang(int zeile);
+
+    /**
+     * Der FEZ der Endvorgänge oder -1, wenn dieser nicht einheitlich ist.
+     */
+    int getDauer();
+
+    BigInteger getAnzahlKritischePfade();
+
+    /**
+     * Übergibt höchstens maxAnzahl kritische Pfade einzeln dem Besucher.
+     */
+    <E extends Exception> void besucheKritischePfade(KritischerPfadBesucher<E> besucher, long maxAnzahl) throws E;
+}
@@ -0,0 +1,132 @@
+package netzplanerstellung.logik;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Ein Feld in einer temporären Datei, die abschnittsweise in den Speicher abgebildet wird. Die Daten liegen
+ * damit im Page Cache des Betriebssystems statt auf dem Heap und können größer als dieser sein.
+ *
+ * Ein Abschnitt umfasst höchstens 1 GB (die Grenze eines MappedByteBuffer), int- und long-Werte liegen
+ * daher nie über einer Abschnittsgrenze. Das Feld wächst mit sicherstellen, dabei wird nur der letzte
+ * Abschnitt mit doppelter Größe neu abgebildet, die Daten selbst werden nicht kopiert. Neue Bereiche
+ * sind mit 0 belegt. Die Datei wird beim Schließen gelöscht.
+ *
+ * Fehler beim Anlegen oder Vergrößern der Datei (z.B. ein voller Datenträger) werden als
+ * UncheckedIOException gemeldet, damit die einzelnen Zugriffe keine Exception deklarieren müssen.
+ */
+public final class DateiFeld extends Feld {
+    private static final int ABSCHNITT_BITS = 30;
+    private static final long ABSCHNITT = 1L << ABSCHNITT_BITS;
+    private static final int MASKE = (int) (ABSCHNITT - 1);
+    // Größe des ersten Abschnitts in Bytes
+    private static final long ANFANGS_GROESSE = 1 << 16;
+
+    private Path datei;
+    private FileChannel kanal;
+    private MappedByteBuffer [] abschnitte = new MappedByteBuffer [0];
+    // Anzahl der abgebildeten Bytes
+    private long kapazitaet;
+
+    /**
+     * Legt eine leere Datei im angegebenen Ordner an.
+     */
+    public DateiFeld(Path ordner) {
+        try {
+            this.datei = Files.createTempFile(ordner, "netzplan", ".feld");
+            this.kanal = FileChannel.open(this.datei, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                          StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException e) {
+            throw new UncheckedIOException(new IOException("Im Ordner "+ordner+" kann keine Auslagerungsdatei angelegt werden!"));
+        }
+    }
+
+    /**
+     * Vergrößert das Feld, sodass mindestens anzahlBytes Bytes adressiert werden können.
+     */
+    public void sicherstellen(long anzahlBytes) {
+        if (anzahlBytes <= this.kapazitaet) {
+            return;
+        }
+        try {
+            while (this.kapazitaet < anzahlBytes) {
+                int letzter = this.abschnitte.length - 1;
+                long letzteGroesse = letzter == -1 ? ABSCHNITT : this.abschnitte[letzter].capacity();
+                if (letzteGroesse == ABSCHNITT) {
+                    // beginne einen neuen Abschnitt
+                    long groesse = Math.min(ABSCHNITT, Math.max(ANFANGS_GROESSE, anzahlBytes - this.kapazitaet));
+                    this.abschnitte = Arrays.copyOf(this.abschnitte, letzter + 2);
+                    this.abschnitte[letzter + 1] = this.kanal.map(FileChannel.MapMode.READ_WRITE, this.kapazitaet, groesse);
+                    this.kapazitaet += groesse;
+                } else {
+                    // bilde den letzten Abschnitt mit (mindestens) doppelter Größe neu ab
+                    long anfang = (long) letzter << ABSCHNITT_BITS;
+                    long groesse = Math.min(ABSCHNITT, Math.max(2 * letzteGroesse, anzahlBytes - anfang));
+                    this.abschnitte[letzter] = this.kanal.map(FileChannel.MapMode.READ_WRITE, anfang, groesse);
+                    this.kapazitaet = anfang + groesse;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(new IOException("Die Auslagerungsdatei "+this.datei+" kann nicht auf "+
+                                                           anzahlBytes+" Bytes vergrößert werden!"));
+        }
+    }
+
+    public int getInt(long index) {
+        long position = index << 2;
+        return this.abschnitte[(int) (position >>> ABSCHNITT_BITS)].getInt((int) position & MASKE);
+    }
+
+    public void setInt(long index, int wert) {
+        long position = index << 2;
+        this.abschnitte[(int) (position >>> ABSCHNITT_BITS)].putInt((int) position & MASKE, wert);
+    }
+
+    public long getLong(long index) {
+        long position = index << 3;
+        return this.abschnitte[(int) (position >>> ABSCHNITT_BITS)].getLong((int) position & MASKE);
+    }
+
+    public void setLong(long index, long wert) {
+        long position = index << 3;
+        this.abschnitte[(int) (position >>> ABSCHNITT_BITS)].putLong((int) position & MASKE, wert);
+    }
+
+    /**
+     * Kopiert laenge Bytes ab der Position position nach ziel (sie dürfen über einer Abschnittsgrenze liegen).
+     */
+    public void getBytes(long position, byte [] ziel, int laenge) {
+        for (int i = 0; i < laenge; i++) {
+            long aktPosition = position + i;
+            ziel[i] = this.abschnitte[(int) (aktPosition >>> ABSCHNITT_BITS)].get((int) aktPosition & MASKE);
+        }
+    }
+
+    public void setBytes(long position, byte [] quelle, int laenge) {
+        for (int i = 0; i < laenge; i++) {
+            long aktPosition = position + i;
+            this.abschnitte[(int) (aktPosition >>> ABSCHNITT_BITS)].put((int) aktPosition & MASKE, quelle[i]);
+        }
+    }
+
+    /**
+     * Gibt die Abbildungen frei (der Speicher selbst wird erst von der Garbage Collection freigegeben)
+     * und löscht die Datei.
+     */
+    @Override
+    public void close() {
+        this.abschnitte = new MappedByteBuffer [0];
+        this.kapazitaet = 0;
+        try {
+            this.kanal.close();
+        } catch (IOException e) {
+            // die Datei wird spätestens beim Beenden gelöscht
+        }
+    }
+}
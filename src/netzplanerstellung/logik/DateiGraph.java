@@ -0,0 +1,111 @@
+package netzplanerstellung.logik;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Die Abhängigkeiten eines AusgelagertenNetzplans in derselben CSR-Darstellung wie Graph, die Felder liegen
+ * jedoch in speicherabgebildeten Dateien (siehe DateiFeld). Der Graph wird nach dem Aufbau nur gelesen.
+ * close löscht die Dateien.
+ */
+final class DateiGraph implements Adjazenzen, Closeable {
+    private int anzahlKnoten;
+    private int anzahlKanten;
+    private DateiFeld nachfolgerStart;
+    private DateiFeld nachfolger;
+    private DateiFeld vorgaengerStart;
+    private DateiFeld vorgaenger;
+
+    /**
+     * Erzeugt den Graphen aus den Vorwärtskanten (nachfolgerStart mit anzahlKnoten+1 Einträgen), die
+     * Rückwärtskanten werden wie in Graph hieraus berechnet. Beide Felder gehen in den Graphen über.
+     */
+    DateiGraph(Path ordner, int anzahlKnoten, DateiFeld nachfolgerStart, DateiFeld nachfolger) {
+        this.anzahlKnoten = anzahlKnoten;
+        this.nachfolgerStart = nachfolgerStart;
+        this.nachfolger = nachfolger;
+        this.anzahlKanten = nachfolgerStart.getInt(anzahlKnoten);
+        this.vorgaengerStart = new DateiFeld(ordner);
+        this.vorgaenger = new DateiFeld(ordner);
+        try {
+            this.erzeugeRueckwaertsKanten(ordner);
+        } catch (RuntimeException e) {
+            this.close();
+            throw e;
+        }
+    }
+
+    private void erzeugeRueckwaertsKanten(Path ordner) {
+        // zähle die Vorgänger jedes Knotens (um eins verschoben, damit die Präfixsummen direkt die Anfänge ergeben)
+        this.vorgaengerStart.sicherstellen(4L * (this.anzahlKnoten + 1));
+        for (int i = 0; i < this.anzahlKanten; i++) {
+            int w = this.nachfolger.getInt(i);
+            this.vorgaengerStart.setInt(w + 1, this.vorgaengerStart.getInt(w + 1) + 1);
+        }
+        for (int v = 0; v < this.anzahlKnoten; v++) {
+            this.vorgaengerStart.setInt(v + 1, this.vorgaengerStart.getInt(v + 1) + this.vorgaengerStart.getInt(v));
+        }
+
+        // trage die Vorgänger ein, die Position wird hierbei je Knoten fortgeschrieben
+        this.vorgaenger.sicherstellen(4L * this.anzahlKanten);
+        try (DateiFeld position = new DateiFeld(ordner)) {
+            position.sicherstellen(4L * this.anzahlKnoten);
+            for (int v = 0; v < this.anzahlKnoten; v++) {
+                for (int i = this.nachfolgerStart.getInt(v); i < this.nachfolgerStart.getInt(v + 1); i++) {
+                    int w = this.nachfolger.getInt(i);
+                    int aktPosition = position.getInt(w);
+                    this.vorgaenger.setInt(this.vorgaengerStart.getInt(w) + aktPosition, v);
+                    position.setInt(w, aktPosition + 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getAnzahlKnoten() {
+        return this.anzahlKnoten;
+    }
+
+    @Override
+    public int getAnzahlKanten() {
+        return this.anzahlKanten;
+    }
+
+    @Override
+    public int getNachfolgerAnfang(int knoten) {
+        return this.nachfolgerStart.getInt(knoten);
+    }
+
+    @Override
+    public int getNachfolgerEnde(int knoten) {
+        return this.nachfolgerStart.getInt(knoten + 1);
+    }
+
+    @Override
+    public int getNachfolger(int position) {
+        return this.nachfolger.getInt(position);
+    }
+
+    @Override
+    public int getVorgaengerAnfang(int knoten) {
+        return this.vorgaengerStart.getInt(knoten);
+    }
+
+    @Override
+    public int getVorgaengerEnde(int knoten) {
+        return this.vorgaengerStart.getInt(knoten + 1);
+    }
+
+    @Override
+    public int getVorgaenger(int position) {
+        return this.vorgaenger.getInt(position);
+    }
+
+    @Override
+    public void close() {
+        this.nachfolgerStart.close();
+        this.nachfolger.close();
+        this.vorgaengerStart.close();
+        this.vorgaenger.close();
+    }
+}
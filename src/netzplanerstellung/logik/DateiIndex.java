@@ -0,0 +1,100 @@
+package netzplanerstellung.logik;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Abbildung der externen Vorgangsnummern auf die Zeilen einer AusgelagertenTabelle, wie NummernIndex
+ * mit offener Adressierung und linearer Sondierung, jedoch in einem DateiFeld. Schlüssel und Wert
+ * eines Platzes liegen nebeneinander, damit eine Suche meist nur eine Seite berührt.
+ */
+class DateiIndex implements Closeable {
+    private Path ordner;
+    // je Platz die externe Nummer und die Zeile + 1, der Wert 0 kennzeichnet einen freien Platz
+    private DateiFeld plaetze;
+    private long kapazitaet;
+    private int anzahl;
+
+    DateiIndex(Path ordner, int erwarteteAnzahl) {
+        this.ordner = ordner;
+        long kapazitaet = 16;
+        // die Tabelle wird höchstens zur Hälfte gefüllt
+        while (kapazitaet < 2L * erwarteteAnzahl) {
+            kapazitaet *= 2;
+        }
+        this.legeAn(kapazitaet);
+    }
+
+    private void legeAn(long neueKapazitaet) {
+        this.kapazitaet = neueKapazitaet;
+        this.plaetze = new DateiFeld(this.ordner);
+        this.plaetze.sicherstellen(8 * neueKapazitaet);
+    }
+
+    /**
+     * Liefert die Zeile zur externen Nummer oder -1, falls diese nicht vorhanden ist.
+     */
+    int get(int nummer) {
+        long maske = this.kapazitaet - 1;
+        for (long platz = streue(nummer) & maske; this.plaetze.getInt(2 * platz + 1) != 0; platz = (platz + 1) & maske) {
+            if (this.plaetze.getInt(2 * platz) == nummer) {
+                return this.plaetze.getInt(2 * platz + 1) - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Trägt die Zuordnung ein, sofern die externe Nummer noch nicht vorhanden ist.
+     * Liefert false, wenn die Nummer bereits vergeben war (der Eintrag bleibt dann unverändert).
+     */
+    boolean put(int nummer, int zeile) {
+        if (2L * (this.anzahl + 1) > this.kapazitaet) {
+            this.vergroessere();
+        }
+        long maske = this.kapazitaet - 1;
+        long platz = streue(nummer) & maske;
+        while (this.plaetze.getInt(2 * platz + 1) != 0) {
+            if (this.plaetze.getInt(2 * platz) == nummer) {
+                return false;
+            }
+            platz = (platz + 1) & maske;
+        }
+        this.plaetze.setInt(2 * platz, nummer);
+        this.plaetze.setInt(2 * platz + 1, zeile + 1);
+        this.anzahl++;
+        return true;
+    }
+
+    private void vergroessere() {
+        DateiFeld alt = this.plaetze;
+        long alteKapazitaet = this.kapazitaet;
+        this.legeAn(2 * alteKapazitaet);
+        long maske = this.kapazitaet - 1;
+        for (long i = 0; i < alteKapazitaet; i++) {
+            if (alt.getInt(2 * i + 1) != 0) {
+                int nummer = alt.getInt(2 * i);
+                long platz = streue(nummer) & maske;
+                while (this.plaetze.getInt(2 * platz + 1) != 0) {
+                    platz = (platz + 1) & maske;
+                }
+                this.plaetze.setInt(2 * platz, nummer);
+                this.plaetze.setInt(2 * platz + 1, alt.getInt(2 * i + 1));
+            }
+        }
+        alt.close();
+    }
+
+    /**
+     * Wie in NummernIndex (Fibonacci-Hashing), der Wert wird als vorzeichenlos aufgefasst.
+     */
+    private static long streue(int nummer) {
+        int h = nummer * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void close() {
+        this.plaetze.close();
+    }
+}
@@ -0,0 +1,26 @@
+package netzplanerstellung.logik;
+
+import java.io.Closeable;
+
+/**
+ * Ein Feld von int- bzw. long-Werten, über das die Phasen des Netzplans ihre Spalten und Hilfsfelder
+ * ansprechen. Es liegt auf dem Heap (HeapFeld) oder in einer Datei (DateiFeld), angelegt wird es vom
+ * jeweiligen Speicher. Ein Feld wird entweder mit int- oder mit long-Werten verwendet, neue Felder sind mit 0 belegt.
+ * Feld ist eine abstrakte Klasse statt einer Schnittstelle: Solange nur HeapFeld geladen ist, bindet die JVM
+ * die Zugriffe direkt, sodass auch die nur einmal durchlaufenen Phasen nicht langsamer als auf int-Feldern sind.
+ */
+abstract class Feld implements Closeable {
+    abstract int getInt(long index);
+
+    abstract void setInt(long index, int wert);
+
+    abstract long getLong(long index);
+
+    abstract void setLong(long index, long wert);
+
+    /**
+     * Gibt das Feld frei (bei einem DateiFeld wird die Datei gelöscht).
+     */
+    @Override
+    public abstract void close();
+}
@@ -0,0 +1,124 @@
+package netzplanerstellung.logik;
+
+/**
+ * Klasse zur Darstellung der Abhängigkeiten eines Netzplans als dünn besetzter Graph
+ * (Compressed Sparse Row). Die Knoten entsprechen den internen Vorgangsnummern 0..n-1.
+ *
+ * Die Nachfolger des Knotens v stehen an den Positionen getNachfolgerAnfang(v) bis
+ * getNachfolgerEnde(v)-1, die Vorgänger analog. Der Speicherbedarf ist damit O(V+E) statt O(V^2)
+ * bei einer Adjazenzmatrix. Kanten können nachträglich eingefügt und entfernt werden (siehe ZeilenListen),
+ * der Aufwand hängt dabei nur vom Grad der beteiligten Knoten ab.
+ */
+public class Graph implements Adjazenzen {
+    private int anzahlKnoten;
+    private ZeilenListen nachfolger;
+    private ZeilenListen vorgaenger;
+
+    /**
+     * Erzeugt den Graphen aus den Vorwärtskanten, die Rückwärtskanten werden hieraus berechnet.
+     */
+    public Graph(int anzahlKnoten, int [] nachfolgerStart, int [] nachfolger) {
+        this.anzahlKnoten = anzahlKnoten;
+
+        // zähle die Vorgänger jedes Knotens (um eins verschoben, damit die Präfixsummen direkt die Anfänge ergeben)
+        int [] vorgaengerStart = new int [anzahlKnoten + 1];
+        for (int i = 0; i < nachfolgerStart[anzahlKnoten]; i++) {
+            vorgaengerStart[nachfolger[i] + 1]++;
+        }
+        for (int v = 0; v < anzahlKnoten; v++) {
+            vorgaengerStart[v + 1] += vorgaengerStart[v];
+        }
+
+        // trage die Vorgänger ein, die Position wird hierbei je Knoten fortgeschrieben
+        int [] vorgaenger = new int [nachfolger.length];
+        int [] position = new int [anzahlKnoten];
+        for (int v = 0; v < anzahlKnoten; v++) {
+            for (int i = nachfolgerStart[v]; i < nachfolgerStart[v + 1]; i++) {
+                int w = nachfolger[i];
+                vorgaenger[vorgaengerStart[w] + position[w]++] = v;
+            }
+        }
+
+        this.nachfolger = new ZeilenListen(anzahlKnoten, nachfolgerStart, nachfolger);
+        this.vorgaenger = new ZeilenListen(anzahlKnoten, vorgaengerStart, vorgaenger);
+    }
+
+    /**
+     * Übernimmt bereits aufgebaute Vorwärts- und Rückwärtskanten (z.B. aus einem Schnappschuss).
+     */
+    Graph(int anzahlKnoten, ZeilenListen nachfolger, ZeilenListen vorgaenger) {
+        this.anzahlKnoten = anzahlKnoten;
+        this.nachfolger = nachfolger;
+        this.vorgaenger = vorgaenger;
+    }
+
+    public int getAnzahlKnoten() {
+        return this.anzahlKnoten;
+    }
+
+    public int getAnzahlKanten() {
+        return this.nachfolger.getAnzahlWerte();
+    }
+
+    public int getNachfolgerAnfang(int knoten) {
+        return this.nachfolger.getAnfang(knoten);
+    }
+
+    public int getNachfolgerEnde(int knoten) {
+        return this.nachfolger.getEnde(knoten);
+    }
+
+    public int getNachfolger(int position) {
+        return this.nachfolger.get(position);
+    }
+
+    public int getVorgaengerAnfang(int knoten) {
+        return this.vorgaenger.getAnfang(knoten);
+    }
+
+    public int getVorgaengerEnde(int knoten) {
+        return this.vorgaenger.getEnde(knoten);
+    }
+
+    public int getVorgaenger(int position) {
+        return this.vorgaenger.get(position);
+    }
+
+    ZeilenListen getNachfolgerListen() {
+        return this.nachfolger;
+    }
+
+    ZeilenListen getVorgaengerListen() {
+        return this.vorgaenger;
+    }
+
+    /**
+     * Prüft, ob die Kante von -> nach existiert. Es wird die kürzere der beiden betroffenen Listen durchsucht.
+     */
+    public boolean hatKante(int von, int nach) {
+        if (this.getNachfolgerEnde(von) - this.getNachfolgerAnfang(von) <= this.getVorgaengerEnde(nach) - this.getVorgaengerAnfang(nach)) {
+            return this.nachfolger.enthaelt(von, nach);
+        }
+        return this.vorgaenger.enthaelt(nach, von);
+    }
+
+    /**
+     * Fügt die Kante von -> nach ein, sie wird jeweils als letzter Nachfolger bzw. Vorgänger eingetragen.
+     */
+    public void addKante(int von, int nach) {
+        this.nachfolger.anfuegen(von, nach);
+        this.vorgaenger.anfuegen(nach, von);
+    }
+
+    /**
+     * Entfernt die Kante von -> nach, die Reihenfolge der übrigen Kanten bleibt erhalten.
+     * Liefert false, wenn die Kante nicht existiert.
+     */
+    public boolean entferneKante(int von, int nach) {
+        if (!this.nachfolger.entfernen(von, nach)) {
+            return false;
+        }
+        this.vorgaenger.entfernen(nach, von);
+        return true;
+    }
+}
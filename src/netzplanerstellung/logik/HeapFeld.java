@@ -0,0 +1,49 @@
+package netzplanerstellung.logik;
+
+/**
+ * Ein Feld auf dem Heap, es umhüllt ein int- oder ein long-Feld (z.B. eine Spalte der VorgangTabelle)
+ * ohne es zu kopieren.
+ */
+final class HeapFeld extends Feld {
+    private final int [] ints;
+    private final long [] longs;
+
+    HeapFeld(int [] ints) {
+        this.ints = ints;
+        this.longs = null;
+    }
+
+    HeapFeld(long [] longs) {
+        this.ints = null;
+        this.longs = longs;
+    }
+
+    int [] getInts() {
+        return this.ints;
+    }
+
+    @Override
+    public int getInt(long index) {
+        return this.ints[(int) index];
+    }
+
+    @Override
+    public void setInt(long index, int wert) {
+        this.ints[(int) index] = wert;
+    }
+
+    @Override
+    public long getLong(long index) {
+        return this.longs[(int) index];
+    }
+
+    @Override
+    public void setLong(long index, long wert) {
+        this.longs[(int) index] = wert;
+    }
+
+    @Override
+    public void close() {
+        // das Feld wird von der Garbage Collection freigegeben
+    }
+}
@@ -0,0 +1,398 @@
+package netzplanerstellung.logik;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aktualisiert die Zeitwerte eines Netzplans nach einer einzelnen Änderung (Dauer, neue oder entfernte
+ * Abhängigkeit), ohne den gesamten Netzplan neu zu berechnen.
+ *
+ * FAZ und FEZ werden nur für Knoten neu berechnet, deren Vorgänger sich geändert haben (abwärts),
+ * SAZ und SEZ nur für Knoten, deren Nachfolger sich geändert haben (aufwärts). Die Knoten werden dabei
+ * in topologischer Reihenfolge über einen Heap abgearbeitet, sodass jeder betroffene Knoten nur einmal
+ * berechnet wird. Die topologische Ordnung wird bei neuen Kanten mit dem Verfahren von Pearce und Kelly
+ * nur im Bereich zwischen den beiden Endpunkten angepasst, was gleichzeitig Zyklen erkennt.
+ *
+ * Der Aufwand einer Änderung hängt damit von der Größe des betroffenen Bereichs ab, nicht von der des Netzplans.
+ */
+class InkrementelleRechnung {
+    private Graph graph;
+    private VorgangTabelle tabelle;
+    // die topologische Ordnung des Netzplans (wird hier angepasst) und die Position jedes Knotens darin
+    private int [] ordnung;
+    private int [] position;
+
+    // Markierungen werden mit einem fortlaufenden Zähler gesetzt, damit die Felder nicht je Änderung
+    // gelöscht werden müssen: ein Knoten ist markiert, wenn sein Eintrag dem aktuellen Zählerstand entspricht
+    private int marke;
+    private int [] eingereiht;
+    private int [] geaendert;
+    private int [] besucht;
+
+    // Heap der abzuarbeitenden Knoten, sortiert nach ihrer Position in der Ordnung (auf- oder absteigend)
+    private int [] heap;
+    private int heapGroesse;
+    private boolean absteigend;
+    // Zähler für die Messung einer Änderung: eingereihte Knoten und größter Heap
+    private long anzahlEingereiht;
+    private int maxHeapGroesse;
+
+    // Knoten, deren Zeitwerte sich bei der aktuellen Änderung geändert haben
+    private int [] geaenderteKnoten;
+    private int anzahlGeaendert;
+
+    // Hilfsfelder für die Suchen
+    private int [] stapel;
+    private int [] elter;
+
+    InkrementelleRechnung(Graph graph, VorgangTabelle tabelle, int [] ordnung) {
+        int n = graph.getAnzahlKnoten();
+        this.graph = graph;
+        this.tabelle = tabelle;
+        this.ordnung = ordnung;
+        this.position = new int [n];
+        for (int i = 0; i < n; i++) {
+            this.position[ordnung[i]] = i;
+        }
+        this.eingereiht = new int [n];
+        this.geaendert = new int [n];
+        this.besucht = new int [n];
+        this.heap = new int [n];
+        this.geaenderteKnoten = new int [n];
+        this.stapel = new int [n];
+        this.elter = new int [n];
+    }
+
+    /**
+     * Passt die topologische Ordnung an die neue Kante von -> nach an, bevor diese eingefügt wird.
+     * Liefert den Zyklus (von, nach, ..., von), den die Kante schließen würde, oder null.
+     * Die Ordnung bleibt im Fall eines Zyklus unverändert.
+     */
+    List<Integer> ordneKanteEin(int von, int nach) {
+        if (von == nach) {
+            return Arrays.asList(von, von);
+        }
+        int obergrenze = this.position[von];
+        int untergrenze = this.position[nach];
+        if (untergrenze > obergrenze) {
+            // die Ordnung ist bereits passend
+            return null;
+        }
+
+        // Vorwärtssuche ab nach über die Knoten vor von in der Ordnung, erreicht sie von, entsteht ein Zyklus
+        int aktMarke = ++this.marke;
+        int [] vorwaerts = this.suche(nach, von, obergrenze, true, aktMarke);
+        if (vorwaerts == null) {
+            List<Integer> zyklus = new ArrayList<>();
+            for (int knoten = this.elter[von]; knoten != -1; knoten = this.elter[knoten]) {
+                zyklus.add(0, knoten);
+            }
+            zyklus.add(0, von);
+            zyklus.add(von);
+            return zyklus;
+        }
+        // Rückwärtssuche ab von über die Knoten nach nach in der Ordnung
+        int [] rueckwaerts = this.suche(von, -1, untergrenze, false, aktMarke);
+
+        // die betroffenen Knoten erhalten die frei werdenden Positionen: erst die Vorgänger von von,
+        // dann die Nachfolger von nach, jeweils in ihrer bisherigen Reihenfolge
+        int [] positionenRueckwaerts = this.positionen(rueckwaerts);
+        int [] positionenVorwaerts = this.positionen(vorwaerts);
+        int [] alle = new int [positionenRueckwaerts.length + positionenVorwaerts.length];
+        System.arraycopy(positionenRueckwaerts, 0, alle, 0, positionenRueckwaerts.length);
+        System.arraycopy(positionenVorwaerts, 0, alle, positionenRueckwaerts.length, positionenVorwaerts.length);
+        Arrays.sort(alle);
+
+        int [] knoten = new int [alle.length];
+        for (int i = 0; i < positionenRueckwaerts.length; i++) {
+            knoten[i] = this.ordnung[positionenRueckwaerts[i]];
+        }
+        for (int i = 0; i < positionenVorwaerts.length; i++) {
+            knoten[positionenRueckwaerts.length + i] = this.ordnung[positionenVorwaerts[i]];
+        }
+        for (int i = 0; i < alle.length; i++) {
+            this.ordnung[alle[i]] = knoten[i];
+            this.position[knoten[i]] = alle[i];
+        }
+        return null;
+    }
+
+    /**
+     * Tiefensuche ab start entlang der Nachfolger (vorwaerts) bzw. Vorgänger, beschränkt auf Knoten mit
+     * Position <= grenze (vorwärts) bzw. >= grenze (rückwärts). Liefert die besuchten Knoten oder null,
+     * wenn ziel erreicht wurde (der Weg dorthin steht dann in elter).
+     */
+    private int [] suche(int start, int ziel, int grenze, boolean vorwaerts, int aktMarke) {
+        int anzahl = 0;
+        int [] gefunden = new int [16];
+        int stapelGroesse = 0;
+        this.stapel[stapelGroesse++] = start;
+        this.besucht[start] = aktMarke;
+        this.elter[start] = -1;
+
+        while (stapelGroesse > 0) {
+            int aktKnoten = this.stapel[--stapelGroesse];
+            if (anzahl == gefunden.length) {
+                gefunden = Arrays.copyOf(gefunden, 2 * anzahl);
+            }
+            gefunden[anzahl++] = aktKnoten;
+
+            int anfang = vorwaerts ? this.graph.getNachfolgerAnfang(aktKnoten) : this.graph.getVorgaengerAnfang(aktKnoten);
+            int ende = vorwaerts ? this.graph.getNachfolgerEnde(aktKnoten) : this.graph.getVorgaengerEnde(aktKnoten);
+            for (int i = anfang; i < ende; i++) {
+                int nachbar = vorwaerts ? this.graph.getNachfolger(i) : this.graph.getVorgaenger(i);
+                if (nachbar == ziel) {
+                    this.elter[nachbar] = aktKnoten;
+                    return null;
+                }
+                boolean imBereich = vorwaerts ? this.position[nachbar] <= grenze : this.position[nachbar] >= grenze;
+                if (imBereich && this.besucht[nachbar] != aktMarke) {
+                    this.besucht[nachbar] = aktMarke;
+                    this.elter[nachbar] = aktKnoten;
+                    this.stapel[stapelGroesse++] = nachbar;
+                }
+            }
+        }
+        return Arrays.copyOf(gefunden, anzahl);
+    }
+
+    private int [] positionen(int [] knoten) {
+        int [] resultat = new int [knoten.length];
+        for (int i = 0; i < knoten.length; i++) {
+            resultat[i] = this.position[knoten[i]];
+        }
+        Arrays.sort(resultat);
+        return resultat;
+    }
+
+    /**
+     * Prüft, ob der Netzplan ohne die Kante von -> nach noch zusammenhängt. Hierzu wird von beiden Endpunkten
+     * abwechselnd eine ungerichtete Breitensuche fortgesetzt, bis sich die Suchen treffen oder eine von beiden
+     * ihre Komponente vollständig besucht hat. Zerfällt der Netzplan, ist der Aufwand so durch die kleinere
+     * der beiden Komponenten beschränkt.
+     */
+    boolean bleibtZusammenhaengendOhne(int von, int nach) {
+        int markeVon = ++this.marke;
+        int markeNach = ++this.marke;
+
+        // die Queues liegen in einem Feld: die von von aus vorne, die von nach aus von hinten
+        int n = this.graph.getAnzahlKnoten();
+        int anfangVon = 0;
+        int endeVon = 0;
+        int anfangNach = n - 1;
+        int endeNach = n - 1;
+        this.stapel[endeVon++] = von;
+        this.besucht[von] = markeVon;
+        this.stapel[endeNach--] = nach;
+        this.besucht[nach] = markeNach;
+
+        while (anfangVon < endeVon && anfangNach > endeNach) {
+            // ein Schritt der Suche ab von
+            int aktKnoten = this.stapel[anfangVon++];
+            int nachbarn = this.besucheNachbarn(aktKnoten, von, nach, markeVon, markeNach, endeVon, true);
+            if (nachbarn == -1) {
+                return true;
+            }
+            endeVon = nachbarn;
+
+            // ein Schritt der Suche ab nach
+            aktKnoten = this.stapel[anfangNach--];
+            nachbarn = this.besucheNachbarn(aktKnoten, von, nach, markeNach, markeVon, endeNach, false);
+            if (nachbarn == -1) {
+                return true;
+            }
+            endeNach = nachbarn;
+        }
+        return false;
+    }
+
+    /**
+     * Reiht die noch nicht besuchten Nachbarn von aktKnoten ein (ohne die Kante von -> nach) und liefert
+     * das neue Ende der Queue oder -1, wenn ein Knoten der anderen Suche erreicht wurde.
+     */
+    private int besucheNachbarn(int aktKnoten, int von, int nach, int eigeneMarke, int andereMarke,
+                                int queueEnde, boolean vorne) {
+        for (int richtung = 0; richtung < 2; richtung++) {
+            int anfang = richtung == 0 ? this.graph.getNachfolgerAnfang(aktKnoten) : this.graph.getVorgaengerAnfang(aktKnoten);
+            int ende = richtung == 0 ? this.graph.getNachfolgerEnde(aktKnoten) : this.graph.getVorgaengerEnde(aktKnoten);
+            for (int i = anfang; i < ende; i++) {
+                int nachbar = richtung == 0 ? this.graph.getNachfolger(i) : this.graph.getVorgaenger(i);
+                if ((richtung == 0 && aktKnoten == von && nachbar == nach) ||
+                    (richtung == 1 && aktKnoten == nach && nachbar == von)) {
+                    continue;
+                }
+                if (this.besucht[nachbar] == andereMarke) {
+                    return -1;
+                }
+                if (this.besucht[nachbar] != eigeneMarke) {
+                    this.besucht[nachbar] = eigeneMarke;
+                    this.stapel[vorne ? queueEnde++ : queueEnde--] = nachbar;
+                }
+            }
+        }
+        return queueEnde;
+    }
+
+    /**
+     * Berechnet die Zeitwerte nach einer Änderung neu: FAZ/FEZ abwärts ab dem Knoten vorwaertsAb,
+     * SAZ/SEZ aufwärts ab dem Knoten rueckwaertsAb sowie ab jedem Endknoten, dessen FEZ sich geändert hat.
+     * GP und FP werden für alle Knoten mit geänderten Zeitwerten und deren Vorgänger neu bestimmt.
+     */
+    void neuberechnen(int vorwaertsAb, int rueckwaertsAb) {
+        Messung messung = Messung.beginne(Messung.Phase.AENDERUNG);
+        this.anzahlEingereiht = 0;
+        this.maxHeapGroesse = 0;
+        int [] dauer = this.tabelle.getDauerSpalte();
+        int [] faz = this.tabelle.getFAZSpalte();
+        int [] fez = this.tabelle.getFEZSpalte();
+        int [] saz = this.tabelle.getSAZSpalte();
+        int [] sez = this.tabelle.getSEZSpalte();
+        int markeGeaendert = ++this.marke;
+        this.anzahlGeaendert = 0;
+
+        // Phase 1: Vorwärtsrechnung in aufsteigender topologischer Reihenfolge
+        int markeVorwaerts = ++this.marke;
+        this.starteHeap(false);
+        this.reiheEin(vorwaertsAb, markeVorwaerts);
+        while (this.heapGroesse > 0) {
+            int aktKnoten = this.entnehme();
+            int maxFEZ = 0;
+            for (int i = this.graph.getVorgaengerAnfang(aktKnoten); i < this.graph.getVorgaengerEnde(aktKnoten); i++) {
+                maxFEZ = Math.max(maxFEZ, fez[this.graph.getVorgaenger(i)]);
+            }
+            if (maxFEZ == faz[aktKnoten] && maxFEZ + dauer[aktKnoten] == fez[aktKnoten]) {
+                continue;
+            }
+            faz[aktKnoten] = maxFEZ;
+            fez[aktKnoten] = maxFEZ + dauer[aktKnoten];
+            this.merkeGeaendert(aktKnoten, markeGeaendert);
+            for (int i = this.graph.getNachfolgerAnfang(aktKnoten); i < this.graph.getNachfolgerEnde(aktKnoten); i++) {
+                this.reiheEin(this.graph.getNachfolger(i), markeVorwaerts);
+            }
+        }
+
+        // Phase 2: Rückwärtsrechnung in absteigender topologischer Reihenfolge,
+        // bei Endknoten gilt SEZ=FEZ, ihre Änderung wirkt daher ebenfalls aufwärts
+        int markeRueckwaerts = ++this.marke;
+        this.starteHeap(true);
+        this.reiheEin(rueckwaertsAb, markeRueckwaerts);
+        for (int i = 0; i < this.anzahlGeaendert; i++) {
+            int aktKnoten = this.geaenderteKnoten[i];
+            if (this.graph.getNachfolgerAnfang(aktKnoten) == this.graph.getNachfolgerEnde(aktKnoten)) {
+                this.reiheEin(aktKnoten, markeRueckwaerts);
+            }
+        }
+        while (this.heapGroesse > 0) {
+            int aktKnoten = this.entnehme();
+            int minSAZ;
+            if (this.graph.getNachfolgerAnfang(aktKnoten) == this.graph.getNachfolgerEnde(aktKnoten)) {
+                minSAZ = fez[aktKnoten];
+            } else {
+                minSAZ = Integer.MAX_VALUE;
+                for (int i = this.graph.getNachfolgerAnfang(aktKnoten); i < this.graph.getNachfolgerEnde(aktKnoten); i++) {
+                    minSAZ = Math.min(minSAZ, saz[this.graph.getNachfolger(i)]);
+                }
+            }
+            if (minSAZ == sez[aktKnoten] && minSAZ - dauer[aktKnoten] == saz[aktKnoten]) {
+                continue;
+            }
+            sez[aktKnoten] = minSAZ;
+            saz[aktKnoten] = minSAZ - dauer[aktKnoten];
+            this.merkeGeaendert(aktKnoten, markeGeaendert);
+            for (int i = this.graph.getVorgaengerAnfang(aktKnoten); i < this.graph.getVorgaengerEnde(aktKnoten); i++) {
+                this.reiheEin(this.graph.getVorgaenger(i), markeRueckwaerts);
+            }
+        }
+
+        // Phase 3: Zeitreserven, der FP hängt auch vom FAZ der Nachfolger ab, daher werden die Vorgänger
+        // der geänderten Knoten ebenfalls neu berechnet (sowie die Ausgangsknoten, deren Nachfolger sich geändert haben)
+        int markeReserven = ++this.marke;
+        this.berechneReserven(vorwaertsAb, markeReserven, faz, fez, saz);
+        this.berechneReserven(rueckwaertsAb, markeReserven, faz, fez, saz);
+        for (int i = 0; i < this.anzahlGeaendert; i++) {
+            int aktKnoten = this.geaenderteKnoten[i];
+            this.berechneReserven(aktKnoten, markeReserven, faz, fez, saz);
+            for (int j = this.graph.getVorgaengerAnfang(aktKnoten); j < this.graph.getVorgaengerEnde(aktKnoten); j++) {
+                this.berechneReserven(this.graph.getVorgaenger(j), markeReserven, faz, fez, saz);
+            }
+        }
+        messung.beende(this.graph.getAnzahlKnoten(), this.graph.getAnzahlKanten(), this.anzahlGeaendert,
+                       this.anzahlEingereiht, this.maxHeapGroesse);
+    }
+
+    private void berechneReserven(int knoten, int aktMarke, int [] faz, int [] fez, int [] saz) {
+        if (this.besucht[knoten] == aktMarke) {
+            return;
+        }
+        this.besucht[knoten] = aktMarke;
+        this.tabelle.setGP(knoten, saz[knoten] - faz[knoten]);
+
+        // bei Endknoten ist FP immer 0
+        if (this.graph.getNachfolgerAnfang(knoten) == this.graph.getNachfolgerEnde(knoten)) {
+            this.tabelle.setFP(knoten, 0);
+            return;
+        }
+        int minFAZ = Integer.MAX_VALUE;
+        for (int i = this.graph.getNachfolgerAnfang(knoten); i < this.graph.getNachfolgerEnde(knoten); i++) {
+            minFAZ = Math.min(minFAZ, faz[this.graph.getNachfolger(i)]);
+        }
+        this.tabelle.setFP(knoten, minFAZ - fez[knoten]);
+    }
+
+    private void merkeGeaendert(int knoten, int aktMarke) {
+        if (this.geaendert[knoten] != aktMarke) {
+            this.geaendert[knoten] = aktMarke;
+            this.geaenderteKnoten[this.anzahlGeaendert++] = knoten;
+        }
+    }
+
+    /*
+     * Binärer Heap über den Positionen der Knoten in der topologischen Ordnung.
+     */
+
+    private void starteHeap(boolean absteigend) {
+        this.heapGroesse = 0;
+        this.absteigend = absteigend;
+    }
+
+    private boolean vor(int a, int b) {
+        return this.absteigend ? this.position[a] > this.position[b] : this.position[a] < this.position[b];
+    }
+
+    private void reiheEin(int knoten, int aktMarke) {
+        if (this.eingereiht[knoten] == aktMarke) {
+            return;
+        }
+        this.eingereiht[knoten] = aktMarke;
+        this.anzahlEingereiht++;
+        int i = this.heapGroesse++;
+        if (this.heapGroesse > this.maxHeapGroesse) {
+            this.maxHeapGroesse = this.heapGroesse;
+        }
+        while (i > 0 && this.vor(knoten, this.heap[(i - 1) / 2])) {
+            this.heap[i] = this.heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        this.heap[i] = knoten;
+    }
+
+    private int entnehme() {
+        int resultat = this.heap[0];
+        int letzter = this.heap[--this.heapGroesse];
+        int i = 0;
+        while (2 * i + 1 < this.heapGroesse) {
+            int kind = 2 * i + 1;
+            if (kind + 1 < this.heapGroesse && this.vor(this.heap[kind + 1], this.heap[kind])) {
+                kind++;
+            }
+            if (!this.vor(this.heap[kind], letzter)) {
+                break;
+            }
+            this.heap[i] = this.heap[kind];
+            i = kind;
+        }
+        this.heap[i] = letzter;
+        return resultat;
+    }
+}
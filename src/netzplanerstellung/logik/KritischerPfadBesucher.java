@@ -0,0 +1,15 @@
+package netzplanerstellung.logik;
+
+/**
+ * Schnittstelle zum schrittweisen Verarbeiten der kritischen Pfade eines Netzplans,
+ * ohne dass alle Pfade gleichzeitig im Speicher gehalten werden müssen.
+ *
+ * @param <E> die Exception, die beim Verarbeiten eines Pfades auftreten kann (z.B. IOException beim Schreiben)
+ */
+public interface KritischerPfadBesucher<E extends Exception> {
+    /**
+     * Wird für jeden kritischen Pfad aufgerufen. Die Vorgangsnummern (externe Darstellung) stehen in
+     * pfad[0] bis pfad[laenge-1]. Das Feld wird für den nächsten Pfad wiederverwendet.
+     */
+    void besuche(int [] pfad, int laenge) throws E;
+}
@@ -0,0 +1,155 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+
+/**
+ * Maximaler Fluss nach Dinic auf einem gerichteten Graphen mit long-Kapazitäten. Jede Kante wird zusammen
+ * mit ihrer Rückkante an den Positionen 2k und 2k+1 abgelegt, die Kanten eines Knotens bilden eine verkettete
+ * Liste. Die Felder werden beim Zurücksetzen wiederverwendet und nur bei Bedarf vergrößert.
+ *
+ * Die Suche nach blockierenden Flüssen ist iterativ, damit auch sehr lange Ketten keinen StackOverflowError
+ * auslösen. Nach der Berechnung liefert aufQuellSeite die Quellseite eines minimalen Schnitts.
+ */
+class MaxFluss {
+    // Kapazität "unbegrenzt", groß genug, dass Summen endlicher Kapazitäten sie nicht erreichen
+    static final long UNENDLICH = Long.MAX_VALUE / 4;
+
+    private int anzahlKnoten;
+    private int anzahlKanten;
+
+    private int [] ersteKante = new int [16];
+    private int [] naechsteKante = new int [16];
+    private int [] kantenZiel = new int [16];
+    private long [] rest = new long [16];
+
+    private int [] ebene = new int [16];
+    private int [] aktKante = new int [16];
+    private int [] warteschlange = new int [16];
+    private int [] pfad = new int [16];
+
+    void zuruecksetzen(int neueAnzahlKnoten) {
+        this.anzahlKnoten = neueAnzahlKnoten;
+        this.anzahlKanten = 0;
+        if (this.ersteKante.length < neueAnzahlKnoten) {
+            int kapazitaet = Math.max(neueAnzahlKnoten, 2 * this.ersteKante.length);
+            this.ersteKante = new int [kapazitaet];
+            this.ebene = new int [kapazitaet];
+            this.aktKante = new int [kapazitaet];
+            this.warteschlange = new int [kapazitaet];
+            this.pfad = new int [kapazitaet];
+        }
+        Arrays.fill(this.ersteKante, 0, neueAnzahlKnoten, -1);
+    }
+
+    void addKante(int von, int nach, long kapazitaet) {
+        if (this.anzahlKanten + 2 > this.kantenZiel.length) {
+            int neueLaenge = 2 * this.kantenZiel.length;
+            this.naechsteKante = Arrays.copyOf(this.naechsteKante, neueLaenge);
+            this.kantenZiel = Arrays.copyOf(this.kantenZiel, neueLaenge);
+            this.rest = Arrays.copyOf(this.rest, neueLaenge);
+        }
+        int kante = this.anzahlKanten;
+        this.kantenZiel[kante] = nach;
+        this.rest[kante] = kapazitaet;
+        this.naechsteKante[kante] = this.ersteKante[von];
+        this.ersteKante[von] = kante;
+        this.kantenZiel[kante + 1] = von;
+        this.rest[kante + 1] = 0;
+        this.naechsteKante[kante + 1] = this.ersteKante[nach];
+        this.ersteKante[nach] = kante + 1;
+        this.anzahlKanten += 2;
+    }
+
+    /**
+     * Berechnet den maximalen Fluss von quelle nach senke. Erreicht er UNENDLICH (ein Pfad nur aus
+     * unbegrenzten Kanten), wird UNENDLICH geliefert und der Schnitt ist nicht bestimmt.
+     */
+    long berechne(int quelle, int senke) {
+        long fluss = 0;
+        while (this.bestimmeEbenen(quelle, senke)) {
+            System.arraycopy(this.ersteKante, 0, this.aktKante, 0, this.anzahlKnoten);
+
+            // Tiefensuche mit explizitem Pfad aus Kanten
+            int tiefe = 0;
+            int aktKnoten = quelle;
+            while (true) {
+                if (aktKnoten == senke) {
+                    // bestimme den Engpass und die erste Kante, an der er auftritt
+                    long engpass = UNENDLICH;
+                    int erste = 0;
+                    for (int i = 0; i < tiefe; i++) {
+                        if (this.rest[this.pfad[i]] < engpass) {
+                            engpass = this.rest[this.pfad[i]];
+                            erste = i;
+                        }
+                    }
+                    if (engpass >= UNENDLICH) {
+                        return UNENDLICH;
+                    }
+                    for (int i = 0; i < tiefe; i++) {
+                        this.rest[this.pfad[i]] -= engpass;
+                        this.rest[this.pfad[i] ^ 1] += engpass;
+                    }
+                    fluss += engpass;
+                    if (fluss >= UNENDLICH) {
+                        return UNENDLICH;
+                    }
+                    // setze vor der ersten gesättigten Kante fort
+                    tiefe = erste;
+                    aktKnoten = tiefe == 0 ? quelle : this.kantenZiel[this.pfad[tiefe - 1]];
+                    continue;
+                }
+
+                int kante = this.aktKante[aktKnoten];
+                while (kante != -1 && (this.rest[kante] == 0 || this.ebene[this.kantenZiel[kante]] != this.ebene[aktKnoten] + 1)) {
+                    kante = this.naechsteKante[kante];
+                }
+                this.aktKante[aktKnoten] = kante;
+                if (kante != -1) {
+                    this.pfad[tiefe++] = kante;
+                    aktKnoten = this.kantenZiel[kante];
+                    continue;
+                }
+
+                // von hier aus ist die Senke nicht mehr erreichbar
+                this.ebene[aktKnoten] = -1;
+                if (tiefe == 0) {
+                    break;
+                }
+                tiefe--;
+                aktKnoten = tiefe == 0 ? quelle : this.kantenZiel[this.pfad[tiefe - 1]];
+                this.aktKante[aktKnoten] = this.naechsteKante[this.aktKante[aktKnoten]];
+            }
+        }
+        return fluss;
+    }
+
+    /**
+     * Nach berechne: liegt der Knoten im Restgraphen auf der Seite der Quelle?
+     */
+    boolean aufQuellSeite(int knoten) {
+        return this.ebene[knoten] >= 0;
+    }
+
+    /**
+     * Breitensuche im Restgraphen, liefert ob die Senke erreichbar ist.
+     */
+    private boolean bestimmeEbenen(int quelle, int senke) {
+        Arrays.fill(this.ebene, 0, this.anzahlKnoten, -1);
+        int anfang = 0;
+        int ende = 0;
+        this.warteschlange[ende++] = quelle;
+        this.ebene[quelle] = 0;
+        while (anfang < ende) {
+            int aktKnoten = this.warteschlange[anfang++];
+            for (int kante = this.ersteKante[aktKnoten]; kante != -1; kante = this.naechsteKante[kante]) {
+                int nachbar = this.kantenZiel[kante];
+                if (this.rest[kante] > 0 && this.ebene[nachbar] == -1) {
+                    this.ebene[nachbar] = this.ebene[aktKnoten] + 1;
+                    this.warteschlange[ende++] = nachbar;
+                }
+            }
+        }
+        return this.ebene[senke] != -1;
+    }
+}
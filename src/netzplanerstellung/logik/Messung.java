@@ -0,0 +1,143 @@
+package netzplanerstellung.logik;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Messung der Laufzeit und einiger Zähler einer Phase der Netzplanerstellung.
+ *
+ * Jede abgeschlossene Phase wird als JFR-Ereignis netzplanerstellung.Phase gemeldet (sofern eine Aufzeichnung
+ * läuft, z.B. mit -XX:StartFlightRecording) und an das mit setProtokoll gesetzte Protokoll übergeben.
+ * Ist beides nicht der Fall, liefert beginne ein gemeinsames inaktives Objekt, es wird dann weder die Zeit
+ * genommen noch etwas angelegt. Phasen, die mit einer Exception abbrechen, werden nicht gemeldet.
+ *
+ * Neben der Anzahl der Vorgänge und Kanten werden je Phase drei Zähler gemeldet (nicht genannte sind 0):
+ *   Phase                 Ergebnisse                   Schritte                          Maximum
+ *   EINLESEN              -                            -                                 -
+ *   ADJAZENZEN            -                            geprüfte Kanten                   größter Grad
+ *   ZUSAMMENHANG          erreichte Vorgänge           betrachtete Nachbarn              -
+ *   ZYKLEN                Vorgänge in Zyklen           verfolgte Kanten der Tiefensuche  größte Tiefe
+ *   TOPOLOGISCHE_ORDNUNG  -                            betrachtete Kanten                -
+ *   VORWAERTS             -                            betrachtete Vorgängerkanten       Projektende
+ *   RUECKWAERTS           -                            betrachtete Nachfolgerkanten      -
+ *   ZEITRESERVEN          kritische Vorgänge           -                                 -
+ *   KRITISCHE_PFADE       besuchte Pfade               Verlängerungen eines Pfades       längster Pfad
+ *   REPORT                ausgegebene Pfade            -                                 -
+ *   AENDERUNG             geänderte Vorgänge           eingereihte Vorgänge              größter Heap
+ *
+ * ZYKLEN wird nur gemessen, wenn die topologische Ordnung nicht alle Vorgänge erfasst (nur dann werden
+ * die Zyklen für die Fehlermeldung bestimmt).
+ *
+ * Vorwärts- und Rückwärtsrechnung besuchen jeden Vorgang genau einmal in topologischer Reihenfolge, erneut
+ * eingereiht wird nur bei Änderungen am fertigen Netzplan (AENDERUNG).
+ */
+public final class Messung {
+    public enum Phase {
+        EINLESEN, ADJAZENZEN, ZUSAMMENHANG, ZYKLEN, TOPOLOGISCHE_ORDNUNG, VORWAERTS, RUECKWAERTS,
+        ZEITRESERVEN, KRITISCHE_PFADE, REPORT, AENDERUNG
+    }
+
+    /**
+     * Empfängt die abgeschlossenen Phasen, ggf. aus mehreren Threads gleichzeitig.
+     */
+    public interface Protokoll {
+        void erfasse(Phase phase, long dauer, long vorgaenge, long kanten, long ergebnisse, long schritte, long maximum);
+    }
+
+    private static final EventType EREIGNIS_TYP = EventType.getEventType(PhasenEreignis.class);
+    private static final Messung INAKTIV = new Messung(null, null, 0);
+    private static volatile Protokoll protokoll;
+
+    private final Phase phase;
+    private final PhasenEreignis ereignis;
+    private final long anfang;
+
+    private Messung(Phase phase, PhasenEreignis ereignis, long anfang) {
+        this.phase = phase;
+        this.ereignis = ereignis;
+        this.anfang = anfang;
+    }
+
+    /**
+     * Setzt das Protokoll für alle folgenden Messungen (null schaltet es ab).
+     */
+    public static void setProtokoll(Protokoll neuesProtokoll) {
+        protokoll = neuesProtokoll;
+    }
+
+    public static Messung beginne(Phase phase) {
+        boolean aufzeichnen = EREIGNIS_TYP.isEnabled();
+        if (!aufzeichnen && protokoll == null) {
+            return INAKTIV;
+        }
+        PhasenEreignis ereignis = null;
+        if (aufzeichnen) {
+            ereignis = new PhasenEreignis();
+            ereignis.begin();
+        }
+        return new Messung(phase, ereignis, System.nanoTime());
+    }
+
+    /**
+     * Zähler, deren Bestimmung selbst Aufwand erfordert, werden nur für aktive Messungen bestimmt.
+     */
+    public boolean istAktiv() {
+        return this.phase != null;
+    }
+
+    public void beende(long vorgaenge, long kanten, long ergebnisse, long schritte, long maximum) {
+        if (this.phase == null) {
+            return;
+        }
+        long dauer = System.nanoTime() - this.anfang;
+        if (this.ereignis != null) {
+            this.ereignis.end();
+            if (this.ereignis.shouldCommit()) {
+                this.ereignis.phase = this.phase.name();
+                this.ereignis.vorgaenge = vorgaenge;
+                this.ereignis.kanten = kanten;
+                this.ereignis.ergebnisse = ergebnisse;
+                this.ereignis.schritte = schritte;
+                this.ereignis.maximum = maximum;
+                this.ereignis.commit();
+            }
+        }
+        Protokoll aktProtokoll = protokoll;
+        if (aktProtokoll != null) {
+            aktProtokoll.erfasse(this.phase, dauer, vorgaenge, kanten, ergebnisse, schritte, maximum);
+        }
+    }
+
+    @Name("netzplanerstellung.Phase")
+    @Label("Netzplan-Phase")
+    @Category("Netzplanerstellung")
+    @Description("Eine abgeschlossene Phase der Netzplanerstellung mit ihren Zählern")
+    @StackTrace(false)
+    static class PhasenEreignis extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Vorgänge")
+        long vorgaenge;
+
+        @Label("Kanten")
+        long kanten;
+
+        @Label("Ergebnisse")
+        @Description("Je nach Phase z.B. besuchte kritische Pfade oder geänderte Vorgänge")
+        long ergebnisse;
+
+        @Label("Schritte")
+        @Description("Je nach Phase z.B. verfolgte Kanten, Verlängerungen von Pfaden oder eingereihte Vorgänge")
+        long schritte;
+
+        @Label("Maximum")
+        @Description("Je nach Phase z.B. größte Tiefe der Suche, längster Pfad oder größter Heap")
+        long maximum;
+    }
+}
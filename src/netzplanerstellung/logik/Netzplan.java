@@ -1,193 +1,380 @@
 package netzplanerstellung.logik;
 
+import java.math.BigInteger;
+
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Klasse zur Darstellung eines Netzplans.
+ *
+ * Die Prüfungen (Konsistenz, Zusammenhang, Zyklen) finden immer im Konstruktor statt, die Zeitrechnung nur
+ * bis zur angegebenen Auswertung. Weitere Phasen werden erst bei Bedarf nachgeholt (z.B. von getDauer oder
+ * getKritischePfade), kritische Pfade und ihre Anzahl werden bis zur nächsten Änderung zwischengespeichert.
+ * Ist die StufenRechnung eingerichtet, werden Vorwärts- und Rückwärtsrechnung breiter Netzpläne auf mehrere
+ * Threads verteilt.
  */
-public class Netzplan {
-    private List<Vorgang> vorgaenge;
-    private int [][] adjazenzen;
-    private List<Integer> startKnoten;
-    private List<Integer> endKnoten;
+public class Netzplan implements BerechneterNetzplan {
+    /**
+     * Wie weit der Netzplan ausgewertet ist, jede Stufe schließt die vorherigen ein.
+     */
+    public enum Auswertung {
+        // nur Prüfungen und topologische Ordnung
+        PRUEFUNG,
+        // zusätzlich FAZ und FEZ (Vorwärtsrechnung)
+        VORWAERTS,
+        // zusätzlich SAZ, SEZ, GP und FP
+        VOLLSTAENDIG
+    }
 
-    // Abbildung externe Nummern -> interne Nummern
-    private Map<Integer, Integer> toInternal;
-    // Abbildung interne Nummern -> externe Nummern
-    private Map<Integer, Integer> fromInternal;
+    // die Vorgänge, ihre Zeile in der Tabelle entspricht der internen Nummer
+    // (die Abbildung zwischen externen und internen Nummern wurde in der Dokumentation mit g bezeichnet)
+    private VorgangTabelle tabelle;
+    // die Abhängigkeiten in interner Darstellung (dünn besetzt, Vorwärts- und Rückwärtskanten)
+    private Graph adjazenzen;
+    // die internen Knoten in topologischer Reihenfolge
+    private int [] topologischeOrdnung;
+    private int [] startKnoten;
+    private int [] endKnoten;
+    // die Stufen für die Rechnung mit mehreren Threads, nur zwischen Vorwärts- und Rückwärtsrechnung belegt
+    private StufenRechnung stufen;
+    // Hilfsstrukturen für Änderungen am fertigen Netzplan (werden erst bei der ersten Änderung angelegt)
+    private InkrementelleRechnung rechnung;
+    // die eingefrorene Topologie für Simulation, Szenarien und Crashen, null bis zur ersten Anfrage bzw. nach
+    // einer Änderung der Abhängigkeiten
+    private Topologie topologie;
+    private Auswertung auswertung;
+    // zwischengespeicherte Ergebnisse, null bis zur ersten Anfrage bzw. nach einer Änderung
+    private Feld anzahlPfade;
+    private BigInteger anzahlKritischePfade;
+    private List<List<Integer>> kritischePfade;
 
     public Netzplan(List<Vorgang> vorgaenge) throws NetzplanException{
-        this.vorgaenge = vorgaenge;
-        this.adjazenzen = new int [vorgaenge.size()][vorgaenge.size()];
-        this.startKnoten = new ArrayList<>();
-        this.endKnoten = new ArrayList<>();
+        this(VorgangTabelle.aus(vorgaenge));
+    }
 
-        // um mit der Adjazenzmatrix arbeiten zu können, erzeuge zunächst die Abbildung
-        // zwischen den internen und externen Vorgangsnummern (wurde in der Dokumentation mit g bezeichnet)
-        this.toInternal = new HashMap<>(); // g
-        this.fromInternal = new HashMap<>(); // g^-1
-        for (int internal = 0; internal < this.vorgaenge.size(); internal++) {
-            toInternal.put(this.vorgaenge.get(internal).getNummer(), internal);
-            fromInternal.put(internal, this.vorgaenge.get(internal).getNummer());
-        }
+    public Netzplan(VorgangTabelle tabelle) throws NetzplanException{
+        this(tabelle, Auswertung.VOLLSTAENDIG);
+    }
+
+    /**
+     * Prüft die Vorgänge und wertet den Netzplan bis zur angegebenen Stufe aus. Mit PRUEFUNG werden nur
+     * die Prüfungen durchgeführt (z.B. beim Import), die Zeitwerte der Tabelle bleiben unverändert.
+     */
+    public Netzplan(VorgangTabelle tabelle, Auswertung auswertung) throws NetzplanException{
+        this.tabelle = tabelle;
+        this.auswertung = Auswertung.PRUEFUNG;
+
+        // prüfe die Vorgänge und bestimme eine topologische Ordnung,
+        // in dieser werden die Vorwärts- und Rückwärtsrechnung durchgeführt
+        int [] ordnung = new int [tabelle.getAnzahl()];
+        this.adjazenzen = pruefe(tabelle, new HeapFeld(ordnung), Speicher.HEAP);
+        this.topologischeOrdnung = ordnung;
 
         // belege nun die Listen der Start- und Endknoten
-        for (Vorgang aktVorgang: vorgaenge) {
-            if (aktVorgang.getVorgaenger().size() == 0) {
-                this.startKnoten.add(toInternal.get(aktVorgang.getNummer()));
+        int anzahlStart = 0;
+        int anzahlEnde = 0;
+        int [] start = new int [tabelle.getAnzahl()];
+        int [] ende = new int [tabelle.getAnzahl()];
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            if (tabelle.getVorgaengerAnfang(zeile) == tabelle.getVorgaengerEnde(zeile)) {
+                start[anzahlStart++] = zeile;
+            }
+            if (tabelle.getNachfolgerAnfang(zeile) == tabelle.getNachfolgerEnde(zeile)) {
+                ende[anzahlEnde++] = zeile;
+            }
+        }
+        this.startKnoten = Arrays.copyOf(start, anzahlStart);
+        this.endKnoten = Arrays.copyOf(ende, anzahlEnde);
+
+        this.werteAus(auswertung);
+    }
+
+    /**
+     * Holt die fehlenden Phasen der Zeitrechnung bis zur angegebenen Stufe nach.
+     */
+    public void werteAus(Auswertung ziel) {
+        int n = this.adjazenzen.getAnzahlKnoten();
+        int m = this.adjazenzen.getAnzahlKanten();
+
+        // beginne mit Phase 1: Vorwärtsrechnung
+        if (this.auswertung == Auswertung.PRUEFUNG && ziel.compareTo(Auswertung.VORWAERTS) >= 0) {
+            Messung messung = Messung.beginne(Messung.Phase.VORWAERTS);
+            // mit eingerichteter StufenRechnung werden breite Stufen auf mehrere Threads verteilt
+            this.stufen = StufenRechnung.fuer(this.adjazenzen, this.topologischeOrdnung);
+            if (this.stufen != null) {
+                this.stufen.vorwaertsRechnung(this.tabelle.getDauerSpalte(), this.tabelle.getFAZSpalte(),
+                                              this.tabelle.getFEZSpalte());
+            } else {
+                vorwaertsRechnung(this.adjazenzen, this.topologischeOrdnung,
+                                  this.tabelle.getDauerSpalte(), this.tabelle.getFAZSpalte(), this.tabelle.getFEZSpalte());
+            }
+            messung.beende(n, m, 0, m, messung.istAktiv() ? getProjektende(this.adjazenzen, this.tabelle) : 0);
+            this.auswertung = Auswertung.VORWAERTS;
+        }
+
+        if (this.auswertung == Auswertung.VORWAERTS && ziel == Auswertung.VOLLSTAENDIG) {
+            // fahre fort mit Phase 2: Rückwärtsrechnung
+            Messung messung = Messung.beginne(Messung.Phase.RUECKWAERTS);
+            if (this.stufen != null) {
+                this.stufen.rueckwaertsRechnung(this.tabelle.getDauerSpalte(), this.tabelle.getFEZSpalte(),
+                                                this.tabelle.getSAZSpalte(), this.tabelle.getSEZSpalte());
+                this.stufen = null;
+            } else {
+                rueckwaertsRechnung(this.adjazenzen, this.topologischeOrdnung, this.tabelle.getDauerSpalte(),
+                                    this.tabelle.getFEZSpalte(), this.tabelle.getSAZSpalte(), this.tabelle.getSEZSpalte());
+            }
+            messung.beende(n, m, 0, m, 0);
+
+            // führe nun Phase 3 durch: Ermittlung der Zeitreserven
+            messung = Messung.beginne(Messung.Phase.ZEITRESERVEN);
+            zeitreserven(this.adjazenzen, new HeapFeld(this.tabelle.getFAZSpalte()), new HeapFeld(this.tabelle.getFEZSpalte()),
+                         new HeapFeld(this.tabelle.getSAZSpalte()), new HeapFeld(this.tabelle.getGPSpalte()),
+                         new HeapFeld(this.tabelle.getFPSpalte()));
+            messung.beende(n, m, messung.istAktiv() ? anzahlKritisch(this.tabelle) : 0, 0, 0);
+            this.auswertung = Auswertung.VOLLSTAENDIG;
+        }
+    }
+
+    public Auswertung getAuswertung() {
+        return this.auswertung;
+    }
+
+    /**
+     * Übernimmt einen bereits berechneten Netzplan (z.B. aus einem Schnappschuss), es finden weder
+     * Prüfungen noch Berechnungen statt.
+     */
+    Netzplan(VorgangTabelle tabelle, Graph adjazenzen, int [] topologischeOrdnung, int [] startKnoten, int [] endKnoten) {
+        this.tabelle = tabelle;
+        this.adjazenzen = adjazenzen;
+        this.topologischeOrdnung = topologischeOrdnung;
+        this.startKnoten = startKnoten;
+        this.endKnoten = endKnoten;
+        this.auswertung = Auswertung.VOLLSTAENDIG;
+    }
+
+    /*
+     * Die Phasen der Netzplanberechnung. Sie sind über Tabelle, Adjazenzen und Feld geschrieben und werden
+     * so vom Netzplan (auf dem Heap) und vom AusgelagertenNetzplan (in Dateien) gemeinsam verwendet,
+     * Hilfsfelder legt der jeweilige Speicher an.
+     */
+
+    /**
+     * Die Prüfungen beim Erstellen eines Netzplans: Start- und Endvorgänge, Konsistenz der Beziehungen
+     * (beim Aufbau der Adjazenzen), Zusammenhang und Zyklenfreiheit. Die topologische Ordnung wird in
+     * ordnung abgelegt, geliefert werden die Adjazenzen.
+     */
+    static <G extends Adjazenzen> G pruefe(Tabelle tabelle, Feld ordnung, Speicher<G> speicher) throws NetzplanException {
+        int n = tabelle.getAnzahl();
+        int anzahlStart = 0;
+        int anzahlEnde = 0;
+        for (int zeile = 0; zeile < n; zeile++) {
+            if (tabelle.getVorgaengerAnfang(zeile) == tabelle.getVorgaengerEnde(zeile)) {
+                anzahlStart++;
             }
-            if (aktVorgang.getNachfolger().size() == 0) {
-                this.endKnoten.add(toInternal.get(aktVorgang.getNummer()));
+            if (tabelle.getNachfolgerAnfang(zeile) == tabelle.getNachfolgerEnde(zeile)) {
+                anzahlEnde++;
             }
         }
 
         // teste, ob mindestens ein Startknoten existiert
-        if (this.startKnoten.size() == 0) {
+        if (anzahlStart == 0) {
             throw new NetzplanException("Fehler bei der Erstellung des Netzplans: Es existiert kein Startvorgang!");
         }
 
         // teste, ob mindestens ein Endknoten existiert
-        if (this.endKnoten.size() == 0) {
+        if (anzahlEnde == 0) {
             throw new NetzplanException("Fehler bei der Erstellung des Netzplans: Es existiert kein Endvorgang!");
         }
 
-        // erzeuge die Adjazenzmatrix
+        // erzeuge die Adjazenzen
         // hierbei wird auch die Konsistenz der Beziehungen unter den Vorgängen sichergestellt
-        this.erzeugeAdjazenzen();
+        Messung messung = Messung.beginne(Messung.Phase.ADJAZENZEN);
+        G adjazenzen = erzeugeAdjazenzen(tabelle, speicher);
+        int m = adjazenzen.getAnzahlKanten();
+        messung.beende(n, m, 0, m, messung.istAktiv() ? groessterGrad(adjazenzen) : 0);
 
         // teste, ob der Graph auch zusammenhängt
         // es wird eine Exception geworfen, wenn dies nicht der Fall ist
-        this.istZusammenhaengend();
-
-        // teste, ob der Graph auch zyklenfrei ist
-        // es wird eine Exception geworfen, wenn dies nicht der Fall ist
-        this.istZyklenfrei();
-
-        // beginne mit Phase 1: Vorwärtsrechnung
-        this.vorwaertsRechnung();
-
-        // fahre fort mit Phase 2: Rückwärtsrechnung
-        this.rueckwaertsRechnung();
-
-        // führe nun Phase 3 durch: Ermittlung der Zeitreserven
-        this.zeitreserven();
-
-        /**
-         * DEBUG: Gebe die Adjazenzmatrix aus
-         */
-        // for (int zeile=0; zeile<adjazenzen.length; zeile++) {
-        //     for (int spalte=0; spalte<adjazenzen[0].length; spalte++) {
-        //      System.out.print(this.adjazenzen[zeile][spalte]+" ");
-        //     }
-        //     System.out.print("\n");
-        // }
-
+        messung = Messung.beginne(Messung.Phase.ZUSAMMENHANG);
+        istZusammenhaengend(adjazenzen, tabelle, speicher);
+        messung.beende(n, m, n, 2L * m, 0);
+
+        // bestimme eine topologische Ordnung
+        // umfasst sie nicht alle Knoten, enthält der Graph einen Zyklus
+        messung = Messung.beginne(Messung.Phase.TOPOLOGISCHE_ORDNUNG);
+        int geordnet = bestimmeTopologischeOrdnung(adjazenzen, ordnung, speicher);
+        messung.beende(n, m, 0, m, 0);
+
+        // nur dann werden die Zyklen für die Fehlermeldung bestimmt, es wird eine Exception geworfen
+        if (geordnet < n) {
+            meldeZyklen(adjazenzen, ordnung, geordnet, tabelle);
+        }
+        return adjazenzen;
     }
 
-    private void vorwaertsRechnung() {
-        // erzeuge eine Queue der abzuarbeitenden Knoten (diese enthält zunächst nur alle Startknoten)
-        Deque<Integer> abzuarbeiten = new ArrayDeque<>(this.startKnoten);
+    // Hilfsfunktionen für die Zähler der Messungen (nur bei aktiver Messung aufgerufen)
 
-        while (abzuarbeiten.size() > 0) {
-            // entferne aktuellen Knoten
-            int aktKnoten = abzuarbeiten.removeFirst();
+    static int groessterGrad(Adjazenzen graph) {
+        int maximum = 0;
+        for (int knoten = 0; knoten < graph.getAnzahlKnoten(); knoten++) {
+            maximum = Math.max(maximum, graph.getNachfolgerEnde(knoten) - graph.getNachfolgerAnfang(knoten));
+            maximum = Math.max(maximum, graph.getVorgaengerEnde(knoten) - graph.getVorgaengerAnfang(knoten));
+        }
+        return maximum;
+    }
 
-            // besorge Referenz auf den zugehörigen Vorgang, um FEZ setzen zu können
-            Vorgang aktVorgang = this.vorgaenge.get(aktKnoten);
-            
-            // setze FEZ
-            aktVorgang.setFEZ(aktVorgang.getFAZ() + aktVorgang.getDauer());
+    static int getProjektende(Adjazenzen graph, Tabelle tabelle) {
+        int maximum = 0;
+        for (int knoten = 0; knoten < graph.getAnzahlKnoten(); knoten++) {
+            if (graph.getNachfolgerAnfang(knoten) == graph.getNachfolgerEnde(knoten)) {
+                maximum = Math.max(maximum, tabelle.getFEZ(knoten));
+            }
+        }
+        return maximum;
+    }
 
-            // besuche die Nachbarn (Kinder) des aktuellen Vorgangs (Achtung, diese liegen in externer Darstellung vor!)
-            List<Integer> kinder = aktVorgang.getNachfolger();
-            for (int aktKind: kinder) {
-                // bestimme interne Darstellung des Kindes
-                int intern = toInternal.get(aktKind);
+    static int anzahlKritisch(Tabelle tabelle) {
+        int anzahl = 0;
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            if (tabelle.istKritisch(zeile)) {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
 
-                // besorge Referenz auf das Kind
-                Vorgang kindVorgang = this.vorgaenge.get(intern);
+    /**
+     * Wie unten, liefert die Ordnung oder null, wenn der Graph einen Zyklus enthält.
+     */
+    static int [] bestimmeTopologischeOrdnung(Graph graph) {
+        int [] ordnung = new int [graph.getAnzahlKnoten()];
+        int geordnet = bestimmeTopologischeOrdnung(graph, new HeapFeld(ordnung), Speicher.HEAP);
+        return geordnet == ordnung.length ? ordnung : null;
+    }
 
-                // setze FAZ des Kindes, falls es sich hierdurch vergrößert
-                if (kindVorgang.getFAZ() < aktVorgang.getFEZ()) {
-                    kindVorgang.setFAZ(aktVorgang.getFEZ());
+    /**
+     * Bestimmt eine topologische Ordnung der Knoten (Algorithmus von Kahn, Laufzeit O(V+E)).
+     * Liefert die Anzahl der geordneten Knoten, enthält der Graph einen Zyklus, sind es weniger als alle.
+     */
+    static int bestimmeTopologischeOrdnung(Adjazenzen graph, Feld ordnung, Speicher<?> speicher) {
+        int n = graph.getAnzahlKnoten();
+
+        // Anzahl der noch nicht abgearbeiteten Vorgänger jedes Knotens
+        try (Feld offeneVorgaenger = speicher.neuesIntFeld(n)) {
+            int ende = 0;
+            for (int aktKnoten = 0; aktKnoten < n; aktKnoten++) {
+                int anzahl = graph.getVorgaengerEnde(aktKnoten) - graph.getVorgaengerAnfang(aktKnoten);
+                offeneVorgaenger.setInt(aktKnoten, anzahl);
+                if (anzahl == 0) {
+                    ordnung.setInt(ende++, aktKnoten);
+                }
+            }
 
-                    // füge das Kind hinten an die Queue an
-                    abzuarbeiten.addLast(intern);
+            // die Ordnung dient gleichzeitig als Queue
+            for (int anfang = 0; anfang < ende; anfang++) {
+                int aktKnoten = ordnung.getInt(anfang);
+                for (int i = graph.getNachfolgerAnfang(aktKnoten); i < graph.getNachfolgerEnde(aktKnoten); i++) {
+                    int kind = graph.getNachfolger(i);
+                    int offen = offeneVorgaenger.getInt(kind) - 1;
+                    offeneVorgaenger.setInt(kind, offen);
+                    if (offen == 0) {
+                        ordnung.setInt(ende++, kind);
+                    }
                 }
             }
+            // die Knoten eines Zyklus (und alle ihre Nachfolger) werden nie eingereiht
+            return ende;
         }
     }
 
-    private void rueckwaertsRechnung() {
-        // setze zuerst für jeden Endknoten SEZ=FEZ
-        for (int aktKnoten: this.endKnoten) {
-            // besorge Referenz
-            Vorgang aktVorgang = this.vorgaenge.get(aktKnoten);
-            // setze Wert
-            aktVorgang.setSEZ(aktVorgang.getFEZ());
-        }
-        
-        // erzeuge eine Queue der abzuarbeitenden Knoten (diese enthält zunaechst nur alle Endknoten)
-        Deque<Integer> abzuarbeiten = new ArrayDeque<>(this.endKnoten);
-
-        while (abzuarbeiten.size() > 0) {
-            // entferne den aktuellen Knoten
-            int aktKnoten = abzuarbeiten.removeFirst();
-            
-            // besorge Referenz
-            Vorgang aktVorgang = this.vorgaenge.get(aktKnoten);
-
-            // setze SAZ=SEZ-D
-            aktVorgang.setSAZ(aktVorgang.getSEZ()-aktVorgang.getDauer());
-
-            // besuche die Vorgänger (auch hier wieder externe Darstellung)
-            List<Integer> vorgaenger = aktVorgang.getVorgaenger();
+    static void vorwaertsRechnung(Graph graph, int [] ordnung, int [] dauer, int [] faz, int [] fez) {
+        vorwaertsRechnung(graph, new HeapFeld(ordnung), new HeapFeld(dauer), new HeapFeld(faz), new HeapFeld(fez));
+    }
 
-            for (int aktVorgaenger: vorgaenger) {
-                // besorge Referenz
-                Vorgang aktVorgaengerRef = this.vorgaenge.get(toInternal.get(aktVorgaenger));
+    /**
+     * Phase 1: Die Knoten werden in topologischer Reihenfolge genau einmal besucht.
+     * Wenn ein Knoten an der Reihe ist, sind alle seine Vorgänger bereits abgeschlossen.
+     * FAZ ist das Maximum der FEZ aller Vorgänger (0 bei Startknoten), FEZ=FAZ+D.
+     */
+    static void vorwaertsRechnung(Adjazenzen graph, Feld ordnung, Feld dauer, Feld faz, Feld fez) {
+        for (int position = 0; position < graph.getAnzahlKnoten(); position++) {
+            int aktKnoten = ordnung.getInt(position);
+            int maxFEZ = 0;
+            for (int i = graph.getVorgaengerAnfang(aktKnoten); i < graph.getVorgaengerEnde(aktKnoten); i++) {
+                int vorgaengerFEZ = fez.getInt(graph.getVorgaenger(i));
+                if (vorgaengerFEZ > maxFEZ) {
+                    maxFEZ = vorgaengerFEZ;
+                }
+            }
+            faz.setInt(aktKnoten, maxFEZ);
+            fez.setInt(aktKnoten, maxFEZ + dauer.getInt(aktKnoten));
+        }
+    }
 
-                // setze SEZ des Vorgängers, wenn es noch nicht gesetzt wurde oder es sich verringert
-                if (aktVorgaengerRef.getSEZ() == 0 || aktVorgaengerRef.getSEZ() > aktVorgang.getSAZ()) {
-                    aktVorgaengerRef.setSEZ(aktVorgang.getSAZ());
+    static void rueckwaertsRechnung(Graph graph, int [] ordnung, int [] dauer, int [] fez, int [] saz, int [] sez) {
+        rueckwaertsRechnung(graph, new HeapFeld(ordnung), new HeapFeld(dauer), new HeapFeld(fez), new HeapFeld(saz),
+                            new HeapFeld(sez));
+    }
 
-                    // fuege den Vorgänger hinten an die Queue an
-                    abzuarbeiten.addLast(toInternal.get(aktVorgaenger));
+    /**
+     * Phase 2: Die Knoten werden in umgekehrter topologischer Reihenfolge genau einmal besucht.
+     * Wenn ein Knoten an der Reihe ist, sind alle seine Nachfolger bereits abgeschlossen.
+     * SEZ ist das Minimum der SAZ aller Nachfolger (bei Endknoten gilt SEZ=FEZ), SAZ=SEZ-D.
+     */
+    static void rueckwaertsRechnung(Adjazenzen graph, Feld ordnung, Feld dauer, Feld fez, Feld saz, Feld sez) {
+        for (int position = graph.getAnzahlKnoten() - 1; position >= 0; position--) {
+            int aktKnoten = ordnung.getInt(position);
+            int minSAZ;
+            if (graph.getNachfolgerAnfang(aktKnoten) == graph.getNachfolgerEnde(aktKnoten)) {
+                minSAZ = fez.getInt(aktKnoten);
+            } else {
+                minSAZ = Integer.MAX_VALUE;
+                for (int i = graph.getNachfolgerAnfang(aktKnoten); i < graph.getNachfolgerEnde(aktKnoten); i++) {
+                    int nachfolgerSAZ = saz.getInt(graph.getNachfolger(i));
+                    if (nachfolgerSAZ < minSAZ) {
+                        minSAZ = nachfolgerSAZ;
+                    }
                 }
             }
+            sez.setInt(aktKnoten, minSAZ);
+            saz.setInt(aktKnoten, minSAZ - dauer.getInt(aktKnoten));
         }
     }
 
-    private void zeitreserven() {
+    /**
+     * Phase 3: GP=SAZ-FAZ, FP ist das Minimum der FAZ der Nachfolger minus FEZ.
+     */
+    static void zeitreserven(Adjazenzen graph, Feld faz, Feld fez, Feld saz, Feld gp, Feld fp) {
         // Iteriere durch die Vorgänge und setze GP und FP
-        for (Vorgang aktVorgang: this.vorgaenge) {
-            aktVorgang.setGP(aktVorgang.getSAZ() - aktVorgang.getFAZ());
+        for (int aktKnoten = 0; aktKnoten < graph.getAnzahlKnoten(); aktKnoten++) {
+            gp.setInt(aktKnoten, saz.getInt(aktKnoten) - faz.getInt(aktKnoten));
 
             // bei Endknoten ist FP immer 0
-            if (aktVorgang.getNachfolger().size() == 0) {
-                aktVorgang.setFP(0);
+            if (graph.getNachfolgerAnfang(aktKnoten) == graph.getNachfolgerEnde(aktKnoten)) {
+                fp.setInt(aktKnoten, 0);
                 continue;
             }
 
             // finde nun das Minimum aus dem FAZ seiner Nachfolger
             int minFAZ = Integer.MAX_VALUE;
-            for (int aktNachfolger: aktVorgang.getNachfolger()) {
-                // besorge Referenz
-                Vorgang aktNachfolgerRef = this.vorgaenge.get(toInternal.get(aktNachfolger));
-
+            for (int i = graph.getNachfolgerAnfang(aktKnoten); i < graph.getNachfolgerEnde(aktKnoten); i++) {
                 // setze neues minFAZ, falls FAZ des Nachfolgers geringer ist
-                if (minFAZ > aktNachfolgerRef.getFAZ()) {
-                    minFAZ = aktNachfolgerRef.getFAZ();
+                if (minFAZ > faz.getInt(graph.getNachfolger(i))) {
+                    minFAZ = faz.getInt(graph.getNachfolger(i));
                 }
             }
 
             // setze FP
-            aktVorgang.setFP(minFAZ - aktVorgang.getFEZ());
+            fp.setInt(aktKnoten, minFAZ - fez.getInt(aktKnoten));
         }
     }
 
@@ -197,256 +384,807 @@ public class Netzplan {
      * so ist dieser Wert nicht eindeutig (in diesem Fall wird der Wert -1 zurückgegeben).
      */
     public int getDauer() {
-        int tmpDauer = this.vorgaenge.get(this.endKnoten.get(0)).getFEZ();
+        this.werteAus(Auswertung.VORWAERTS);
+        int tmpDauer = this.tabelle.getFEZ(this.endKnoten[0]);
         for (int curEndKnoten: this.endKnoten) {
-            if (this.vorgaenge.get(curEndKnoten).getFEZ() != tmpDauer) {
+            if (this.tabelle.getFEZ(curEndKnoten) != tmpDauer) {
                 return -1;
             }
         }
         return tmpDauer;
     }
 
+    /**
+     * Ändert die Dauer eines Vorgangs. FAZ und FEZ werden nur für die von ihm abhängigen Vorgänge
+     * neu berechnet, SAZ und SEZ nur für die Vorgänge, von denen er abhängt (bzw. die vor einem
+     * verschobenen Endvorgang liegen).
+     */
+    public void setDauer(int nummer, int dauer) throws NetzplanException {
+        int knoten = this.bestimmeKnoten(nummer);
+        if (dauer <= 0) {
+            throw new NetzplanException("Fehler bei der Änderung des Netzplans: "+
+                                        "Vorgang "+nummer+" hat die Dauer "+dauer+", Dauern <= 0 sind nicht erlaubt!");
+        }
+        this.getRechnung();
+        this.tabelle.setDauer(knoten, dauer);
+        this.neuberechnen(knoten, knoten);
+    }
+
+    /**
+     * Fügt die Abhängigkeit vorgaenger -> nachfolger hinzu. Würde hierdurch ein Zyklus entstehen,
+     * wird eine Exception geworfen und der Netzplan bleibt unverändert.
+     */
+    public void addAbhaengigkeit(int vorgaenger, int nachfolger) throws NetzplanException {
+        int von = this.bestimmeKnoten(vorgaenger);
+        int nach = this.bestimmeKnoten(nachfolger);
+        if (von != nach && this.adjazenzen.hatKante(von, nach)) {
+            throw new NetzplanException("Fehler bei der Änderung des Netzplans: "+
+                                        "Vorgang "+vorgaenger+" ist bereits Vorgänger von Vorgang "+nachfolger+"!");
+        }
+
+        // die topologische Ordnung wird vor dem Einfügen angepasst, hierbei werden Zyklen erkannt
+        List<Integer> zyklus = this.getRechnung().ordneKanteEin(von, nach);
+        if (zyklus != null) {
+            StringBuilder fehlertext = new StringBuilder();
+            fehlertext.append("Fehler bei der Änderung des Netzplans: Die Abhängigkeit "+vorgaenger+"->"+nachfolger+
+                              " würde einen Zyklus erzeugen!"+System.getProperty("line.separator"));
+            for (int i = 0; i < zyklus.size(); i++) {
+                fehlertext.append(this.tabelle.getNummer(zyklus.get(i))+(i<zyklus.size()-1?"->":""));
+            }
+            throw new NetzplanException(fehlertext.toString());
+        }
+
+        boolean warEndKnoten = this.adjazenzen.getNachfolgerAnfang(von) == this.adjazenzen.getNachfolgerEnde(von);
+        boolean warStartKnoten = this.adjazenzen.getVorgaengerAnfang(nach) == this.adjazenzen.getVorgaengerEnde(nach);
+        this.topologie = null;
+        this.adjazenzen.addKante(von, nach);
+        this.tabelle.addNachfolger(von, nachfolger);
+        this.tabelle.addVorgaenger(nach, vorgaenger);
+        if (warEndKnoten) {
+            this.endKnoten = entferneKnoten(this.endKnoten, von);
+        }
+        if (warStartKnoten) {
+            this.startKnoten = entferneKnoten(this.startKnoten, nach);
+        }
+
+        this.neuberechnen(nach, von);
+    }
+
+    /**
+     * Entfernt die Abhängigkeit vorgaenger -> nachfolger. Würde der Netzplan hierdurch in zwei Teile zerfallen,
+     * wird eine Exception geworfen und der Netzplan bleibt unverändert.
+     */
+    public void removeAbhaengigkeit(int vorgaenger, int nachfolger) throws NetzplanException {
+        int von = this.bestimmeKnoten(vorgaenger);
+        int nach = this.bestimmeKnoten(nachfolger);
+        if (von == nach || !this.adjazenzen.hatKante(von, nach)) {
+            throw new NetzplanException("Fehler bei der Änderung des Netzplans: "+
+                                        "Vorgang "+vorgaenger+" ist nicht Vorgänger von Vorgang "+nachfolger+"!");
+        }
+        if (!this.getRechnung().bleibtZusammenhaengendOhne(von, nach)) {
+            throw new NetzplanException("Fehler bei der Änderung des Netzplans: Ohne die Abhängigkeit "+
+                                        vorgaenger+"->"+nachfolger+" wäre der Netzplan nicht mehr zusammenhängend!");
+        }
+
+        // eine entfernte Kante kann die topologische Ordnung nicht verletzen
+        this.topologie = null;
+        this.adjazenzen.entferneKante(von, nach);
+        this.tabelle.entferneNachfolger(von, nachfolger);
+        this.tabelle.entferneVorgaenger(nach, vorgaenger);
+        if (this.adjazenzen.getNachfolgerAnfang(von) == this.adjazenzen.getNachfolgerEnde(von)) {
+            this.endKnoten = fuegeKnotenEin(this.endKnoten, von);
+        }
+        if (this.adjazenzen.getVorgaengerAnfang(nach) == this.adjazenzen.getVorgaengerEnde(nach)) {
+            this.startKnoten = fuegeKnotenEin(this.startKnoten, nach);
+        }
+
+        this.neuberechnen(nach, von);
+    }
+
+    private int bestimmeKnoten(int nummer) throws NetzplanException {
+        int knoten = this.tabelle.getZeile(nummer);
+        if (knoten == -1) {
+            throw new NetzplanException("Fehler bei der Änderung des Netzplans: Vorgang "+nummer+" existiert nicht!");
+        }
+        return knoten;
+    }
+
+    /**
+     * Änderungen setzen einen vollständig ausgewerteten Netzplan voraus.
+     */
+    private InkrementelleRechnung getRechnung() {
+        this.werteAus(Auswertung.VOLLSTAENDIG);
+        if (this.rechnung == null) {
+            this.rechnung = new InkrementelleRechnung(this.adjazenzen, this.tabelle, this.topologischeOrdnung);
+        }
+        return this.rechnung;
+    }
+
+    /**
+     * Rechnet nach einer Änderung neu (siehe InkrementelleRechnung) und verwirft die zwischengespeicherten
+     * kritischen Pfade.
+     */
+    private void neuberechnen(int vorwaertsAb, int rueckwaertsAb) {
+        this.anzahlPfade = null;
+        this.anzahlKritischePfade = null;
+        this.kritischePfade = null;
+        this.rechnung.neuberechnen(vorwaertsAb, rueckwaertsAb);
+    }
+
+    /**
+     * Die Start- und Endknoten bleiben aufsteigend sortiert, wie beim Aufbau des Netzplans.
+     */
+    private static int [] fuegeKnotenEin(int [] knoten, int neuerKnoten) {
+        int position = -Arrays.binarySearch(knoten, neuerKnoten) - 1;
+        int [] resultat = new int [knoten.length + 1];
+        System.arraycopy(knoten, 0, resultat, 0, position);
+        resultat[position] = neuerKnoten;
+        System.arraycopy(knoten, position, resultat, position + 1, knoten.length - position);
+        return resultat;
+    }
+
+    private static int [] entferneKnoten(int [] knoten, int alterKnoten) {
+        int position = Arrays.binarySearch(knoten, alterKnoten);
+        int [] resultat = new int [knoten.length - 1];
+        System.arraycopy(knoten, 0, resultat, 0, position);
+        System.arraycopy(knoten, position + 1, resultat, position, knoten.length - position - 1);
+        return resultat;
+    }
+
+    /**
+     * Liefert alle kritischen Pfade (nicht veränderbar), sie werden bis zur nächsten Änderung zwischengespeichert.
+     */
     public List<List<Integer>> getKritischePfade() {
+        if (this.kritischePfade != null) {
+            return this.kritischePfade;
+        }
+
         // erzeuge leeres Resultat
         List<List<Integer>> resultat = new ArrayList<>();
 
-        // bestimme kritische Pfade ausgehend von jedem Startknoten
-        for (int aktStartKnoten: this.startKnoten) {
-            
-            // wenn der Knoten nicht kritisch ist, ist nichts zu tun
-            if (!this.vorgaenge.get(aktStartKnoten).istKritisch()) {
-                continue;
+        // sammle alle Pfade in der Reihenfolge, in der sie besucht werden
+        this.besucheKritischePfade((pfad, laenge) -> {
+            List<Integer> aktPfad = new ArrayList<>(laenge);
+            for (int i = 0; i < laenge; i++) {
+                aktPfad.add(pfad[i]);
             }
+            resultat.add(Collections.unmodifiableList(aktPfad));
+        }, Long.MAX_VALUE);
 
-            // erzeuge die Queue aus Pfaden
-            // die Bezeichner der Knoten sind hierbei in externer Darstellung angegeben
-            Deque<List<Integer>> pfade = new ArrayDeque<>();
+        this.kritischePfade = Collections.unmodifiableList(resultat);
+        return this.kritischePfade;
+    }
 
-            // fuege Pfad mit aktStartKnoten der Liste an
-            List<Integer> startPfad = new ArrayList<>();
-            startPfad.add(fromInternal.get(aktStartKnoten));
-            pfade.add(startPfad);
+    /**
+     * Bestimmt die Anzahl der kritischen Pfade, ohne diese aufzuzählen.
+     * Da die Anzahl exponentiell mit der Größe des Netzplans wachsen kann, wird sie als BigInteger geliefert.
+     */
+    public BigInteger getAnzahlKritischePfade() {
+        if (this.anzahlKritischePfade == null) {
+            this.anzahlKritischePfade = summiereKritischePfade(this.adjazenzen, new HeapFeld(this.topologischeOrdnung),
+                                                               new HeapFeld(this.startKnoten), this.startKnoten.length,
+                                                               this.zaehleKritischePfade());
+        }
+        return this.anzahlKritischePfade;
+    }
 
-            while(pfade.size() > 0) {
-                List<Integer> aktPfad = pfade.removeFirst();
+    /**
+     * Die Anzahl der kritischen Pfade ab jedem Knoten (siehe unten), sie wird bis zur nächsten Änderung
+     * zwischengespeichert.
+     */
+    private Feld zaehleKritischePfade() {
+        this.werteAus(Auswertung.VOLLSTAENDIG);
+        if (this.anzahlPfade == null) {
+            this.anzahlPfade = zaehleKritischePfade(this.adjazenzen, new HeapFeld(this.topologischeOrdnung), this.tabelle,
+                                                    Speicher.HEAP);
+        }
+        return this.anzahlPfade;
+    }
 
-                // betrachte den letzten Knoten aus aktPfad
-                int aktKnoten = aktPfad.get(aktPfad.size()-1);
+    /**
+     * Zählt die kritischen Pfade in Tiefensuche auf und übergibt sie einzeln dem Besucher (siehe unten).
+     */
+    public <E extends Exception> void besucheKritischePfade(KritischerPfadBesucher<E> besucher, long maxAnzahl) throws E {
+        besucheKritischePfade(this.adjazenzen, this.tabelle, new HeapFeld(this.startKnoten), this.startKnoten.length,
+                              this.zaehleKritischePfade(), Speicher.HEAP, besucher, maxAnzahl);
+    }
 
-                // ist aktPfad kritischer Pfad (ist sein letzter Knoten ein Endknoten)?
-                if (this.endKnoten.contains(toInternal.get(aktKnoten))) {
-                    // dann füge aktPfad dem Resultat hinzu
-                    resultat.add(aktPfad);
-                    continue;
+    /**
+     * Ein kritischer Pfad beginnt an einem kritischen Startknoten und führt nur über kritische Knoten
+     * zu einem Endknoten. Die Anzahl der kritischen Pfade ab jedem Knoten wird in umgekehrter
+     * topologischer Reihenfolge bestimmt: Endknoten haben einen Pfad, alle anderen Knoten die Summe
+     * der Pfade ihrer Nachfolger. Nicht kritische Knoten haben keinen Pfad.
+     * Die Anzahlen werden als long geliefert und bei einem Überlauf auf Long.MAX_VALUE begrenzt, für die
+     * Aufzählung zählt nur, ob sie 0 sind (die exakte Summe liefert summiereKritischePfade).
+     */
+    static Feld zaehleKritischePfade(Adjazenzen graph, Feld ordnung, Tabelle tabelle, Speicher<?> speicher) {
+        int n = graph.getAnzahlKnoten();
+        Feld anzahl = speicher.neuesLongFeld(n);
+        for (int position = n - 1; position >= 0; position--) {
+            int aktKnoten = ordnung.getInt(position);
+            if (!tabelle.istKritisch(aktKnoten)) {
+                // neue Felder sind mit 0 belegt
+                continue;
+            }
+            if (graph.getNachfolgerAnfang(aktKnoten) == graph.getNachfolgerEnde(aktKnoten)) {
+                anzahl.setLong(aktKnoten, 1);
+                continue;
+            }
+            long summe = 0;
+            for (int i = graph.getNachfolgerAnfang(aktKnoten); i < graph.getNachfolgerEnde(aktKnoten); i++) {
+                summe += anzahl.getLong(graph.getNachfolger(i));
+                if (summe < 0) {
+                    summe = Long.MAX_VALUE;
+                    break;
                 }
+            }
+            anzahl.setLong(aktKnoten, summe);
+        }
+        return anzahl;
+    }
 
-                // generiere alle kritischen Nachfolger des letzten Elementes aus aktpfad
-                List<Integer> nachfolger = this.vorgaenge.get(toInternal.get(aktKnoten)).getNachfolger();
-                for (int aktNachfolger: nachfolger) {
-                    // handelt es sich um einen kritischen Nachfolger?
-                    if (this.vorgaenge.get(toInternal.get(aktNachfolger)).istKritisch()) {
-                        // erzeuge einen neuen Pfad mit diesem als letztes Element
-                        List<Integer> neuerPfad = new ArrayList<>(aktPfad);
-                        neuerPfad.add(aktNachfolger);
-
-                        // füge diesen Pfad den zu bearbeitenden Pfaden hinzu
-                        // hier ist auch der Unterschied zwischen Tiefen- und Breitensuche:
-                        // Für eine Tiefensuche wird der neuste Pfad vorne an die Queue angefügt,
-                        // bei einer Breitensuche würde er hinten an die Queue angefügt.
-                        // Demnach würde der Aufruf für eine Breitensuche lauten:
-                        // pfade.addLast(neuerPfad)
-                        // Für Tiefensuche lautet er:
-                        pfade.addFirst(neuerPfad);
-                    }
+    /**
+     * Die Anzahl aller kritischen Pfade (die Summe über die anzahlStart Startknoten). Ist sie für einen Knoten
+     * begrenzt worden, wird sie exakt nachgerechnet, BigInteger werden dabei nur für die begrenzten Knoten angelegt.
+     */
+    static BigInteger summiereKritischePfade(Adjazenzen graph, Feld ordnung, Feld startKnoten, int anzahlStart, Feld anzahl) {
+        int n = graph.getAnzahlKnoten();
+        BigInteger resultat = BigInteger.ZERO;
+        boolean begrenzt = false;
+        for (int i = 0; i < anzahlStart; i++) {
+            long aktAnzahl = anzahl.getLong(startKnoten.getInt(i));
+            begrenzt |= aktAnzahl == Long.MAX_VALUE;
+            resultat = resultat.add(BigInteger.valueOf(aktAnzahl));
+        }
+        if (!begrenzt) {
+            return resultat;
+        }
+
+        Map<Integer, BigInteger> exakt = new HashMap<>();
+        for (int position = n - 1; position >= 0; position--) {
+            int aktKnoten = ordnung.getInt(position);
+            if (anzahl.getLong(aktKnoten) == Long.MAX_VALUE) {
+                BigInteger summe = BigInteger.ZERO;
+                for (int i = graph.getNachfolgerAnfang(aktKnoten); i < graph.getNachfolgerEnde(aktKnoten); i++) {
+                    summe = summe.add(exakteAnzahl(graph.getNachfolger(i), anzahl, exakt));
                 }
+                exakt.put(aktKnoten, summe);
             }
         }
-
+        resultat = BigInteger.ZERO;
+        for (int i = 0; i < anzahlStart; i++) {
+            resultat = resultat.add(exakteAnzahl(startKnoten.getInt(i), anzahl, exakt));
+        }
         return resultat;
     }
 
-    private void erzeugeAdjazenzen() throws NetzplanException {
-        for (Vorgang aktVorgang: this.vorgaenge) {
-            // die Zeile entspricht der internen Nummer des Vorgangs
-            int zeile = toInternal.get(aktVorgang.getNummer());
-            for (int aktNachfolger: aktVorgang.getNachfolger()) {
-                // teste zunächst, ob aktNachfolger überhaupt ein gültiger Vorgang ist
-                if (!toInternal.containsKey(aktNachfolger)) {
-                    throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
-                                                "Vorgang "+aktVorgang.getNummer()+" hat Vorgang "+
-                                                aktNachfolger+" als Nachfolger, obwohl dieser nicht existiert!");
-                }
+    private static BigInteger exakteAnzahl(int knoten, Feld anzahl, Map<Integer, BigInteger> exakt) {
+        long wert = anzahl.getLong(knoten);
+        return wert == Long.MAX_VALUE ? exakt.get(knoten) : BigInteger.valueOf(wert);
+    }
 
-                // teste, ob die Beziehung konsistent ist
-                if (!this.vorgaenge.get(toInternal.get(aktNachfolger)).getVorgaenger().contains(aktVorgang.getNummer())){
-                    // die Beziehung ist nicht konsistent, da aktVorgang nicht Vorgänger von aktNachfolger ist
-                    throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
-                                                "Inkonsistente Beziehung gefunden! Vorgang "+aktVorgang.getNummer()+
-                                                " hat Vorgang "+aktNachfolger+" als Nachfolger, ist aber selbst nicht "+
-                                                "Vorgänger von diesem!");
-                }
-                // die Spalte entspricht der internen Nummer des Nachfolgers
-                int spalte = toInternal.get(aktNachfolger);
-                this.adjazenzen[zeile][spalte] = 1;
-            }
-        }
-
-        // Die Adjazensmatrix konnte aufgebaut werden, was garantiert, dass die Vorgänger -> Nachfolger Beziehung konsistent ist.
-        // Es muss aber noch geprüft werden, ob die Nachfolger -> Vorgaenger Beziehung ebenfalls konsistent ist!
-        // Dies erfolgt an dieser Stelle.
-        for (Vorgang aktVorgang: this.vorgaenge) {
-            for (int aktVorgaenger: aktVorgang.getVorgaenger()) {
-                // teste zunaechst, ob aktVorgänger ueberhaupt ein gültiger Vorgang ist
-                if (!toInternal.containsKey(aktVorgaenger)) {
-                    throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
-                                                "Vorgang "+aktVorgang.getNummer()+" hat Vorgang "+
-                                                aktVorgaenger+" als Vorgänger, obwohl dieser nicht existiert!");
+    /**
+     * Zählt die kritischen Pfade in Tiefensuche auf und übergibt sie einzeln dem Besucher.
+     * Es werden höchstens maxAnzahl Pfade besucht. Die Reihenfolge entspricht der bisherigen
+     * Ausgabe: Startknoten in ihrer Reihenfolge, die Nachfolger eines Knotens jeweils vom letzten zum ersten.
+     * Knoten, von denen aus kein kritischer Pfad mehr erreichbar ist (anzahl ist 0, siehe zaehleKritischePfade),
+     * werden nicht betreten, sodass der Aufwand nur von der Länge der ausgegebenen Pfade abhängt.
+     */
+    static <E extends Exception> void besucheKritischePfade(Adjazenzen graph, Tabelle tabelle, Feld startKnoten, int anzahlStart,
+                                                            Feld anzahl, Speicher<?> speicher,
+                                                            KritischerPfadBesucher<E> besucher, long maxAnzahl) throws E {
+        Messung messung = Messung.beginne(Messung.Phase.KRITISCHE_PFADE);
+        int n = graph.getAnzahlKnoten();
+
+        // der aktuelle Pfad in externer Darstellung wird dem Besucher übergeben und liegt daher immer auf dem Heap,
+        // er wächst bei Bedarf mit der Länge des Pfades
+        int [] externerPfad = new int [speicher.anfangsGroesse(n)];
+        long besucht = 0;
+        long verlaengerungen = 0;
+        int maxLaenge = 0;
+
+        // der aktuelle Pfad in interner Darstellung sowie je Pfadelement die Position des nächsten zu betrachtenden Nachfolgers
+        try (Feld pfad = speicher.neuesIntFeld(n);
+             Feld naechsterNachfolger = speicher.neuesIntFeld(n)) {
+            for (int aktStart = 0; aktStart < anzahlStart; aktStart++) {
+                int aktStartKnoten = startKnoten.getInt(aktStart);
+
+                // wenn von diesem Startknoten kein kritischer Pfad ausgeht, ist nichts zu tun
+                if (anzahl.getLong(aktStartKnoten) == 0) {
+                    continue;
                 }
 
-                if (!this.vorgaenge.get(toInternal.get(aktVorgaenger)).getNachfolger().contains(aktVorgang.getNummer())) {
-                    // die Beziehung ist nicht konsistent, da aktVorgang nicht Nachfolger von aktVorgänger ist
-                    throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
-                                                "Inkonsistente Beziehung gefunden! Vorgang "+aktVorgang.getNummer()+
-                                                " hat Vorgang "+aktVorgaenger+" als Vorgänger, ist aber selbst nicht "+
-                                                "Nachfolger von diesem!");
+                pfad.setInt(0, aktStartKnoten);
+                externerPfad[0] = tabelle.getNummer(aktStartKnoten);
+                naechsterNachfolger.setInt(0, graph.getNachfolgerEnde(aktStartKnoten) - 1);
+                int laenge = 1;
+
+                while (laenge > 0) {
+                    if (besucht >= maxAnzahl) {
+                        messung.beende(n, graph.getAnzahlKanten(), besucht, verlaengerungen, maxLaenge);
+                        return;
+                    }
+
+                    // betrachte den letzten Knoten des aktuellen Pfades
+                    int aktKnoten = pfad.getInt(laenge-1);
+
+                    // ist der Pfad ein kritischer Pfad (ist sein letzter Knoten ein Endknoten)?
+                    if (graph.getNachfolgerAnfang(aktKnoten) == graph.getNachfolgerEnde(aktKnoten)) {
+                        besucher.besuche(externerPfad, laenge);
+                        besucht++;
+                        if (laenge > maxLaenge) {
+                            maxLaenge = laenge;
+                        }
+                        laenge--;
+                        continue;
+                    }
+
+                    // suche den nächsten Nachfolger, von dem aus ein kritischer Pfad weiterführt
+                    int position = naechsterNachfolger.getInt(laenge-1);
+                    while (position >= graph.getNachfolgerAnfang(aktKnoten) &&
+                           anzahl.getLong(graph.getNachfolger(position)) == 0) {
+                        position--;
+                    }
+
+                    if (position < graph.getNachfolgerAnfang(aktKnoten)) {
+                        // alle Nachfolger wurden betrachtet
+                        laenge--;
+                        continue;
+                    }
+
+                    // verlängere den Pfad um diesen Nachfolger
+                    naechsterNachfolger.setInt(laenge-1, position - 1);
+                    int aktNachfolger = graph.getNachfolger(position);
+                    if (laenge == externerPfad.length) {
+                        externerPfad = Arrays.copyOf(externerPfad, Math.min(2 * laenge, n));
+                    }
+                    pfad.setInt(laenge, aktNachfolger);
+                    externerPfad[laenge] = tabelle.getNummer(aktNachfolger);
+                    naechsterNachfolger.setInt(laenge, graph.getNachfolgerEnde(aktNachfolger) - 1);
+                    laenge++;
+                    verlaengerungen++;
                 }
             }
         }
+        messung.beende(n, graph.getAnzahlKanten(), besucht, verlaengerungen, maxLaenge);
+    }
+
+    static Graph erzeugeAdjazenzen(VorgangTabelle tabelle) throws NetzplanException {
+        return erzeugeAdjazenzen(tabelle, Speicher.HEAP);
     }
 
     /**
-     * Zum Auffinden der Zyklen wird ausgehend von jedem Startknoten jeder mögliche Pfad erzeugt (Expansion des Graphen)
-     * Werden Knoten in einen Pfad neu aufgenommen, die in diesem Pfad bereits existieren, ist der Graph
-     * nicht zyklenfrei.
+     * Baut die Adjazenzen auf und prüft, ob Vorgänger- und Nachfolgerangaben zueinander passen.
+     * Statt für jede Kante die Liste der Gegenrichtung zu durchsuchen (O(Grad) je Kante), werden die
+     * Kanten der Gegenrichtung eines Knotens vorab in einem Feld markiert. So bleibt die Prüfung
+     * auch bei Vorgängen mit tausenden Vorgängern (Meilensteine) bei O(V+E).
      */
-    private boolean istZyklenfrei() throws NetzplanException{
-        for (int aktStartknoten: this.startKnoten) {
-            // die Queue mit den Pfaden der Expansion
-            Deque<List<Integer>> pfade = new ArrayDeque<>();
-            
-            // der Startpfad enthält nur den Startknoten
-            List<Integer> startPfad = new ArrayList<>();
-            startPfad.add(aktStartknoten);
+    static <G extends Adjazenzen> G erzeugeAdjazenzen(Tabelle tabelle, Speicher<G> speicher) throws NetzplanException {
+        int n = tabelle.getAnzahl();
+
+        // die Nachfolger jedes Knotens werden an derselben Position abgelegt wie in der Tabelle
+        Feld nachfolgerStart = speicher.neuesIntFeld(n + 1);
+        Feld nachfolger = null;
+        G adjazenzen = null;
+        try (Feld vorgaengerZeile = speicher.neuesIntFeld(tabelle.getVorgaengerGrenze());
+             Feld vorgaengerVonStart = speicher.neuesIntFeld(n + 1);
+             Feld einfuegen = speicher.neuesIntFeld(n);
+             Feld markierung = speicher.neuesIntFeld(n)) {
+            for (int zeile = 0; zeile < n; zeile++) {
+                nachfolgerStart.setInt(zeile + 1, nachfolgerStart.getInt(zeile) +
+                                       tabelle.getNachfolgerEnde(zeile) - tabelle.getNachfolgerAnfang(zeile));
+            }
+            nachfolger = speicher.neuesIntFeld(nachfolgerStart.getInt(n));
+
+            // kehre die angegebenen Vorgänger um: vorgaengerVon enthält für jeden Knoten die Knoten,
+            // die ihn als Vorgänger angeben (nicht existierende Vorgänger werden erst unten gemeldet)
+            for (int zeile = 0; zeile < n; zeile++) {
+                for (int i = tabelle.getVorgaengerAnfang(zeile); i < tabelle.getVorgaengerEnde(zeile); i++) {
+                    int aktZeile = tabelle.getZeile(tabelle.getVorgaenger(i));
+                    vorgaengerZeile.setInt(i, aktZeile);
+                    if (aktZeile != -1) {
+                        vorgaengerVonStart.setInt(aktZeile + 1, vorgaengerVonStart.getInt(aktZeile + 1) + 1);
+                    }
+                }
+            }
+            for (int zeile = 0; zeile < n; zeile++) {
+                vorgaengerVonStart.setInt(zeile + 1, vorgaengerVonStart.getInt(zeile + 1) + vorgaengerVonStart.getInt(zeile));
+                einfuegen.setInt(zeile, vorgaengerVonStart.getInt(zeile));
+            }
+            try (Feld vorgaengerVon = speicher.neuesIntFeld(vorgaengerVonStart.getInt(n))) {
+                for (int zeile = 0; zeile < n; zeile++) {
+                    for (int i = tabelle.getVorgaengerAnfang(zeile); i < tabelle.getVorgaengerEnde(zeile); i++) {
+                        int aktZeile = vorgaengerZeile.getInt(i);
+                        if (aktZeile != -1) {
+                            int position = einfuegen.getInt(aktZeile);
+                            vorgaengerVon.setInt(position, zeile);
+                            einfuegen.setInt(aktZeile, position + 1);
+                        }
+                    }
+                }
 
-            pfade.add(startPfad);
+                // markierung[k] == zeile + 1 bedeutet: k steht in Beziehung zum gerade betrachteten Knoten zeile
+                for (int zeile = 0; zeile < n; zeile++) {
+                    // die Zeile entspricht der internen Nummer des Vorgangs
+                    int nummer = tabelle.getNummer(zeile);
 
-            // beginne mit der Expansion
-            while (pfade.size() > 0) {
-                // entferne den aktuellen Pfad
-                List<Integer> aktPfad = pfade.removeFirst();
+                    // markiere alle Knoten, die diesen Vorgang als Vorgänger angeben
+                    for (int i = vorgaengerVonStart.getInt(zeile); i < vorgaengerVonStart.getInt(zeile + 1); i++) {
+                        markierung.setInt(vorgaengerVon.getInt(i), zeile + 1);
+                    }
 
-                // betrachte den letzten Knoten des Pfades
-                int aktKnoten = aktPfad.get(aktPfad.size()-1);
+                    int position = nachfolgerStart.getInt(zeile);
+                    for (int i = tabelle.getNachfolgerAnfang(zeile); i < tabelle.getNachfolgerEnde(zeile); i++) {
+                        int aktNachfolger = tabelle.getNachfolger(i);
+
+                        // teste zunächst, ob aktNachfolger überhaupt ein gültiger Vorgang ist
+                        // die Spalte entspricht der internen Nummer des Nachfolgers
+                        int spalte = tabelle.getZeile(aktNachfolger);
+                        if (spalte == -1) {
+                            throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
+                                                        "Vorgang "+nummer+" hat Vorgang "+
+                                                        aktNachfolger+" als Nachfolger, obwohl dieser nicht existiert!");
+                        }
 
-                // wenn es ein Endknoten ist, so ist dieser Pfad frei von Zyklen und muss nicht weiter betrachtet werden
-                if (this.endKnoten.contains(aktKnoten)) {
-                    continue;
+                        // teste, ob die Beziehung konsistent ist
+                        if (markierung.getInt(spalte) != zeile + 1){
+                            // die Beziehung ist nicht konsistent, da aktVorgang nicht Vorgänger von aktNachfolger ist
+                            throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
+                                                        "Inkonsistente Beziehung gefunden! Vorgang "+nummer+
+                                                        " hat Vorgang "+aktNachfolger+" als Nachfolger, ist aber selbst nicht "+
+                                                        "Vorgänger von diesem!");
+                        }
+                        nachfolger.setInt(position++, spalte);
+                    }
+                }
+            }
+            adjazenzen = speicher.neuerGraph(n, nachfolgerStart, nachfolger);
+
+            // Die Adjazenzen konnten aufgebaut werden, was garantiert, dass die Vorgänger -> Nachfolger Beziehung konsistent ist.
+            // Es muss aber noch geprüft werden, ob die Nachfolger -> Vorgaenger Beziehung ebenfalls konsistent ist!
+            // Dies erfolgt an dieser Stelle, die Rückwärtskanten des Graphen sind genau die angegebenen Nachfolger.
+            // Markiert wird nun mit -(zeile + 1), damit das Feld nicht zurückgesetzt werden muss.
+            for (int zeile = 0; zeile < n; zeile++) {
+                int nummer = tabelle.getNummer(zeile);
+
+                // markiere alle Knoten, die diesen Vorgang als Nachfolger angeben
+                for (int i = adjazenzen.getVorgaengerAnfang(zeile); i < adjazenzen.getVorgaengerEnde(zeile); i++) {
+                    markierung.setInt(adjazenzen.getVorgaenger(i), -(zeile + 1));
                 }
 
-                // betrachte nun alle Nachbarn (Kinder) des letzten Knotens
-                List<Integer> kinder = new ArrayList<>();
-                for (int i = 0; i < this.adjazenzen[aktKnoten].length; i++) {
-                    if (this.adjazenzen[aktKnoten][i] == 1) {
-                        kinder.add(i);
+                for (int i = tabelle.getVorgaengerAnfang(zeile); i < tabelle.getVorgaengerEnde(zeile); i++) {
+                    int aktVorgaenger = tabelle.getVorgaenger(i);
+
+                    // teste zunaechst, ob aktVorgänger ueberhaupt ein gültiger Vorgang ist
+                    if (vorgaengerZeile.getInt(i) == -1) {
+                        throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
+                                                    "Vorgang "+nummer+" hat Vorgang "+
+                                                    aktVorgaenger+" als Vorgänger, obwohl dieser nicht existiert!");
                     }
-                }
 
-                // teste für jedes Kind, ob es schon Teil des Pfades ist (dann liegt ein Zyklus vor)
-                // falls nicht, erzeuge einen neuen Pfad mit dem jeweiligen Kind als Endknoten
-                for (int aktKind: kinder) {
-                    if (aktPfad.contains(aktKind)) {
-                        // Zyklus gefunden! Erzeuge Fehlertext
-                        StringBuilder fehlertext = new StringBuilder();
-                        fehlertext.append("Fehler bei der Erstellung des Netzplans: Es wurde ein Zyklus erkannt!"+
-                                          System.getProperty("line.separator"));
-
-                        // zeigt das erste Vorkommen des Kindknoten im Zyklus an
-                        boolean erstesVorkommen = false;
-                        for (int zyklKnoten: aktPfad) {
-                            if (!erstesVorkommen && zyklKnoten == aktKind) {
-                                erstesVorkommen = true;
-                            }
-                            if (erstesVorkommen) {
-                                fehlertext.append(fromInternal.get(zyklKnoten)+"->");
-                            }
-                        }
-                        fehlertext.append(fromInternal.get(aktKind));
-                        throw new NetzplanException(fehlertext.toString());
-                    } else {
-                        List<Integer> neuerPfad = new ArrayList<>(aktPfad);
-                        neuerPfad.add(aktKind);
-                        pfade.addLast(neuerPfad);
+                    if (markierung.getInt(vorgaengerZeile.getInt(i)) != -(zeile + 1)) {
+                        // die Beziehung ist nicht konsistent, da aktVorgang nicht Nachfolger von aktVorgänger ist
+                        throw new NetzplanException("Fehler bei der Erstellung des Netzplans: "+
+                                                    "Inkonsistente Beziehung gefunden! Vorgang "+nummer+
+                                                    " hat Vorgang "+aktVorgaenger+" als Vorgänger, ist aber selbst nicht "+
+                                                    "Nachfolger von diesem!");
                     }
                 }
             }
+            return adjazenzen;
+        } finally {
+            // bis zum Aufbau des Graphen gehören die Felder der Vorwärtskanten noch dieser Methode
+            if (adjazenzen == null) {
+                nachfolgerStart.close();
+                if (nachfolger != null) {
+                    nachfolger.close();
+                }
+            }
         }
-        return true;
     }
 
-    /** 
-     * Um zu prüfen, ob der Graph zusammenhängend ist, wird dieser als ungerichtet
-     * aufgefasst und beginnend beim ersten Knoten traversiert.
-     * Wenn Knoten am Ende der Traversierung nicht erreicht werden konnten, ist der
-     * Graph nicht zusammenhaengend.
+    /**
+     * Die Knoten eines Zyklus (und alle ihre Nachfolger) erfasst die topologische Ordnung nicht. Für die
+     * Fehlermeldung werden die zyklischen Komponenten (siehe findeZyklischeKomponenten) im Teilgraphen der
+     * übrigen Knoten bestimmt, dieser enthält dieselben Komponenten wie der gesamte Graph und wird auf dem
+     * Heap aufgebaut. Die Knoten behalten ihre Reihenfolge, es werden also dieselben Zyklen gemeldet.
      */
-    private boolean istZusammenhaengend() throws NetzplanException{
-        // Zu diesem Zweck wird die Adjazenzmatrix zunächst so erweitert, dass sie symmetrisch ist.
-        int adjazenzenSym [][] = new int [this.adjazenzen.length][this.adjazenzen[0].length];
+    private static void meldeZyklen(Adjazenzen graph, Feld ordnung, int geordnet, Tabelle tabelle) throws NetzplanException {
+        Messung messung = Messung.beginne(Messung.Phase.ZYKLEN);
+        int n = graph.getAnzahlKnoten();
+        BitSet inOrdnung = new BitSet(n);
+        for (int position = 0; position < geordnet; position++) {
+            inOrdnung.set(ordnung.getInt(position));
+        }
 
-        for (int zeile = 0; zeile < this.adjazenzen.length; zeile++) {
-            for (int spalte = 0; spalte < this.adjazenzen[0].length; spalte++) {
-                if (this.adjazenzen[zeile][spalte] == 1) {
-                    adjazenzenSym[zeile][spalte] = 1;
-                    adjazenzenSym[spalte][zeile] = 1;
+        // die übrigen Knoten aufsteigend, ihr Index ist die Nummer im Teilgraphen
+        int [] knoten = new int [n - geordnet];
+        int anzahl = 0;
+        for (int aktKnoten = inOrdnung.nextClearBit(0); aktKnoten < n; aktKnoten = inOrdnung.nextClearBit(aktKnoten + 1)) {
+            knoten[anzahl++] = aktKnoten;
+        }
+        int [] start = new int [anzahl + 1];
+        int kanten = 0;
+        for (int k = 0; k < anzahl; k++) {
+            for (int i = graph.getNachfolgerAnfang(knoten[k]); i < graph.getNachfolgerEnde(knoten[k]); i++) {
+                if (!inOrdnung.get(graph.getNachfolger(i))) {
+                    kanten++;
                 }
             }
+            start[k + 1] = kanten;
         }
+        int [] ziel = new int [kanten];
+        kanten = 0;
+        for (int k = 0; k < anzahl; k++) {
+            for (int i = graph.getNachfolgerAnfang(knoten[k]); i < graph.getNachfolgerEnde(knoten[k]); i++) {
+                int kind = graph.getNachfolger(i);
+                if (!inOrdnung.get(kind)) {
+                    ziel[kanten++] = Arrays.binarySearch(knoten, kind);
+                }
+            }
+        }
+        Graph teilgraph = new Graph(anzahl, start, ziel);
+
+        long [] zaehler = new long [2];
+        int [] komponente = findeZyklischeKomponenten(teilgraph, zaehler);
+        if (messung.istAktiv()) {
+            int anzahlInZyklen = 0;
+            for (int aktKomponente: komponente) {
+                if (aktKomponente != -1) {
+                    anzahlInZyklen++;
+                }
+            }
+            messung.beende(n, graph.getAnzahlKanten(), anzahlInZyklen, zaehler[0], zaehler[1]);
+        }
+        throw new NetzplanException(zyklenFehlertext(teilgraph, komponente, k -> tabelle.getNummer(knoten[k])));
+    }
 
-        // Liste mit allen Knoten (die Knoten die hier am Ende übrig bleiben, können nicht erreicht werden)
-        List<Integer> alleKnoten = new ArrayList<>();
-        for (int i=0; i<adjazenzenSym.length; i++) {
-            alleKnoten.add(i);
+    /**
+     * Erzeugt die Fehlermeldung zu den zyklischen Komponenten (siehe findeZyklischeKomponenten) oder liefert
+     * null, wenn es keine gibt. nummer bildet die Knoten des Graphen auf die externen Vorgangsnummern ab.
+     */
+    static String zyklenFehlertext(Graph graph, int [] komponente, IntUnaryOperator nummer) {
+        // Mitglieder der zyklischen Komponenten, geordnet nach ihrem ersten Knoten
+        List<List<Integer>> komponenten = new ArrayList<>();
+        int [] position = new int [graph.getAnzahlKnoten()];
+        Arrays.fill(position, -1);
+        for (int knoten = 0; knoten < komponente.length; knoten++) {
+            int aktKomponente = komponente[knoten];
+            if (aktKomponente == -1) {
+                continue;
+            }
+            if (position[aktKomponente] == -1) {
+                position[aktKomponente] = komponenten.size();
+                komponenten.add(new ArrayList<>());
+            }
+            komponenten.get(position[aktKomponente]).add(knoten);
         }
 
-        // Liste mit allen schon besuchten Knoten
-        List<Integer> besucht = new ArrayList<>();
+        if (komponenten.size() == 0) {
+            return null;
+        }
 
-        // Queue mit den Knoten, deren Besuch unmittelbar ansteht
-        Deque<Integer> aktKnoten = new ArrayDeque<>();
+        // Zyklen gefunden! Erzeuge Fehlertext
+        String lineSep = System.getProperty("line.separator");
+        StringBuilder fehlertext = new StringBuilder();
+        fehlertext.append("Fehler bei der Erstellung des Netzplans: ");
+        if (komponenten.size() == 1) {
+            fehlertext.append("Es wurde ein Zyklus erkannt!");
+        } else {
+            fehlertext.append("Es wurden "+komponenten.size()+" Zyklen erkannt!");
+        }
 
-        // beginne bei Knoten 0 (Startknoten beliebig)
-        aktKnoten.add(0);
+        // Hilfsfeld für die Suche eines Zyklus innerhalb einer Komponente
+        int [] vorgaengerImZyklus = new int [graph.getAnzahlKnoten()];
+        for (List<Integer> mitglieder: komponenten) {
+            fehlertext.append(lineSep);
 
-        while(aktKnoten.size()>0) {
-            // entferne den aktuellen Knoten
-            int tmp = aktKnoten.removeFirst();
+            // gebe einen konkreten Zyklus durch den ersten Knoten der Komponente aus
+            int ersterKnoten = mitglieder.get(0);
+            List<Integer> zyklus = findeZyklus(graph, ersterKnoten, komponente, vorgaengerImZyklus);
+            for (int zyklKnoten: zyklus) {
+                fehlertext.append(nummer.applyAsInt(zyklKnoten)+"->");
+            }
+            fehlertext.append(nummer.applyAsInt(ersterKnoten));
 
-            // bestimme alle Knoten, die von diesem Knoten aus erreichbar sind
-            // und noch nicht besucht wurden und füge sie zu aktKnoten hinzu
-            for (int i = 0; i<adjazenzenSym[tmp].length; i++) {
-                if (adjazenzenSym[tmp][i]==1 && !besucht.contains(i)){
-                    aktKnoten.addLast(i);
+            // enthält die Komponente weitere Knoten, so werden diese ebenfalls genannt
+            if (mitglieder.size() > zyklus.size()) {
+                fehlertext.append(" (Komponente: ");
+                for (int i = 0; i < mitglieder.size(); i++) {
+                    fehlertext.append(nummer.applyAsInt(mitglieder.get(i))+(i<mitglieder.size()-1?", ":""));
                 }
+                fehlertext.append(")");
             }
+        }
+        return fehlertext.toString();
+    }
 
-            // markiere den aktuellen Knoten als besucht
-            besucht.add(tmp);
+    /**
+     * Bestimmt einen kürzesten Zyklus durch den Knoten start, der vollständig in dessen
+     * stark zusammenhängender Komponente verläuft (Breitensuche innerhalb der Komponente).
+     * Der Zyklus wird ohne die abschließende Wiederholung des Startknotens zurückgegeben.
+     */
+    private static List<Integer> findeZyklus(Graph adjazenzen, int start, int [] komponente, int [] vorgaengerImZyklus) {
+        Deque<Integer> abzuarbeiten = new ArrayDeque<>();
+        List<Integer> besucht = new ArrayList<>();
+        abzuarbeiten.add(start);
 
-            // entferne den aktuellen Knoten aus der Menge aller Knoten (Vorsicht wegen verschiedener Signaturen von remove)
-            alleKnoten.remove(new Integer(tmp));
+        int letzterKnoten = -1;
+        while (letzterKnoten == -1 && abzuarbeiten.size() > 0) {
+            int aktKnoten = abzuarbeiten.removeFirst();
+            for (int i = adjazenzen.getNachfolgerAnfang(aktKnoten); i < adjazenzen.getNachfolgerEnde(aktKnoten); i++) {
+                int aktKind = adjazenzen.getNachfolger(i);
+                if (aktKind == start) {
+                    // der Kreis hat sich geschlossen
+                    letzterKnoten = aktKnoten;
+                    break;
+                }
+                if (komponente[aktKind] == komponente[start] && vorgaengerImZyklus[aktKind] == 0) {
+                    // der Vorgänger wird um eins verschoben gespeichert, 0 steht für "nicht besucht"
+                    vorgaengerImZyklus[aktKind] = aktKnoten + 1;
+                    besucht.add(aktKind);
+                    abzuarbeiten.addLast(aktKind);
+                }
+            }
+        }
+
+        // setze den Pfad rückwärts zusammen
+        List<Integer> zyklus = new ArrayList<>();
+        for (int knoten = letzterKnoten; knoten != start; knoten = vorgaengerImZyklus[knoten] - 1) {
+            zyklus.add(knoten);
         }
+        zyklus.add(start);
+        Collections.reverse(zyklus);
 
-        if (alleKnoten.size() != 0) {
+        // setze das Hilfsfeld für die nächste Komponente zurück
+        for (int knoten: besucht) {
+            vorgaengerImZyklus[knoten] = 0;
+        }
+        return zyklus;
+    }
+
+    /**
+     * Algorithmus von Tarjan (iterativ, damit auch sehr lange Ketten keinen StackOverflowError auslösen).
+     * Liefert zu jedem Knoten die Nummer seiner stark zusammenhängenden Komponente,
+     * sofern diese einen Zyklus enthält, ansonsten -1.
+     */
+    static int [] findeZyklischeKomponenten(Graph graph) {
+        return findeZyklischeKomponenten(graph, new long [2]);
+    }
+
+    /**
+     * Wie oben, zusätzlich werden in zaehler die Anzahl der verfolgten Kanten und die größte Tiefe
+     * der Tiefensuche abgelegt.
+     */
+    static int [] findeZyklischeKomponenten(Graph graph, long [] zaehler) {
+        int n = graph.getAnzahlKnoten();
+        int [] index = new int [n];
+        int [] lowlink = new int [n];
+        boolean [] aufStapel = new boolean [n];
+        Arrays.fill(index, -1);
+
+        // Stapel der Knoten, die noch keiner Komponente zugeordnet sind
+        int [] stapel = new int [n];
+        int stapelGroesse = 0;
+
+        // Aufrufstapel der Tiefensuche: Knoten und Position des nächsten zu besuchenden Kindes
+        int [] aufrufKnoten = new int [n];
+        int [] aufrufPosition = new int [n];
+        int aufrufTiefe = 0;
+
+        int [] komponente = new int [n];
+        Arrays.fill(komponente, -1);
+        int anzahlKomponenten = 0;
+        int naechsterIndex = 0;
+        long schritte = 0;
+        int maxTiefe = Math.min(n, 1);
+
+        for (int wurzel = 0; wurzel < n; wurzel++) {
+            if (index[wurzel] != -1) {
+                continue;
+            }
+
+            index[wurzel] = lowlink[wurzel] = naechsterIndex++;
+            stapel[stapelGroesse++] = wurzel;
+            aufStapel[wurzel] = true;
+            aufrufKnoten[0] = wurzel;
+            aufrufPosition[0] = graph.getNachfolgerAnfang(wurzel);
+            aufrufTiefe = 1;
+
+            while (aufrufTiefe > 0) {
+                int v = aufrufKnoten[aufrufTiefe-1];
+
+                if (aufrufPosition[aufrufTiefe-1] < graph.getNachfolgerEnde(v)) {
+                    // besuche das nächste Kind
+                    int w = graph.getNachfolger(aufrufPosition[aufrufTiefe-1]++);
+                    schritte++;
+                    if (index[w] == -1) {
+                        index[w] = lowlink[w] = naechsterIndex++;
+                        stapel[stapelGroesse++] = w;
+                        aufStapel[w] = true;
+                        aufrufKnoten[aufrufTiefe] = w;
+                        aufrufPosition[aufrufTiefe] = graph.getNachfolgerAnfang(w);
+                        aufrufTiefe++;
+                        if (aufrufTiefe > maxTiefe) {
+                            maxTiefe = aufrufTiefe;
+                        }
+                    } else if (aufStapel[w] && index[w] < lowlink[v]) {
+                        lowlink[v] = index[w];
+                    }
+                    continue;
+                }
+
+                // alle Kinder von v sind abgearbeitet
+                aufrufTiefe--;
+                if (aufrufTiefe > 0) {
+                    int elternKnoten = aufrufKnoten[aufrufTiefe-1];
+                    if (lowlink[v] < lowlink[elternKnoten]) {
+                        lowlink[elternKnoten] = lowlink[v];
+                    }
+                }
+
+                if (lowlink[v] == index[v]) {
+                    // v ist Wurzel einer Komponente, entferne diese vom Stapel
+                    int anfang = stapelGroesse;
+                    do {
+                        anfang--;
+                        aufStapel[stapel[anfang]] = false;
+                    } while (stapel[anfang] != v);
+
+                    // eine Komponente ist zyklisch, wenn sie mehrere Knoten oder eine Schleife enthält
+                    boolean zyklisch = stapelGroesse - anfang > 1;
+                    if (!zyklisch) {
+                        for (int i = graph.getNachfolgerAnfang(v); i < graph.getNachfolgerEnde(v); i++) {
+                            if (graph.getNachfolger(i) == v) {
+                                zyklisch = true;
+                                break;
+                            }
+                        }
+                    }
+                    if (zyklisch) {
+                        for (int i = anfang; i < stapelGroesse; i++) {
+                            komponente[stapel[i]] = anzahlKomponenten;
+                        }
+                        anzahlKomponenten++;
+                    }
+                    stapelGroesse = anfang;
+                }
+            }
+        }
+        zaehler[0] = schritte;
+        zaehler[1] = maxTiefe;
+        return komponente;
+    }
+
+    /** 
+     * Um zu prüfen, ob der Graph zusammenhängend ist, wird dieser als ungerichtet
+     * aufgefasst und beginnend beim ersten Knoten traversiert.
+     * Wenn Knoten am Ende der Traversierung nicht erreicht werden konnten, ist der
+     * Graph nicht zusammenhaengend.
+     */
+    private static boolean istZusammenhaengend(Adjazenzen graph, Tabelle tabelle, Speicher<?> speicher) throws NetzplanException{
+        // beginne bei Knoten 0 (Startknoten beliebig)
+        BitSet besucht = erreichbareKnoten(graph, 0, speicher);
+
+        // die Knoten, die nicht besucht wurden, können nicht erreicht werden
+        int anzahlUnerreichbar = graph.getAnzahlKnoten() - besucht.cardinality();
+
+        if (anzahlUnerreichbar != 0) {
             // Es sind noch Knoten übrig, also gebe eine Fehlermeldung (-> der Graph ist nicht zusammenhängend)
             StringBuilder fehlertext = new StringBuilder();
             fehlertext.append("Fehler bei der Erstellung des Netzplans: Der Netzplan ist nicht zusammenhängend!"+
-                              " Es existiert kein ungerichteter Pfad zwischen Vorgang "+fromInternal.get(0)+
+                              " Es existiert kein ungerichteter Pfad zwischen Vorgang "+tabelle.getNummer(0)+
                               " und ");
-            if (alleKnoten.size() > 1) {
+            if (anzahlUnerreichbar > 1) {
                 fehlertext.append("den Vorgängen ");
             }
-            for (int i=0; i<alleKnoten.size(); i++) {
-                fehlertext.append(fromInternal.get(alleKnoten.get(i))+(i==alleKnoten.size()-1?"":", "));
+            int aktKnoten = besucht.nextClearBit(0);
+            while (aktKnoten < graph.getAnzahlKnoten()) {
+                fehlertext.append(tabelle.getNummer(aktKnoten));
+                aktKnoten = besucht.nextClearBit(aktKnoten + 1);
+                if (aktKnoten < graph.getAnzahlKnoten()) {
+                    fehlertext.append(", ");
+                }
             }
             throw new NetzplanException(fehlertext.toString());
         }
@@ -454,22 +1192,116 @@ public class Netzplan {
         return true;
     }
 
+    static BitSet erreichbareKnoten(Graph graph, int start) {
+        return erreichbareKnoten(graph, start, Speicher.HEAP);
+    }
+
+    /**
+     * Breitensuche auf dem ungerichtet aufgefassten Graphen (Nachfolger und Vorgänger zählen als Nachbarn).
+     * Jeder Knoten wird beim Einreihen markiert und damit genau einmal besucht, die Laufzeit ist O(V+E).
+     * Liefert die Menge der vom Knoten start aus erreichbaren Knoten.
+     */
+    static BitSet erreichbareKnoten(Adjazenzen graph, int start, Speicher<?> speicher) {
+        BitSet besucht = new BitSet(graph.getAnzahlKnoten());
+
+        // Queue mit den Knoten, deren Besuch unmittelbar ansteht (als Feld, da jeder Knoten höchstens einmal eingereiht wird)
+        try (Feld aktKnoten = speicher.neuesIntFeld(graph.getAnzahlKnoten())) {
+            int anfang = 0;
+            int ende = 0;
+
+            aktKnoten.setInt(ende++, start);
+            besucht.set(start);
+
+            while (anfang < ende) {
+                // entferne den aktuellen Knoten
+                int tmp = aktKnoten.getInt(anfang++);
+
+                // füge alle noch nicht besuchten Nachbarn hinzu
+                for (int i = graph.getNachfolgerAnfang(tmp); i < graph.getNachfolgerEnde(tmp); i++) {
+                    int nachbar = graph.getNachfolger(i);
+                    if (!besucht.get(nachbar)) {
+                        besucht.set(nachbar);
+                        aktKnoten.setInt(ende++, nachbar);
+                    }
+                }
+                for (int i = graph.getVorgaengerAnfang(tmp); i < graph.getVorgaengerEnde(tmp); i++) {
+                    int nachbar = graph.getVorgaenger(i);
+                    if (!besucht.get(nachbar)) {
+                        besucht.set(nachbar);
+                        aktKnoten.setInt(ende++, nachbar);
+                    }
+                }
+            }
+        }
+        return besucht;
+    }
+
     public List<Vorgang> getVorgaenge() {
-        return this.vorgaenge;
+        this.werteAus(Auswertung.VOLLSTAENDIG);
+        return this.tabelle.getVorgaenge();
+    }
+
+    /**
+     * Die Tabelle mit allen Zeitwerten, fehlende Phasen werden vorher nachgeholt.
+     */
+    public VorgangTabelle getTabelle() {
+        return this.getTabelle(Auswertung.VOLLSTAENDIG);
+    }
+
+    /**
+     * Die Tabelle, deren Zeitwerte mindestens bis zur angegebenen Stufe berechnet sind
+     * (z.B. VORWAERTS, wenn nur FAZ und FEZ benötigt werden).
+     */
+    public VorgangTabelle getTabelle(Auswertung mindestens) {
+        this.werteAus(mindestens);
+        return this.tabelle;
+    }
+
+    Graph getAdjazenzen() {
+        return this.adjazenzen;
+    }
+
+    int [] getTopologischeOrdnung() {
+        return this.topologischeOrdnung;
+    }
+
+    Topologie getTopologie() {
+        if (this.topologie == null) {
+            this.topologie = new Topologie(this.adjazenzen, this.topologischeOrdnung, this.endKnoten);
+        }
+        return this.topologie;
+    }
+
+    int [] getStartKnoten() {
+        return this.startKnoten;
+    }
+
+    int [] getEndKnoten() {
+        return this.endKnoten;
+    }
+
+    public boolean istStartVorgang(int zeile) {
+        return this.adjazenzen.getVorgaengerAnfang(zeile) == this.adjazenzen.getVorgaengerEnde(zeile);
+    }
+
+    public boolean istEndVorgang(int zeile) {
+        return this.adjazenzen.getNachfolgerAnfang(zeile) == this.adjazenzen.getNachfolgerEnde(zeile);
     }
 
     public List<Vorgang> getStartVorgaenge() {
+        this.werteAus(Auswertung.VOLLSTAENDIG);
         List<Vorgang> resultat = new ArrayList<>();
         for (int aktVorgang: this.startKnoten) {
-            resultat.add(this.vorgaenge.get(aktVorgang));
+            resultat.add(this.tabelle.getVorgang(aktVorgang));
         }
         return resultat;
     }
 
     public List<Vorgang> getEndVorgaenge() {
+        this.werteAus(Auswertung.VOLLSTAENDIG);
         List<Vorgang> resultat = new ArrayList<>();
         for (int aktVorgang: this.endKnoten) {
-            resultat.add(this.vorgaenge.get(aktVorgang));
+            resultat.add(this.tabelle.getVorgang(aktVorgang));
         }
         return resultat;
     }
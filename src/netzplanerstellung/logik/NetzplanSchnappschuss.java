@@ -0,0 +1,418 @@
+package netzplanerstellung.logik;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Binärer Schnappschuss eines fertig berechneten Netzplans: die Vorgangstabelle mit den Spalten
+ * FAZ/FEZ/SAZ/SEZ/GP/FP, der Graph, die topologische Ordnung sowie Start- und Endknoten. Beim Laden
+ * entfallen Einlesen, Prüfungen und Berechnung, die Abschnitte der Datei werden per Memory-Mapping
+ * eingeblendet und in die Felder kopiert. Die Bezeichnungen werden erst beim ersten Zugriff dekodiert.
+ *
+ * Aufbau der Datei (little-endian):
+ *   Kopf: Kennung (8 Byte), Version, Anzahl der Vorgänge, Anzahl der Einträge im Nummernindex,
+ *         Anzahl der Abschnitte, je Abschnitt Position und Länge (long) sowie CRC32C-Prüfsumme (int),
+ *         zuletzt die CRC32C-Prüfsumme des Kopfes
+ *   Abschnitte: int-Felder bzw. UTF-8-Bytes (Überschrift, Bezeichnungen), jeweils auf 8 Byte ausgerichtet
+ *
+ * Der Kopf wird zuletzt geschrieben, ein abgebrochener Schreibvorgang wird daher beim Laden erkannt.
+ */
+public class NetzplanSchnappschuss {
+    public static final int VERSION = 3;
+    // wie bei PNG: nicht druckbares erstes Zeichen, Zeilenenden und EOF-Zeichen erkennen verfälschte Übertragungen
+    private static final byte [] KENNUNG = {(byte) 0x89, 'N', 'P', 'S', '\r', '\n', 0x1A, '\n'};
+
+    // die Abschnitte in der Reihenfolge ihrer Einträge im Kopf
+    private static final String [] ABSCHNITTE = {
+        "Überschrift", "Nummer", "Dauer", "FAZ", "FEZ", "SAZ", "SEZ", "GP", "FP",
+        "Vorgänger-Anfänge", "Vorgänger", "Nachfolger-Anfänge", "Nachfolger",
+        "Graph-Nachfolger-Anfänge", "Graph-Nachfolger", "Graph-Vorgänger-Anfänge", "Graph-Vorgänger",
+        "Topologische Ordnung", "Startknoten", "Endknoten", "Index-Schlüssel", "Index-Werte",
+        "Bezeichnungen", "Bezeichnung-Anfänge", "Optimistisch", "Wahrscheinlich", "Pessimistisch",
+        "Crashdauer", "Crashkosten"
+    };
+    private static final int UEBERSCHRIFT = 0;
+    private static final int NUMMER = 1;
+    private static final int DAUER = 2;
+    private static final int FAZ = 3;
+    private static final int FEZ = 4;
+    private static final int SAZ = 5;
+    private static final int SEZ = 6;
+    private static final int GP = 7;
+    private static final int FP = 8;
+    private static final int VORGAENGER_ANFANG = 9;
+    private static final int VORGAENGER = 10;
+    private static final int NACHFOLGER_ANFANG = 11;
+    private static final int NACHFOLGER = 12;
+    private static final int GRAPH_NACHFOLGER_ANFANG = 13;
+    private static final int GRAPH_NACHFOLGER = 14;
+    private static final int GRAPH_VORGAENGER_ANFANG = 15;
+    private static final int GRAPH_VORGAENGER = 16;
+    private static final int ORDNUNG = 17;
+    private static final int START = 18;
+    private static final int ENDE = 19;
+    private static final int INDEX_SCHLUESSEL = 20;
+    private static final int INDEX_WERTE = 21;
+    private static final int BEZEICHNUNG = 22;
+    private static final int BEZEICHNUNG_ANFANG = 23;
+    // die Dreipunktschätzung ist optional, ohne Schätzungen sind die Abschnitte leer
+    private static final int OPTIMISTISCH = 24;
+    private static final int WAHRSCHEINLICH = 25;
+    private static final int PESSIMISTISCH = 26;
+    // ebenso die Crashangaben
+    private static final int CRASH_DAUER = 27;
+    private static final int CRASH_KOSTEN = 28;
+
+    private static final int KOPF_LAENGE = ausrichten(KENNUNG.length + 4 * 4 + ABSCHNITTE.length * (8 + 8 + 4) + 4);
+
+    private Netzplan netzplan;
+    private String ueberschrift;
+
+    private NetzplanSchnappschuss(Netzplan netzplan, String ueberschrift) {
+        this.netzplan = netzplan;
+        this.ueberschrift = ueberschrift;
+    }
+
+    public Netzplan getNetzplan() {
+        return this.netzplan;
+    }
+
+    public String getUeberschrift() {
+        return this.ueberschrift;
+    }
+
+    /**
+     * Prüft anhand der Kennung, ob die Datei ein Schnappschuss ist. Ist sie nicht lesbar, wird false geliefert.
+     */
+    public static boolean istSchnappschuss(Path datei) {
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            ByteBuffer kennung = ByteBuffer.allocate(KENNUNG.length);
+            while (kennung.hasRemaining() && kanal.read(kennung) != -1) {
+                // lese weiter, bis die Kennung vollständig ist
+            }
+            return !kennung.hasRemaining() && Arrays.equals(kennung.array(), KENNUNG);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Schreibt den Netzplan samt Überschrift als Schnappschuss, eine vorhandene Datei wird überschrieben.
+     */
+    public static void schreibe(Netzplan netzplan, String ueberschrift, Path datei) throws IOException {
+        VorgangTabelle tabelle = netzplan.getTabelle();
+        Graph graph = netzplan.getAdjazenzen();
+        int n = tabelle.getAnzahl();
+
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            Schreiber schreiber = new Schreiber(kanal);
+
+            schreiber.beginne(UEBERSCHRIFT);
+            schreiber.schreibeBytes(ueberschrift.getBytes(StandardCharsets.UTF_8));
+            schreiber.schreibeInts(NUMMER, tabelle.getNummerSpalte(), n);
+            schreiber.schreibeInts(DAUER, tabelle.getDauerSpalte(), n);
+            schreiber.schreibeInts(FAZ, tabelle.getFAZSpalte(), n);
+            schreiber.schreibeInts(FEZ, tabelle.getFEZSpalte(), n);
+            schreiber.schreibeInts(SAZ, tabelle.getSAZSpalte(), n);
+            schreiber.schreibeInts(SEZ, tabelle.getSEZSpalte(), n);
+            schreiber.schreibeInts(GP, tabelle.getGPSpalte(), n);
+            schreiber.schreibeInts(FP, tabelle.getFPSpalte(), n);
+            schreiber.schreibeListen(VORGAENGER_ANFANG, VORGAENGER, tabelle.getVorgaengerListen());
+            schreiber.schreibeListen(NACHFOLGER_ANFANG, NACHFOLGER, tabelle.getNachfolgerListen());
+            schreiber.schreibeListen(GRAPH_NACHFOLGER_ANFANG, GRAPH_NACHFOLGER, graph.getNachfolgerListen());
+            schreiber.schreibeListen(GRAPH_VORGAENGER_ANFANG, GRAPH_VORGAENGER, graph.getVorgaengerListen());
+            schreiber.schreibeInts(ORDNUNG, netzplan.getTopologischeOrdnung(), n);
+            schreiber.schreibeInts(START, netzplan.getStartKnoten(), netzplan.getStartKnoten().length);
+            schreiber.schreibeInts(ENDE, netzplan.getEndKnoten(), netzplan.getEndKnoten().length);
+            NummernIndex index = tabelle.getIndex();
+            schreiber.schreibeInts(INDEX_SCHLUESSEL, index.getSchluesselFeld(), index.getSchluesselFeld().length);
+            schreiber.schreibeInts(INDEX_WERTE, index.getWerteFeld(), index.getWerteFeld().length);
+
+            // die Anfänge der Bezeichnungen ergeben sich erst beim Schreiben der Bezeichnungen selbst
+            int [] bezeichnungAnfang = new int [n + 1];
+            schreiber.beginne(BEZEICHNUNG);
+            long laenge = 0;
+            for (int zeile = 0; zeile < n; zeile++) {
+                byte [] bezeichnung = tabelle.getBezeichnung(zeile).getBytes(StandardCharsets.UTF_8);
+                laenge += bezeichnung.length;
+                if (laenge > Integer.MAX_VALUE) {
+                    throw new IOException("Fehler beim Schreiben des Schnappschusses: Die Bezeichnungen sind zu lang!");
+                }
+                bezeichnungAnfang[zeile + 1] = (int) laenge;
+                schreiber.schreibeBytes(bezeichnung);
+            }
+            schreiber.schreibeInts(BEZEICHNUNG_ANFANG, bezeichnungAnfang, n + 1);
+            int anzahlSchaetzungen = tabelle.getOptimistischSpalte() == null ? 0 : n;
+            schreiber.schreibeInts(OPTIMISTISCH, tabelle.getOptimistischSpalte(), anzahlSchaetzungen);
+            schreiber.schreibeInts(WAHRSCHEINLICH, tabelle.getWahrscheinlichSpalte(), anzahlSchaetzungen);
+            schreiber.schreibeInts(PESSIMISTISCH, tabelle.getPessimistischSpalte(), anzahlSchaetzungen);
+            int anzahlCrashAngaben = tabelle.getCrashDauerSpalte() == null ? 0 : n;
+            schreiber.schreibeInts(CRASH_DAUER, tabelle.getCrashDauerSpalte(), anzahlCrashAngaben);
+            schreiber.schreibeInts(CRASH_KOSTEN, tabelle.getCrashKostenSpalte(), anzahlCrashAngaben);
+            schreiber.abschliessen();
+
+            // zuletzt der Kopf
+            ByteBuffer kopf = ByteBuffer.allocate(KOPF_LAENGE).order(ByteOrder.LITTLE_ENDIAN);
+            kopf.put(KENNUNG);
+            kopf.putInt(VERSION);
+            kopf.putInt(n);
+            kopf.putInt(index.size());
+            kopf.putInt(ABSCHNITTE.length);
+            for (int abschnitt = 0; abschnitt < ABSCHNITTE.length; abschnitt++) {
+                kopf.putLong(schreiber.position[abschnitt]);
+                kopf.putLong(schreiber.laenge[abschnitt]);
+                kopf.putInt(schreiber.pruefsumme[abschnitt]);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(kopf.array(), 0, kopf.position());
+            kopf.putInt((int) crc.getValue());
+            kopf.clear();
+            while (kopf.hasRemaining()) {
+                kanal.write(kopf, kopf.position());
+            }
+        }
+    }
+
+    /**
+     * Lädt einen Schnappschuss und prüft dabei die Prüfsummen aller Abschnitte.
+     */
+    public static NetzplanSchnappschuss lade(Path datei) throws IOException {
+        return lade(datei, true);
+    }
+
+    /**
+     * Lädt einen Schnappschuss. Ohne Prüfung der Abschnitte (z.B. bei gerade selbst geschriebenen Dateien)
+     * wird nur der Kopf geprüft, die Bezeichnungen werden dann nicht vollständig gelesen.
+     */
+    public static NetzplanSchnappschuss lade(Path datei, boolean pruefeAbschnitte) throws IOException {
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            long dateiLaenge = kanal.size();
+            ByteBuffer kopf = ByteBuffer.allocate(KOPF_LAENGE).order(ByteOrder.LITTLE_ENDIAN);
+            while (kopf.hasRemaining() && kanal.read(kopf) != -1) {
+                // lese weiter, bis der Kopf vollständig ist
+            }
+            byte [] kennung = new byte [KENNUNG.length];
+            kopf.flip();
+            if (kopf.remaining() < KOPF_LAENGE) {
+                throw beschaedigt(datei, "Der Kopf ist unvollständig");
+            }
+            kopf.get(kennung);
+            if (!Arrays.equals(kennung, KENNUNG)) {
+                throw new IOException("Die Datei "+datei+" ist kein Schnappschuss eines Netzplans!");
+            }
+            int version = kopf.getInt();
+            if (version != VERSION) {
+                throw new IOException("Der Schnappschuss "+datei+" hat die Version "+version+", unterstützt wird nur Version "+VERSION+"!");
+            }
+            int n = kopf.getInt();
+            int indexAnzahl = kopf.getInt();
+            if (kopf.getInt() != ABSCHNITTE.length) {
+                throw beschaedigt(datei, "Falsche Anzahl an Abschnitten");
+            }
+            long [] position = new long [ABSCHNITTE.length];
+            long [] laenge = new long [ABSCHNITTE.length];
+            int [] pruefsumme = new int [ABSCHNITTE.length];
+            for (int abschnitt = 0; abschnitt < ABSCHNITTE.length; abschnitt++) {
+                position[abschnitt] = kopf.getLong();
+                laenge[abschnitt] = kopf.getLong();
+                pruefsumme[abschnitt] = kopf.getInt();
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(kopf.array(), 0, kopf.position());
+            if (kopf.getInt() != (int) crc.getValue()) {
+                throw beschaedigt(datei, "Die Prüfsumme des Kopfes stimmt nicht");
+            }
+
+            // blende die Abschnitte ein und prüfe sie
+            ByteBuffer [] abschnitte = new ByteBuffer [ABSCHNITTE.length];
+            for (int abschnitt = 0; abschnitt < ABSCHNITTE.length; abschnitt++) {
+                if (position[abschnitt] < KOPF_LAENGE || laenge[abschnitt] < 0 || laenge[abschnitt] > Integer.MAX_VALUE ||
+                    position[abschnitt] + laenge[abschnitt] > dateiLaenge) {
+                    throw beschaedigt(datei, "Der Abschnitt "+ABSCHNITTE[abschnitt]+" liegt außerhalb der Datei");
+                }
+                abschnitte[abschnitt] = kanal.map(FileChannel.MapMode.READ_ONLY, position[abschnitt], laenge[abschnitt])
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                if (pruefeAbschnitte) {
+                    crc.reset();
+                    crc.update(abschnitte[abschnitt].duplicate());
+                    if ((int) crc.getValue() != pruefsumme[abschnitt]) {
+                        throw beschaedigt(datei, "Die Prüfsumme des Abschnitts "+ABSCHNITTE[abschnitt]+" stimmt nicht");
+                    }
+                }
+            }
+
+            // die Längen der Spalten müssen zur Anzahl der Vorgänge passen, die Inhalte werden nicht erneut geprüft
+            int [] laengeNachAbschnitt = {-1, n, n, n, n, n, n, n, n, n + 1, -1, n + 1, -1, n + 1, -1, n + 1, -1, n, -1, -1, -1, -1, -1, n + 1, -1, -1, -1, -1, -1};
+            for (int abschnitt = 0; abschnitt < ABSCHNITTE.length; abschnitt++) {
+                if (laengeNachAbschnitt[abschnitt] != -1 && laenge[abschnitt] != 4L * laengeNachAbschnitt[abschnitt]) {
+                    throw beschaedigt(datei, "Der Abschnitt "+ABSCHNITTE[abschnitt]+" passt nicht zur Anzahl der Vorgänge");
+                }
+            }
+
+            byte [] ueberschrift = new byte [abschnitte[UEBERSCHRIFT].remaining()];
+            abschnitte[UEBERSCHRIFT].get(ueberschrift);
+
+            VorgangTabelle tabelle = new VorgangTabelle(n,
+                ints(abschnitte[NUMMER]), ints(abschnitte[DAUER]),
+                ints(abschnitte[FAZ]), ints(abschnitte[FEZ]), ints(abschnitte[SAZ]), ints(abschnitte[SEZ]),
+                ints(abschnitte[GP]), ints(abschnitte[FP]),
+                new ZeilenListen(n, ints(abschnitte[VORGAENGER_ANFANG]), ints(abschnitte[VORGAENGER])),
+                new ZeilenListen(n, ints(abschnitte[NACHFOLGER_ANFANG]), ints(abschnitte[NACHFOLGER])),
+                new NummernIndex(ints(abschnitte[INDEX_SCHLUESSEL]), ints(abschnitte[INDEX_WERTE]), indexAnzahl),
+                abschnitte[BEZEICHNUNG], abschnitte[BEZEICHNUNG_ANFANG].asIntBuffer());
+            if (laenge[OPTIMISTISCH] != 0) {
+                if (laenge[OPTIMISTISCH] != 4L * n || laenge[WAHRSCHEINLICH] != 4L * n || laenge[PESSIMISTISCH] != 4L * n) {
+                    throw beschaedigt(datei, "Die Abschnitte der Dreipunktschätzung passen nicht zur Anzahl der Vorgänge");
+                }
+                tabelle.setSchaetzungsSpalten(ints(abschnitte[OPTIMISTISCH]), ints(abschnitte[WAHRSCHEINLICH]),
+                                              ints(abschnitte[PESSIMISTISCH]));
+            }
+            if (laenge[CRASH_DAUER] != 0) {
+                if (laenge[CRASH_DAUER] != 4L * n || laenge[CRASH_KOSTEN] != 4L * n) {
+                    throw beschaedigt(datei, "Die Abschnitte der Crashangaben passen nicht zur Anzahl der Vorgänge");
+                }
+                tabelle.setCrashSpalten(ints(abschnitte[CRASH_DAUER]), ints(abschnitte[CRASH_KOSTEN]));
+            }
+            Graph graph = new Graph(n,
+                new ZeilenListen(n, ints(abschnitte[GRAPH_NACHFOLGER_ANFANG]), ints(abschnitte[GRAPH_NACHFOLGER])),
+                new ZeilenListen(n, ints(abschnitte[GRAPH_VORGAENGER_ANFANG]), ints(abschnitte[GRAPH_VORGAENGER])));
+            Netzplan netzplan = new Netzplan(tabelle, graph, ints(abschnitte[ORDNUNG]), ints(abschnitte[START]), ints(abschnitte[ENDE]));
+            return new NetzplanSchnappschuss(netzplan, new String(ueberschrift, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static IOException beschaedigt(Path datei, String grund) {
+        return new IOException("Der Schnappschuss "+datei+" ist beschädigt: "+grund+"!");
+    }
+
+    /**
+     * Kopiert einen eingeblendeten Abschnitt in ein int-Feld.
+     */
+    private static int [] ints(ByteBuffer abschnitt) {
+        IntBuffer werte = abschnitt.asIntBuffer();
+        int [] resultat = new int [werte.remaining()];
+        werte.get(resultat);
+        return resultat;
+    }
+
+    private static int ausrichten(long position) {
+        return (int) ((position + 7) & ~7L);
+    }
+
+    /**
+     * Schreibt die Abschnitte nacheinander über einen Puffer in die Datei (hinter den Kopf) und
+     * merkt sich Position, Länge und Prüfsumme jedes Abschnitts.
+     */
+    private static class Schreiber {
+        private FileChannel kanal;
+        private ByteBuffer puffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private CRC32C crc = new CRC32C();
+        // die Position in der Datei, an der der Inhalt des Puffers beginnt
+        private long pufferPosition = KOPF_LAENGE;
+        private int abschnitt = -1;
+        private long [] position = new long [ABSCHNITTE.length];
+        private long [] laenge = new long [ABSCHNITTE.length];
+        private int [] pruefsumme = new int [ABSCHNITTE.length];
+
+        Schreiber(FileChannel kanal) {
+            this.kanal = kanal;
+        }
+
+        /**
+         * Schließt den bisherigen Abschnitt ab und beginnt den nächsten an einer durch 8 teilbaren Position.
+         */
+        void beginne(int neuerAbschnitt) throws IOException {
+            this.beende();
+            while (((this.pufferPosition + this.puffer.position()) & 7) != 0) {
+                this.puffer.put((byte) 0);
+            }
+            this.abschnitt = neuerAbschnitt;
+            this.position[neuerAbschnitt] = this.pufferPosition + this.puffer.position();
+            this.crc.reset();
+        }
+
+        private void beende() {
+            if (this.abschnitt != -1) {
+                this.laenge[this.abschnitt] = this.pufferPosition + this.puffer.position() - this.position[this.abschnitt];
+                this.pruefsumme[this.abschnitt] = (int) this.crc.getValue();
+            }
+        }
+
+        void schreibeInts(int neuerAbschnitt, int [] feld, int anzahl) throws IOException {
+            this.beginne(neuerAbschnitt);
+            int von = 0;
+            while (von < anzahl) {
+                if (this.puffer.remaining() < 4) {
+                    this.leere();
+                }
+                int stueck = Math.min(anzahl - von, this.puffer.remaining() / 4);
+                int anfang = this.puffer.position();
+                this.puffer.asIntBuffer().put(feld, von, stueck);
+                this.puffer.position(anfang + 4 * stueck);
+                this.crc.update(this.puffer.slice(anfang, 4 * stueck));
+                von += stueck;
+            }
+        }
+
+        void schreibeInt(int wert) throws IOException {
+            if (this.puffer.remaining() < 4) {
+                this.leere();
+            }
+            int anfang = this.puffer.position();
+            this.puffer.putInt(wert);
+            this.crc.update(this.puffer.slice(anfang, 4));
+        }
+
+        void schreibeBytes(byte [] bytes) throws IOException {
+            int von = 0;
+            while (von < bytes.length) {
+                if (!this.puffer.hasRemaining()) {
+                    this.leere();
+                }
+                int stueck = Math.min(bytes.length - von, this.puffer.remaining());
+                this.puffer.put(bytes, von, stueck);
+                this.crc.update(bytes, von, stueck);
+                von += stueck;
+            }
+        }
+
+        /**
+         * Schreibt die Listen verdichtet in zwei Abschnitte: die Anfänge (n+1 Werte) und die Werte selbst.
+         */
+        void schreibeListen(int anfangAbschnitt, int werteAbschnitt, ZeilenListen listen) throws IOException {
+            ZeilenListen verdichtet = listen.verdichte();
+            int n = verdichtet.getAnzahlZeilen();
+            this.schreibeInts(anfangAbschnitt, verdichtet.getStartFeld(), n);
+            this.schreibeInt(verdichtet.getAnzahlWerte());
+            this.schreibeInts(werteAbschnitt, verdichtet.getWerteFeld(), verdichtet.getAnzahlWerte());
+        }
+
+        /**
+         * Schließt den letzten Abschnitt ab und schreibt den Rest des Puffers.
+         */
+        void abschliessen() throws IOException {
+            this.beende();
+            this.leere();
+        }
+
+        /**
+         * Schreibt den Inhalt des Puffers in die Datei.
+         */
+        void leere() throws IOException {
+            this.puffer.flip();
+            while (this.puffer.hasRemaining()) {
+                this.pufferPosition += this.kanal.write(this.puffer, this.pufferPosition);
+            }
+            this.puffer.clear();
+        }
+    }
+}
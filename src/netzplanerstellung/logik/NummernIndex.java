@@ -0,0 +1,113 @@
+package netzplanerstellung.logik;
+
+/**
+ * Abbildung der externen Vorgangsnummern auf die internen Nummern (Zeilen der VorgangTabelle).
+ * Offene Adressierung mit linearer Sondierung auf primitiven Feldern, damit bei Millionen
+ * Vorgängen weder Integer-Objekte noch Map-Einträge erzeugt werden.
+ */
+public class NummernIndex {
+    private int [] schluessel;
+    // interne Nummer + 1, der Wert 0 kennzeichnet einen freien Platz
+    private int [] werte;
+    private int anzahl;
+
+    public NummernIndex() {
+        this(16);
+    }
+
+    public NummernIndex(int erwarteteAnzahl) {
+        int kapazitaet = 16;
+        // die Tabelle wird höchstens zur Hälfte gefüllt
+        while (kapazitaet < 2 * erwarteteAnzahl) {
+            kapazitaet *= 2;
+        }
+        this.schluessel = new int [kapazitaet];
+        this.werte = new int [kapazitaet];
+    }
+
+    /**
+     * Übernimmt eine bereits gefüllte Tabelle (z.B. aus einem Schnappschuss), die Länge muss eine Zweierpotenz sein.
+     */
+    NummernIndex(int [] schluessel, int [] werte, int anzahl) {
+        this.schluessel = schluessel;
+        this.werte = werte;
+        this.anzahl = anzahl;
+    }
+
+    /**
+     * Liefert die interne Nummer zur externen Nummer oder -1, falls diese nicht vorhanden ist.
+     */
+    public int get(int nummer) {
+        int maske = this.schluessel.length - 1;
+        for (int platz = streue(nummer) & maske; this.werte[platz] != 0; platz = (platz + 1) & maske) {
+            if (this.schluessel[platz] == nummer) {
+                return this.werte[platz] - 1;
+            }
+        }
+        return -1;
+    }
+
+    public boolean enthaelt(int nummer) {
+        return this.get(nummer) != -1;
+    }
+
+    /**
+     * Trägt die Zuordnung ein, sofern die externe Nummer noch nicht vorhanden ist.
+     * Liefert false, wenn die Nummer bereits vergeben war (der Eintrag bleibt dann unverändert).
+     */
+    public boolean put(int nummer, int intern) {
+        if (2 * (this.anzahl + 1) > this.schluessel.length) {
+            this.vergroessere();
+        }
+        int maske = this.schluessel.length - 1;
+        int platz = streue(nummer) & maske;
+        while (this.werte[platz] != 0) {
+            if (this.schluessel[platz] == nummer) {
+                return false;
+            }
+            platz = (platz + 1) & maske;
+        }
+        this.schluessel[platz] = nummer;
+        this.werte[platz] = intern + 1;
+        this.anzahl++;
+        return true;
+    }
+
+    public int size() {
+        return this.anzahl;
+    }
+
+    int [] getSchluesselFeld() {
+        return this.schluessel;
+    }
+
+    int [] getWerteFeld() {
+        return this.werte;
+    }
+
+    private void vergroessere() {
+        int [] alteSchluessel = this.schluessel;
+        int [] alteWerte = this.werte;
+        this.schluessel = new int [alteSchluessel.length * 2];
+        this.werte = new int [alteWerte.length * 2];
+        int maske = this.schluessel.length - 1;
+        for (int i = 0; i < alteSchluessel.length; i++) {
+            if (alteWerte[i] != 0) {
+                int platz = streue(alteSchluessel[i]) & maske;
+                while (this.werte[platz] != 0) {
+                    platz = (platz + 1) & maske;
+                }
+                this.schluessel[platz] = alteSchluessel[i];
+                this.werte[platz] = alteWerte[i];
+            }
+        }
+    }
+
+    /**
+     * Verteilt auch aufeinanderfolgende Nummern gleichmäßig über die Tabelle (Fibonacci-Hashing).
+     */
+    private static int streue(int nummer) {
+        int h = nummer * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
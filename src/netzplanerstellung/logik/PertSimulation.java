@@ -0,0 +1,479 @@
+package netzplanerstellung.logik;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte-Carlo-Simulation (PERT) der Gesamtdauer eines Netzplans.
+ *
+ * In jedem Lauf wird die Dauer jedes Vorgangs mit Dreipunktschätzung (optimistisch/wahrscheinlich/pessimistisch)
+ * zufällig gezogen, Vorgänge ohne Schätzung behalten ihre Dauer. Anschließend folgen eine Vorwärts- und eine
+ * Rückwärtsrechnung über die beim Anlegen eingefrorene Topologie. Im Gegensatz zum Netzplan gilt dabei für
+ * alle Endvorgänge das gemeinsame Projektende (die größte FEZ), ein Vorgang ist in einem Lauf kritisch, wenn
+ * seine Gesamtpufferzeit 0 ist. Bei nur einem Endvorgang entspricht das genau Netzplan.istKritisch.
+ *
+ * Die Läufe werden in Blöcken fester Größe auf die Threads verteilt. Jeder Block hat einen eigenen, vorab
+ * aus dem Startwert abgespaltenen Zufallszahlenstrom, das Ergebnis hängt daher nur vom Startwert ab und
+ * nicht von der Anzahl der Threads. Jeder Thread rechnet auf eigenen Feldern, die Zählungen werden erst
+ * am Ende zusammengeführt.
+ */
+public class PertSimulation {
+    /**
+     * Die Verteilung der Dauer zwischen optimistischer und pessimistischer Schätzung.
+     */
+    public enum Verteilung {
+        // Beta-Verteilung mit Modus bei der wahrscheinlichen Dauer (klassisches PERT)
+        BETA_PERT,
+        // Dreiecksverteilung mit Spitze bei der wahrscheinlichen Dauer
+        DREIECK
+    }
+
+    // so viele Läufe bilden einen Block mit eigenem Zufallszahlenstrom
+    private static final int BLOCK = 10_000;
+    // Anzahl der Klassen des Histogramms der Gesamtdauer (für die Perzentile)
+    private static final int KLASSEN = 1 << 16;
+
+    private Verteilung verteilung;
+    private int n;
+
+    // die Felder der eingefrorenen Topologie (siehe Topologie), für die Schleifen direkt übernommen
+    private int [] zeileAnPosition;
+    private int [] vorgaengerAnfang;
+    private int [] vorgaenger;
+    private int [] nachfolgerAnfang;
+    private int [] nachfolger;
+
+    // je Position: kleinste Dauer und Spanne bis zur größten (0 bei fester Dauer)
+    private double [] minimum;
+    private double [] spanne;
+    // Beta-PERT: Parameter d und c nach Marsaglia und Tsang für die beiden Gamma-Verteilungen
+    private double [] alphaD;
+    private double [] alphaC;
+    private double [] betaD;
+    private double [] betaC;
+    // Dreieck: Lage der wahrscheinlichen Dauer in der Spanne (0 bis 1)
+    private double [] modus;
+
+    // die Gesamtdauer liegt immer zwischen der mit allen optimistischen und der mit allen pessimistischen Werten
+    private double untereSchranke;
+    private double obereSchranke;
+
+    public PertSimulation(Netzplan netzplan) {
+        this(netzplan, Verteilung.BETA_PERT);
+    }
+
+    public PertSimulation(Netzplan netzplan, Verteilung verteilung) {
+        // benötigt werden nur die Schätzungen, keine Zeitwerte
+        VorgangTabelle tabelle = netzplan.getTabelle(Netzplan.Auswertung.PRUEFUNG);
+        Topologie topologie = netzplan.getTopologie();
+        this.verteilung = verteilung;
+        this.n = topologie.getAnzahl();
+        this.zeileAnPosition = topologie.getZeileAnPosition();
+        this.vorgaengerAnfang = topologie.getVorgaengerAnfang();
+        this.vorgaenger = topologie.getVorgaenger();
+        this.nachfolgerAnfang = topologie.getNachfolgerAnfang();
+        this.nachfolger = topologie.getNachfolger();
+
+        this.minimum = new double [this.n];
+        this.spanne = new double [this.n];
+        this.alphaD = new double [this.n];
+        this.alphaC = new double [this.n];
+        this.betaD = new double [this.n];
+        this.betaC = new double [this.n];
+        this.modus = new double [this.n];
+        double [] maximum = new double [this.n];
+        for (int p = 0; p < this.n; p++) {
+            int zeile = this.zeileAnPosition[p];
+            double o = tabelle.getOptimistisch(zeile);
+            double m = tabelle.getWahrscheinlich(zeile);
+            double max = tabelle.getPessimistisch(zeile);
+            this.minimum[p] = o;
+            this.spanne[p] = max - o;
+            maximum[p] = max;
+            if (max > o) {
+                // Beta-PERT: alpha = 1 + 4(m-o)/(p-o), beta = 1 + 4(p-m)/(p-o), beide mindestens 1
+                double alpha = 1 + 4 * (m - o) / (max - o);
+                double beta = 1 + 4 * (max - m) / (max - o);
+                this.alphaD[p] = alpha - 1.0 / 3;
+                this.alphaC[p] = 1 / Math.sqrt(9 * this.alphaD[p]);
+                this.betaD[p] = beta - 1.0 / 3;
+                this.betaC[p] = 1 / Math.sqrt(9 * this.betaD[p]);
+                this.modus[p] = (m - o) / (max - o);
+            }
+        }
+        double [] fruehesterEnd = new double [this.n];
+        this.untereSchranke = this.vorwaerts(this.minimum, fruehesterEnd);
+        this.obereSchranke = this.vorwaerts(maximum, fruehesterEnd);
+    }
+
+    /**
+     * Führt die angegebene Anzahl an Läufen mit anzahlThreads Threads aus. Für jeden Termin wird
+     * gezählt, in wie vielen Läufen das Projekt spätestens zu diesem Zeitpunkt fertig ist.
+     */
+    public Ergebnis simuliere(long anzahlLaeufe, long startwert, double [] termine, int anzahlThreads) {
+        if (anzahlLaeufe < 1 || anzahlThreads < 1) {
+            throw new IllegalArgumentException("Ungültige Anzahl an Läufen oder Threads");
+        }
+        long anzahlBloeckeLang = (anzahlLaeufe + BLOCK - 1) / BLOCK;
+        if (anzahlBloeckeLang > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Zu viele Läufe: "+anzahlLaeufe);
+        }
+        int anzahlBloecke = (int) anzahlBloeckeLang;
+
+        // die Ströme werden der Reihe nach abgespalten, unabhängig davon, welcher Thread welchen Block rechnet
+        SplittableRandom basis = new SplittableRandom(startwert);
+        SplittableRandom [] stroeme = new SplittableRandom [anzahlBloecke];
+        for (int block = 0; block < anzahlBloecke; block++) {
+            stroeme[block] = basis.split();
+        }
+        // Summen je Block, damit Mittelwert und Streuung unabhängig von der Verteilung auf die Threads sind
+        double [] blockSumme = new double [anzahlBloecke];
+        double [] blockQuadrate = new double [anzahlBloecke];
+
+        AtomicInteger naechsterBlock = new AtomicInteger();
+        List<Arbeiter> arbeiter = new ArrayList<>();
+        long start = System.nanoTime();
+        if (anzahlThreads == 1) {
+            Arbeiter einziger = new Arbeiter(termine);
+            einziger.rechne(anzahlLaeufe, stroeme, blockSumme, blockQuadrate, naechsterBlock);
+            arbeiter.add(einziger);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(anzahlThreads);
+            try {
+                List<Future<?>> aufgaben = new ArrayList<>();
+                for (int i = 0; i < anzahlThreads; i++) {
+                    Arbeiter aktArbeiter = new Arbeiter(termine);
+                    arbeiter.add(aktArbeiter);
+                    aufgaben.add(pool.submit(() -> aktArbeiter.rechne(anzahlLaeufe, stroeme, blockSumme, blockQuadrate,
+                                                                       naechsterBlock)));
+                }
+                for (Future<?> aufgabe: aufgaben) {
+                    aufgabe.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Die Simulation wurde unterbrochen!", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fehler in der Simulation: "+e.getCause(), e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        long laufzeit = System.nanoTime() - start;
+
+        // führe die Zählungen der Threads zusammen
+        long [] kritisch = new long [this.n];
+        long [] histogramm = new long [KLASSEN];
+        long [] imTermin = new long [termine.length];
+        double kleinste = Double.POSITIVE_INFINITY;
+        double groesste = Double.NEGATIVE_INFINITY;
+        for (Arbeiter aktArbeiter: arbeiter) {
+            for (int p = 0; p < this.n; p++) {
+                kritisch[this.zeileAnPosition[p]] += aktArbeiter.kritisch[p];
+            }
+            for (int k = 0; k < KLASSEN; k++) {
+                histogramm[k] += aktArbeiter.histogramm[k];
+            }
+            for (int t = 0; t < termine.length; t++) {
+                imTermin[t] += aktArbeiter.imTermin[t];
+            }
+            kleinste = Math.min(kleinste, aktArbeiter.kleinste);
+            groesste = Math.max(groesste, aktArbeiter.groesste);
+        }
+        double summe = 0;
+        double quadrate = 0;
+        for (int block = 0; block < anzahlBloecke; block++) {
+            summe += blockSumme[block];
+            quadrate += blockQuadrate[block];
+        }
+        // die Summen beziehen sich auf die Abweichung von der unteren Schranke (numerisch stabiler)
+        double mittel = summe / anzahlLaeufe;
+        double varianz = anzahlLaeufe > 1 ? Math.max(0, (quadrate - summe * mittel) / (anzahlLaeufe - 1)) : 0;
+
+        return new Ergebnis(this, anzahlLaeufe, anzahlThreads, laufzeit, this.untereSchranke + mittel, Math.sqrt(varianz),
+                            kleinste, groesste, histogramm, termine.clone(), imTermin, kritisch);
+    }
+
+    /**
+     * Vorwärtsrechnung über alle Positionen, liefert die Gesamtdauer (größte FEZ).
+     */
+    private double vorwaerts(double [] dauer, double [] fez) {
+        double ende = 0;
+        for (int p = 0; p < this.n; p++) {
+            double faz = 0;
+            for (int i = this.vorgaengerAnfang[p]; i < this.vorgaengerAnfang[p + 1]; i++) {
+                if (fez[this.vorgaenger[i]] > faz) {
+                    faz = fez[this.vorgaenger[i]];
+                }
+            }
+            fez[p] = faz + dauer[p];
+            if (fez[p] > ende) {
+                ende = fez[p];
+            }
+        }
+        return ende;
+    }
+
+    /**
+     * Die Hilfsfelder und Zählungen eines Threads.
+     */
+    private class Arbeiter {
+        private double [] dauer = new double [n];
+        private double [] fez = new double [n];
+        private double [] saz = new double [n];
+
+        private double [] termine;
+        private long [] kritisch = new long [n];
+        private long [] histogramm = new long [KLASSEN];
+        private long [] imTermin;
+        private double kleinste = Double.POSITIVE_INFINITY;
+        private double groesste = Double.NEGATIVE_INFINITY;
+
+        Arbeiter(double [] termine) {
+            this.termine = termine;
+            this.imTermin = new long [termine.length];
+        }
+
+        void rechne(long anzahlLaeufe, SplittableRandom [] stroeme, double [] blockSumme, double [] blockQuadrate,
+                    AtomicInteger naechsterBlock) {
+            double breite = obereSchranke - untereSchranke;
+            double skala = breite > 0 ? KLASSEN / breite : 0;
+            int block;
+            while ((block = naechsterBlock.getAndIncrement()) < stroeme.length) {
+                SplittableRandom zufall = stroeme[block];
+                long laeufe = Math.min(BLOCK, anzahlLaeufe - (long) block * BLOCK);
+                double summe = 0;
+                double quadrate = 0;
+                for (long lauf = 0; lauf < laeufe; lauf++) {
+                    this.zieheDauern(zufall);
+                    double ende = this.lauf();
+
+                    double abweichung = ende - untereSchranke;
+                    summe += abweichung;
+                    quadrate += abweichung * abweichung;
+                    this.histogramm[Math.min(KLASSEN - 1, Math.max(0, (int) (abweichung * skala)))]++;
+                    for (int t = 0; t < this.termine.length; t++) {
+                        if (ende <= this.termine[t]) {
+                            this.imTermin[t]++;
+                        }
+                    }
+                    if (ende < this.kleinste) {
+                        this.kleinste = ende;
+                    }
+                    if (ende > this.groesste) {
+                        this.groesste = ende;
+                    }
+                }
+                blockSumme[block] = summe;
+                blockQuadrate[block] = quadrate;
+            }
+        }
+
+        private void zieheDauern(SplittableRandom zufall) {
+            double [] dauer = this.dauer;
+            for (int p = 0; p < n; p++) {
+                double s = spanne[p];
+                if (s == 0) {
+                    dauer[p] = minimum[p];
+                } else if (verteilung == Verteilung.BETA_PERT) {
+                    double x = gamma(zufall, alphaD[p], alphaC[p]);
+                    double y = gamma(zufall, betaD[p], betaC[p]);
+                    dauer[p] = minimum[p] + s * (x / (x + y));
+                } else {
+                    // Inversion der Verteilungsfunktion der Dreiecksverteilung
+                    double u = zufall.nextDouble();
+                    double c = modus[p];
+                    dauer[p] = minimum[p] + s * (u < c ? Math.sqrt(u * c) : 1 - Math.sqrt((1 - u) * (1 - c)));
+                }
+            }
+        }
+
+        /**
+         * Vorwärts- und Rückwärtsrechnung für die gezogenen Dauern, zählt die kritischen Vorgänge
+         * und liefert die Gesamtdauer.
+         */
+        private double lauf() {
+            double [] dauer = this.dauer;
+            double [] fez = this.fez;
+            double [] saz = this.saz;
+            double ende = vorwaerts(dauer, fez);
+
+            // Vergleiche mit Toleranz, da sich Rundungsfehler auf verschiedenen Pfaden unterschiedlich summieren
+            double toleranz = 1e-9 * ende;
+            for (int p = n - 1; p >= 0; p--) {
+                double sez = ende;
+                for (int i = nachfolgerAnfang[p]; i < nachfolgerAnfang[p + 1]; i++) {
+                    if (saz[nachfolger[i]] < sez) {
+                        sez = saz[nachfolger[i]];
+                    }
+                }
+                saz[p] = sez - dauer[p];
+                if (sez - fez[p] <= toleranz) {
+                    this.kritisch[p]++;
+                }
+            }
+            return ende;
+        }
+    }
+
+    /**
+     * Zieht aus der Gamma-Verteilung mit Formparameter a >= 1 nach Marsaglia und Tsang,
+     * mit d = a - 1/3 und c = 1/sqrt(9d).
+     */
+    private static double gamma(SplittableRandom zufall, double d, double c) {
+        while (true) {
+            double x;
+            double v;
+            do {
+                x = zufall.nextGaussian();
+                v = 1 + c * x;
+            } while (v <= 0);
+            v = v * v * v;
+            double u = zufall.nextDouble();
+            double xx = x * x;
+            if (u < 1 - 0.0331 * xx * xx || Math.log(u) < 0.5 * xx + d * (1 - v + Math.log(v))) {
+                return d * v;
+            }
+        }
+    }
+
+    /**
+     * Das Ergebnis einer Simulation.
+     */
+    public static class Ergebnis {
+        private Verteilung verteilung;
+        private long anzahlLaeufe;
+        private int anzahlThreads;
+        private long laufzeit;
+        private double mittelwert;
+        private double standardabweichung;
+        private double kleinste;
+        private double groesste;
+
+        // Histogramm der Gesamtdauer zwischen unterer und oberer Schranke
+        private double untereSchranke;
+        private double klassenBreite;
+        private long [] histogramm;
+
+        private double [] termine;
+        private long [] imTermin;
+        // Anzahl der Läufe, in denen ein Vorgang kritisch war (nach Zeile der Tabelle)
+        private long [] kritisch;
+
+        private Ergebnis(PertSimulation simulation, long anzahlLaeufe, int anzahlThreads, long laufzeit,
+                         double mittelwert, double standardabweichung, double kleinste, double groesste,
+                         long [] histogramm, double [] termine, long [] imTermin, long [] kritisch) {
+            this.verteilung = simulation.verteilung;
+            this.anzahlLaeufe = anzahlLaeufe;
+            this.anzahlThreads = anzahlThreads;
+            this.laufzeit = laufzeit;
+            this.mittelwert = mittelwert;
+            this.standardabweichung = standardabweichung;
+            this.kleinste = kleinste;
+            this.groesste = groesste;
+            this.untereSchranke = simulation.untereSchranke;
+            this.klassenBreite = (simulation.obereSchranke - simulation.untereSchranke) / KLASSEN;
+            this.histogramm = histogramm;
+            this.termine = termine;
+            this.imTermin = imTermin;
+            this.kritisch = kritisch;
+        }
+
+        public Verteilung getVerteilung() {
+            return this.verteilung;
+        }
+
+        public long getAnzahlLaeufe() {
+            return this.anzahlLaeufe;
+        }
+
+        public int getAnzahlThreads() {
+            return this.anzahlThreads;
+        }
+
+        /**
+         * Die Laufzeit der Simulation in Nanosekunden.
+         */
+        public long getLaufzeit() {
+            return this.laufzeit;
+        }
+
+        /**
+         * Der Durchsatz in Läufen je Sekunde und Thread.
+         */
+        public double getLaeufeJeSekundeUndThread() {
+            return this.anzahlLaeufe / (this.laufzeit / 1e9) / this.anzahlThreads;
+        }
+
+        public double getMittelwert() {
+            return this.mittelwert;
+        }
+
+        public double getStandardabweichung() {
+            return this.standardabweichung;
+        }
+
+        public double getMinimum() {
+            return this.kleinste;
+        }
+
+        public double getMaximum() {
+            return this.groesste;
+        }
+
+        /**
+         * Das Perzentil der Gesamtdauer (anteil zwischen 0 und 1), innerhalb einer Klasse des Histogramms
+         * linear interpoliert. Die Genauigkeit ist 1/65536 der Spanne zwischen kürzester und längster
+         * möglicher Gesamtdauer.
+         */
+        public double getPerzentil(double anteil) {
+            if (anteil <= 0) {
+                return this.kleinste;
+            }
+            if (anteil >= 1) {
+                return this.groesste;
+            }
+            double rang = anteil * this.anzahlLaeufe;
+            long bisher = 0;
+            for (int k = 0; k < this.histogramm.length; k++) {
+                if (this.histogramm[k] > 0 && bisher + this.histogramm[k] >= rang) {
+                    double wert = this.untereSchranke + (k + (rang - bisher) / this.histogramm[k]) * this.klassenBreite;
+                    return Math.min(this.groesste, Math.max(this.kleinste, wert));
+                }
+                bisher += this.histogramm[k];
+            }
+            return this.groesste;
+        }
+
+        public double [] getTermine() {
+            return this.termine.clone();
+        }
+
+        /**
+         * Der Anteil der Läufe, in denen das Projekt spätestens zum angegebenen Termin (Index in getTermine()) fertig ist.
+         */
+        public double getWahrscheinlichkeit(int termin) {
+            return (double) this.imTermin[termin] / this.anzahlLaeufe;
+        }
+
+        /**
+         * Der Kritikalitätsindex eines Vorgangs (Zeile der Tabelle): der Anteil der Läufe, in denen er kritisch war.
+         */
+        public double getKritikalitaet(int zeile) {
+            return (double) this.kritisch[zeile] / this.anzahlLaeufe;
+        }
+
+        @Override
+        public String toString() {
+            return this.anzahlLaeufe+" Läufe in "+String.format(Locale.ROOT, "%.3f", this.laufzeit / 1e9)+" s mit "+
+                   this.anzahlThreads+" Threads ("+String.format(Locale.ROOT, "%.0f", this.getLaeufeJeSekundeUndThread())+
+                   " Läufe/s je Thread)";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package netzplanerstellung.logik;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Die Ressourcen eines Netzplans (z.B. Mannschaften oder Maschinen) mit ihrer Kapazität und der Bedarf
+ * der einzelnen Vorgänge (nach Zeile der VorgangTabelle). Eine Ressource ist erneuerbar: sie steht zu
+ * jedem Zeitpunkt mit ihrer vollen Kapazität zur Verfügung, ein Vorgang belegt seinen Bedarf während
+ * seiner gesamten Dauer.
+ *
+ * Die Bedarfe werden als Tripel (Zeile, Ressource, Menge) gesammelt und erst für die Planung nach
+ * Zeilen sortiert, da die meisten Vorgänge nur wenige Ressourcen benötigen.
+ */
+public class Ressourcen {
+    private List<String> namen = new ArrayList<>();
+    private int [] kapazitaet = new int [4];
+
+    private int anzahlBedarfe;
+    private int [] bedarfZeile = new int [16];
+    private int [] bedarfRessource = new int [16];
+    private int [] bedarfMenge = new int [16];
+
+    /**
+     * Legt eine neue Ressource an und liefert ihre Nummer (fortlaufend ab 0).
+     */
+    public int neueRessource(String name, int kapazitaet) {
+        if (kapazitaet < 0) {
+            throw new IllegalArgumentException("Ungültige Kapazität "+kapazitaet+" der Ressource "+name);
+        }
+        int ressource = this.namen.size();
+        if (ressource == this.kapazitaet.length) {
+            this.kapazitaet = Arrays.copyOf(this.kapazitaet, 2 * ressource);
+        }
+        this.namen.add(name);
+        this.kapazitaet[ressource] = kapazitaet;
+        return ressource;
+    }
+
+    /**
+     * Liefert die Nummer der Ressource mit dem angegebenen Namen oder -1.
+     */
+    public int getRessource(String name) {
+        return this.namen.indexOf(name);
+    }
+
+    /**
+     * Der Vorgang in der angegebenen Zeile belegt während seiner Dauer menge Einheiten der Ressource.
+     */
+    public void addBedarf(int zeile, int ressource, int menge) {
+        if (ressource < 0 || ressource >= this.namen.size() || menge < 0) {
+            throw new IllegalArgumentException("Ungültiger Bedarf "+menge+" der Ressource "+ressource);
+        }
+        if (this.anzahlBedarfe == this.bedarfZeile.length) {
+            this.bedarfZeile = Arrays.copyOf(this.bedarfZeile, 2 * this.anzahlBedarfe);
+            this.bedarfRessource = Arrays.copyOf(this.bedarfRessource, 2 * this.anzahlBedarfe);
+            this.bedarfMenge = Arrays.copyOf(this.bedarfMenge, 2 * this.anzahlBedarfe);
+        }
+        this.bedarfZeile[this.anzahlBedarfe] = zeile;
+        this.bedarfRessource[this.anzahlBedarfe] = ressource;
+        this.bedarfMenge[this.anzahlBedarfe] = menge;
+        this.anzahlBedarfe++;
+    }
+
+    public int getAnzahl() {
+        return this.namen.size();
+    }
+
+    public String getName(int ressource) {
+        return this.namen.get(ressource);
+    }
+
+    public int getKapazitaet(int ressource) {
+        return this.kapazitaet[ressource];
+    }
+
+    public int getAnzahlBedarfe() {
+        return this.anzahlBedarfe;
+    }
+
+    /*
+     * Die gesammelten Bedarfe in der Reihenfolge ihres Eintrags.
+     */
+
+    int getBedarfZeile(int bedarf) {
+        return this.bedarfZeile[bedarf];
+    }
+
+    int getBedarfRessource(int bedarf) {
+        return this.bedarfRessource[bedarf];
+    }
+
+    int getBedarfMenge(int bedarf) {
+        return this.bedarfMenge[bedarf];
+    }
+}
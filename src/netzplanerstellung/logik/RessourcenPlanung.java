@@ -0,0 +1,337 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Terminplanung unter begrenzten Ressourcen mit dem parallelen Verfahren (parallel schedule generation scheme).
+ *
+ * Die Zeit schreitet von Entscheidungszeitpunkt zu Entscheidungszeitpunkt (Ende eines laufenden Vorgangs)
+ * fort. Zu jedem Zeitpunkt werden die einplanbaren Vorgänge (alle Vorgänger beendet) in der Reihenfolge
+ * der Prioritätsregel betrachtet und gestartet, sofern ihr Bedarf noch frei ist. Da vor einem Zeitpunkt
+ * nur laufende Vorgänge Ressourcen belegen, genügt als Ressourcenprofil die aktuelle Belegung.
+ *
+ * Ein Vorgang, der nicht starten kann, wird bei der ersten zu knappen Ressource zurückgestellt (ein Heap
+ * je Ressource). Er wird erst wieder betrachtet, wenn diese Ressource durch das Ende eines Vorgangs frei
+ * wird, vorher kann er nicht starten, da die freie Kapazität dieser Ressource bis dahin nur sinkt. So wird
+ * nicht zu jedem Zeitpunkt die gesamte Menge wartender Vorgänge durchsucht.
+ *
+ * Ohne Ressourcen (bzw. bei ausreichender Kapazität) entspricht der Plan genau der Vorwärtsrechnung.
+ */
+public class RessourcenPlanung {
+    /**
+     * Die Regel, nach der konkurrierende Vorgänge eingeplant werden (kleinster Wert zuerst, bei gleichem
+     * Wert der Vorgang mit der kleineren Zeile).
+     */
+    public enum Prioritaetsregel {
+        // spätester Anfangszeitpunkt SAZ aus der Rückwärtsrechnung
+        SPAETESTER_ANFANG,
+        // spätester Endzeitpunkt SEZ
+        SPAETESTES_ENDE,
+        // kleinste Gesamtpufferzeit GP
+        GESAMTPUFFER
+    }
+
+    private Netzplan netzplan;
+    private Ressourcen ressourcen;
+    private Prioritaetsregel regel;
+
+    // Anfang jedes Vorgangs (nach Zeile) im ressourcengerechten Plan
+    private int [] anfang;
+    private int projektdauer;
+    // größte gleichzeitige Belegung und Summe aus Dauer mal Bedarf je Ressource
+    private int [] spitze;
+    private long [] arbeit;
+    private long laufzeit;
+
+    public RessourcenPlanung(Netzplan netzplan, Ressourcen ressourcen) throws NetzplanException {
+        this(netzplan, ressourcen, Prioritaetsregel.SPAETESTER_ANFANG);
+    }
+
+    public RessourcenPlanung(Netzplan netzplan, Ressourcen ressourcen, Prioritaetsregel regel) throws NetzplanException {
+        this.netzplan = netzplan;
+        this.ressourcen = ressourcen;
+        this.regel = regel;
+        long start = System.nanoTime();
+        this.plane();
+        this.laufzeit = System.nanoTime() - start;
+    }
+
+    private void plane() throws NetzplanException {
+        VorgangTabelle tabelle = this.netzplan.getTabelle();
+        Graph graph = this.netzplan.getAdjazenzen();
+        int n = tabelle.getAnzahl();
+        int anzahlRessourcen = this.ressourcen.getAnzahl();
+
+        // die Bedarfe nach Zeilen (Bedarfe von 0 entfallen)
+        int [] bedarfAnfang = new int [n + 1];
+        for (int bedarf = 0; bedarf < this.ressourcen.getAnzahlBedarfe(); bedarf++) {
+            if (this.ressourcen.getBedarfMenge(bedarf) > 0) {
+                bedarfAnfang[this.ressourcen.getBedarfZeile(bedarf) + 1]++;
+            }
+        }
+        for (int zeile = 0; zeile < n; zeile++) {
+            bedarfAnfang[zeile + 1] += bedarfAnfang[zeile];
+        }
+        int [] bedarfRessource = new int [bedarfAnfang[n]];
+        int [] bedarfMenge = new int [bedarfAnfang[n]];
+        int [] naechster = Arrays.copyOf(bedarfAnfang, n);
+        for (int bedarf = 0; bedarf < this.ressourcen.getAnzahlBedarfe(); bedarf++) {
+            int menge = this.ressourcen.getBedarfMenge(bedarf);
+            if (menge > 0) {
+                int zeile = this.ressourcen.getBedarfZeile(bedarf);
+                bedarfRessource[naechster[zeile]] = this.ressourcen.getBedarfRessource(bedarf);
+                bedarfMenge[naechster[zeile]++] = menge;
+            }
+        }
+
+        // mehrere Bedarfe eines Vorgangs an derselben Ressource werden addiert, die Listen dabei verdichtet
+        int anzahlBedarfe = 0;
+        for (int zeile = 0; zeile < n; zeile++) {
+            int anfangAlt = bedarfAnfang[zeile];
+            bedarfAnfang[zeile] = anzahlBedarfe;
+            for (int i = anfangAlt; i < bedarfAnfang[zeile + 1]; i++) {
+                int gleich = bedarfAnfang[zeile];
+                while (gleich < anzahlBedarfe && bedarfRessource[gleich] != bedarfRessource[i]) {
+                    gleich++;
+                }
+                if (gleich == anzahlBedarfe) {
+                    bedarfRessource[anzahlBedarfe] = bedarfRessource[i];
+                    bedarfMenge[anzahlBedarfe++] = bedarfMenge[i];
+                } else if ((long) bedarfMenge[gleich] + bedarfMenge[i] > Integer.MAX_VALUE) {
+                    bedarfMenge[gleich] = Integer.MAX_VALUE;
+                } else {
+                    bedarfMenge[gleich] += bedarfMenge[i];
+                }
+            }
+            for (int i = bedarfAnfang[zeile]; i < anzahlBedarfe; i++) {
+                int ressource = bedarfRessource[i];
+                if (bedarfMenge[i] > this.ressourcen.getKapazitaet(ressource)) {
+                    throw new NetzplanException("Fehler bei der Ressourcenplanung: Der Vorgang "+tabelle.getNummer(zeile)+
+                                                " benötigt "+bedarfMenge[i]+" Einheiten der Ressource "+
+                                                this.ressourcen.getName(ressource)+", verfügbar sind nur "+
+                                                this.ressourcen.getKapazitaet(ressource)+"!");
+                }
+            }
+        }
+        bedarfAnfang[n] = anzahlBedarfe;
+
+        int [] frei = new int [anzahlRessourcen];
+        for (int ressource = 0; ressource < anzahlRessourcen; ressource++) {
+            frei[ressource] = this.ressourcen.getKapazitaet(ressource);
+        }
+        this.spitze = new int [anzahlRessourcen];
+        this.arbeit = new long [anzahlRessourcen];
+        this.anfang = new int [n];
+
+        // Anzahl der noch nicht beendeten Vorgänger jedes Vorgangs
+        int [] offen = new int [n];
+        SchluesselHeap bereit = new SchluesselHeap(n);
+        for (int zeile = 0; zeile < n; zeile++) {
+            offen[zeile] = graph.getVorgaengerEnde(zeile) - graph.getVorgaengerAnfang(zeile);
+            if (offen[zeile] == 0) {
+                bereit.add(SchluesselHeap.schluessel(this.prioritaet(tabelle, zeile), zeile));
+            }
+        }
+        // zurückgestellte Vorgänge je Ressource und die Ressourcen, die zum aktuellen Zeitpunkt frei geworden sind
+        SchluesselHeap [] wartend = new SchluesselHeap [anzahlRessourcen];
+        boolean [] freigegeben = new boolean [anzahlRessourcen];
+        int [] freigegebeneRessourcen = new int [anzahlRessourcen];
+        int anzahlFreigegeben = 0;
+        // Vorgänge, die zum aktuellen Zeitpunkt nicht starten konnten, und die Ressource, an der sie scheitern
+        long [] zurueckgestellt = new long [16];
+        int [] zurueckgestelltBei = new int [16];
+        // Enden der laufenden Vorgänge
+        SchluesselHeap ereignisse = new SchluesselHeap(16);
+
+        long zeit = 0;
+        int beendet = 0;
+        while (true) {
+            // betrachte die einplanbaren Vorgänge der Reihe nach: neu einplanbare und die bei frei gewordenen
+            // Ressourcen zurückgestellten, solange diese Ressourcen noch Kapazität haben
+            int anzahlZurueckgestellt = 0;
+            while (true) {
+                SchluesselHeap quelle = bereit.istLeer() ? null : bereit;
+                for (int i = 0; i < anzahlFreigegeben; i++) {
+                    int ressource = freigegebeneRessourcen[i];
+                    SchluesselHeap kandidaten = wartend[ressource];
+                    if (frei[ressource] > 0 && !kandidaten.istLeer() &&
+                        (quelle == null || kandidaten.getMinimum() < quelle.getMinimum())) {
+                        quelle = kandidaten;
+                    }
+                }
+                if (quelle == null) {
+                    break;
+                }
+                long schluessel = quelle.entferneMinimum();
+                int zeile = SchluesselHeap.zeile(schluessel);
+
+                int knapp = -1;
+                for (int i = bedarfAnfang[zeile]; i < bedarfAnfang[zeile + 1]; i++) {
+                    if (bedarfMenge[i] > frei[bedarfRessource[i]]) {
+                        knapp = bedarfRessource[i];
+                        break;
+                    }
+                }
+                if (knapp != -1) {
+                    if (anzahlZurueckgestellt == zurueckgestellt.length) {
+                        zurueckgestellt = Arrays.copyOf(zurueckgestellt, 2 * anzahlZurueckgestellt);
+                        zurueckgestelltBei = Arrays.copyOf(zurueckgestelltBei, 2 * anzahlZurueckgestellt);
+                    }
+                    zurueckgestellt[anzahlZurueckgestellt] = schluessel;
+                    zurueckgestelltBei[anzahlZurueckgestellt++] = knapp;
+                    continue;
+                }
+
+                // starte den Vorgang
+                long ende = zeit + tabelle.getDauer(zeile);
+                if (ende > Integer.MAX_VALUE) {
+                    throw new NetzplanException("Fehler bei der Ressourcenplanung: Die Projektdauer ist zu groß!");
+                }
+                this.anfang[zeile] = (int) zeit;
+                for (int i = bedarfAnfang[zeile]; i < bedarfAnfang[zeile + 1]; i++) {
+                    int ressource = bedarfRessource[i];
+                    frei[ressource] -= bedarfMenge[i];
+                    this.spitze[ressource] = Math.max(this.spitze[ressource], this.ressourcen.getKapazitaet(ressource) - frei[ressource]);
+                    this.arbeit[ressource] += (long) bedarfMenge[i] * tabelle.getDauer(zeile);
+                }
+                ereignisse.add(SchluesselHeap.schluessel(ende, zeile));
+            }
+            for (int i = 0; i < anzahlZurueckgestellt; i++) {
+                if (wartend[zurueckgestelltBei[i]] == null) {
+                    wartend[zurueckgestelltBei[i]] = new SchluesselHeap(16);
+                }
+                wartend[zurueckgestelltBei[i]].add(zurueckgestellt[i]);
+            }
+            for (int i = 0; i < anzahlFreigegeben; i++) {
+                freigegeben[freigegebeneRessourcen[i]] = false;
+            }
+            anzahlFreigegeben = 0;
+
+            if (ereignisse.istLeer()) {
+                break;
+            }
+
+            // der nächste Zeitpunkt: beende alle Vorgänge, die dann enden
+            zeit = SchluesselHeap.wert(ereignisse.getMinimum());
+            this.projektdauer = (int) zeit;
+            while (!ereignisse.istLeer() && SchluesselHeap.wert(ereignisse.getMinimum()) == zeit) {
+                int zeile = SchluesselHeap.zeile(ereignisse.entferneMinimum());
+                beendet++;
+                for (int i = bedarfAnfang[zeile]; i < bedarfAnfang[zeile + 1]; i++) {
+                    int ressource = bedarfRessource[i];
+                    frei[ressource] += bedarfMenge[i];
+                    if (!freigegeben[ressource] && wartend[ressource] != null) {
+                        freigegeben[ressource] = true;
+                        freigegebeneRessourcen[anzahlFreigegeben++] = ressource;
+                    }
+                }
+                for (int i = graph.getNachfolgerAnfang(zeile); i < graph.getNachfolgerEnde(zeile); i++) {
+                    int nachfolger = graph.getNachfolger(i);
+                    if (--offen[nachfolger] == 0) {
+                        bereit.add(SchluesselHeap.schluessel(this.prioritaet(tabelle, nachfolger), nachfolger));
+                    }
+                }
+            }
+        }
+
+        // da jeder Bedarf höchstens der Kapazität entspricht, kann jeder Vorgang irgendwann starten
+        if (beendet != n) {
+            throw new IllegalStateException("Nicht alle Vorgänge wurden eingeplant!");
+        }
+    }
+
+    private int prioritaet(VorgangTabelle tabelle, int zeile) {
+        switch (this.regel) {
+            case SPAETESTES_ENDE:
+                return tabelle.getSEZ(zeile);
+            case GESAMTPUFFER:
+                return tabelle.getGP(zeile);
+            default:
+                return tabelle.getSAZ(zeile);
+        }
+    }
+
+    public Netzplan getNetzplan() {
+        return this.netzplan;
+    }
+
+    public Ressourcen getRessourcen() {
+        return this.ressourcen;
+    }
+
+    public Prioritaetsregel getRegel() {
+        return this.regel;
+    }
+
+    public int getAnfang(int zeile) {
+        return this.anfang[zeile];
+    }
+
+    public int getEnde(int zeile) {
+        return this.anfang[zeile] + this.netzplan.getTabelle().getDauer(zeile);
+    }
+
+    /**
+     * Die Projektdauer unter Berücksichtigung der Ressourcen (das späteste Ende aller Vorgänge).
+     */
+    public int getProjektdauer() {
+        return this.projektdauer;
+    }
+
+    /**
+     * Die Projektdauer ohne Ressourcen (die größte FEZ), anders als Netzplan.getDauer() auch bei
+     * mehreren Endvorgängen mit unterschiedlichem Ende.
+     */
+    public int getProjektdauerOhneRessourcen() {
+        VorgangTabelle tabelle = this.netzplan.getTabelle();
+        int dauer = 0;
+        for (int ende: this.netzplan.getEndKnoten()) {
+            dauer = Math.max(dauer, tabelle.getFEZ(ende));
+        }
+        return dauer;
+    }
+
+    /**
+     * Die Anzahl der Vorgänge, die später als zu ihrem FAZ beginnen.
+     */
+    public int getAnzahlVerschoben() {
+        VorgangTabelle tabelle = this.netzplan.getTabelle();
+        int anzahl = 0;
+        for (int zeile = 0; zeile < tabelle.getAnzahl(); zeile++) {
+            if (this.anfang[zeile] > tabelle.getFAZ(zeile)) {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
+
+    /**
+     * Die größte gleichzeitige Belegung der Ressource.
+     */
+    public int getSpitze(int ressource) {
+        return this.spitze[ressource];
+    }
+
+    /**
+     * Die mittlere Auslastung der Ressource über die Projektdauer (0 bis 1).
+     */
+    public double getAuslastung(int ressource) {
+        long verfuegbar = (long) this.ressourcen.getKapazitaet(ressource) * this.projektdauer;
+        return verfuegbar == 0 ? 0 : (double) this.arbeit[ressource] / verfuegbar;
+    }
+
+    /**
+     * Die Laufzeit der Planung in Nanosekunden.
+     */
+    public long getLaufzeit() {
+        return this.laufzeit;
+    }
+
+    @Override
+    public String toString() {
+        return "Projektdauer ohne Ressourcen: "+this.getProjektdauerOhneRessourcen()+", mit Ressourcen: "+this.projektdauer+
+               " (Regel "+this.regel+", "+this.getAnzahlVerschoben()+" Vorgänge verschoben, berechnet in "+
+               String.format(Locale.ROOT, "%.1f", this.laufzeit / 1e6)+" ms)";
+    }
+}
@@ -0,0 +1,85 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+
+/**
+ * Binärer Min-Heap auf einem long-Feld. Die Schlüssel enthalten üblicherweise einen Wert in den oberen
+ * und eine Zeile in den unteren Bits (siehe schluessel), gleiche Werte werden so nach Zeile geordnet.
+ */
+class SchluesselHeap {
+    private long [] schluessel;
+    private int groesse;
+
+    SchluesselHeap(int kapazitaet) {
+        this.schluessel = new long [Math.max(1, kapazitaet)];
+    }
+
+    /**
+     * Bildet einen Schlüssel aus einem beliebigen int-Wert und einer Zeile, geordnet zuerst nach Wert.
+     */
+    static long schluessel(long wert, int zeile) {
+        return ((wert - Integer.MIN_VALUE) << 31) | zeile;
+    }
+
+    static int zeile(long schluessel) {
+        return (int) (schluessel & Integer.MAX_VALUE);
+    }
+
+    static long wert(long schluessel) {
+        return (schluessel >>> 31) + Integer.MIN_VALUE;
+    }
+
+    void add(long neuerSchluessel) {
+        if (this.groesse == this.schluessel.length) {
+            this.schluessel = Arrays.copyOf(this.schluessel, 2 * this.groesse);
+        }
+        // lasse den neuen Schlüssel aufsteigen
+        int position = this.groesse++;
+        while (position > 0) {
+            int elter = (position - 1) / 2;
+            if (this.schluessel[elter] <= neuerSchluessel) {
+                break;
+            }
+            this.schluessel[position] = this.schluessel[elter];
+            position = elter;
+        }
+        this.schluessel[position] = neuerSchluessel;
+    }
+
+    long getMinimum() {
+        return this.schluessel[0];
+    }
+
+    long entferneMinimum() {
+        long minimum = this.schluessel[0];
+        long letzter = this.schluessel[--this.groesse];
+        // lasse den letzten Schlüssel von der Wurzel aus absinken
+        int position = 0;
+        while (true) {
+            int kind = 2 * position + 1;
+            if (kind >= this.groesse) {
+                break;
+            }
+            if (kind + 1 < this.groesse && this.schluessel[kind + 1] < this.schluessel[kind]) {
+                kind++;
+            }
+            if (letzter <= this.schluessel[kind]) {
+                break;
+            }
+            this.schluessel[position] = this.schluessel[kind];
+            position = kind;
+        }
+        if (this.groesse > 0) {
+            this.schluessel[position] = letzter;
+        }
+        return minimum;
+    }
+
+    boolean istLeer() {
+        return this.groesse == 0;
+    }
+
+    int getGroesse() {
+        return this.groesse;
+    }
+}
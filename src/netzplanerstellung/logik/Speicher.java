@@ -0,0 +1,48 @@
+package netzplanerstellung.logik;
+
+/**
+ * Legt die Felder und Adjazenzen an, über die die Phasen des Netzplans rechnen: HEAP auf dem Heap für den
+ * Netzplan, ein Speicher in Dateien für den AusgelagertenNetzplan. So existiert jede Phase nur einmal.
+ */
+abstract class Speicher<G extends Adjazenzen> {
+    static final Speicher<Graph> HEAP = new Heap();
+
+    abstract Feld neuesIntFeld(int laenge);
+
+    abstract Feld neuesLongFeld(int laenge);
+
+    /**
+     * Erzeugt den Graphen aus den Vorwärtskanten (siehe Graph), beide Felder wurden von diesem Speicher angelegt.
+     */
+    abstract G neuerGraph(int anzahlKnoten, Feld nachfolgerStart, Feld nachfolger);
+
+    /**
+     * Anfangsgröße eines Feldes auf dem Heap, das höchstens laenge Einträge aufnimmt und bei Bedarf
+     * verdoppelt wird (z.B. der aktuelle kritische Pfad). Nur HEAP legt es sofort vollständig an.
+     */
+    int anfangsGroesse(int laenge) {
+        return Math.min(laenge, 16);
+    }
+
+    private static class Heap extends Speicher<Graph> {
+        @Override
+        Feld neuesIntFeld(int laenge) {
+            return new HeapFeld(new int [laenge]);
+        }
+
+        @Override
+        Feld neuesLongFeld(int laenge) {
+            return new HeapFeld(new long [laenge]);
+        }
+
+        @Override
+        Graph neuerGraph(int anzahlKnoten, Feld nachfolgerStart, Feld nachfolger) {
+            return new Graph(anzahlKnoten, ((HeapFeld) nachfolgerStart).getInts(), ((HeapFeld) nachfolger).getInts());
+        }
+
+        @Override
+        int anfangsGroesse(int laenge) {
+            return laenge;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package netzplanerstellung.logik;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Vorwärts- und Rückwärtsrechnung stufenweise (Wellenfront) mit mehreren Threads.
+ *
+ * Die Stufe eines Vorgangs ist die Länge des längsten Weges von einem Startvorgang zu ihm (in Kanten),
+ * alle Vorgänger liegen also in niedrigeren, alle Nachfolger in höheren Stufen. Die Vorgänge einer Stufe
+ * hängen daher nicht voneinander ab und werden gemeinsam berechnet: vorwärts Stufe für Stufe aufsteigend,
+ * rückwärts absteigend. Jeder Vorgang wird genau einmal und mit denselben Werten wie in
+ * Netzplan.vorwaertsRechnung bzw. rueckwaertsRechnung berechnet, die Ergebnisse sind identisch.
+ *
+ * Stufen mit mindestens MIN_BREITE Vorgängen werden in Blöcke zerlegt und in einem eigenen ForkJoinPool
+ * berechnet (nicht im gemeinsamen Pool der JVM), schmalere Stufen sequentiell im aufrufenden Thread (dort
+ * überwiegt der Aufwand der Synchronisation). Der Pool wird mit setAnzahlThreads in der angegebenen Größe
+ * eingerichtet (in Main über -Dnetzplanerstellung.stufen=N), ohne ihn rechnet der Netzplan wie bisher
+ * sequentiell. Er wird erst beendet, wenn setAnzahlThreads ihn ersetzt oder abschaltet, ansonsten läuft
+ * er bis zum Ende der JVM (seine Threads sind Daemon-Threads und verhindern das Beenden nicht).
+ */
+public final class StufenRechnung {
+    // Stufen mit weniger Vorgängen werden sequentiell gerechnet
+    static final int MIN_BREITE = 4096;
+    // kleinste Anzahl an Vorgängen je Block
+    private static final int MIN_BLOCK = 1024;
+
+    private static ForkJoinPool pool;
+
+    private Graph graph;
+    // die Knoten aufsteigend nach Stufe, innerhalb einer Stufe in topologischer Reihenfolge
+    private int [] knoten;
+    // die Knoten der Stufe s stehen an den Positionen stufenAnfang[s] bis stufenAnfang[s+1]-1
+    private int [] stufenAnfang;
+    private int breitesteStufe;
+
+    /**
+     * Teilt die Knoten des Graphen in Stufen ein, ordnung muss eine topologische Ordnung aller Knoten sein.
+     */
+    StufenRechnung(Graph graph, int [] ordnung) {
+        this.graph = graph;
+        int n = ordnung.length;
+
+        // die Stufe jedes Knotens, in topologischer Reihenfolge sind die Stufen aller Vorgänger bereits bekannt
+        int [] stufe = new int [n];
+        int anzahlStufen = 0;
+        for (int aktKnoten: ordnung) {
+            int aktStufe = 0;
+            for (int i = graph.getVorgaengerAnfang(aktKnoten); i < graph.getVorgaengerEnde(aktKnoten); i++) {
+                aktStufe = Math.max(aktStufe, stufe[graph.getVorgaenger(i)] + 1);
+            }
+            stufe[aktKnoten] = aktStufe;
+            anzahlStufen = Math.max(anzahlStufen, aktStufe + 1);
+        }
+
+        // sortiere die Knoten nach Stufe (Counting Sort, stabil bezüglich der topologischen Ordnung)
+        this.stufenAnfang = new int [anzahlStufen + 1];
+        for (int aktKnoten = 0; aktKnoten < n; aktKnoten++) {
+            this.stufenAnfang[stufe[aktKnoten] + 1]++;
+        }
+        for (int s = 0; s < anzahlStufen; s++) {
+            this.breitesteStufe = Math.max(this.breitesteStufe, this.stufenAnfang[s + 1]);
+            this.stufenAnfang[s + 1] += this.stufenAnfang[s];
+        }
+        int [] position = new int [anzahlStufen];
+        System.arraycopy(this.stufenAnfang, 0, position, 0, anzahlStufen);
+        this.knoten = new int [n];
+        for (int aktKnoten: ordnung) {
+            this.knoten[position[stufe[aktKnoten]]++] = aktKnoten;
+        }
+    }
+
+    /**
+     * Richtet den Pool für die stufenweise Rechnung mit anzahlThreads Threads ein, mit 1 (oder weniger)
+     * wird sie abgeschaltet. Ein bisheriger Pool wird beendet, sobald seine laufenden Aufgaben fertig sind.
+     */
+    public static synchronized void setAnzahlThreads(int anzahlThreads) {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = anzahlThreads > 1 ? new ForkJoinPool(anzahlThreads) : null;
+    }
+
+    public static synchronized int getAnzahlThreads() {
+        return pool != null ? pool.getParallelism() : 1;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Liefert die Stufen des Graphen, sofern die stufenweise Rechnung eingerichtet ist und mindestens
+     * eine Stufe breit genug für die Verteilung auf mehrere Threads ist, sonst null (dann wird sequentiell
+     * gerechnet).
+     */
+    static StufenRechnung fuer(Graph graph, int [] ordnung) {
+        if (getPool() == null || ordnung.length < MIN_BREITE) {
+            return null;
+        }
+        StufenRechnung stufen = new StufenRechnung(graph, ordnung);
+        return stufen.breitesteStufe >= MIN_BREITE ? stufen : null;
+    }
+
+    public int getAnzahlStufen() {
+        return this.stufenAnfang.length - 1;
+    }
+
+    public int getBreitesteStufe() {
+        return this.breitesteStufe;
+    }
+
+    /**
+     * Phase 1 wie Netzplan.vorwaertsRechnung, Stufe für Stufe aufsteigend.
+     */
+    void vorwaertsRechnung(int [] dauer, int [] faz, int [] fez) {
+        ForkJoinPool aktPool = getPool();
+        for (int s = 0; s < this.getAnzahlStufen(); s++) {
+            int anfang = this.stufenAnfang[s];
+            int ende = this.stufenAnfang[s + 1];
+            if (aktPool == null || ende - anfang < MIN_BREITE) {
+                this.vorwaerts(anfang, ende, dauer, faz, fez);
+            } else {
+                aktPool.invoke(new Block(this, true, anfang, ende, blockGroesse(aktPool, ende - anfang),
+                                         dauer, faz, fez, null, null));
+            }
+        }
+    }
+
+    /**
+     * Phase 2 wie Netzplan.rueckwaertsRechnung, Stufe für Stufe absteigend.
+     */
+    void rueckwaertsRechnung(int [] dauer, int [] fez, int [] saz, int [] sez) {
+        ForkJoinPool aktPool = getPool();
+        for (int s = this.getAnzahlStufen() - 1; s >= 0; s--) {
+            int anfang = this.stufenAnfang[s];
+            int ende = this.stufenAnfang[s + 1];
+            if (aktPool == null || ende - anfang < MIN_BREITE) {
+                this.rueckwaerts(anfang, ende, dauer, fez, saz, sez);
+            } else {
+                aktPool.invoke(new Block(this, false, anfang, ende, blockGroesse(aktPool, ende - anfang),
+                                         dauer, null, fez, saz, sez));
+            }
+        }
+    }
+
+    /**
+     * Etwa vier Blöcke je Thread, damit ungleich teure Blöcke (unterschiedlicher Grad) ausgeglichen werden.
+     */
+    private static int blockGroesse(ForkJoinPool aktPool, int breite) {
+        return Math.max(MIN_BLOCK, breite / (4 * aktPool.getParallelism()));
+    }
+
+    private void vorwaerts(int anfang, int ende, int [] dauer, int [] faz, int [] fez) {
+        for (int position = anfang; position < ende; position++) {
+            int aktKnoten = this.knoten[position];
+            int maxFEZ = 0;
+            for (int i = this.graph.getVorgaengerAnfang(aktKnoten); i < this.graph.getVorgaengerEnde(aktKnoten); i++) {
+                int vorgaengerFEZ = fez[this.graph.getVorgaenger(i)];
+                if (vorgaengerFEZ > maxFEZ) {
+                    maxFEZ = vorgaengerFEZ;
+                }
+            }
+            faz[aktKnoten] = maxFEZ;
+            fez[aktKnoten] = maxFEZ + dauer[aktKnoten];
+        }
+    }
+
+    private void rueckwaerts(int anfang, int ende, int [] dauer, int [] fez, int [] saz, int [] sez) {
+        for (int position = anfang; position < ende; position++) {
+            int aktKnoten = this.knoten[position];
+            int minSAZ;
+            if (this.graph.getNachfolgerAnfang(aktKnoten) == this.graph.getNachfolgerEnde(aktKnoten)) {
+                minSAZ = fez[aktKnoten];
+            } else {
+                minSAZ = Integer.MAX_VALUE;
+                for (int i = this.graph.getNachfolgerAnfang(aktKnoten); i < this.graph.getNachfolgerEnde(aktKnoten); i++) {
+                    int nachfolgerSAZ = saz[this.graph.getNachfolger(i)];
+                    if (nachfolgerSAZ < minSAZ) {
+                        minSAZ = nachfolgerSAZ;
+                    }
+                }
+            }
+            sez[aktKnoten] = minSAZ;
+            saz[aktKnoten] = minSAZ - dauer[aktKnoten];
+        }
+    }
+
+    /**
+     * Ein Abschnitt einer Stufe, er wird halbiert, bis er höchstens blockGroesse Knoten umfasst.
+     * Die Blöcke schreiben nur die Werte ihrer eigenen Knoten, gelesen werden nur Werte anderer Stufen.
+     */
+    private static final class Block extends RecursiveAction {
+        private final StufenRechnung stufen;
+        private final boolean vorwaerts;
+        private final int anfang;
+        private final int ende;
+        private final int blockGroesse;
+        private final int [] dauer;
+        private final int [] faz;
+        private final int [] fez;
+        private final int [] saz;
+        private final int [] sez;
+
+        Block(StufenRechnung stufen, boolean vorwaerts, int anfang, int ende, int blockGroesse,
+              int [] dauer, int [] faz, int [] fez, int [] saz, int [] sez) {
+            this.stufen = stufen;
+            this.vorwaerts = vorwaerts;
+            this.anfang = anfang;
+            this.ende = ende;
+            this.blockGroesse = blockGroesse;
+            this.dauer = dauer;
+            this.faz = faz;
+            this.fez = fez;
+            this.saz = saz;
+            this.sez = sez;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.ende - this.anfang <= this.blockGroesse) {
+                if (this.vorwaerts) {
+                    this.stufen.vorwaerts(this.anfang, this.ende, this.dauer, this.faz, this.fez);
+                } else {
+                    this.stufen.rueckwaerts(this.anfang, this.ende, this.dauer, this.fez, this.saz, this.sez);
+                }
+                return;
+            }
+            int mitte = (this.anfang + this.ende) >>> 1;
+            invokeAll(this.teil(this.anfang, mitte), this.teil(mitte, this.ende));
+        }
+
+        private Block teil(int teilAnfang, int teilEnde) {
+            return new Block(this.stufen, this.vorwaerts, teilAnfang, teilEnde, this.blockGroesse,
+                             this.dauer, this.faz, this.fez, this.saz, this.sez);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package netzplanerstellung.logik;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Berechnung von Szenarien (Was-wäre-wenn) auf der eingefrorenen Topologie eines Netzplans.
+ *
+ * Ein Szenario besteht nur aus einer Dauer je Vorgang (nach Zeile der Tabelle), Abhängigkeiten, Start- und
+ * Endvorgänge sowie die topologische Ordnung werden beim Anlegen einmal übernommen und nicht erneut geprüft.
+ * Für jedes Szenario werden FAZ, FEZ, SAZ, SEZ, GP und FP genau wie im Netzplan berechnet (SEZ=FEZ für
+ * jeden Endvorgang), der Netzplan selbst bleibt unverändert.
+ *
+ * Die Szenarien werden einzeln auf die Threads verteilt. Jeder Thread rechnet auf eigenen Hilfsfeldern, die
+ * Zeitwerte eines Szenarios sind nur während des Besuchs gültig (siehe Besucher). Für jedes Szenario wird
+ * eine Zusammenfassung (Gesamtdauer, kritische Vorgänge, Abweichungen vom Netzplan) gespeichert.
+ */
+public class SzenarioRechnung {
+    /**
+     * Erhält die Zeitwerte jedes Szenarios, bei mehreren Threads gleichzeitig aus verschiedenen Threads.
+     */
+    public interface Besucher {
+        void besuche(int szenario, Zeitwerte werte);
+    }
+
+    private int n;
+
+    // die Felder der eingefrorenen Topologie (siehe Topologie), für die Schleifen direkt übernommen
+    private int [] zeileAnPosition;
+    private int [] positionVonZeile;
+    private int [] vorgaengerAnfang;
+    private int [] vorgaenger;
+    private int [] nachfolgerAnfang;
+    private int [] nachfolger;
+    private int [] endPositionen;
+
+    // die Zeitwerte des Netzplans nach Position, zum Vergleich
+    private int [] basisFAZ;
+    private int [] basisDauer;
+
+    public SzenarioRechnung(Netzplan netzplan) {
+        // als Vergleich genügen die FAZ
+        VorgangTabelle tabelle = netzplan.getTabelle(Netzplan.Auswertung.VORWAERTS);
+        Topologie topologie = netzplan.getTopologie();
+        this.n = topologie.getAnzahl();
+        this.zeileAnPosition = topologie.getZeileAnPosition();
+        this.positionVonZeile = topologie.getPositionVonZeile();
+        this.vorgaengerAnfang = topologie.getVorgaengerAnfang();
+        this.vorgaenger = topologie.getVorgaenger();
+        this.nachfolgerAnfang = topologie.getNachfolgerAnfang();
+        this.nachfolger = topologie.getNachfolger();
+        this.endPositionen = topologie.getEndPositionen();
+
+        this.basisFAZ = new int [this.n];
+        this.basisDauer = new int [this.n];
+        for (int p = 0; p < this.n; p++) {
+            this.basisFAZ[p] = tabelle.getFAZ(this.zeileAnPosition[p]);
+            this.basisDauer[p] = tabelle.getDauer(this.zeileAnPosition[p]);
+        }
+    }
+
+    public int getAnzahlVorgaenge() {
+        return this.n;
+    }
+
+    /**
+     * Liefert die Dauern des Netzplans (nach Zeile), als Ausgangspunkt für eigene Szenarien.
+     */
+    public int [] getDauern() {
+        int [] dauer = new int [this.n];
+        for (int p = 0; p < this.n; p++) {
+            dauer[this.zeileAnPosition[p]] = this.basisDauer[p];
+        }
+        return dauer;
+    }
+
+    /**
+     * Berechnet alle Szenarien mit anzahlThreads Threads. Jedes Szenario enthält eine Dauer > 0 je Zeile
+     * der Tabelle. Der Besucher darf null sein, dann wird nur die Zusammenfassung erstellt.
+     */
+    public Ergebnis rechne(int [][] dauern, int anzahlThreads, Besucher besucher) {
+        if (anzahlThreads < 1) {
+            throw new IllegalArgumentException("Ungültige Anzahl an Threads "+anzahlThreads);
+        }
+        for (int s = 0; s < dauern.length; s++) {
+            if (dauern[s].length != this.n) {
+                throw new IllegalArgumentException("Szenario "+s+" enthält "+dauern[s].length+" Dauern, erwarte "+this.n);
+            }
+            for (int zeile = 0; zeile < this.n; zeile++) {
+                if (dauern[s][zeile] <= 0) {
+                    throw new IllegalArgumentException("Szenario "+s+" enthält die Dauer "+dauern[s][zeile]+
+                                                       ", Dauern <= 0 sind nicht erlaubt!");
+                }
+            }
+        }
+
+        Ergebnis ergebnis = new Ergebnis(dauern.length, anzahlThreads);
+        AtomicInteger naechstesSzenario = new AtomicInteger();
+        long start = System.nanoTime();
+        if (anzahlThreads == 1) {
+            new Zeitwerte().rechne(dauern, naechstesSzenario, besucher, ergebnis);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(anzahlThreads);
+            try {
+                List<Future<?>> aufgaben = new ArrayList<>();
+                for (int i = 0; i < anzahlThreads; i++) {
+                    Zeitwerte werte = new Zeitwerte();
+                    aufgaben.add(pool.submit(() -> werte.rechne(dauern, naechstesSzenario, besucher, ergebnis)));
+                }
+                for (Future<?> aufgabe: aufgaben) {
+                    aufgabe.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Die Berechnung der Szenarien wurde unterbrochen!", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    // z.B. aus dem Besucher
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Fehler bei der Berechnung der Szenarien: "+e.getCause(), e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        ergebnis.laufzeit = System.nanoTime() - start;
+        return ergebnis;
+    }
+
+    /**
+     * Die Zeitwerte des gerade berechneten Szenarios, gleichzeitig die Hilfsfelder eines Threads.
+     * Die Werte werden beim nächsten Szenario desselben Threads überschrieben.
+     */
+    public final class Zeitwerte {
+        private int [] dauer = new int [n];
+        private int [] faz = new int [n];
+        private int [] fez = new int [n];
+        private int [] saz = new int [n];
+        private int [] sez = new int [n];
+        private int [] fp = new int [n];
+
+        private Zeitwerte() {
+        }
+
+        public int getDauer(int zeile) {
+            return this.dauer[positionVonZeile[zeile]];
+        }
+
+        public int getFAZ(int zeile) {
+            return this.faz[positionVonZeile[zeile]];
+        }
+
+        public int getFEZ(int zeile) {
+            return this.fez[positionVonZeile[zeile]];
+        }
+
+        public int getSAZ(int zeile) {
+            return this.saz[positionVonZeile[zeile]];
+        }
+
+        public int getSEZ(int zeile) {
+            return this.sez[positionVonZeile[zeile]];
+        }
+
+        public int getGP(int zeile) {
+            int p = positionVonZeile[zeile];
+            return this.saz[p] - this.faz[p];
+        }
+
+        public int getFP(int zeile) {
+            return this.fp[positionVonZeile[zeile]];
+        }
+
+        public boolean istKritisch(int zeile) {
+            int p = positionVonZeile[zeile];
+            return this.saz[p] == this.faz[p] && this.fp[p] == 0;
+        }
+
+        private void rechne(int [][] dauern, AtomicInteger naechstesSzenario, Besucher besucher, Ergebnis ergebnis) {
+            int szenario;
+            while ((szenario = naechstesSzenario.getAndIncrement()) < dauern.length) {
+                int [] szenarioDauer = dauern[szenario];
+                for (int p = 0; p < n; p++) {
+                    this.dauer[p] = szenarioDauer[zeileAnPosition[p]];
+                }
+                this.rechne();
+                this.fasseZusammen(szenario, ergebnis);
+                if (besucher != null) {
+                    besucher.besuche(szenario, this);
+                }
+            }
+        }
+
+        /**
+         * Vorwärts- und Rückwärtsrechnung sowie Zeitreserven wie im Netzplan, jedoch nach Position.
+         */
+        private void rechne() {
+            int [] dauer = this.dauer;
+            int [] faz = this.faz;
+            int [] fez = this.fez;
+            int [] saz = this.saz;
+            int [] sez = this.sez;
+            for (int p = 0; p < n; p++) {
+                int maxFEZ = 0;
+                for (int i = vorgaengerAnfang[p]; i < vorgaengerAnfang[p + 1]; i++) {
+                    if (fez[vorgaenger[i]] > maxFEZ) {
+                        maxFEZ = fez[vorgaenger[i]];
+                    }
+                }
+                faz[p] = maxFEZ;
+                fez[p] = maxFEZ + dauer[p];
+            }
+            for (int p = n - 1; p >= 0; p--) {
+                int anfang = nachfolgerAnfang[p];
+                int ende = nachfolgerAnfang[p + 1];
+                if (anfang == ende) {
+                    // bei Endknoten gilt SEZ=FEZ und FP=0
+                    sez[p] = fez[p];
+                    this.fp[p] = 0;
+                } else {
+                    int minSAZ = Integer.MAX_VALUE;
+                    int minFAZ = Integer.MAX_VALUE;
+                    for (int i = anfang; i < ende; i++) {
+                        int aktNachfolger = nachfolger[i];
+                        if (saz[aktNachfolger] < minSAZ) {
+                            minSAZ = saz[aktNachfolger];
+                        }
+                        if (faz[aktNachfolger] < minFAZ) {
+                            minFAZ = faz[aktNachfolger];
+                        }
+                    }
+                    sez[p] = minSAZ;
+                    this.fp[p] = minFAZ - fez[p];
+                }
+                saz[p] = sez[p] - dauer[p];
+            }
+        }
+
+        private void fasseZusammen(int szenario, Ergebnis ergebnis) {
+            int projektende = 0;
+            boolean eindeutig = true;
+            for (int p: endPositionen) {
+                if (this.fez[p] != this.fez[endPositionen[0]]) {
+                    eindeutig = false;
+                }
+                projektende = Math.max(projektende, this.fez[p]);
+            }
+            int kritisch = 0;
+            int verschoben = 0;
+            int geaendert = 0;
+            for (int p = 0; p < n; p++) {
+                if (this.saz[p] == this.faz[p] && this.fp[p] == 0) {
+                    kritisch++;
+                }
+                if (this.faz[p] != basisFAZ[p]) {
+                    verschoben++;
+                }
+                if (this.dauer[p] != basisDauer[p]) {
+                    geaendert++;
+                }
+            }
+            // jedes Szenario wird von genau einem Thread geschrieben
+            ergebnis.projektende[szenario] = projektende;
+            ergebnis.eindeutig[szenario] = eindeutig;
+            ergebnis.kritisch[szenario] = kritisch;
+            ergebnis.verschoben[szenario] = verschoben;
+            ergebnis.geaendert[szenario] = geaendert;
+        }
+    }
+
+    /**
+     * Die Zusammenfassung aller Szenarien einer Berechnung.
+     */
+    public static class Ergebnis {
+        private int anzahlThreads;
+        private long laufzeit;
+        private int [] projektende;
+        private boolean [] eindeutig;
+        private int [] kritisch;
+        private int [] verschoben;
+        private int [] geaendert;
+
+        private Ergebnis(int anzahlSzenarien, int anzahlThreads) {
+            this.anzahlThreads = anzahlThreads;
+            this.projektende = new int [anzahlSzenarien];
+            this.eindeutig = new boolean [anzahlSzenarien];
+            this.kritisch = new int [anzahlSzenarien];
+            this.verschoben = new int [anzahlSzenarien];
+            this.geaendert = new int [anzahlSzenarien];
+        }
+
+        public int getAnzahlSzenarien() {
+            return this.projektende.length;
+        }
+
+        public int getAnzahlThreads() {
+            return this.anzahlThreads;
+        }
+
+        /**
+         * Laufzeit der Berechnung in Nanosekunden (ohne das Anlegen der SzenarioRechnung).
+         */
+        public long getLaufzeit() {
+            return this.laufzeit;
+        }
+
+        public double getSzenarienJeSekunde() {
+            return this.laufzeit > 0 ? this.getAnzahlSzenarien() * 1e9 / this.laufzeit : 0;
+        }
+
+        /**
+         * Die Gesamtdauer wie Netzplan.getDauer: -1, wenn die Endvorgänge unterschiedliche FEZ haben.
+         */
+        public int getDauer(int szenario) {
+            return this.eindeutig[szenario] ? this.projektende[szenario] : -1;
+        }
+
+        /**
+         * Die größte FEZ aller Endvorgänge (auch wenn die Gesamtdauer nicht eindeutig ist).
+         */
+        public int getProjektende(int szenario) {
+            return this.projektende[szenario];
+        }
+
+        public int getAnzahlKritisch(int szenario) {
+            return this.kritisch[szenario];
+        }
+
+        /**
+         * Anzahl der Vorgänge, deren FAZ von dem im Netzplan abweicht.
+         */
+        public int getAnzahlVerschoben(int szenario) {
+            return this.verschoben[szenario];
+        }
+
+        /**
+         * Anzahl der Vorgänge, deren Dauer von der im Netzplan abweicht.
+         */
+        public int getAnzahlGeaendert(int szenario) {
+            return this.geaendert[szenario];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d Szenarien mit %d Threads in %.1f ms (%.0f Szenarien/s)",
+                                 this.getAnzahlSzenarien(), this.anzahlThreads, this.laufzeit / 1e6,
+                                 this.getSzenarienJeSekunde());
+        }
+    }
+}
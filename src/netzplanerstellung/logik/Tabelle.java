@@ -0,0 +1,52 @@
+package netzplanerstellung.logik;
+
+/**
+ * Lesender Zugriff auf die Vorgänge eines Netzplans, gemeinsam für VorgangTabelle (Heap) und
+ * AusgelagerteTabelle (Dateien). Über diese Schnittstelle prüft der Netzplan die Angaben und
+ * schreibt der ProjektReport die Zeitwerte.
+ *
+ * Die Vorgänger (in externer Darstellung) einer Zeile stehen an den Positionen getVorgaengerAnfang
+ * bis getVorgaengerEnde-1, alle Positionen liegen unterhalb von getVorgaengerGrenze. Die Nachfolger analog.
+ */
+public interface Tabelle {
+    int getAnzahl();
+
+    /**
+     * Liefert die interne Nummer zur externen Nummer oder -1, falls diese nicht vorhanden ist.
+     */
+    int getZeile(int nummer);
+
+    int getNummer(int zeile);
+
+    String getBezeichnung(int zeile);
+
+    int getDauer(int zeile);
+
+    int getVorgaengerAnfang(int zeile);
+
+    int getVorgaengerEnde(int zeile);
+
+    int getVorgaengerGrenze();
+
+    int getVorgaenger(int position);
+
+    int getNachfolgerAnfang(int zeile);
+
+    int getNachfolgerEnde(int zeile);
+
+    int getNachfolger(int position);
+
+    int getFAZ(int zeile);
+
+    int getFEZ(int zeile);
+
+    int getSAZ(int zeile);
+
+    int getSEZ(int zeile);
+
+    int getGP(int zeile);
+
+    int getFP(int zeile);
+
+    boolean istKritisch(int zeile);
+}
@@ -0,0 +1,90 @@
+package netzplanerstellung.logik;
+
+/**
+ * Die eingefrorene Topologie eines geprüften Netzplans für wiederholte Rechnungen mit anderen Dauern
+ * (Simulation, Szenarien, Zeit-Kosten-Optimierung).
+ *
+ * Die Vorgänge werden nach ihrer Position in der topologischen Ordnung durchnummeriert, Vorgänger und
+ * Nachfolger liegen als Positionen hintereinander in je einem Feld (wie im Graph). Eine Vorwärtsrechnung
+ * durchläuft so die Positionen aufsteigend, eine Rückwärtsrechnung absteigend. Die Felder werden nur
+ * gelesen und von allen Threads gemeinsam verwendet, der Netzplan legt sie einmal an und verwirft sie erst
+ * bei einer Änderung der Abhängigkeiten.
+ */
+final class Topologie {
+    private int n;
+    private int [] zeileAnPosition;
+    private int [] positionVonZeile;
+    // die Vorgänger der Position p stehen in vorgaenger[vorgaengerAnfang[p]] bis vorgaenger[vorgaengerAnfang[p+1]-1]
+    private int [] vorgaengerAnfang;
+    private int [] vorgaenger;
+    private int [] nachfolgerAnfang;
+    private int [] nachfolger;
+    private int [] endPositionen;
+
+    Topologie(Graph graph, int [] ordnung, int [] endKnoten) {
+        this.n = ordnung.length;
+        this.zeileAnPosition = ordnung.clone();
+
+        this.positionVonZeile = new int [this.n];
+        for (int p = 0; p < this.n; p++) {
+            this.positionVonZeile[this.zeileAnPosition[p]] = p;
+        }
+        this.vorgaengerAnfang = new int [this.n + 1];
+        this.nachfolgerAnfang = new int [this.n + 1];
+        this.vorgaenger = new int [graph.getAnzahlKanten()];
+        this.nachfolger = new int [graph.getAnzahlKanten()];
+        int anzahlVorgaenger = 0;
+        int anzahlNachfolger = 0;
+        for (int p = 0; p < this.n; p++) {
+            int knoten = this.zeileAnPosition[p];
+            for (int i = graph.getVorgaengerAnfang(knoten); i < graph.getVorgaengerEnde(knoten); i++) {
+                this.vorgaenger[anzahlVorgaenger++] = this.positionVonZeile[graph.getVorgaenger(i)];
+            }
+            for (int i = graph.getNachfolgerAnfang(knoten); i < graph.getNachfolgerEnde(knoten); i++) {
+                this.nachfolger[anzahlNachfolger++] = this.positionVonZeile[graph.getNachfolger(i)];
+            }
+            this.vorgaengerAnfang[p + 1] = anzahlVorgaenger;
+            this.nachfolgerAnfang[p + 1] = anzahlNachfolger;
+        }
+
+        this.endPositionen = new int [endKnoten.length];
+        for (int i = 0; i < endKnoten.length; i++) {
+            this.endPositionen[i] = this.positionVonZeile[endKnoten[i]];
+        }
+    }
+
+    int getAnzahl() {
+        return this.n;
+    }
+
+    /**
+     * Die Zeilen in topologischer Reihenfolge (entspricht der topologischen Ordnung des Netzplans).
+     */
+    int [] getZeileAnPosition() {
+        return this.zeileAnPosition;
+    }
+
+    int [] getPositionVonZeile() {
+        return this.positionVonZeile;
+    }
+
+    int [] getVorgaengerAnfang() {
+        return this.vorgaengerAnfang;
+    }
+
+    int [] getVorgaenger() {
+        return this.vorgaenger;
+    }
+
+    int [] getNachfolgerAnfang() {
+        return this.nachfolgerAnfang;
+    }
+
+    int [] getNachfolger() {
+        return this.nachfolger;
+    }
+
+    int [] getEndPositionen() {
+        return this.endPositionen;
+    }
+}
@@ -1,119 +1,166 @@
 package netzplanerstellung.logik;
 
+import java.util.AbstractList;
 import java.util.List;
-import java.util.ArrayList;
 
 /**
  * Klasse zur Darstellung eines Vorgangs.
+ * Die Daten liegen in einer Zeile der VorgangTabelle, ein Vorgang ist lediglich eine Sicht auf diese Zeile.
  */
 public class Vorgang {
-    private int nummer;
-    private String bezeichnung;
-    private int dauer;
-    private List<Integer> vorgaenger;
-    private List<Integer> nachfolger;
-    private int faz;
-    private int fez;
-    private int saz;
-    private int sez;
-    private int gp;
-    private int fp;
+    private VorgangTabelle tabelle;
+    private int zeile;
 
+    /**
+     * Erzeugt einen einzelnen Vorgang, der in einer eigenen Tabelle gespeichert wird.
+     */
     public Vorgang(int nummer, String bezeichnung, int dauer) {
-        this.nummer = nummer;
-        this.bezeichnung = bezeichnung;
-        this.dauer = dauer;
-        this.vorgaenger = new ArrayList<>();
-        this.nachfolger = new ArrayList<>();
+        this.tabelle = new VorgangTabelle(1);
+        this.zeile = this.tabelle.neuerVorgang(nummer, bezeichnung, dauer);
     }
 
+    Vorgang(VorgangTabelle tabelle, int zeile) {
+        this.tabelle = tabelle;
+        this.zeile = zeile;
+    }
+
+    /**
+     * Nur für die zuletzt angelegte Zeile einer Tabelle möglich (insbesondere für einzeln erzeugte Vorgänge).
+     */
     public void addVorgaenger(int vorgaenger) {
-        this.vorgaenger.add(vorgaenger);
+        this.pruefeLetzteZeile();
+        this.tabelle.addVorgaenger(vorgaenger);
     }
 
+    /**
+     * Nur für die zuletzt angelegte Zeile einer Tabelle möglich (insbesondere für einzeln erzeugte Vorgänge).
+     */
     public void addNachfolger(int nachfolger) {
-        this.nachfolger.add(nachfolger);
+        this.pruefeLetzteZeile();
+        this.tabelle.addNachfolger(nachfolger);
+    }
+
+    private void pruefeLetzteZeile() {
+        if (this.zeile != this.tabelle.getAnzahl() - 1) {
+            throw new IllegalStateException("Vorgang "+this.getNummer()+" ist bereits vollständig eingetragen!");
+        }
     }
 
     public boolean istKritisch() {
-        return this.gp == 0 && this.fp == 0;
+        return this.tabelle.istKritisch(this.zeile);
     }
 
     public String toString() {
         StringBuilder res = new StringBuilder();
-        res.append(nummer+"; ");
-        res.append(bezeichnung+"; ");
-        res.append(dauer+"; ");
-        res.append(faz+"; ");
-        res.append(fez+"; ");
-        res.append(saz+"; ");
-        res.append(sez+"; ");
-        res.append(gp+"; ");
-        res.append(fp+"");
+        res.append(getNummer()+"; ");
+        res.append(getBezeichnung()+"; ");
+        res.append(getDauer()+"; ");
+        res.append(getFAZ()+"; ");
+        res.append(getFEZ()+"; ");
+        res.append(getSAZ()+"; ");
+        res.append(getSEZ()+"; ");
+        res.append(getGP()+"; ");
+        res.append(getFP()+"");
         return res.toString();
     }
 
+    VorgangTabelle getTabelle() {
+        return this.tabelle;
+    }
+
+    int getZeile() {
+        return this.zeile;
+    }
+
     public int getNummer() {
-        return this.nummer;
+        return this.tabelle.getNummer(this.zeile);
     }
 
-    public List<Integer> getNachfolger() {
-        return this.nachfolger;
+    public String getBezeichnung() {
+        return this.tabelle.getBezeichnung(this.zeile);
     }
 
+    /**
+     * Die Nachfolger in externer Darstellung (nur lesend).
+     */
+    public List<Integer> getNachfolger() {
+        final int anfang = this.tabelle.getNachfolgerAnfang(this.zeile);
+        final int ende = this.tabelle.getNachfolgerEnde(this.zeile);
+        return new AbstractList<Integer>() {
+            public Integer get(int i) {
+                return tabelle.getNachfolger(anfang + i);
+            }
+            public int size() {
+                return ende - anfang;
+            }
+        };
+    }
+
+    /**
+     * Die Vorgänger in externer Darstellung (nur lesend).
+     */
     public List<Integer> getVorgaenger() {
-        return this.vorgaenger;
+        final int anfang = this.tabelle.getVorgaengerAnfang(this.zeile);
+        final int ende = this.tabelle.getVorgaengerEnde(this.zeile);
+        return new AbstractList<Integer>() {
+            public Integer get(int i) {
+                return tabelle.getVorgaenger(anfang + i);
+            }
+            public int size() {
+                return ende - anfang;
+            }
+        };
     }
 
     public void setFEZ(int fez) {
-        this.fez = fez;
+        this.tabelle.setFEZ(this.zeile, fez);
     }
 
     public int getFEZ() {
-        return this.fez;
+        return this.tabelle.getFEZ(this.zeile);
     }
 
     public int getDauer() {
-        return this.dauer;
+        return this.tabelle.getDauer(this.zeile);
     }
 
     public int getFAZ() {
-        return this.faz;
+        return this.tabelle.getFAZ(this.zeile);
     }
 
     public void setFAZ(int faz) {
-        this.faz = faz;
+        this.tabelle.setFAZ(this.zeile, faz);
     }
 
     public void setSEZ(int sez) {
-        this.sez = sez;
+        this.tabelle.setSEZ(this.zeile, sez);
     }
-    
+
     public int getSEZ() {
-        return this.sez;
+        return this.tabelle.getSEZ(this.zeile);
     }
 
     public void setSAZ(int saz) {
-        this.saz = saz;
+        this.tabelle.setSAZ(this.zeile, saz);
     }
 
     public int getSAZ() {
-        return this.saz;
+        return this.tabelle.getSAZ(this.zeile);
     }
 
     public int getGP() {
-        return this.gp;
+        return this.tabelle.getGP(this.zeile);
     }
 
     public void setGP(int gp) {
-        this.gp = gp;
+        this.tabelle.setGP(this.zeile, gp);
     }
 
     public int getFP() {
-        return this.fp;
+        return this.tabelle.getFP(this.zeile);
     }
 
     public void setFP(int fp) {
-        this.fp = fp;
+        this.tabelle.setFP(this.zeile, fp);
     }
 }
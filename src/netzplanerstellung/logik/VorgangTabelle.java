@@ -0,0 +1,661 @@
+package netzplanerstellung.logik;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spaltenweise Speicherung aller Vorgänge eines Netzplans in primitiven Feldern.
+ * Jeder Vorgang belegt eine Zeile, deren Index der internen Nummer des Vorgangs entspricht.
+ *
+ * Die Vorgänger und Nachfolger (in externer Darstellung) liegen hintereinander in je einem Feld
+ * (siehe ZeilenListen). Beim Einlesen werden sie an die zuletzt angelegte Zeile angefügt, ein Vorgang
+ * ist also vollständig eingetragen, bevor der nächste beginnt. Nachträgliche Änderungen einzelner
+ * Zeilen sind über den Netzplan möglich.
+ */
+public class VorgangTabelle implements Tabelle {
+    private int anzahl;
+    private int [] nummer;
+    private String [] bezeichnung;
+    private int [] dauer;
+
+    private ZeilenListen vorgaenger;
+    private ZeilenListen nachfolger;
+
+    // die Ergebnisse der Netzplanberechnung
+    private int [] faz;
+    private int [] fez;
+    private int [] saz;
+    private int [] sez;
+    private int [] gp;
+    private int [] fp;
+
+    // optionale Dreipunktschätzung der Dauer (optimistisch/wahrscheinlich/pessimistisch) für die Simulation,
+    // die Felder werden erst bei der ersten Schätzung angelegt, optimistisch=0 bedeutet "keine Schätzung"
+    private int [] optimistisch;
+    private int [] wahrscheinlich;
+    private int [] pessimistisch;
+
+    // optionale Angaben für die Verkürzung (Crashen) eines Vorgangs: kürzeste mögliche Dauer und Kosten je
+    // Zeiteinheit Verkürzung, die Felder werden erst bei der ersten Angabe angelegt, crashDauer=0 bedeutet "keine Angabe"
+    private int [] crashDauer;
+    private int [] crashKosten;
+
+    private NummernIndex index;
+
+    // bei Tabellen aus einem Schnappschuss werden die Bezeichnungen erst beim ersten Zugriff dekodiert
+    // (UTF-8, die der Zeile z stehen in den Bytes bezeichnungAnfang.get(z) bis bezeichnungAnfang.get(z+1)-1)
+    private ByteBuffer bezeichnungDaten;
+    private IntBuffer bezeichnungAnfang;
+
+    public VorgangTabelle() {
+        this(16);
+    }
+
+    public VorgangTabelle(int erwarteteAnzahl) {
+        int kapazitaet = Math.max(erwarteteAnzahl, 1);
+        this.nummer = new int [kapazitaet];
+        this.bezeichnung = new String [kapazitaet];
+        this.dauer = new int [kapazitaet];
+        this.faz = new int [kapazitaet];
+        this.fez = new int [kapazitaet];
+        this.saz = new int [kapazitaet];
+        this.sez = new int [kapazitaet];
+        this.gp = new int [kapazitaet];
+        this.fp = new int [kapazitaet];
+        this.vorgaenger = new ZeilenListen(kapazitaet, 2 * kapazitaet);
+        this.nachfolger = new ZeilenListen(kapazitaet, 2 * kapazitaet);
+        this.index = new NummernIndex(erwarteteAnzahl);
+    }
+
+    /**
+     * Übernimmt fertige Spalten und Listen (z.B. aus einem Schnappschuss), die Felder werden nicht kopiert.
+     */
+    VorgangTabelle(int anzahl, int [] nummer, int [] dauer, int [] faz, int [] fez, int [] saz, int [] sez, int [] gp, int [] fp,
+                   ZeilenListen vorgaenger, ZeilenListen nachfolger, NummernIndex index,
+                   ByteBuffer bezeichnungDaten, IntBuffer bezeichnungAnfang) {
+        this.anzahl = anzahl;
+        this.nummer = nummer;
+        this.bezeichnung = new String [nummer.length];
+        this.dauer = dauer;
+        this.faz = faz;
+        this.fez = fez;
+        this.saz = saz;
+        this.sez = sez;
+        this.gp = gp;
+        this.fp = fp;
+        this.vorgaenger = vorgaenger;
+        this.nachfolger = nachfolger;
+        this.index = index;
+        this.bezeichnungDaten = bezeichnungDaten;
+        this.bezeichnungAnfang = bezeichnungAnfang;
+    }
+
+    /**
+     * Erzeugt eine Tabelle aus einer Liste von Vorgängen. Stellen die Vorgänge bereits genau die
+     * Zeilen einer Tabelle in deren Reihenfolge dar, wird diese Tabelle selbst geliefert.
+     */
+    public static VorgangTabelle aus(List<Vorgang> vorgaenge) {
+        if (vorgaenge.size() > 0) {
+            VorgangTabelle gemeinsam = vorgaenge.get(0).getTabelle();
+            boolean identisch = gemeinsam.getAnzahl() == vorgaenge.size();
+            for (int zeile = 0; identisch && zeile < vorgaenge.size(); zeile++) {
+                identisch = vorgaenge.get(zeile).getTabelle() == gemeinsam && vorgaenge.get(zeile).getZeile() == zeile;
+            }
+            if (identisch) {
+                return gemeinsam;
+            }
+        }
+
+        VorgangTabelle resultat = new VorgangTabelle(vorgaenge.size());
+        for (Vorgang aktVorgang: vorgaenge) {
+            int zeile = resultat.neuerVorgang(aktVorgang.getNummer(), aktVorgang.getBezeichnung(), aktVorgang.getDauer());
+            if (aktVorgang.getTabelle().hatDreipunktSchaetzung(aktVorgang.getZeile())) {
+                VorgangTabelle quelle = aktVorgang.getTabelle();
+                resultat.setDreipunktSchaetzung(zeile, quelle.getOptimistisch(aktVorgang.getZeile()),
+                                                quelle.getWahrscheinlich(aktVorgang.getZeile()),
+                                                quelle.getPessimistisch(aktVorgang.getZeile()));
+            }
+            if (aktVorgang.getTabelle().hatCrashAngabe(aktVorgang.getZeile())) {
+                VorgangTabelle quelle = aktVorgang.getTabelle();
+                resultat.setCrashAngabe(zeile, quelle.getCrashDauer(aktVorgang.getZeile()),
+                                        quelle.getCrashKosten(aktVorgang.getZeile()));
+            }
+            for (int aktVorgaenger: aktVorgang.getVorgaenger()) {
+                resultat.addVorgaenger(aktVorgaenger);
+            }
+            for (int aktNachfolger: aktVorgang.getNachfolger()) {
+                resultat.addNachfolger(aktNachfolger);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Hängt die Zeilen mehrerer Tabellen (z.B. parallel eingelesener Abschnitte einer Datei) in der
+     * angegebenen Reihenfolge aneinander. Wie bei neuerVorgang verweist der Index bei doppelten
+     * Vorgangsnummern auf das erste Vorkommen.
+     */
+    public static VorgangTabelle verbinde(List<VorgangTabelle> teile) {
+        int anzahl = 0;
+        List<ZeilenListen> vorgaengerTeile = new ArrayList<>();
+        List<ZeilenListen> nachfolgerTeile = new ArrayList<>();
+        for (VorgangTabelle teil: teile) {
+            anzahl += teil.anzahl;
+            vorgaengerTeile.add(teil.vorgaenger);
+            nachfolgerTeile.add(teil.nachfolger);
+        }
+
+        VorgangTabelle resultat = new VorgangTabelle(anzahl);
+        for (VorgangTabelle teil: teile) {
+            teil.dekodiereBezeichnungen();
+        }
+        resultat.vorgaenger = ZeilenListen.verbinde(vorgaengerTeile);
+        resultat.nachfolger = ZeilenListen.verbinde(nachfolgerTeile);
+        for (VorgangTabelle teil: teile) {
+            int erste = resultat.anzahl;
+            System.arraycopy(teil.nummer, 0, resultat.nummer, erste, teil.anzahl);
+            System.arraycopy(teil.bezeichnung, 0, resultat.bezeichnung, erste, teil.anzahl);
+            System.arraycopy(teil.dauer, 0, resultat.dauer, erste, teil.anzahl);
+            for (int zeile = 0; zeile < teil.anzahl; zeile++) {
+                resultat.index.put(teil.nummer[zeile], erste + zeile);
+            }
+            if (teil.optimistisch != null) {
+                resultat.legeSchaetzungenAn();
+                System.arraycopy(teil.optimistisch, 0, resultat.optimistisch, erste, teil.anzahl);
+                System.arraycopy(teil.wahrscheinlich, 0, resultat.wahrscheinlich, erste, teil.anzahl);
+                System.arraycopy(teil.pessimistisch, 0, resultat.pessimistisch, erste, teil.anzahl);
+            }
+            if (teil.crashDauer != null) {
+                resultat.legeCrashAngabenAn();
+                System.arraycopy(teil.crashDauer, 0, resultat.crashDauer, erste, teil.anzahl);
+                System.arraycopy(teil.crashKosten, 0, resultat.crashKosten, erste, teil.anzahl);
+            }
+            resultat.anzahl += teil.anzahl;
+        }
+        return resultat;
+    }
+
+    /**
+     * Fügt einen neuen Vorgang als letzte Zeile an und liefert dessen interne Nummer.
+     * Ist die Vorgangsnummer bereits vergeben, verweist der Index weiterhin auf den ersten Vorgang.
+     */
+    public int neuerVorgang(int nummer, String bezeichnung, int dauer) {
+        if (this.anzahl == this.nummer.length) {
+            this.vergroessere();
+        }
+        int zeile = this.anzahl++;
+        this.nummer[zeile] = nummer;
+        this.bezeichnung[zeile] = bezeichnung;
+        this.dauer[zeile] = dauer;
+        this.vorgaenger.neueZeile();
+        this.nachfolger.neueZeile();
+        this.index.put(nummer, zeile);
+        return zeile;
+    }
+
+    /**
+     * Fügt dem zuletzt angelegten Vorgang einen Vorgänger (externe Nummer) hinzu.
+     */
+    public void addVorgaenger(int vorgaenger) {
+        this.vorgaenger.anfuegen(this.anzahl - 1, vorgaenger);
+    }
+
+    /**
+     * Fügt dem zuletzt angelegten Vorgang einen Nachfolger (externe Nummer) hinzu.
+     */
+    public void addNachfolger(int nachfolger) {
+        this.nachfolger.anfuegen(this.anzahl - 1, nachfolger);
+    }
+
+    /*
+     * Änderungen der Vorgänger und Nachfolger beliebiger Zeilen, diese werden vom Netzplan
+     * zusammen mit dem Graphen vorgenommen, damit beide übereinstimmen.
+     */
+
+    void addVorgaenger(int zeile, int vorgaenger) {
+        this.vorgaenger.anfuegen(zeile, vorgaenger);
+    }
+
+    void addNachfolger(int zeile, int nachfolger) {
+        this.nachfolger.anfuegen(zeile, nachfolger);
+    }
+
+    void entferneVorgaenger(int zeile, int vorgaenger) {
+        this.vorgaenger.entfernen(zeile, vorgaenger);
+    }
+
+    void entferneNachfolger(int zeile, int nachfolger) {
+        this.nachfolger.entfernen(zeile, nachfolger);
+    }
+
+    /**
+     * Obergrenze der Positionen in den Vorgängerlisten (für Hilfsfelder, die parallel zu diesen Listen geführt werden).
+     */
+    public int getVorgaengerGrenze() {
+        return this.vorgaenger.getGrenze();
+    }
+
+    /**
+     * Ordnet die Zeilen neu an: Zeile i der Tabelle wird danach der bisherigen Zeile reihenfolge[i] entsprechen.
+     */
+    public void umordnen(int [] reihenfolge) {
+        this.dekodiereBezeichnungen();
+        int [] neueNummer = new int [this.nummer.length];
+        String [] neueBezeichnung = new String [this.bezeichnung.length];
+        int [] neueDauer = new int [this.dauer.length];
+        int [] neueFAZ = new int [this.faz.length];
+        int [] neueFEZ = new int [this.fez.length];
+        int [] neueSAZ = new int [this.saz.length];
+        int [] neueSEZ = new int [this.sez.length];
+        int [] neueGP = new int [this.gp.length];
+        int [] neueFP = new int [this.fp.length];
+        this.index = new NummernIndex(this.anzahl);
+
+        for (int zeile = 0; zeile < this.anzahl; zeile++) {
+            int alt = reihenfolge[zeile];
+            neueNummer[zeile] = this.nummer[alt];
+            neueBezeichnung[zeile] = this.bezeichnung[alt];
+            neueDauer[zeile] = this.dauer[alt];
+            neueFAZ[zeile] = this.faz[alt];
+            neueFEZ[zeile] = this.fez[alt];
+            neueSAZ[zeile] = this.saz[alt];
+            neueSEZ[zeile] = this.sez[alt];
+            neueGP[zeile] = this.gp[alt];
+            neueFP[zeile] = this.fp[alt];
+            this.index.put(neueNummer[zeile], zeile);
+        }
+
+        this.nummer = neueNummer;
+        this.bezeichnung = neueBezeichnung;
+        this.dauer = neueDauer;
+        this.faz = neueFAZ;
+        this.fez = neueFEZ;
+        this.saz = neueSAZ;
+        this.sez = neueSEZ;
+        this.gp = neueGP;
+        this.fp = neueFP;
+        this.vorgaenger = this.vorgaenger.umordnen(reihenfolge);
+        this.nachfolger = this.nachfolger.umordnen(reihenfolge);
+
+        if (this.optimistisch != null) {
+            int [] neueOptimistisch = new int [this.optimistisch.length];
+            int [] neueWahrscheinlich = new int [this.wahrscheinlich.length];
+            int [] neuePessimistisch = new int [this.pessimistisch.length];
+            for (int zeile = 0; zeile < this.anzahl; zeile++) {
+                neueOptimistisch[zeile] = this.optimistisch[reihenfolge[zeile]];
+                neueWahrscheinlich[zeile] = this.wahrscheinlich[reihenfolge[zeile]];
+                neuePessimistisch[zeile] = this.pessimistisch[reihenfolge[zeile]];
+            }
+            this.optimistisch = neueOptimistisch;
+            this.wahrscheinlich = neueWahrscheinlich;
+            this.pessimistisch = neuePessimistisch;
+        }
+        if (this.crashDauer != null) {
+            int [] neueCrashDauer = new int [this.crashDauer.length];
+            int [] neueCrashKosten = new int [this.crashKosten.length];
+            for (int zeile = 0; zeile < this.anzahl; zeile++) {
+                neueCrashDauer[zeile] = this.crashDauer[reihenfolge[zeile]];
+                neueCrashKosten[zeile] = this.crashKosten[reihenfolge[zeile]];
+            }
+            this.crashDauer = neueCrashDauer;
+            this.crashKosten = neueCrashKosten;
+        }
+    }
+
+    private void vergroessere() {
+        int kapazitaet = 2 * this.nummer.length;
+        this.nummer = Arrays.copyOf(this.nummer, kapazitaet);
+        this.bezeichnung = Arrays.copyOf(this.bezeichnung, kapazitaet);
+        this.dauer = Arrays.copyOf(this.dauer, kapazitaet);
+        this.faz = Arrays.copyOf(this.faz, kapazitaet);
+        this.fez = Arrays.copyOf(this.fez, kapazitaet);
+        this.saz = Arrays.copyOf(this.saz, kapazitaet);
+        this.sez = Arrays.copyOf(this.sez, kapazitaet);
+        this.gp = Arrays.copyOf(this.gp, kapazitaet);
+        this.fp = Arrays.copyOf(this.fp, kapazitaet);
+        if (this.optimistisch != null) {
+            this.optimistisch = Arrays.copyOf(this.optimistisch, kapazitaet);
+            this.wahrscheinlich = Arrays.copyOf(this.wahrscheinlich, kapazitaet);
+            this.pessimistisch = Arrays.copyOf(this.pessimistisch, kapazitaet);
+        }
+        if (this.crashDauer != null) {
+            this.crashDauer = Arrays.copyOf(this.crashDauer, kapazitaet);
+            this.crashKosten = Arrays.copyOf(this.crashKosten, kapazitaet);
+        }
+    }
+
+    private void legeSchaetzungenAn() {
+        if (this.optimistisch == null) {
+            this.optimistisch = new int [this.nummer.length];
+            this.wahrscheinlich = new int [this.nummer.length];
+            this.pessimistisch = new int [this.nummer.length];
+        }
+    }
+
+    private void legeCrashAngabenAn() {
+        if (this.crashDauer == null) {
+            this.crashDauer = new int [this.nummer.length];
+            this.crashKosten = new int [this.nummer.length];
+        }
+    }
+
+    public int getAnzahl() {
+        return this.anzahl;
+    }
+
+    /**
+     * Liefert die interne Nummer zu einer Vorgangsnummer oder -1, falls diese nicht existiert.
+     */
+    public int getZeile(int nummer) {
+        return this.index.get(nummer);
+    }
+
+    public Vorgang getVorgang(int zeile) {
+        return new Vorgang(this, zeile);
+    }
+
+    /**
+     * Liefert alle Vorgänge als Liste. Die Vorgang-Objekte werden erst beim Zugriff erzeugt.
+     */
+    public List<Vorgang> getVorgaenge() {
+        return new AbstractList<Vorgang>() {
+            public Vorgang get(int zeile) {
+                return VorgangTabelle.this.getVorgang(zeile);
+            }
+            public int size() {
+                return VorgangTabelle.this.anzahl;
+            }
+        };
+    }
+
+    public int getNummer(int zeile) {
+        return this.nummer[zeile];
+    }
+
+    public String getBezeichnung(int zeile) {
+        String resultat = this.bezeichnung[zeile];
+        if (resultat == null && this.bezeichnungDaten != null && zeile < this.bezeichnungAnfang.limit() - 1) {
+            // greifen mehrere Threads gleichzeitig zu, wird die Bezeichnung schlimmstenfalls mehrfach dekodiert
+            int anfang = this.bezeichnungAnfang.get(zeile);
+            byte [] bytes = new byte [this.bezeichnungAnfang.get(zeile + 1) - anfang];
+            this.bezeichnungDaten.get(anfang, bytes);
+            resultat = new String(bytes, StandardCharsets.UTF_8);
+            this.bezeichnung[zeile] = resultat;
+        }
+        return resultat;
+    }
+
+    /**
+     * Dekodiert alle noch nicht dekodierten Bezeichnungen, z.B. bevor die Zeilen umgeordnet werden.
+     */
+    private void dekodiereBezeichnungen() {
+        if (this.bezeichnungDaten != null) {
+            for (int zeile = 0; zeile < this.anzahl; zeile++) {
+                this.getBezeichnung(zeile);
+            }
+            this.bezeichnungDaten = null;
+            this.bezeichnungAnfang = null;
+        }
+    }
+
+    public int getDauer(int zeile) {
+        return this.dauer[zeile];
+    }
+
+    public int getVorgaengerAnfang(int zeile) {
+        return this.vorgaenger.getAnfang(zeile);
+    }
+
+    public int getVorgaengerEnde(int zeile) {
+        return this.vorgaenger.getEnde(zeile);
+    }
+
+    public int getVorgaenger(int position) {
+        return this.vorgaenger.get(position);
+    }
+
+    public int getNachfolgerAnfang(int zeile) {
+        return this.nachfolger.getAnfang(zeile);
+    }
+
+    public int getNachfolgerEnde(int zeile) {
+        return this.nachfolger.getEnde(zeile);
+    }
+
+    public int getNachfolger(int position) {
+        return this.nachfolger.get(position);
+    }
+
+    /**
+     * Prüft, ob der Vorgang in der angegebenen Zeile den Vorgang mit der Nummer vorgaenger als Vorgänger hat.
+     */
+    public boolean hatVorgaenger(int zeile, int vorgaenger) {
+        return this.vorgaenger.enthaelt(zeile, vorgaenger);
+    }
+
+    /**
+     * Prüft, ob der Vorgang in der angegebenen Zeile den Vorgang mit der Nummer nachfolger als Nachfolger hat.
+     */
+    public boolean hatNachfolger(int zeile, int nachfolger) {
+        return this.nachfolger.enthaelt(zeile, nachfolger);
+    }
+
+    public int getFAZ(int zeile) {
+        return this.faz[zeile];
+    }
+
+    void setDauer(int zeile, int dauer) {
+        this.dauer[zeile] = dauer;
+    }
+
+    void setFAZ(int zeile, int faz) {
+        this.faz[zeile] = faz;
+    }
+
+    public int getFEZ(int zeile) {
+        return this.fez[zeile];
+    }
+
+    void setFEZ(int zeile, int fez) {
+        this.fez[zeile] = fez;
+    }
+
+    public int getSAZ(int zeile) {
+        return this.saz[zeile];
+    }
+
+    void setSAZ(int zeile, int saz) {
+        this.saz[zeile] = saz;
+    }
+
+    public int getSEZ(int zeile) {
+        return this.sez[zeile];
+    }
+
+    void setSEZ(int zeile, int sez) {
+        this.sez[zeile] = sez;
+    }
+
+    public int getGP(int zeile) {
+        return this.gp[zeile];
+    }
+
+    void setGP(int zeile, int gp) {
+        this.gp[zeile] = gp;
+    }
+
+    public int getFP(int zeile) {
+        return this.fp[zeile];
+    }
+
+    void setFP(int zeile, int fp) {
+        this.fp[zeile] = fp;
+    }
+
+    /**
+     * Hinterlegt eine Dreipunktschätzung der Dauer, es muss 0 < optimistisch <= wahrscheinlich <= pessimistisch gelten.
+     */
+    public void setDreipunktSchaetzung(int zeile, int optimistisch, int wahrscheinlich, int pessimistisch) {
+        if (optimistisch <= 0 || optimistisch > wahrscheinlich || wahrscheinlich > pessimistisch) {
+            throw new IllegalArgumentException("Ungültige Dreipunktschätzung "+optimistisch+"/"+wahrscheinlich+"/"+pessimistisch);
+        }
+        this.legeSchaetzungenAn();
+        this.optimistisch[zeile] = optimistisch;
+        this.wahrscheinlich[zeile] = wahrscheinlich;
+        this.pessimistisch[zeile] = pessimistisch;
+    }
+
+    public boolean hatDreipunktSchaetzung(int zeile) {
+        return this.optimistisch != null && this.optimistisch[zeile] != 0;
+    }
+
+    /*
+     * Die Dreipunktschätzung, ohne Schätzung gilt für alle drei Werte die Dauer.
+     */
+
+    public int getOptimistisch(int zeile) {
+        return this.hatDreipunktSchaetzung(zeile) ? this.optimistisch[zeile] : this.dauer[zeile];
+    }
+
+    public int getWahrscheinlich(int zeile) {
+        return this.hatDreipunktSchaetzung(zeile) ? this.wahrscheinlich[zeile] : this.dauer[zeile];
+    }
+
+    public int getPessimistisch(int zeile) {
+        return this.hatDreipunktSchaetzung(zeile) ? this.pessimistisch[zeile] : this.dauer[zeile];
+    }
+
+    /**
+     * Hinterlegt, dass der Vorgang bis auf crashDauer verkürzt werden kann und jede Zeiteinheit Verkürzung
+     * kosten kostet. Es muss 0 < crashDauer <= Dauer und kosten >= 0 gelten.
+     */
+    public void setCrashAngabe(int zeile, int crashDauer, int kosten) {
+        if (crashDauer <= 0 || crashDauer > this.dauer[zeile] || kosten < 0) {
+            throw new IllegalArgumentException("Ungültige Crashangabe "+crashDauer+"/"+kosten+" bei Dauer "+this.dauer[zeile]);
+        }
+        this.legeCrashAngabenAn();
+        this.crashDauer[zeile] = crashDauer;
+        this.crashKosten[zeile] = kosten;
+    }
+
+    public boolean hatCrashAngabe(int zeile) {
+        return this.crashDauer != null && this.crashDauer[zeile] != 0;
+    }
+
+    /**
+     * Die kürzeste mögliche Dauer, ohne Crashangabe die Dauer selbst.
+     */
+    public int getCrashDauer(int zeile) {
+        return this.hatCrashAngabe(zeile) ? this.crashDauer[zeile] : this.dauer[zeile];
+    }
+
+    /**
+     * Die Kosten je Zeiteinheit Verkürzung, ohne Crashangabe 0.
+     */
+    public int getCrashKosten(int zeile) {
+        return this.hatCrashAngabe(zeile) ? this.crashKosten[zeile] : 0;
+    }
+
+    public boolean istKritisch(int zeile) {
+        return this.gp[zeile] == 0 && this.fp[zeile] == 0;
+    }
+
+    /*
+     * Direkter Zugriff auf die Spalten für die Berechnungen im Netzplan.
+     * Die Felder können länger als getAnzahl() sein.
+     */
+
+    int [] getDauerSpalte() {
+        return this.dauer;
+    }
+
+    int [] getFAZSpalte() {
+        return this.faz;
+    }
+
+    int [] getFEZSpalte() {
+        return this.fez;
+    }
+
+    int [] getSAZSpalte() {
+        return this.saz;
+    }
+
+    int [] getSEZSpalte() {
+        return this.sez;
+    }
+
+    int [] getNummerSpalte() {
+        return this.nummer;
+    }
+
+    int [] getGPSpalte() {
+        return this.gp;
+    }
+
+    int [] getFPSpalte() {
+        return this.fp;
+    }
+
+    ZeilenListen getVorgaengerListen() {
+        return this.vorgaenger;
+    }
+
+    ZeilenListen getNachfolgerListen() {
+        return this.nachfolger;
+    }
+
+    NummernIndex getIndex() {
+        return this.index;
+    }
+
+    /*
+     * Die Spalten der Dreipunktschätzung, null solange keine Schätzung hinterlegt ist.
+     */
+
+    int [] getOptimistischSpalte() {
+        return this.optimistisch;
+    }
+
+    int [] getWahrscheinlichSpalte() {
+        return this.wahrscheinlich;
+    }
+
+    int [] getPessimistischSpalte() {
+        return this.pessimistisch;
+    }
+
+    /**
+     * Übernimmt die Spalten der Dreipunktschätzung (z.B. aus einem Schnappschuss), die Felder werden nicht kopiert.
+     */
+    void setSchaetzungsSpalten(int [] optimistisch, int [] wahrscheinlich, int [] pessimistisch) {
+        this.optimistisch = optimistisch;
+        this.wahrscheinlich = wahrscheinlich;
+        this.pessimistisch = pessimistisch;
+    }
+
+    /*
+     * Die Spalten der Crashangaben, null solange keine Angabe hinterlegt ist.
+     */
+
+    int [] getCrashDauerSpalte() {
+        return this.crashDauer;
+    }
+
+    int [] getCrashKostenSpalte() {
+        return this.crashKosten;
+    }
+
+    /**
+     * Übernimmt die Spalten der Crashangaben (z.B. aus einem Schnappschuss), die Felder werden nicht kopiert.
+     */
+    void setCrashSpalten(int [] crashDauer, int [] crashKosten) {
+        this.crashDauer = crashDauer;
+        this.crashKosten = crashKosten;
+    }
+}
@@ -0,0 +1,221 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Eine Liste von int-Werten je Zeile (z.B. die Nachfolger jedes Knotens), alle Listen liegen hintereinander
+ * in einem Feld. Solange nur an die letzte Zeile angefügt wird, entspricht dies der CSR-Darstellung.
+ *
+ * Wird die Liste einer anderen Zeile verlängert, zieht sie an das Ende des Feldes um (Aufwand O(Länge der Liste)).
+ * Der alte Bereich bleibt ungenutzt, bis das Feld beim nächsten Vergrößern verdichtet wird.
+ */
+class ZeilenListen {
+    private int [] start;
+    private int [] ende;
+    private int [] werte;
+    private int anzahlZeilen;
+    // die Länge des benutzten Teils von werte und die Anzahl der gültigen Werte darin
+    private int belegt;
+    private int anzahlWerte;
+
+    ZeilenListen(int zeilenKapazitaet, int werteKapazitaet) {
+        this.start = new int [Math.max(zeilenKapazitaet, 1)];
+        this.ende = new int [Math.max(zeilenKapazitaet, 1)];
+        this.werte = new int [Math.max(werteKapazitaet, 1)];
+    }
+
+    /**
+     * Übernimmt Listen in CSR-Darstellung: die Liste der Zeile v steht in werte[zeilenStart[v]] bis werte[zeilenStart[v+1]-1].
+     */
+    ZeilenListen(int anzahlZeilen, int [] zeilenStart, int [] werte) {
+        this.start = Arrays.copyOf(zeilenStart, Math.max(anzahlZeilen, 1));
+        this.ende = new int [Math.max(anzahlZeilen, 1)];
+        System.arraycopy(zeilenStart, 1, this.ende, 0, anzahlZeilen);
+        this.werte = werte.length > 0 ? werte : new int [1];
+        this.anzahlZeilen = anzahlZeilen;
+        this.belegt = zeilenStart[anzahlZeilen];
+        this.anzahlWerte = this.belegt;
+    }
+
+    /**
+     * Hängt die Listen mehrerer Objekte in der angegebenen Reihenfolge aneinander (verdichtet).
+     */
+    static ZeilenListen verbinde(List<ZeilenListen> teile) {
+        int anzahlZeilen = 0;
+        int anzahlWerte = 0;
+        for (ZeilenListen teil: teile) {
+            anzahlZeilen += teil.anzahlZeilen;
+            anzahlWerte += teil.anzahlWerte;
+        }
+        ZeilenListen resultat = new ZeilenListen(anzahlZeilen, anzahlWerte);
+        for (ZeilenListen teil: teile) {
+            for (int zeile = 0; zeile < teil.anzahlZeilen; zeile++) {
+                resultat.kopiereZeile(teil, zeile);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Liefert die Listen in neuer Zeilenreihenfolge: Zeile i entspricht danach der bisherigen Zeile reihenfolge[i].
+     */
+    ZeilenListen umordnen(int [] reihenfolge) {
+        ZeilenListen resultat = new ZeilenListen(this.start.length, this.werte.length);
+        for (int zeile = 0; zeile < this.anzahlZeilen; zeile++) {
+            resultat.kopiereZeile(this, reihenfolge[zeile]);
+        }
+        return resultat;
+    }
+
+    private void kopiereZeile(ZeilenListen quelle, int zeile) {
+        int laenge = quelle.ende[zeile] - quelle.start[zeile];
+        int neueZeile = this.neueZeile();
+        System.arraycopy(quelle.werte, quelle.start[zeile], this.werte, this.belegt, laenge);
+        this.belegt += laenge;
+        this.anzahlWerte += laenge;
+        this.ende[neueZeile] = this.belegt;
+    }
+
+    /**
+     * Legt eine neue Zeile mit leerer Liste an und liefert deren Nummer.
+     */
+    int neueZeile() {
+        if (this.anzahlZeilen == this.start.length) {
+            this.start = Arrays.copyOf(this.start, 2 * this.start.length);
+            this.ende = Arrays.copyOf(this.ende, 2 * this.ende.length);
+        }
+        int zeile = this.anzahlZeilen++;
+        this.start[zeile] = this.belegt;
+        this.ende[zeile] = this.belegt;
+        return zeile;
+    }
+
+    /**
+     * Fügt den Wert am Ende der Liste der angegebenen Zeile an.
+     */
+    void anfuegen(int zeile, int wert) {
+        if (this.ende[zeile] != this.belegt || this.belegt == this.werte.length) {
+            int laenge = this.ende[zeile] - this.start[zeile];
+            if (this.belegt + laenge + 1 > this.werte.length) {
+                this.schaffePlatz(laenge + 1);
+            }
+            // die Liste liegt nicht am Ende des Feldes, sie zieht dorthin um
+            if (this.ende[zeile] != this.belegt) {
+                System.arraycopy(this.werte, this.start[zeile], this.werte, this.belegt, laenge);
+                this.start[zeile] = this.belegt;
+                this.belegt += laenge;
+                this.ende[zeile] = this.belegt;
+            }
+        }
+        this.werte[this.belegt++] = wert;
+        this.ende[zeile]++;
+        this.anzahlWerte++;
+    }
+
+    /**
+     * Entfernt den Wert aus der Liste der angegebenen Zeile, die Reihenfolge der übrigen Werte bleibt erhalten.
+     * Liefert false, wenn der Wert nicht enthalten war.
+     */
+    boolean entfernen(int zeile, int wert) {
+        for (int i = this.start[zeile]; i < this.ende[zeile]; i++) {
+            if (this.werte[i] == wert) {
+                System.arraycopy(this.werte, i + 1, this.werte, i, this.ende[zeile] - i - 1);
+                if (this.ende[zeile] == this.belegt) {
+                    this.belegt--;
+                }
+                this.ende[zeile]--;
+                this.anzahlWerte--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean enthaelt(int zeile, int wert) {
+        for (int i = this.start[zeile]; i < this.ende[zeile]; i++) {
+            if (this.werte[i] == wert) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorgt dafür, dass am Ende des Feldes mindestens benoetigt Plätze frei sind. Ist höchstens die Hälfte
+     * des Feldes gültig belegt, wird es nur verdichtet, ansonsten zusätzlich vergrößert.
+     */
+    private void schaffePlatz(int benoetigt) {
+        if (this.anzahlWerte == this.belegt) {
+            // keine ungenutzten Bereiche, es genügt das Vergrößern
+            this.werte = Arrays.copyOf(this.werte, Math.max(2 * this.werte.length, this.belegt + benoetigt));
+            return;
+        }
+
+        int laenge = this.werte.length;
+        if (2 * this.anzahlWerte > laenge || this.anzahlWerte + benoetigt > laenge) {
+            laenge = Math.max(2 * laenge, this.anzahlWerte + benoetigt);
+        }
+        int [] neueWerte = new int [laenge];
+        int position = 0;
+        for (int zeile = 0; zeile < this.anzahlZeilen; zeile++) {
+            int anzahl = this.ende[zeile] - this.start[zeile];
+            System.arraycopy(this.werte, this.start[zeile], neueWerte, position, anzahl);
+            this.start[zeile] = position;
+            position += anzahl;
+            this.ende[zeile] = position;
+        }
+        this.werte = neueWerte;
+        this.belegt = position;
+    }
+
+    /**
+     * Liefert die Listen verdichtet in CSR-Darstellung (siehe Konstruktor), d.h. ohne ungenutzte Bereiche
+     * und in Zeilenreihenfolge. Sind sie dies bereits, wird das Objekt selbst geliefert.
+     */
+    ZeilenListen verdichte() {
+        boolean verdichtet = this.anzahlWerte == this.belegt;
+        for (int zeile = 0; verdichtet && zeile < this.anzahlZeilen; zeile++) {
+            verdichtet = this.start[zeile] == (zeile == 0 ? 0 : this.ende[zeile - 1]);
+        }
+        return verdichtet ? this : verbinde(List.of(this));
+    }
+
+    /**
+     * Direkter Zugriff auf die Felder, z.B. zum Speichern. Die Felder können länger als benötigt sein.
+     */
+    int [] getStartFeld() {
+        return this.start;
+    }
+
+    int [] getWerteFeld() {
+        return this.werte;
+    }
+
+    int getAnzahlZeilen() {
+        return this.anzahlZeilen;
+    }
+
+    int getAnzahlWerte() {
+        return this.anzahlWerte;
+    }
+
+    /**
+     * Alle Positionen der Listen liegen unterhalb dieses Werts (nach Änderungen auch ungenutzte).
+     */
+    int getGrenze() {
+        return this.belegt;
+    }
+
+    int getAnfang(int zeile) {
+        return this.start[zeile];
+    }
+
+    int getEnde(int zeile) {
+        return this.ende[zeile];
+    }
+
+    int get(int position) {
+        return this.werte[position];
+    }
+}
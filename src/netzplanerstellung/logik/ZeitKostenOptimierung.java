@@ -0,0 +1,515 @@
+package netzplanerstellung.logik;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Zeit-Kosten-Optimierung (Crashen): Verkürzt die Gesamtdauer eines Netzplans mit den geringsten Kosten.
+ * Jeder Vorgang mit Crashangabe kann bis auf seine Crashdauer verkürzt werden, jede Zeiteinheit kostet
+ * dabei seine Crashkosten (linearer Zeit-Kosten-Verlauf), Vorgänge ohne Angabe behalten ihre Dauer.
+ * Als Gesamtdauer gilt wie bei der Simulation das späteste Ende aller Endvorgänge.
+ *
+ * Verfahren nach Phillips und Dessouky: Die kritischen Vorgänge und die Abhängigkeiten ohne Puffer bilden
+ * das kritische Netz. Jeder Schnitt durch dieses Netz verkürzt alle kritischen Pfade, wenn die Vorgänge,
+ * die er vorwärts schneidet, verkürzt und die, die er rückwärts schneidet, wieder verlängert werden. Ein
+ * Schnitt mit minimalen Kosten (Kosten der verkürzten minus Ersparnis der verlängerten Vorgänge) wird als
+ * minimaler Schnitt eines Flussnetzes bestimmt (siehe MaxFluss). Jeder Vorgang wird zu einer Kante vom
+ * Eingangs- zum Ausgangsknoten, Abhängigkeiten sind unbegrenzt und dürfen daher nur rückwärts geschnitten
+ * werden. Die Ersparnis e eines verlängerbaren Vorgangs wird über eine Kante der Kapazität c-e und die
+ * Kanten Quelle->Ausgang sowie Eingang->Senke der Kapazität e abgebildet, ein Schnitt kostet dann genau
+ * seine Kosten plus die Summe aller e.
+ *
+ * Lange Ketten im kritischen Netz würden den maximalen Fluss sehr viele Phasen kosten. Jede Kette wird
+ * daher vorab zusammengefasst: Eine dynamische Programmierung entlang der Kette liefert die Kosten für jede
+ * Kombination der Seiten von Anfang und Ende, die als eine Kante plus Kanten von der Quelle bzw. zur Senke
+ * ins Flussnetz eingehen. Die Seiten der inneren Knoten werden nach dem Schnitt rückwärts rekonstruiert.
+ *
+ * Der Schnitt wird so weit angewendet, wie er gültig bleibt: bis ein Vorgang seine Crash- bzw. Normaldauer
+ * erreicht, die Zieldauer erreicht ist oder ein bisher nicht kritischer Pfad länger würde als die neue
+ * Gesamtdauer (per Intervallhalbierung mit Vorwärtsrechnungen bestimmt). In seltenen Fällen verlängert ein
+ * Schnitt schon nach einer Zeiteinheit einen nicht kritischen Pfad zu stark, dann werden die betroffenen
+ * Vorgänge in diesem Schritt nicht verlängert und der Schnitt neu bestimmt.
+ *
+ * Jeder Schritt liefert einen Knickpunkt der Zeit-Kosten-Kurve. Ohne Zieldauer (0) wird so lange verkürzt,
+ * bis jeder kritische Pfad nur noch aus voll verkürzten Vorgängen besteht.
+ */
+public class ZeitKostenOptimierung {
+    private Netzplan netzplan;
+    private int zielDauer;
+
+    private int n;
+    private Graph graph;
+    private int [] ordnung;
+    private int [] normalDauer;
+    private int [] crashDauer;
+    private int [] kosten;
+
+    // die aktuellen Dauern und Zeitwerte (mit gemeinsamem Projektende)
+    private int [] dauer;
+    private int [] faz;
+    private int [] fez;
+    private int [] saz;
+
+    // Änderung je Vorgang im aktuellen Schnitt (-1 verkürzen, +1 verlängern)
+    private int [] aenderung;
+    private boolean [] nichtVerlaengern;
+
+    // Knoten im Flussnetz je kritischem Vorgang (-1: nicht kritisch) und Ketten im kritischen Netz
+    private int [] eingangKnoten;
+    private int [] ausgangKnoten;
+    private int [] anzahlKritischeVorgaenger;
+    private int [] naechstesGlied;
+    private boolean [] kettenAnfang;
+    private int [] kettenGlieder;
+    private int [] kettenStart;
+    private int anzahlKetten;
+    // je Glied die Seite des vorherigen Knotens abhängig von der Seite des Kettenanfangs und des eigenen Ausgangs
+    private byte [] kettenWahl;
+    private MaxFluss fluss = new MaxFluss();
+
+    // Knickpunkte der Zeit-Kosten-Kurve
+    private int [] kurveDauer = new int [16];
+    private long [] kurveKosten = new long [16];
+    private int anzahlPunkte;
+
+    private int anzahlSchnitte;
+    private long laufzeit;
+
+    /**
+     * Verkürzt den Netzplan möglichst kostengünstig auf die Zieldauer (bzw. so weit wie möglich, 0 für die
+     * vollständige Zeit-Kosten-Kurve). Der Netzplan selbst bleibt unverändert.
+     */
+    public ZeitKostenOptimierung(Netzplan netzplan, int zielDauer) {
+        if (zielDauer < 0) {
+            throw new IllegalArgumentException("Ungültige Zieldauer "+zielDauer);
+        }
+        this.netzplan = netzplan;
+        this.zielDauer = zielDauer;
+        long start = System.nanoTime();
+        this.optimiere();
+        this.laufzeit = System.nanoTime() - start;
+    }
+
+    private void optimiere() {
+        // benötigt werden nur Dauern und Crashangaben, die Zeitwerte werden selbst berechnet
+        VorgangTabelle tabelle = this.netzplan.getTabelle(Netzplan.Auswertung.PRUEFUNG);
+        this.graph = this.netzplan.getAdjazenzen();
+        this.ordnung = this.netzplan.getTopologie().getZeileAnPosition();
+        this.n = tabelle.getAnzahl();
+        this.normalDauer = new int [this.n];
+        this.crashDauer = new int [this.n];
+        this.kosten = new int [this.n];
+        for (int zeile = 0; zeile < this.n; zeile++) {
+            this.normalDauer[zeile] = tabelle.getDauer(zeile);
+            // die Dauer kann nach der Crashangabe geändert worden sein
+            this.crashDauer[zeile] = Math.min(tabelle.getCrashDauer(zeile), tabelle.getDauer(zeile));
+            this.kosten[zeile] = tabelle.getCrashKosten(zeile);
+        }
+        this.dauer = this.normalDauer.clone();
+        this.faz = new int [this.n];
+        this.fez = new int [this.n];
+        this.saz = new int [this.n];
+        this.aenderung = new int [this.n];
+        this.nichtVerlaengern = new boolean [this.n];
+        this.eingangKnoten = new int [this.n];
+        this.ausgangKnoten = new int [this.n];
+        this.anzahlKritischeVorgaenger = new int [this.n];
+        this.naechstesGlied = new int [this.n];
+        this.kettenAnfang = new boolean [this.n];
+        this.kettenGlieder = new int [this.n];
+        this.kettenStart = new int [this.n + 1];
+        this.kettenWahl = new byte [this.n];
+
+        int projektdauer = this.vorwaerts(0);
+        this.fuegePunktHinzu(projektdauer, 0);
+        while (projektdauer > this.zielDauer) {
+            this.rueckwaerts(projektdauer);
+            Arrays.fill(this.nichtVerlaengern, false);
+
+            int schritt;
+            while (true) {
+                if (!this.bestimmeSchnitt(projektdauer)) {
+                    // jeder kritische Pfad ist vollständig verkürzt
+                    return;
+                }
+                schritt = this.bestimmeSchritt(projektdauer);
+                if (schritt > 0) {
+                    break;
+                }
+                this.verbieteVerlaengerung(projektdauer);
+            }
+
+            long gesamtKosten = this.getPunktKosten(this.anzahlPunkte - 1);
+            for (int zeile = 0; zeile < this.n; zeile++) {
+                this.dauer[zeile] += schritt * this.aenderung[zeile];
+                gesamtKosten -= (long) schritt * this.aenderung[zeile] * this.kosten[zeile];
+            }
+            projektdauer = this.vorwaerts(0);
+            this.fuegePunktHinzu(projektdauer, gesamtKosten);
+        }
+    }
+
+    /**
+     * Baut das Flussnetz aus dem kritischen Netz auf und bestimmt einen minimalen Schnitt. Liefert false,
+     * wenn jeder Schnitt eine unbegrenzte Kante enthält, die Gesamtdauer also nicht weiter verkürzt werden kann.
+     */
+    private boolean bestimmeSchnitt(int projektdauer) {
+        int anzahlKnoten = this.bestimmeKnoten();
+        int quelle = anzahlKnoten;
+        int senke = quelle + 1;
+        this.fluss.zuruecksetzen(senke + 1);
+
+        int anzahlGlieder = 0;
+        this.anzahlKetten = 0;
+        for (int zeile: this.ordnung) {
+            if (this.eingangKnoten[zeile] == -1) {
+                continue;
+            }
+            if (this.faz[zeile] == 0) {
+                this.fluss.addKante(quelle, this.eingangKnoten[zeile], MaxFluss.UNENDLICH);
+            }
+            if (this.fez[zeile] == projektdauer) {
+                this.fluss.addKante(this.ausgangKnoten[zeile], senke, MaxFluss.UNENDLICH);
+            }
+            for (int i = this.graph.getNachfolgerAnfang(zeile); i < this.graph.getNachfolgerEnde(zeile); i++) {
+                int nachfolger = this.graph.getNachfolger(i);
+                if (this.eingangKnoten[nachfolger] != -1 && this.faz[nachfolger] == this.fez[zeile] &&
+                    this.eingangKnoten[nachfolger] != this.ausgangKnoten[zeile]) {
+                    this.fluss.addKante(this.ausgangKnoten[zeile], this.eingangKnoten[nachfolger], MaxFluss.UNENDLICH);
+                }
+            }
+            if (!this.kettenAnfang[zeile]) {
+                continue;
+            }
+
+            // Kosten der Kette je Seite ihres Anfangs (erster Index) und Endes (zweiter Index), 0 = Quellseite
+            this.kettenStart[this.anzahlKetten++] = anzahlGlieder;
+            long [] kettenKosten = {0, MaxFluss.UNENDLICH, MaxFluss.UNENDLICH, 0};
+            int letzter = zeile;
+            for (int glied = zeile; glied != -1; glied = this.naechstesGlied[glied]) {
+                this.kettenGlieder[anzahlGlieder++] = glied;
+                letzter = glied;
+                long verkuerzen = this.dauer[glied] > this.crashDauer[glied] ? this.kosten[glied] : MaxFluss.UNENDLICH;
+                long verlaengern = this.istVerlaengerbar(glied) ? this.kosten[glied] : 0;
+                // Übergänge: Q->Q kostet e (Kante Eingang->Senke), Q->S c+e, S->Q nichts, S->S e (Kante Quelle->Ausgang)
+                int wahl = 0;
+                for (int anfang = 0; anfang < 4; anfang += 2) {
+                    long ausQ = kettenKosten[anfang];
+                    long ausS = kettenKosten[anfang + 1];
+                    long nachQ = summe(ausQ, verlaengern);
+                    if (ausS < nachQ) {
+                        nachQ = ausS;
+                        wahl |= 1 << anfang;
+                    }
+                    long nachS = summe(summe(ausQ, verkuerzen), verlaengern);
+                    if (summe(ausS, verlaengern) < nachS) {
+                        nachS = summe(ausS, verlaengern);
+                        wahl |= 1 << (anfang + 1);
+                    }
+                    kettenKosten[anfang] = nachQ;
+                    kettenKosten[anfang + 1] = nachS;
+                }
+                this.kettenWahl[glied] = (byte) wahl;
+            }
+            long kostenQQ = kettenKosten[0];
+            long kostenQS = kettenKosten[1];
+            long kostenSQ = kettenKosten[2];
+            long kostenSS = kettenKosten[3];
+
+            // die Kette wird als Kante mit zusätzlichen Kanten von der Quelle bzw. zur Senke abgebildet
+            int eingang = this.eingangKnoten[zeile];
+            int ausgang = this.ausgangKnoten[letzter];
+            if (kostenSQ > kostenQQ) {
+                this.fluss.addKante(quelle, eingang, kostenSQ - kostenQQ);
+            } else if (kostenSQ < kostenQQ) {
+                this.fluss.addKante(eingang, senke, kostenQQ - kostenSQ);
+            }
+            if (kostenSS > kostenSQ) {
+                this.fluss.addKante(quelle, ausgang, kostenSS - kostenSQ);
+            } else if (kostenSS < kostenSQ) {
+                this.fluss.addKante(ausgang, senke, kostenSQ - kostenSS);
+            }
+            long paar = kostenQS >= MaxFluss.UNENDLICH ? MaxFluss.UNENDLICH : kostenQS + kostenSQ - kostenQQ - kostenSS;
+            if (paar > 0) {
+                this.fluss.addKante(eingang, ausgang, paar);
+            }
+        }
+        this.kettenStart[this.anzahlKetten] = anzahlGlieder;
+
+        this.anzahlSchnitte++;
+        if (this.fluss.berechne(quelle, senke) >= MaxFluss.UNENDLICH) {
+            return false;
+        }
+
+        // bestimme die Seiten innerhalb der Ketten rückwärts aus den gespeicherten Entscheidungen
+        Arrays.fill(this.aenderung, 0);
+        for (int kette = 0; kette < this.anzahlKetten; kette++) {
+            int erstes = this.kettenGlieder[this.kettenStart[kette]];
+            int letztes = this.kettenGlieder[this.kettenStart[kette + 1] - 1];
+            int anfang = this.fluss.aufQuellSeite(this.eingangKnoten[erstes]) ? 0 : 1;
+            int seite = this.fluss.aufQuellSeite(this.ausgangKnoten[letztes]) ? 0 : 1;
+            for (int i = this.kettenStart[kette + 1] - 1; i >= this.kettenStart[kette]; i--) {
+                int glied = this.kettenGlieder[i];
+                int vorher = (this.kettenWahl[glied] >> (2 * anfang + seite) & 1) == 0 ? 0 : 1;
+                if (vorher == 0 && seite == 1) {
+                    this.aenderung[glied] = -1;
+                } else if (vorher == 1 && seite == 0 && this.istVerlaengerbar(glied)) {
+                    this.aenderung[glied] = 1;
+                }
+                seite = vorher;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nummeriert die Knoten des Flussnetzes: Jeder kritische Vorgang verbindet einen Eingangs- mit einem
+     * Ausgangsknoten. Ist ein Vorgang der einzige kritische Vorgänger seines einzigen kritischen Nachfolgers,
+     * teilen sich beide den Knoten dazwischen (ein Schnitt, der die Abhängigkeit rückwärts schneidet, ist nie
+     * günstiger) und gehören zu einer Kette, deren innere Knoten nicht ins Flussnetz übernommen werden.
+     */
+    private int bestimmeKnoten() {
+        for (int zeile = 0; zeile < this.n; zeile++) {
+            this.anzahlKritischeVorgaenger[zeile] = 0;
+            this.eingangKnoten[zeile] = -1;
+            this.ausgangKnoten[zeile] = -1;
+        }
+        for (int zeile = 0; zeile < this.n; zeile++) {
+            if (this.faz[zeile] != this.saz[zeile]) {
+                continue;
+            }
+            int anzahlNachfolger = 0;
+            int kritischerNachfolger = -1;
+            for (int i = this.graph.getNachfolgerAnfang(zeile); i < this.graph.getNachfolgerEnde(zeile); i++) {
+                int nachfolger = this.graph.getNachfolger(i);
+                if (this.faz[nachfolger] == this.saz[nachfolger] && this.faz[nachfolger] == this.fez[zeile]) {
+                    this.anzahlKritischeVorgaenger[nachfolger]++;
+                    anzahlNachfolger++;
+                    kritischerNachfolger = nachfolger;
+                }
+            }
+            this.naechstesGlied[zeile] = anzahlNachfolger == 1 ? kritischerNachfolger : -1;
+        }
+
+        int anzahlKnoten = 0;
+        for (int zeile: this.ordnung) {
+            if (this.faz[zeile] != this.saz[zeile]) {
+                continue;
+            }
+            int naechstes = this.naechstesGlied[zeile];
+            if (naechstes != -1 && this.anzahlKritischeVorgaenger[naechstes] != 1) {
+                this.naechstesGlied[zeile] = -1;
+            }
+            this.kettenAnfang[zeile] = this.eingangKnoten[zeile] == -1;
+            if (this.kettenAnfang[zeile]) {
+                this.eingangKnoten[zeile] = anzahlKnoten++;
+            }
+            if (this.naechstesGlied[zeile] == -1) {
+                this.ausgangKnoten[zeile] = anzahlKnoten++;
+            } else {
+                // innerer Knoten einer Kette, bleibt außerhalb des Flussnetzes
+                this.ausgangKnoten[zeile] = this.eingangKnoten[zeile];
+                this.eingangKnoten[this.naechstesGlied[zeile]] = this.eingangKnoten[zeile];
+            }
+        }
+        return anzahlKnoten;
+    }
+
+    private boolean istVerlaengerbar(int zeile) {
+        return this.dauer[zeile] < this.normalDauer[zeile] && !this.nichtVerlaengern[zeile];
+    }
+
+    private static long summe(long a, long b) {
+        return Math.min(a + b, MaxFluss.UNENDLICH);
+    }
+
+    /**
+     * Bestimmt, um wie viele Zeiteinheiten der Schnitt angewendet werden kann (0, falls schon eine zu viel ist).
+     */
+    private int bestimmeSchritt(int projektdauer) {
+        int maximum = projektdauer - this.zielDauer;
+        for (int zeile = 0; zeile < this.n; zeile++) {
+            if (this.aenderung[zeile] < 0) {
+                maximum = Math.min(maximum, this.dauer[zeile] - this.crashDauer[zeile]);
+            } else if (this.aenderung[zeile] > 0) {
+                maximum = Math.min(maximum, this.normalDauer[zeile] - this.dauer[zeile]);
+            }
+        }
+        // gültige Schritte bilden ein Intervall ab 0
+        if (this.vorwaerts(maximum) <= projektdauer - maximum) {
+            return maximum;
+        }
+        int gueltig = 0;
+        int ungueltig = maximum;
+        while (ungueltig - gueltig > 1) {
+            int mitte = (gueltig + ungueltig) >>> 1;
+            if (this.vorwaerts(mitte) <= projektdauer - mitte) {
+                gueltig = mitte;
+            } else {
+                ungueltig = mitte;
+            }
+        }
+        return gueltig;
+    }
+
+    /**
+     * Wird schon nach einer Zeiteinheit ein Pfad zu lang, enthält er einen verlängerten Vorgang (die übrigen
+     * Pfade werden nicht länger). Diese Vorgänge haben mit der neuen Gesamtdauer einen negativen Gesamtpuffer.
+     */
+    private void verbieteVerlaengerung(int projektdauer) {
+        this.vorwaerts(1);
+        this.rueckwaerts(projektdauer - 1, 1);
+        boolean gefunden = false;
+        for (int zeile = 0; zeile < this.n; zeile++) {
+            if (this.aenderung[zeile] > 0 && this.saz[zeile] < this.faz[zeile]) {
+                this.nichtVerlaengern[zeile] = true;
+                gefunden = true;
+            }
+        }
+        if (!gefunden) {
+            // sollte nicht vorkommen, ohne Verlängerungen ist jeder Schnitt gültig
+            for (int zeile = 0; zeile < this.n; zeile++) {
+                this.nichtVerlaengern[zeile] |= this.aenderung[zeile] > 0;
+            }
+        }
+        // stelle die Zeitwerte für das kritische Netz wieder her
+        this.vorwaerts(0);
+        this.rueckwaerts(projektdauer);
+    }
+
+    /**
+     * Vorwärtsrechnung mit den Dauern nach schritt Zeiteinheiten des aktuellen Schnitts, liefert das späteste Ende.
+     */
+    private int vorwaerts(int schritt) {
+        int ende = 0;
+        for (int aktKnoten: this.ordnung) {
+            int maxFEZ = 0;
+            for (int i = this.graph.getVorgaengerAnfang(aktKnoten); i < this.graph.getVorgaengerEnde(aktKnoten); i++) {
+                int vorgaengerFEZ = this.fez[this.graph.getVorgaenger(i)];
+                if (vorgaengerFEZ > maxFEZ) {
+                    maxFEZ = vorgaengerFEZ;
+                }
+            }
+            this.faz[aktKnoten] = maxFEZ;
+            this.fez[aktKnoten] = maxFEZ + this.dauer[aktKnoten] + schritt * this.aenderung[aktKnoten];
+            if (this.fez[aktKnoten] > ende) {
+                ende = this.fez[aktKnoten];
+            }
+        }
+        return ende;
+    }
+
+    private void rueckwaerts(int projektdauer) {
+        this.rueckwaerts(projektdauer, 0);
+    }
+
+    /**
+     * Rückwärtsrechnung mit gemeinsamem Projektende, es werden nur die SAZ benötigt.
+     */
+    private void rueckwaerts(int projektdauer, int schritt) {
+        for (int position = this.ordnung.length - 1; position >= 0; position--) {
+            int aktKnoten = this.ordnung[position];
+            int minSAZ = projektdauer;
+            for (int i = this.graph.getNachfolgerAnfang(aktKnoten); i < this.graph.getNachfolgerEnde(aktKnoten); i++) {
+                int nachfolgerSAZ = this.saz[this.graph.getNachfolger(i)];
+                if (nachfolgerSAZ < minSAZ) {
+                    minSAZ = nachfolgerSAZ;
+                }
+            }
+            this.saz[aktKnoten] = minSAZ - this.dauer[aktKnoten] - schritt * this.aenderung[aktKnoten];
+        }
+    }
+
+    private void fuegePunktHinzu(int projektdauer, long gesamtKosten) {
+        if (this.anzahlPunkte == this.kurveDauer.length) {
+            this.kurveDauer = Arrays.copyOf(this.kurveDauer, 2 * this.anzahlPunkte);
+            this.kurveKosten = Arrays.copyOf(this.kurveKosten, 2 * this.anzahlPunkte);
+        }
+        this.kurveDauer[this.anzahlPunkte] = projektdauer;
+        this.kurveKosten[this.anzahlPunkte] = gesamtKosten;
+        this.anzahlPunkte++;
+    }
+
+    public Netzplan getNetzplan() {
+        return this.netzplan;
+    }
+
+    public int getZielDauer() {
+        return this.zielDauer;
+    }
+
+    /**
+     * Die Dauer eines Vorgangs nach der Verkürzung.
+     */
+    public int getDauer(int zeile) {
+        return this.dauer[zeile];
+    }
+
+    public int getVerkuerzung(int zeile) {
+        return this.normalDauer[zeile] - this.dauer[zeile];
+    }
+
+    /**
+     * Die Gesamtdauer vor der Verkürzung (spätestes Ende aller Endvorgänge).
+     */
+    public int getNormaldauer() {
+        return this.kurveDauer[0];
+    }
+
+    /**
+     * Die erreichte Gesamtdauer, sie liegt über der Zieldauer, wenn diese nicht erreichbar ist.
+     */
+    public int getProjektdauer() {
+        return this.kurveDauer[this.anzahlPunkte - 1];
+    }
+
+    public boolean istZielErreicht() {
+        return this.getProjektdauer() <= this.zielDauer;
+    }
+
+    /**
+     * Die Gesamtkosten aller Verkürzungen.
+     */
+    public long getKosten() {
+        return this.kurveKosten[this.anzahlPunkte - 1];
+    }
+
+    /*
+     * Die Knickpunkte der Zeit-Kosten-Kurve (absteigende Gesamtdauer, zwischen zwei Punkten steigen die
+     * Kosten linear), der erste Punkt ist der unverkürzte Netzplan.
+     */
+
+    public int getAnzahlPunkte() {
+        return this.anzahlPunkte;
+    }
+
+    public int getPunktDauer(int punkt) {
+        return this.kurveDauer[punkt];
+    }
+
+    public long getPunktKosten(int punkt) {
+        return this.kurveKosten[punkt];
+    }
+
+    /**
+     * Anzahl der berechneten minimalen Schnitte.
+     */
+    public int getAnzahlSchnitte() {
+        return this.anzahlSchnitte;
+    }
+
+    /**
+     * Laufzeit der Optimierung in Nanosekunden.
+     */
+    public long getLaufzeit() {
+        return this.laufzeit;
+    }
+
+    @Override
+    public String toString() {
+        return "Gesamtdauer "+this.getNormaldauer()+" -> "+this.getProjektdauer()+
+               (this.zielDauer == 0 || this.istZielErreicht() ? "" : " (Ziel "+this.zielDauer+" nicht erreichbar)")+
+               ", Kosten "+this.getKosten()+" ("+this.anzahlSchnitte+" Schnitte, "+(this.anzahlPunkte - 1)+
+               " Schritte, berechnet in "+String.format(Locale.ROOT, "%.1f", this.laufzeit / 1e6)+" ms)";
+    }
+}